@@ -22,6 +22,11 @@ import com.vaadin.flow.component.page.Push;
 import com.vaadin.flow.component.page.TargetElement;
 import com.vaadin.flow.server.AppShellSettings;
 import com.vaadin.flow.server.PWA;
+import jm.kr.spring.ai.playground.service.chat.VersionedChatMemory;
+import jm.kr.spring.ai.playground.service.vectorstore.VectorStoreService;
+import jm.kr.spring.ai.playground.service.vectorstore.local.HnswVectorStore;
+import jm.kr.spring.ai.playground.service.vectorstore.local.QuantizationMode;
+import jm.kr.spring.ai.playground.service.vectorstore.local.ShardedVectorStore;
 import org.springframework.ai.chat.client.ChatClient;
 import org.springframework.ai.chat.client.advisor.MessageChatMemoryAdvisor;
 import org.springframework.ai.chat.client.advisor.SimpleLoggerAdvisor;
@@ -38,6 +43,7 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.annotation.Bean;
@@ -45,6 +51,7 @@ import org.springframework.context.annotation.Bean;
 import java.nio.file.Path;
 import java.util.Arrays;
 import java.util.Optional;
+import java.util.Set;
 import java.util.function.Predicate;
 
 @Push
@@ -95,8 +102,9 @@ public class SpringAiPlaygroundApplication implements AppShellConfigurator {
 
     @Bean
     @ConditionalOnMissingBean(ChatMemory.class)
-    public ChatMemory chatMemory(ChatMemoryRepository chatMemoryRepository) {
-        return MessageWindowChatMemory.builder().chatMemoryRepository(chatMemoryRepository).maxMessages(10).build();
+    public VersionedChatMemory chatMemory(ChatMemoryRepository chatMemoryRepository) {
+        return new VersionedChatMemory(
+                MessageWindowChatMemory.builder().chatMemoryRepository(chatMemoryRepository).maxMessages(10).build());
     }
 
     @Bean
@@ -105,6 +113,61 @@ public class SpringAiPlaygroundApplication implements AppShellConfigurator {
         return MessageChatMemoryAdvisor.builder(chatMemory).build();
     }
 
+    @Bean
+    @ConditionalOnMissingBean(VectorStore.class)
+    @ConditionalOnProperty(prefix = "spring.ai.playground.vector-store", name = "type", havingValue = "hnsw")
+    public HnswVectorStore hnswVectorStore(EmbeddingModel embeddingModel, SpringAiPlaygroundOptions playgroundOptions,
+            Path springAiPlaygroundHomeDir) {
+        Optional<SpringAiPlaygroundOptions.Hnsw> hnswOptions = getHnswOptions(playgroundOptions);
+        return hnswVectorStoreBuilder(embeddingModel, hnswOptions,
+                hnswOptions.filter(SpringAiPlaygroundApplication::isFileBacked)
+                        .map(hnsw -> springAiPlaygroundHomeDir.resolve("vectorstore").resolve("hnswVectorStore")
+                                .resolve("mmap")).orElse(null)).build();
+    }
+
+    @Bean
+    @ConditionalOnMissingBean(VectorStore.class)
+    @ConditionalOnProperty(prefix = "spring.ai.playground.vector-store", name = "type", havingValue = "sharded")
+    public ShardedVectorStore shardedVectorStore(EmbeddingModel embeddingModel,
+            SpringAiPlaygroundOptions playgroundOptions, Path springAiPlaygroundHomeDir) {
+        Optional<SpringAiPlaygroundOptions.Hnsw> hnswOptions = getHnswOptions(playgroundOptions);
+        return ShardedVectorStore.builder(embeddingModel)
+                .shardCount(hnswOptions.map(SpringAiPlaygroundOptions.Hnsw::shards)
+                        .orElse(ShardedVectorStore.DEFAULT_SHARD_COUNT))
+                .shardKey(VectorStoreService.DOC_INFO_ID)
+                .shardFactory(shard -> hnswVectorStoreBuilder(embeddingModel, hnswOptions,
+                        hnswOptions.filter(SpringAiPlaygroundApplication::isFileBacked)
+                                .map(hnsw -> springAiPlaygroundHomeDir.resolve("vectorstore")
+                                        .resolve("shardedVectorStore").resolve("mmap").resolve("shard-" + shard))
+                                .orElse(null)).build())
+                .build();
+    }
+
+    private static Optional<SpringAiPlaygroundOptions.Hnsw> getHnswOptions(
+            SpringAiPlaygroundOptions playgroundOptions) {
+        return Optional.ofNullable(playgroundOptions.vectorStore()).map(SpringAiPlaygroundOptions.VectorStore::hnsw);
+    }
+
+    // quantized stores keep only the codes resident, the full-precision vectors used for rescoring stay mapped
+    private static boolean isFileBacked(SpringAiPlaygroundOptions.Hnsw hnswOptions) {
+        return hnswOptions.mmap() || Optional.ofNullable(hnswOptions.quantization()).filter(
+                quantizationMode -> quantizationMode != QuantizationMode.NONE).isPresent();
+    }
+
+    private static HnswVectorStore.HnswVectorStoreBuilder hnswVectorStoreBuilder(EmbeddingModel embeddingModel,
+            Optional<SpringAiPlaygroundOptions.Hnsw> hnswOptions, Path storageDirectory) {
+        return HnswVectorStore.builder(embeddingModel)
+                .m(hnswOptions.map(SpringAiPlaygroundOptions.Hnsw::m).orElse(HnswVectorStore.DEFAULT_M))
+                .efConstruction(hnswOptions.map(SpringAiPlaygroundOptions.Hnsw::efConstruction)
+                        .orElse(HnswVectorStore.DEFAULT_EF_CONSTRUCTION))
+                .efSearch(hnswOptions.map(SpringAiPlaygroundOptions.Hnsw::efSearch)
+                        .orElse(HnswVectorStore.DEFAULT_EF_SEARCH))
+                .storageDirectory(storageDirectory)
+                .quantization(hnswOptions.map(SpringAiPlaygroundOptions.Hnsw::quantization)
+                        .orElse(QuantizationMode.NONE))
+                .indexedMetadataKeys(Set.of(VectorStoreService.DOC_INFO_ID));
+    }
+
     @Bean
     @ConditionalOnMissingBean(VectorStore.class)
     public SimpleVectorStore simpleVectorStore(EmbeddingModel embeddingModel) {
@@ -0,0 +1,73 @@
+/*
+ * Copyright © 2025 Jemin Huh (hjm1980@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jm.kr.spring.ai.playground;
+
+import jm.kr.spring.ai.playground.service.embedding.CachingEmbeddingModel;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.embedding.EmbeddingOptions;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Path;
+import java.util.Optional;
+
+@Configuration
+public class SpringAiPlaygroundEmbeddingCacheConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(SpringAiPlaygroundEmbeddingCacheConfig.class);
+
+    public static final String EMBEDDING_CACHE_DIR = "embedding-cache";
+
+    // The cache replaces the EmbeddingModel bean itself, so the bean is no longer an instance of the provider's
+    // concrete model class: inject EmbeddingModel and reach the original through CachingEmbeddingModel#getDelegate.
+    @Bean
+    public static BeanPostProcessor cachingEmbeddingModelPostProcessor(ApplicationContext applicationContext) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof EmbeddingModel embeddingModel) || bean instanceof CachingEmbeddingModel)
+                    return bean;
+                Optional<SpringAiPlaygroundOptions.EmbeddingCache> embeddingCacheOptions = Optional.ofNullable(
+                                applicationContext.getBean(SpringAiPlaygroundOptions.class).embeddingCache())
+                        .filter(SpringAiPlaygroundOptions.EmbeddingCache::enabled);
+                if (embeddingCacheOptions.isEmpty())
+                    return bean;
+                int maxEntries = embeddingCacheOptions.map(SpringAiPlaygroundOptions.EmbeddingCache::maxEntries)
+                        .orElse(CachingEmbeddingModel.DEFAULT_MAX_ENTRIES);
+                Path cacheDirectory = embeddingCacheOptions.filter(SpringAiPlaygroundOptions.EmbeddingCache::disk)
+                        .map(options -> applicationContext.getBean("springAiPlaygroundHomeDir", Path.class)
+                                .resolve(EMBEDDING_CACHE_DIR)).orElse(null);
+                int maxDiskEntries = embeddingCacheOptions.map(SpringAiPlaygroundOptions.EmbeddingCache::maxDiskEntries)
+                        .orElse(CachingEmbeddingModel.DEFAULT_MAX_DISK_ENTRIES);
+                logger.info("Caching embeddings of {} ({} is replaced by CachingEmbeddingModel): maxEntries={}, " +
+                                "cacheDirectory={}, maxDiskEntries={}", beanName, bean.getClass().getName(), maxEntries,
+                        cacheDirectory, maxDiskEntries);
+                return new CachingEmbeddingModel(embeddingModel, () -> getDefaultEmbeddingOptions(applicationContext),
+                        maxEntries, cacheDirectory, maxDiskEntries).registerMetrics();
+            }
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    private static EmbeddingOptions getDefaultEmbeddingOptions(ApplicationContext applicationContext) {
+        return ((Optional<EmbeddingOptions>) applicationContext.getBean("embeddingOptions", Optional.class))
+                .orElseGet(EmbeddingOptions.builder()::build);
+    }
+}
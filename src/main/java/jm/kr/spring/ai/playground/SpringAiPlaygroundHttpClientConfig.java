@@ -0,0 +1,179 @@
+/*
+ * Copyright © 2025 Jemin Huh (hjm1980@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jm.kr.spring.ai.playground;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Tags;
+import io.netty.channel.ChannelOption;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.web.client.RestClientCustomizer;
+import org.springframework.boot.web.reactive.function.client.WebClientCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.ReactorClientHttpRequestFactory;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionPoolMetrics;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.net.SocketAddress;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.ToDoubleFunction;
+import java.util.stream.Collectors;
+
+@Configuration
+public class SpringAiPlaygroundHttpClientConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(SpringAiPlaygroundHttpClientConfig.class);
+
+    public static final String CONNECTION_POOL_NAME = "spring-ai-playground";
+    public static final SpringAiPlaygroundOptions.HttpClient DEFAULT_HTTP_CLIENT_OPTIONS =
+            new SpringAiPlaygroundOptions.HttpClient(50, 500, Duration.ofSeconds(45), Duration.ofSeconds(60),
+                    Duration.ofMinutes(10), Duration.ofSeconds(10), Duration.ofMinutes(5), true);
+
+    public record ConnectionPoolStats(int acquired, int allocated, int idle, int pendingAcquire, int maxAllocated,
+                                      int maxPendingAcquire) {}
+
+    public static class ConnectionPoolMetricsRegistrar implements ConnectionProvider.MeterRegistrar {
+        private static final String METRIC_PREFIX = "spring.ai.playground.http.client.connections.";
+
+        private final Map<String, ConnectionPoolMetrics> remoteAddressMetrics = new ConcurrentHashMap<>();
+        private final Map<String, List<Meter>> remoteAddressMeters = new ConcurrentHashMap<>();
+
+        @Override
+        public void registerMetrics(String poolName, String id, SocketAddress remoteAddress,
+                ConnectionPoolMetrics metrics) {
+            String key = buildKey(poolName, remoteAddress);
+            logger.info("Registering HTTP connection pool metrics: {}", key);
+            this.remoteAddressMetrics.put(key, metrics);
+            Tags tags = Tags.of("pool", poolName, "remote.address", String.valueOf(remoteAddress));
+            this.remoteAddressMeters.put(key, List.of(
+                    gauge("active", metrics, ConnectionPoolMetrics::acquiredSize, tags),
+                    gauge("total", metrics, ConnectionPoolMetrics::allocatedSize, tags),
+                    gauge("idle", metrics, ConnectionPoolMetrics::idleSize, tags),
+                    gauge("pending", metrics, ConnectionPoolMetrics::pendingAcquireSize, tags),
+                    gauge("max", metrics, ConnectionPoolMetrics::maxAllocatedSize, tags)));
+        }
+
+        @Override
+        public void deRegisterMetrics(String poolName, String id, SocketAddress remoteAddress) {
+            String key = buildKey(poolName, remoteAddress);
+            this.remoteAddressMetrics.remove(key);
+            Optional.ofNullable(this.remoteAddressMeters.remove(key))
+                    .ifPresent(meters -> meters.forEach(Metrics.globalRegistry::remove));
+        }
+
+        private static Meter gauge(String name, ConnectionPoolMetrics metrics,
+                ToDoubleFunction<ConnectionPoolMetrics> valueFunction, Tags tags) {
+            return Gauge.builder(METRIC_PREFIX + name, metrics, valueFunction).tags(tags)
+                    .register(Metrics.globalRegistry);
+        }
+
+        private static String buildKey(String poolName, SocketAddress remoteAddress) {
+            return poolName + "|" + remoteAddress;
+        }
+
+        public Map<String, ConnectionPoolStats> getConnectionPoolStats() {
+            return this.remoteAddressMetrics.entrySet().stream().collect(Collectors.toUnmodifiableMap(
+                    Map.Entry::getKey, entry -> {
+                        ConnectionPoolMetrics metrics = entry.getValue();
+                        return new ConnectionPoolStats(metrics.acquiredSize(), metrics.allocatedSize(),
+                                metrics.idleSize(), metrics.pendingAcquireSize(), metrics.maxAllocatedSize(),
+                                metrics.maxPendingAcquireSize());
+                    }));
+        }
+    }
+
+    @Bean
+    public ConnectionPoolMetricsRegistrar connectionPoolMetricsRegistrar() {
+        return new ConnectionPoolMetricsRegistrar();
+    }
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider springAiPlaygroundConnectionProvider(SpringAiPlaygroundOptions playgroundOptions,
+            ConnectionPoolMetricsRegistrar connectionPoolMetricsRegistrar) {
+        SpringAiPlaygroundOptions.HttpClient httpClientOptions = getHttpClientOptions(playgroundOptions);
+        logger.info("Building shared HTTP connection pool: {}", httpClientOptions);
+        return ConnectionProvider.builder(CONNECTION_POOL_NAME)
+                .maxConnections(httpClientOptions.maxConnections())
+                .pendingAcquireMaxCount(httpClientOptions.pendingAcquireMaxCount())
+                .pendingAcquireTimeout(httpClientOptions.pendingAcquireTimeout())
+                .maxIdleTime(httpClientOptions.maxIdleTime())
+                .maxLifeTime(httpClientOptions.maxLifeTime())
+                .evictInBackground(httpClientOptions.maxIdleTime())
+                .lifo()
+                .metrics(true, () -> connectionPoolMetricsRegistrar)
+                .build();
+    }
+
+    @Bean
+    public RestClientCustomizer springAiPlaygroundRestClientCustomizer(SpringAiPlaygroundOptions playgroundOptions,
+            ConnectionProvider springAiPlaygroundConnectionProvider) {
+        ReactorClientHttpRequestFactory requestFactory = new ReactorClientHttpRequestFactory(
+                buildHttpClient(getHttpClientOptions(playgroundOptions), springAiPlaygroundConnectionProvider));
+        return restClientBuilder -> restClientBuilder.requestFactory(requestFactory);
+    }
+
+    @Bean
+    public WebClientCustomizer springAiPlaygroundWebClientCustomizer(SpringAiPlaygroundOptions playgroundOptions,
+            ConnectionProvider springAiPlaygroundConnectionProvider) {
+        ReactorClientHttpConnector clientHttpConnector = new ReactorClientHttpConnector(
+                buildHttpClient(getHttpClientOptions(playgroundOptions), springAiPlaygroundConnectionProvider));
+        return webClientBuilder -> webClientBuilder.clientConnector(clientHttpConnector);
+    }
+
+    private static HttpClient buildHttpClient(SpringAiPlaygroundOptions.HttpClient httpClientOptions,
+            ConnectionProvider connectionProvider) {
+        return HttpClient.create(connectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) httpClientOptions.connectTimeout().toMillis())
+                .option(ChannelOption.SO_KEEPALIVE, true)
+                .responseTimeout(httpClientOptions.readTimeout())
+                .keepAlive(true)
+                .protocol(httpClientOptions.http2() ? new HttpProtocol[]{HttpProtocol.H2, HttpProtocol.HTTP11} :
+                        new HttpProtocol[]{HttpProtocol.HTTP11});
+    }
+
+    static SpringAiPlaygroundOptions.HttpClient getHttpClientOptions(SpringAiPlaygroundOptions playgroundOptions) {
+        SpringAiPlaygroundOptions.HttpClient httpClientOptions = playgroundOptions.httpClient();
+        if (httpClientOptions == null)
+            return DEFAULT_HTTP_CLIENT_OPTIONS;
+        return new SpringAiPlaygroundOptions.HttpClient(
+                Optional.ofNullable(httpClientOptions.maxConnections())
+                        .orElse(DEFAULT_HTTP_CLIENT_OPTIONS.maxConnections()),
+                Optional.ofNullable(httpClientOptions.pendingAcquireMaxCount())
+                        .orElse(DEFAULT_HTTP_CLIENT_OPTIONS.pendingAcquireMaxCount()),
+                Optional.ofNullable(httpClientOptions.pendingAcquireTimeout())
+                        .orElse(DEFAULT_HTTP_CLIENT_OPTIONS.pendingAcquireTimeout()),
+                Optional.ofNullable(httpClientOptions.maxIdleTime())
+                        .orElse(DEFAULT_HTTP_CLIENT_OPTIONS.maxIdleTime()),
+                Optional.ofNullable(httpClientOptions.maxLifeTime())
+                        .orElse(DEFAULT_HTTP_CLIENT_OPTIONS.maxLifeTime()),
+                Optional.ofNullable(httpClientOptions.connectTimeout())
+                        .orElse(DEFAULT_HTTP_CLIENT_OPTIONS.connectTimeout()),
+                Optional.ofNullable(httpClientOptions.readTimeout())
+                        .orElse(DEFAULT_HTTP_CLIENT_OPTIONS.readTimeout()),
+                Optional.ofNullable(httpClientOptions.http2())
+                        .orElse(DEFAULT_HTTP_CLIENT_OPTIONS.http2()));
+    }
+}
@@ -15,16 +15,23 @@
  */
 package jm.kr.spring.ai.playground;
 
+import jm.kr.spring.ai.playground.service.vectorstore.local.QuantizationMode;
 import org.springframework.ai.chat.prompt.DefaultChatOptions;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.boot.context.properties.NestedConfigurationProperty;
+import org.springframework.util.unit.DataSize;
 
+import java.time.Duration;
 import java.util.List;
 import java.util.Set;
 
 @ConfigurationProperties(prefix = "spring.ai.playground")
 public record SpringAiPlaygroundOptions(@NestedConfigurationProperty ToolStudio toolStudio, boolean persistence,
-                                        String userHome, @NestedConfigurationProperty Chat chat) {
+                                        String userHome, @NestedConfigurationProperty Chat chat,
+                                        @NestedConfigurationProperty HttpClient httpClient,
+                                        @NestedConfigurationProperty VectorStore vectorStore,
+                                        @NestedConfigurationProperty EmbeddingCache embeddingCache,
+                                        @NestedConfigurationProperty Rag rag) {
 
     public record ToolStudio(Long timeoutSeconds, @NestedConfigurationProperty JsSandbox jsSandbox) {}
 
@@ -32,5 +39,25 @@ public record SpringAiPlaygroundOptions(@NestedConfigurationProperty ToolStudio
                             boolean allowCreateThread, Long maxStatements, Set<String> allowClasses) {}
 
     public record Chat(String systemPrompt, List<String> models,
-                       @NestedConfigurationProperty DefaultChatOptions chatOptions) {}
+                       @NestedConfigurationProperty DefaultChatOptions chatOptions, Duration streamTimeout) {}
+
+    public record HttpClient(Integer maxConnections, Integer pendingAcquireMaxCount, Duration pendingAcquireTimeout,
+                             Duration maxIdleTime, Duration maxLifeTime, Duration connectTimeout,
+                             Duration readTimeout, Boolean http2) {}
+
+    public record VectorStore(String type, @NestedConfigurationProperty Hnsw hnsw,
+                              @NestedConfigurationProperty Ingestion ingestion) {}
+
+    public record Ingestion(Integer batchSize, Integer parallelism, Integer maxAttempts, Duration initialBackoff,
+                            Duration maxBackoff, Integer maxRunningJobs, DataSize streamingThreshold) {}
+
+    public record EmbeddingCache(boolean enabled, Integer maxEntries, boolean disk, Integer maxDiskEntries) {}
+
+    public record Rag(Integer contextTokenBudget, @NestedConfigurationProperty QueryExpansion queryExpansion) {}
+
+    public record QueryExpansion(boolean enabled, String model, Integer numberOfQueries, Duration expansionTimeout,
+                                 Duration retrievalTimeout) {}
+
+    public record Hnsw(Integer m, Integer efConstruction, Integer efSearch, boolean mmap,
+                       QuantizationMode quantization, Integer shards) {}
 }
@@ -0,0 +1,188 @@
+/*
+ * Copyright © 2025 Jemin Huh (hjm1980@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jm.kr.spring.ai.playground.api;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jm.kr.spring.ai.playground.SpringAiPlaygroundOptions;
+import jm.kr.spring.ai.playground.service.chat.ChatHistory;
+import jm.kr.spring.ai.playground.service.chat.ChatHistoryArchiveService;
+import jm.kr.spring.ai.playground.service.chat.ChatHistoryArchiveService.ChatArchiveProgress;
+import jm.kr.spring.ai.playground.service.chat.ChatHistoryService;
+import jm.kr.spring.ai.playground.service.chat.ChatService;
+import jm.kr.spring.ai.playground.service.mcp.McpServerInfo;
+import jm.kr.spring.ai.playground.service.mcp.client.McpClientService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.ai.chat.prompt.ChatOptions;
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.ai.tool.ToolCallbackProvider;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+import static jm.kr.spring.ai.playground.service.PersistenceServiceInterface.OBJECT_MAPPER;
+
+@RestController
+@RequestMapping("/api/chat")
+public class ChatApiController {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChatApiController.class);
+
+    public static final String CONVERSATION_EVENT = "conversation";
+    public static final String CONTENT_EVENT = "content";
+    public static final String THINK_EVENT = "think";
+    public static final String MCP_TOOL_EVENT = "mcpTool";
+    public static final String ERROR_EVENT = "error";
+    public static final String DONE_EVENT = "done";
+    public static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+    public static final Duration DEFAULT_STREAM_TIMEOUT = Duration.ofMinutes(10);
+
+    public record ChatStreamRequest(String conversationId, String prompt, String systemPrompt,
+                                    List<String> docInfoIds, List<String> mcpServerNames) {}
+
+    private final ChatService chatService;
+    private final ChatHistoryService chatHistoryService;
+    private final McpClientService mcpClientService;
+    private final ChatHistoryArchiveService chatHistoryArchiveService;
+    private final Duration streamTimeout;
+
+    public ChatApiController(ChatService chatService, ChatHistoryService chatHistoryService,
+            McpClientService mcpClientService, ChatHistoryArchiveService chatHistoryArchiveService,
+            SpringAiPlaygroundOptions playgroundOptions) {
+        this.chatService = chatService;
+        this.chatHistoryService = chatHistoryService;
+        this.mcpClientService = mcpClientService;
+        this.chatHistoryArchiveService = chatHistoryArchiveService;
+        this.streamTimeout = Optional.ofNullable(playgroundOptions.chat())
+                .map(SpringAiPlaygroundOptions.Chat::streamTimeout).orElse(DEFAULT_STREAM_TIMEOUT);
+    }
+
+    @PostMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(@RequestBody ChatStreamRequest chatStreamRequest) {
+        if (Objects.isNull(chatStreamRequest.prompt()) || chatStreamRequest.prompt().isBlank())
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "prompt is required");
+        ChatHistory chatHistory = getOrCreateChatHistory(chatStreamRequest);
+        // The container's async timeout (30s on Tomcat) would cut off long answers, so the emitter sets its own;
+        // the generation is stopped whenever the emitter ends or a client that went away fails a send.
+        SseEmitter sseEmitter = new SseEmitter(this.streamTimeout.toMillis());
+        Disposable.Swap disposable = Disposables.swap();
+        sseEmitter.onTimeout(disposable::dispose);
+        sseEmitter.onError(throwable -> disposable.dispose());
+        sseEmitter.onCompletion(disposable::dispose);
+        send(sseEmitter, disposable, CONVERSATION_EVENT, chatHistory.conversationId());
+        disposable.update(this.chatService.stream(chatHistory, chatStreamRequest.prompt(),
+                        this.chatService.buildFilterExpression(
+                                Optional.ofNullable(chatStreamRequest.docInfoIds()).orElseGet(List::of)),
+                        this.chatHistoryService::updateChatHistory, buildToolCallbacks(chatStreamRequest),
+                        mcpToolProcessMessage -> send(sseEmitter, disposable, MCP_TOOL_EVENT, mcpToolProcessMessage),
+                        thinkProcessMessage -> send(sseEmitter, disposable, THINK_EVENT, thinkProcessMessage))
+                .subscribe(content -> send(sseEmitter, disposable, CONTENT_EVENT, content), throwable -> {
+                    logger.error("Chat stream failed. [conversationId={}]", chatHistory.conversationId(), throwable);
+                    send(sseEmitter, disposable, ERROR_EVENT, Optional.ofNullable(throwable.getMessage())
+                            .orElseGet(() -> throwable.getClass().getSimpleName()));
+                    sseEmitter.complete();
+                }, () -> {
+                    send(sseEmitter, disposable, DONE_EVENT, Map.of("conversationId", chatHistory.conversationId()));
+                    sseEmitter.complete();
+                }));
+        return sseEmitter;
+    }
+
+    @GetMapping("/archive")
+    public ResponseEntity<StreamingResponseBody> exportArchive(@RequestParam(defaultValue = "false") boolean gzip) {
+        String fileName = "chat-archive.ndjson" + (gzip ? ".gz" : "");
+        return ResponseEntity.ok()
+                .contentType(gzip ? MediaType.APPLICATION_OCTET_STREAM : NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename(fileName).build().toString())
+                .body(outputStream -> this.chatHistoryArchiveService.exportTo(outputStream, gzip));
+    }
+
+    // Streams one progress record per imported batch; the last record is the final total.
+    @PostMapping("/archive")
+    public ResponseEntity<StreamingResponseBody> importArchive(HttpServletRequest request) {
+        return ResponseEntity.ok().contentType(NDJSON).body(outputStream -> {
+            Writer writer = new OutputStreamWriter(outputStream, StandardCharsets.UTF_8);
+            this.chatHistoryArchiveService.importFrom(request.getInputStream(),
+                    chatArchiveProgress -> writeProgress(writer, chatArchiveProgress));
+        });
+    }
+
+    private static void writeProgress(Writer writer, ChatArchiveProgress chatArchiveProgress) {
+        try {
+            writer.write(OBJECT_MAPPER.writeValueAsString(chatArchiveProgress));
+            writer.write('\n');
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private ChatHistory getOrCreateChatHistory(ChatStreamRequest chatStreamRequest) {
+        if (Objects.nonNull(chatStreamRequest.conversationId()))
+            return Optional.ofNullable(this.chatHistoryService.getChatHistory(chatStreamRequest.conversationId()))
+                    .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND,
+                            "No chat history: " + chatStreamRequest.conversationId()));
+        ChatOptions chatOptions = this.chatService.getDefaultOptions();
+        return this.chatHistoryService.createChatHistory(Optional.ofNullable(chatStreamRequest.systemPrompt())
+                .orElseGet(this.chatService::getSystemPrompt), chatOptions);
+    }
+
+    private List<ToolCallback> buildToolCallbacks(ChatStreamRequest chatStreamRequest) {
+        List<String> mcpServerNames = Optional.ofNullable(chatStreamRequest.mcpServerNames()).orElseGet(List::of);
+        if (mcpServerNames.isEmpty())
+            return List.of();
+        List<McpServerInfo> mcpServerInfos = this.chatService.getLiveMcpServerInfos().stream()
+                .filter(mcpServerInfo -> mcpServerNames.contains(mcpServerInfo.serverName())).toList();
+        return mcpServerInfos.stream().map(this.mcpClientService::buildToolCallbackProviders).flatMap(List::stream)
+                .map(ToolCallbackProvider::getToolCallbacks).flatMap(Arrays::stream).toList();
+    }
+
+    private static void send(SseEmitter sseEmitter, Disposable disposable, String eventName, Object data) {
+        try {
+            sseEmitter.send(SseEmitter.event().name(eventName).data(data));
+        } catch (IOException | IllegalStateException e) {
+            logger.info("Stopping chat stream after failing to send {} event: {}", eventName, e.getMessage());
+            disposable.dispose();
+            sseEmitter.completeWithError(e);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+/*
+ * Copyright © 2025 Jemin Huh (hjm1980@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jm.kr.spring.ai.playground.api;
+
+import jm.kr.spring.ai.playground.SpringAiPlaygroundHttpClientConfig.ConnectionPoolMetricsRegistrar;
+import jm.kr.spring.ai.playground.SpringAiPlaygroundHttpClientConfig.ConnectionPoolStats;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/http-client")
+public class HttpClientApiController {
+
+    private final ConnectionPoolMetricsRegistrar connectionPoolMetricsRegistrar;
+
+    public HttpClientApiController(ConnectionPoolMetricsRegistrar connectionPoolMetricsRegistrar) {
+        this.connectionPoolMetricsRegistrar = connectionPoolMetricsRegistrar;
+    }
+
+    @GetMapping("/connections")
+    public Map<String, ConnectionPoolStats> getConnectionPoolStats() {
+        return this.connectionPoolMetricsRegistrar.getConnectionPoolStats();
+    }
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright © 2025 Jemin Huh (hjm1980@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jm.kr.spring.ai.playground.api;
+
+import jm.kr.spring.ai.playground.service.tool.JsToolExecutor.JsExecutionResult;
+import jm.kr.spring.ai.playground.service.tool.ToolSpec;
+import jm.kr.spring.ai.playground.service.tool.ToolSpecService;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+@RestController
+@RequestMapping("/api/tools")
+public class ToolApiController {
+
+    public record ToolInfo(String name, String description, List<ToolSpec.ToolParamSpec> params) {}
+
+    private final ToolSpecService toolSpecService;
+
+    public ToolApiController(ToolSpecService toolSpecService) {
+        this.toolSpecService = toolSpecService;
+    }
+
+    @GetMapping
+    public List<ToolInfo> getTools() {
+        return this.toolSpecService.getToolSpecList().stream()
+                .map(toolSpec -> new ToolInfo(toolSpec.name(), toolSpec.description(), toolSpec.params())).toList();
+    }
+
+    @PostMapping("/{toolName}/execute")
+    public JsExecutionResult execute(@PathVariable String toolName,
+            @RequestBody(required = false) Map<String, Object> toolParams) {
+        ToolSpec toolSpec = this.toolSpecService.getToolSpecAsOpt(toolName).orElseThrow(
+                () -> new ResponseStatusException(HttpStatus.NOT_FOUND, "No tool: " + toolName));
+        return this.toolSpecService.executeTool(toolSpec.name(), toolSpec.staticVariables(), toolSpec.code(),
+                Optional.ofNullable(toolParams).orElseGet(Map::of));
+    }
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright © 2025 Jemin Huh (hjm1980@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jm.kr.spring.ai.playground.api;
+
+import jm.kr.spring.ai.playground.service.chat.ChatService;
+import jm.kr.spring.ai.playground.service.vectorstore.VectorStoreService;
+import org.springframework.ai.document.Document;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+@RestController
+@RequestMapping("/api/vectorstore")
+public class VectorStoreApiController {
+
+    public record SearchResult(String id, String text, Double score, Map<String, Object> metadata) {}
+
+    private final VectorStoreService vectorStoreService;
+    private final ChatService chatService;
+
+    public VectorStoreApiController(VectorStoreService vectorStoreService, ChatService chatService) {
+        this.vectorStoreService = vectorStoreService;
+        this.chatService = chatService;
+    }
+
+    @GetMapping("/search")
+    public List<SearchResult> search(@RequestParam(required = false) String query,
+            @RequestParam(required = false) List<String> docInfoIds,
+            @RequestParam(required = false) String filterExpression) {
+        String searchFilterExpression = Optional.ofNullable(filterExpression).orElseGet(
+                () -> this.chatService.buildFilterExpression(Optional.ofNullable(docInfoIds).orElseGet(List::of)));
+        return this.vectorStoreService.search(query, searchFilterExpression).stream()
+                .map(VectorStoreApiController::toSearchResult).toList();
+    }
+
+    private static SearchResult toSearchResult(Document document) {
+        return new SearchResult(document.getId(), document.getText(), document.getScore(), document.getMetadata());
+    }
+}
@@ -0,0 +1,185 @@
+/*
+ * Copyright © 2025 Jemin Huh (hjm1980@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jm.kr.spring.ai.playground.service;
+
+import com.knuddels.jtokkit.Encodings;
+import com.knuddels.jtokkit.api.Encoding;
+import com.knuddels.jtokkit.api.EncodingType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.rag.Query;
+import org.springframework.ai.rag.postretrieval.document.DocumentPostProcessor;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static jm.kr.spring.ai.playground.service.vectorstore.VectorStoreService.DOC_INFO_ID;
+import static jm.kr.spring.ai.playground.service.vectorstore.VectorStoreService.getChunkIndex;
+
+public class ContextPackingDocumentPostProcessor implements DocumentPostProcessor {
+
+    private static final Logger logger = LoggerFactory.getLogger(ContextPackingDocumentPostProcessor.class);
+    private static final Encoding ENCODING =
+            Encodings.newLazyEncodingRegistry().getEncoding(EncodingType.CL100K_BASE);
+    private static final int MIN_OVERLAP_CHARS = 16;
+    private static final int MAX_OVERLAP_CHARS = 2000;
+
+    private record Chunk(int rank, Document document, String docInfoId, int index) {}
+
+    private record MergedChunk(int rank, Document document, String text, Double score) {}
+
+    private final int tokenBudget;
+
+    public ContextPackingDocumentPostProcessor(int tokenBudget) {
+        this.tokenBudget = tokenBudget;
+    }
+
+    @Override
+    public List<Document> process(Query query, List<Document> documents) {
+        if (this.tokenBudget <= 0 || documents.isEmpty())
+            return documents;
+        List<Document> packedDocuments = mergeAdjacentChunks(pack(deduplicate(documents)));
+        logger.debug("Packed {} retrieved documents into {} documents within {} tokens", documents.size(),
+                packedDocuments.size(), this.tokenBudget);
+        return packedDocuments;
+    }
+
+    // Documents arrive ranked, so a chunk whose text is already covered by a better ranked one is dropped, and a
+    // better ranked chunk covered by a later one is replaced in place.
+    static List<Document> deduplicate(List<Document> documents) {
+        List<Document> uniqueDocuments = new ArrayList<>();
+        List<String> uniqueTexts = new ArrayList<>();
+        for (Document document : documents) {
+            String text = normalize(document.getText());
+            if (text.isEmpty() || uniqueTexts.stream().anyMatch(uniqueText -> uniqueText.contains(text)))
+                continue;
+            int coveredIndex = -1;
+            for (int i = uniqueTexts.size() - 1; i >= 0; i--) {
+                if (!text.contains(uniqueTexts.get(i)))
+                    continue;
+                if (coveredIndex >= 0) {
+                    uniqueDocuments.remove(coveredIndex);
+                    uniqueTexts.remove(coveredIndex);
+                }
+                coveredIndex = i;
+            }
+            if (coveredIndex < 0) {
+                uniqueDocuments.add(document);
+                uniqueTexts.add(text);
+            } else {
+                uniqueDocuments.set(coveredIndex, document.mutate()
+                        .score(maxScore(uniqueDocuments.get(coveredIndex).getScore(), document.getScore())).build());
+                uniqueTexts.set(coveredIndex, text);
+            }
+        }
+        return uniqueDocuments;
+    }
+
+    // Greedy by rank: chunks that do not fit are skipped so that smaller lower ranked chunks can still use the
+    // remaining budget. The best chunk is truncated when it alone exceeds the budget.
+    private List<Document> pack(List<Document> documents) {
+        List<Document> packedDocuments = new ArrayList<>();
+        int remainingTokens = this.tokenBudget;
+        for (Document document : documents) {
+            int tokens = ENCODING.countTokens(document.getText());
+            if (tokens > remainingTokens)
+                continue;
+            packedDocuments.add(document);
+            remainingTokens -= tokens;
+        }
+        if (packedDocuments.isEmpty() && !documents.isEmpty()) {
+            Document document = documents.getFirst();
+            packedDocuments.add(document.mutate().text(ENCODING.decode(
+                    ENCODING.encode(document.getText(), this.tokenBudget).getTokens())).build());
+        }
+        return packedDocuments;
+    }
+
+    // Chunks of a document whose retrieved indexes repeat, e.g. ones left from an older update, are not trusted
+    // for adjacency and are kept as they are.
+    private static List<Document> mergeAdjacentChunks(List<Document> documents) {
+        List<MergedChunk> mergedChunks = new ArrayList<>();
+        List<Chunk> chunks = new ArrayList<>();
+        for (int rank = 0; rank < documents.size(); rank++) {
+            Document document = documents.get(rank);
+            String docInfoId = Optional.ofNullable(document.getMetadata().get(DOC_INFO_ID)).map(Object::toString)
+                    .orElse(null);
+            OptionalInt index = Objects.isNull(docInfoId) ? OptionalInt.empty() : getChunkIndex(document);
+            if (index.isPresent())
+                chunks.add(new Chunk(rank, document, docInfoId, index.getAsInt()));
+            else
+                mergedChunks.add(new MergedChunk(rank, document, document.getText(), document.getScore()));
+        }
+        Set<String> ambiguousDocInfoIds = chunks.stream().collect(Collectors.groupingBy(Chunk::docInfoId,
+                        Collectors.mapping(Chunk::index, Collectors.toList()))).entrySet().stream()
+                .filter(entry -> entry.getValue().size() != Set.copyOf(entry.getValue()).size())
+                .map(Map.Entry::getKey).collect(Collectors.toSet());
+        chunks.removeIf(chunk -> {
+            if (!ambiguousDocInfoIds.contains(chunk.docInfoId()))
+                return false;
+            mergedChunks.add(new MergedChunk(chunk.rank(), chunk.document(), chunk.document().getText(),
+                    chunk.document().getScore()));
+            return true;
+        });
+        chunks.sort(Comparator.comparing(Chunk::docInfoId).thenComparingInt(Chunk::index));
+        MergedChunk mergedChunk = null;
+        Chunk previousChunk = null;
+        for (Chunk chunk : chunks) {
+            if (Objects.nonNull(previousChunk) && previousChunk.docInfoId().equals(chunk.docInfoId()) &&
+                    previousChunk.index() + 1 == chunk.index()) {
+                mergedChunk = new MergedChunk(Math.min(mergedChunk.rank(), chunk.rank()), mergedChunk.document(),
+                        joinOverlapping(mergedChunk.text(), chunk.document().getText()),
+                        maxScore(mergedChunk.score(), chunk.document().getScore()));
+            } else {
+                if (Objects.nonNull(mergedChunk))
+                    mergedChunks.add(mergedChunk);
+                mergedChunk = new MergedChunk(chunk.rank(), chunk.document(), chunk.document().getText(),
+                        chunk.document().getScore());
+            }
+            previousChunk = chunk;
+        }
+        if (Objects.nonNull(mergedChunk))
+            mergedChunks.add(mergedChunk);
+        return mergedChunks.stream().sorted(Comparator.comparingInt(MergedChunk::rank))
+                .map(chunk -> chunk.text().equals(chunk.document().getText()) ? chunk.document() :
+                        chunk.document().mutate().text(chunk.text()).score(chunk.score()).build()).toList();
+    }
+
+    static String joinOverlapping(String text, String nextText) {
+        for (int length = Math.min(MAX_OVERLAP_CHARS, Math.min(text.length(), nextText.length()));
+             length >= MIN_OVERLAP_CHARS; length--) {
+            if (text.regionMatches(text.length() - length, nextText, 0, length))
+                return text + nextText.substring(length);
+        }
+        return text + "\n" + nextText;
+    }
+
+    private static String normalize(String text) {
+        return Objects.isNull(text) ? "" : text.strip().replaceAll("\\s+", " ");
+    }
+
+    private static Double maxScore(Double score, Double otherScore) {
+        return Objects.isNull(score) ? otherScore : Objects.isNull(otherScore) ? score : Math.max(score, otherScore);
+    }
+}
@@ -53,14 +53,19 @@ public interface PersistenceServiceInterface<T> {
         Path saveDir = getSaveDir();
         String simpleName = saveObject.getClass().getSimpleName();
         Files.createDirectories(saveDir);
-        Map<String, Object> saveObjectMap = OBJECT_MAPPER.convertValue(saveObject, MAP_TYPE_REFERENCE);
-        buildSaveData(saveObject, saveObjectMap);
+        Map<String, Object> saveObjectMap = buildSaveObjectMap(saveObject);
         File file = saveDir.resolve(buildFileName(saveObject)).toFile();
 
         getLogger().info("Saving {} to file: {}", simpleName, file.getAbsolutePath());
         OBJECT_MAPPER.writeValue(file, saveObjectMap);
     }
 
+    default Map<String, Object> buildSaveObjectMap(T saveObject) {
+        Map<String, Object> saveObjectMap = OBJECT_MAPPER.convertValue(saveObject, MAP_TYPE_REFERENCE);
+        buildSaveData(saveObject, saveObjectMap);
+        return saveObjectMap;
+    }
+
     private String buildFileName(T saveObject) {
         return buildSaveFileName(saveObject) + ".json";
     }
@@ -15,34 +15,392 @@
  */
 package jm.kr.spring.ai.playground.service;
 
+import jakarta.annotation.PreDestroy;
+import jm.kr.spring.ai.playground.SpringAiPlaygroundOptions;
 import jm.kr.spring.ai.playground.service.vectorstore.VectorStoreService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.ai.chat.client.ChatClient;
 import org.springframework.ai.chat.client.ChatClientRequest;
 import org.springframework.ai.chat.client.ChatClientResponse;
 import org.springframework.ai.chat.client.advisor.api.AdvisorChain;
 import org.springframework.ai.chat.client.advisor.api.BaseAdvisor;
+import org.springframework.ai.chat.prompt.ChatOptions;
 import org.springframework.ai.document.Document;
+import org.springframework.ai.rag.Query;
 import org.springframework.ai.rag.advisor.RetrievalAugmentationAdvisor;
+import org.springframework.ai.rag.preretrieval.query.expansion.MultiQueryExpander;
+import org.springframework.ai.rag.preretrieval.query.expansion.QueryExpander;
+import org.springframework.ai.vectorstore.filter.Filter;
+import org.springframework.ai.vectorstore.filter.FilterExpressionTextParser;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.core.Ordered;
 import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+import static jm.kr.spring.ai.playground.service.vectorstore.VectorStoreService.DOC_INFO_ID;
 
 import static jm.kr.spring.ai.playground.service.chat.ChatService.RAG_FILTER_EXPRESSION;
+import static org.springframework.ai.chat.memory.ChatMemory.CONVERSATION_ID;
 import static org.springframework.ai.rag.advisor.RetrievalAugmentationAdvisor.DOCUMENT_CONTEXT;
 
 @Service
 public class SpringAiPlaygroundRagAdvisor implements BaseAdvisor {
 
     private static final Logger logger = LoggerFactory.getLogger(SpringAiPlaygroundRagAdvisor.class);
+    private static final long SPECULATION_TTL_MILLIS = 60_000;
+    private static final long RETRIEVAL_CACHE_TTL_MILLIS = 10 * 60_000;
+    private static final int RETRIEVAL_CACHE_MAX_ENTRIES = 256;
+    public static final SpringAiPlaygroundOptions.QueryExpansion DEFAULT_QUERY_EXPANSION_OPTIONS =
+            new SpringAiPlaygroundOptions.QueryExpansion(false, null, 3, Duration.ofSeconds(2), Duration.ofSeconds(3));
+    public static final SpringAiPlaygroundOptions.Rag DEFAULT_RAG_OPTIONS =
+            new SpringAiPlaygroundOptions.Rag(3000, DEFAULT_QUERY_EXPANSION_OPTIONS);
+
+    private record RetrievalKey(String userPromptText, String filterExpression,
+                                VectorStoreService.SearchRequestOption searchRequestOption) {}
+
+    // A claimed speculation was taken by a search or cancelled; it stays registered only while its retrieval runs.
+    // pendingRetrievalKey is the latest prompt typed meanwhile, which is retrieved once the running one completes.
+    private record Speculation(RetrievalKey retrievalKey, CompletableFuture<List<Document>> documentsFuture,
+                               long cacheGeneration, long timestamp, boolean claimed,
+                               RetrievalKey pendingRetrievalKey) {
+        private boolean isExpired(long now) {
+            return now - timestamp > SPECULATION_TTL_MILLIS;
+        }
+
+        private boolean isRunning() {
+            return !documentsFuture.isDone();
+        }
+
+        private Speculation claim() {
+            return new Speculation(retrievalKey, documentsFuture, cacheGeneration, timestamp, true, null);
+        }
+
+        private Speculation withPendingRetrievalKey(RetrievalKey pendingRetrievalKey) {
+            return new Speculation(retrievalKey, documentsFuture, cacheGeneration, timestamp, claimed,
+                    pendingRetrievalKey);
+        }
+    }
+
+    // docInfoIds is null when the filter expression does not restrict the search to known documents.
+    private record RetrievalCacheEntry(List<Document> documents, Set<String> docInfoIds, Set<String> documentIds,
+                                       long timestamp) {
+        private boolean isExpired(long now) {
+            return now - timestamp > RETRIEVAL_CACHE_TTL_MILLIS;
+        }
+
+        private boolean isAffectedBy(VectorStoreService.DocumentChange documentChange) {
+            return !Collections.disjoint(documentIds, documentChange.documentIds()) ||
+                    !documentChange.docInfoIds().isEmpty() &&
+                            (Objects.isNull(docInfoIds) || !Collections.disjoint(docInfoIds,
+                                    documentChange.docInfoIds()));
+        }
+    }
 
     private final VectorStoreService vectorStoreService;
+    private final Map<String, Speculation> conversationIdSpeculationMap;
+    private final ExecutorService retrievalExecutor;
+    private final Map<RetrievalKey, RetrievalCacheEntry> retrievalCache;
+    private final AtomicLong retrievalCacheGeneration;
+    private final ContextPackingDocumentPostProcessor contextPackingDocumentPostProcessor;
+    private final SpringAiPlaygroundOptions.QueryExpansion queryExpansionOptions;
+    private final QueryExpander queryExpander;
 
-    public SpringAiPlaygroundRagAdvisor(VectorStoreService vectorStoreService) {
+    public SpringAiPlaygroundRagAdvisor(VectorStoreService vectorStoreService,
+            SpringAiPlaygroundOptions playgroundOptions, ObjectProvider<ChatClient.Builder> chatClientBuilderProvider) {
         this.vectorStoreService = vectorStoreService;
+        this.conversationIdSpeculationMap = new ConcurrentHashMap<>();
+        this.retrievalExecutor = Executors.newVirtualThreadPerTaskExecutor();
+        this.retrievalCache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<RetrievalKey, RetrievalCacheEntry> eldest) {
+                return size() > RETRIEVAL_CACHE_MAX_ENTRIES;
+            }
+        };
+        this.retrievalCacheGeneration = new AtomicLong();
+        vectorStoreService.addDocumentChangeListener(this::invalidateRetrievalCache);
+        SpringAiPlaygroundOptions.Rag ragOptions = getRagOptions(playgroundOptions);
+        this.contextPackingDocumentPostProcessor =
+                new ContextPackingDocumentPostProcessor(ragOptions.contextTokenBudget());
+        this.queryExpansionOptions = ragOptions.queryExpansion();
+        this.queryExpander = Optional.of(this.queryExpansionOptions)
+                .filter(SpringAiPlaygroundOptions.QueryExpansion::enabled)
+                .flatMap(queryExpansionOptions -> Optional.ofNullable(chatClientBuilderProvider.getIfAvailable())
+                        .map(chatClientBuilder -> buildQueryExpander(chatClientBuilder, queryExpansionOptions)))
+                .orElse(null);
+    }
+
+    static SpringAiPlaygroundOptions.Rag getRagOptions(SpringAiPlaygroundOptions playgroundOptions) {
+        Optional<SpringAiPlaygroundOptions.Rag> ragOptions = Optional.ofNullable(playgroundOptions.rag());
+        Optional<SpringAiPlaygroundOptions.QueryExpansion> queryExpansionOptions =
+                ragOptions.map(SpringAiPlaygroundOptions.Rag::queryExpansion);
+        return new SpringAiPlaygroundOptions.Rag(
+                ragOptions.map(SpringAiPlaygroundOptions.Rag::contextTokenBudget)
+                        .orElse(DEFAULT_RAG_OPTIONS.contextTokenBudget()),
+                new SpringAiPlaygroundOptions.QueryExpansion(
+                        queryExpansionOptions.map(SpringAiPlaygroundOptions.QueryExpansion::enabled).orElse(false),
+                        queryExpansionOptions.map(SpringAiPlaygroundOptions.QueryExpansion::model)
+                                .filter(StringUtils::hasText).orElse(DEFAULT_QUERY_EXPANSION_OPTIONS.model()),
+                        queryExpansionOptions.map(SpringAiPlaygroundOptions.QueryExpansion::numberOfQueries)
+                                .filter(count -> count > 0).orElse(DEFAULT_QUERY_EXPANSION_OPTIONS.numberOfQueries()),
+                        queryExpansionOptions.map(SpringAiPlaygroundOptions.QueryExpansion::expansionTimeout)
+                                .orElse(DEFAULT_QUERY_EXPANSION_OPTIONS.expansionTimeout()),
+                        queryExpansionOptions.map(SpringAiPlaygroundOptions.QueryExpansion::retrievalTimeout)
+                                .orElse(DEFAULT_QUERY_EXPANSION_OPTIONS.retrievalTimeout())));
+    }
+
+    private static QueryExpander buildQueryExpander(ChatClient.Builder chatClientBuilder,
+            SpringAiPlaygroundOptions.QueryExpansion queryExpansionOptions) {
+        if (StringUtils.hasText(queryExpansionOptions.model()))
+            chatClientBuilder.defaultOptions(ChatOptions.builder().model(queryExpansionOptions.model()).build());
+        return MultiQueryExpander.builder().chatClientBuilder(chatClientBuilder).includeOriginal(false)
+                .numberOfQueries(queryExpansionOptions.numberOfQueries()).build();
+    }
+
+    // At most one speculative retrieval runs per conversation. A prompt typed while it runs replaces only the
+    // pending prompt, so fast typing never piles up embedding calls; the latest one starts when the running one ends.
+    public void speculate(String conversationId, String userPromptText, String filterExpression) {
+        if (Objects.isNull(conversationId) || Objects.isNull(userPromptText) || userPromptText.isBlank() ||
+                Objects.isNull(filterExpression) || filterExpression.isBlank())
+            return;
+        long now = System.currentTimeMillis();
+        this.conversationIdSpeculationMap.values()
+                .removeIf(speculation -> !speculation.isRunning() && speculation.isExpired(now));
+        RetrievalKey retrievalKey = buildRetrievalKey(userPromptText, filterExpression);
+        if (getCachedDocuments(retrievalKey).isPresent())
+            return;
+        this.conversationIdSpeculationMap.compute(conversationId, (key, speculation) -> {
+            if (Objects.isNull(speculation))
+                return startSpeculation(conversationId, retrievalKey);
+            if (!speculation.claimed() && speculation.retrievalKey().equals(retrievalKey))
+                return speculation.withPendingRetrievalKey(null);
+            if (speculation.isRunning())
+                return speculation.withPendingRetrievalKey(retrievalKey);
+            return startSpeculation(conversationId, retrievalKey);
+        });
+    }
+
+    public void cancelSpeculation(String conversationId) {
+        claimSpeculation(conversationId);
+    }
+
+    private Speculation startSpeculation(String conversationId, RetrievalKey retrievalKey) {
+        CompletableFuture<List<Document>> documentsFuture = CompletableFuture.supplyAsync(
+                () -> this.vectorStoreService.search(retrievalKey.userPromptText(), retrievalKey.filterExpression()),
+                this.retrievalExecutor);
+        documentsFuture.whenCompleteAsync((documents, throwable) -> onSpeculationCompleted(conversationId,
+                documentsFuture), this.retrievalExecutor);
+        logger.debug("Speculative document retrieval started. [conversationId={}]", conversationId);
+        return new Speculation(retrievalKey, documentsFuture, this.retrievalCacheGeneration.get(),
+                System.currentTimeMillis(), false, null);
+    }
+
+    private void onSpeculationCompleted(String conversationId, CompletableFuture<List<Document>> documentsFuture) {
+        this.conversationIdSpeculationMap.computeIfPresent(conversationId, (key, speculation) -> {
+            if (speculation.documentsFuture() != documentsFuture)
+                return speculation;
+            if (Objects.nonNull(speculation.pendingRetrievalKey()))
+                return getCachedDocuments(speculation.pendingRetrievalKey()).isPresent() ? null :
+                        startSpeculation(conversationId, speculation.pendingRetrievalKey());
+            return speculation.claimed() ? null : speculation;
+        });
+    }
+
+    // The claimed speculation stays registered while it runs, so no new one starts until it completes.
+    private Optional<Speculation> claimSpeculation(String conversationId) {
+        AtomicReference<Speculation> claimedSpeculation = new AtomicReference<>();
+        this.conversationIdSpeculationMap.computeIfPresent(conversationId, (key, speculation) -> {
+            if (speculation.claimed())
+                return speculation.withPendingRetrievalKey(null);
+            claimedSpeculation.set(speculation);
+            return speculation.isRunning() ? speculation.claim() : null;
+        });
+        return Optional.ofNullable(claimedSpeculation.get());
+    }
+
+    private RetrievalKey buildRetrievalKey(String userPromptText, String filterExpression) {
+        return new RetrievalKey(userPromptText.strip().replaceAll("\\s+", " "), filterExpression,
+                this.vectorStoreService.getSearchRequestOption());
+    }
+
+    private List<Document> search(Object conversationId, String userPromptText, String filterExpression) {
+        RetrievalKey retrievalKey = buildRetrievalKey(userPromptText, filterExpression);
+        Optional<Speculation> speculation = Optional.ofNullable(conversationId).map(Object::toString)
+                .flatMap(this::claimSpeculation);
+        Optional<List<Document>> cachedDocuments = getCachedDocuments(retrievalKey);
+        if (cachedDocuments.isPresent()) {
+            logger.debug("Cached document retrieval reused. [conversationId={}]", conversationId);
+            return cachedDocuments.get();
+        }
+        long cacheGeneration = this.retrievalCacheGeneration.get();
+        List<Document> documents = speculation
+                .filter(oldSpeculation -> !oldSpeculation.isExpired(System.currentTimeMillis()) &&
+                        oldSpeculation.retrievalKey().equals(retrievalKey) &&
+                        oldSpeculation.cacheGeneration() == cacheGeneration)
+                .map(Speculation::documentsFuture)
+                .filter(documentsFuture -> !documentsFuture.isCompletedExceptionally())
+                .map(documentsFuture -> {
+                    logger.debug("Speculative document retrieval reused. [conversationId={}]", conversationId);
+                    return documentsFuture.exceptionally(throwable -> {
+                        logger.warn("Speculative document retrieval failed. [conversationId={}]", conversationId,
+                                throwable);
+                        return this.vectorStoreService.search(retrievalKey.userPromptText(), filterExpression);
+                    }).join();
+                }).orElseGet(() -> this.vectorStoreService.search(retrievalKey.userPromptText(), filterExpression));
+        putCachedDocuments(retrievalKey, cacheGeneration, documents);
+        return documents;
+    }
+
+    // The original query is retrieved while the rewrites are being generated. Each stage has its own latency
+    // budget: a slow expansion falls back to the original results, and rewrites that miss the retrieval budget
+    // are left out of the fusion.
+    private List<Document> retrieve(Object conversationId, Query query, String filterExpression) {
+        if (Objects.isNull(this.queryExpander) || !StringUtils.hasText(query.text()))
+            return search(conversationId, query.text(), filterExpression);
+        CompletableFuture<List<Document>> documentsFuture = CompletableFuture.supplyAsync(
+                () -> search(conversationId, query.text(), filterExpression), this.retrievalExecutor);
+        List<Query> expandedQueries;
+        try {
+            expandedQueries = CompletableFuture.supplyAsync(() -> this.queryExpander.expand(query),
+                    this.retrievalExecutor).get(this.queryExpansionOptions.expansionTimeout().toMillis(),
+                    TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return documentsFuture.join();
+        } catch (ExecutionException | TimeoutException e) {
+            logger.debug("Query expansion skipped, using single query retrieval. [conversationId={}]",
+                    conversationId, e);
+            return documentsFuture.join();
+        }
+        long retrievalDeadline = System.nanoTime() + this.queryExpansionOptions.retrievalTimeout().toNanos();
+        String normalizedQueryText = buildRetrievalKey(query.text(), filterExpression).userPromptText();
+        List<CompletableFuture<List<Document>>> expandedDocumentsFutures = expandedQueries.stream().map(Query::text)
+                .filter(StringUtils::hasText).distinct().filter(text -> !normalizedQueryText.equals(
+                        buildRetrievalKey(text, filterExpression).userPromptText()))
+                .map(text -> CompletableFuture.supplyAsync(() -> search(null, text, filterExpression),
+                        this.retrievalExecutor)).toList();
+        List<List<Document>> rankedDocumentLists = new ArrayList<>();
+        rankedDocumentLists.add(documentsFuture.join());
+        try {
+            CompletableFuture.allOf(expandedDocumentsFutures.toArray(CompletableFuture[]::new))
+                    .get(Math.max(0, retrievalDeadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException e) {
+            logger.debug("Some expanded query retrievals were dropped. [conversationId={}]", conversationId, e);
+        }
+        expandedDocumentsFutures.stream()
+                .filter(expandedDocumentsFuture -> expandedDocumentsFuture.isDone() &&
+                        !expandedDocumentsFuture.isCompletedExceptionally())
+                .map(CompletableFuture::join).forEach(rankedDocumentLists::add);
+        expandedDocumentsFutures.forEach(expandedDocumentsFuture -> expandedDocumentsFuture.cancel(false));
+        logger.debug("Fused {} of {} query retrievals. [conversationId={}]", rankedDocumentLists.size(),
+                expandedDocumentsFutures.size() + 1, conversationId);
+        return VectorStoreService.fuseByReciprocalRank(rankedDocumentLists,
+                this.vectorStoreService.getSearchRequestOption().topK());
+    }
+
+    private Optional<List<Document>> getCachedDocuments(RetrievalKey retrievalKey) {
+        synchronized (this.retrievalCache) {
+            RetrievalCacheEntry retrievalCacheEntry = this.retrievalCache.get(retrievalKey);
+            if (Objects.isNull(retrievalCacheEntry))
+                return Optional.empty();
+            if (retrievalCacheEntry.isExpired(System.currentTimeMillis())) {
+                this.retrievalCache.remove(retrievalKey);
+                return Optional.empty();
+            }
+            return Optional.of(retrievalCacheEntry.documents());
+        }
+    }
+
+    // A result computed while the vector store changed may already be stale, so it is only cached when no
+    // invalidation happened since the search started.
+    private void putCachedDocuments(RetrievalKey retrievalKey, long cacheGeneration, List<Document> documents) {
+        RetrievalCacheEntry retrievalCacheEntry = new RetrievalCacheEntry(List.copyOf(documents),
+                parseDocInfoIds(retrievalKey.filterExpression()),
+                documents.stream().map(Document::getId).collect(Collectors.toUnmodifiableSet()),
+                System.currentTimeMillis());
+        synchronized (this.retrievalCache) {
+            if (this.retrievalCacheGeneration.get() == cacheGeneration)
+                this.retrievalCache.put(retrievalKey, retrievalCacheEntry);
+        }
+    }
+
+    private void invalidateRetrievalCache(VectorStoreService.DocumentChange documentChange) {
+        synchronized (this.retrievalCache) {
+            this.retrievalCacheGeneration.incrementAndGet();
+            this.retrievalCache.values()
+                    .removeIf(retrievalCacheEntry -> retrievalCacheEntry.isAffectedBy(documentChange));
+        }
+    }
+
+    static Set<String> parseDocInfoIds(String filterExpression) {
+        try {
+            return findDocInfoIds(new FilterExpressionTextParser().parse(filterExpression)).orElse(null);
+        } catch (RuntimeException e) {
+            logger.debug("Filter expression could not be parsed for the retrieval cache: {}", filterExpression, e);
+            return null;
+        }
+    }
+
+    private static Optional<Set<String>> findDocInfoIds(Filter.Operand operand) {
+        if (operand instanceof Filter.Group group)
+            return findDocInfoIds(group.content());
+        if (!(operand instanceof Filter.Expression expression))
+            return Optional.empty();
+        return switch (expression.type()) {
+            case EQ, IN -> expression.left() instanceof Filter.Key key && DOC_INFO_ID.equals(key.key()) &&
+                    expression.right() instanceof Filter.Value value ? Optional.of(toStringSet(value.value())) :
+                    Optional.empty();
+            case AND -> {
+                Optional<Set<String>> right = findDocInfoIds(expression.right());
+                yield findDocInfoIds(expression.left()).map(left -> right.map(rightDocInfoIds -> {
+                    Set<String> docInfoIds = new HashSet<>(left);
+                    docInfoIds.retainAll(rightDocInfoIds);
+                    return Set.copyOf(docInfoIds);
+                }).orElse(left)).or(() -> right);
+            }
+            case OR -> findDocInfoIds(expression.left()).flatMap(left -> findDocInfoIds(expression.right())
+                    .map(right -> {
+                        Set<String> docInfoIds = new HashSet<>(left);
+                        docInfoIds.addAll(right);
+                        return Set.copyOf(docInfoIds);
+                    }));
+            default -> Optional.empty();
+        };
+    }
+
+    private static Set<String> toStringSet(Object value) {
+        return value instanceof Collection<?> values ?
+                values.stream().map(String::valueOf).collect(Collectors.toUnmodifiableSet()) :
+                Set.of(String.valueOf(value));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        this.retrievalExecutor.shutdownNow();
     }
 
     @Override
@@ -75,8 +433,10 @@ public class SpringAiPlaygroundRagAdvisor implements BaseAdvisor {
     }
 
     private RetrievalAugmentationAdvisor buildRetrievalAugmentationAdvisor(ChatClientRequest chatClientRequest) {
-        return RetrievalAugmentationAdvisor.builder().documentRetriever(query -> vectorStoreService.search(query.text(),
-                chatClientRequest.context().get(RAG_FILTER_EXPRESSION).toString())).build();
+        return RetrievalAugmentationAdvisor.builder().documentRetriever(
+                query -> retrieve(chatClientRequest.context().get(CONVERSATION_ID), query,
+                        chatClientRequest.context().get(RAG_FILTER_EXPRESSION).toString()))
+                .documentPostProcessors(this.contextPackingDocumentPostProcessor).build();
     }
 
     private static void printSearchResults(List<Document> results) {
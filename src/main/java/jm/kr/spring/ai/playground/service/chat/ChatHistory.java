@@ -34,8 +34,14 @@ public record ChatHistory(String conversationId, String title, long createTimest
                 this.chatOptions, this.messagesSupplier);
     }
 
+    public ChatMessageLog.Snapshot messagesSnapshot() {
+        return this.messagesSupplier instanceof ChatMessageLog.SnapshotSupplier snapshotSupplier ?
+                snapshotSupplier.getSnapshot() : ChatMessageLog.snapshotOf(this.messagesSupplier.get());
+    }
+
+    // Only the messages appended since the last update are visited.
     public void updateLastMessageTimestamp(long updateTimestamp) {
-        List<Message> messages = messagesSupplier.get();
+        List<Message> messages = messagesSnapshot().messages();
         for (int i = messages.size() - 1; i >= 0; i--) {
             Map<String, Object> metadata = messages.get(i).getMetadata();
             if (metadata.containsKey(TIMESTAMP))
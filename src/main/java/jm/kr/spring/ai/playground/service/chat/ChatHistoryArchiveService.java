@@ -0,0 +1,154 @@
+/*
+ * Copyright © 2025 Jemin Huh (hjm1980@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jm.kr.spring.ai.playground.service.chat;
+
+import jm.kr.spring.ai.playground.SpringAiPlaygroundOptions;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import static jm.kr.spring.ai.playground.service.PersistenceServiceInterface.MAP_TYPE_REFERENCE;
+import static jm.kr.spring.ai.playground.service.PersistenceServiceInterface.OBJECT_MAPPER;
+
+@Service
+public class ChatHistoryArchiveService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChatHistoryArchiveService.class);
+    private static final int BATCH_SIZE = 500;
+
+    public record ChatArchiveProgress(long processed, long skipped, long failed) {
+        private ChatArchiveProgress add(long processed, long skipped, long failed) {
+            return new ChatArchiveProgress(this.processed + processed, this.skipped + skipped, this.failed + failed);
+        }
+    }
+
+    private final ChatHistoryService chatHistoryService;
+    private final ChatHistoryPersistenceService chatHistoryPersistenceService;
+    private final boolean persistence;
+
+    public ChatHistoryArchiveService(ChatHistoryService chatHistoryService,
+            ChatHistoryPersistenceService chatHistoryPersistenceService, SpringAiPlaygroundOptions playgroundOptions) {
+        this.chatHistoryService = chatHistoryService;
+        this.chatHistoryPersistenceService = chatHistoryPersistenceService;
+        this.persistence = playgroundOptions.persistence();
+    }
+
+    public ChatArchiveProgress exportTo(OutputStream outputStream, boolean gzip) throws IOException {
+        OutputStream archiveOutputStream = gzip ? new GZIPOutputStream(outputStream, 64 * 1024) : outputStream;
+        Writer writer = new BufferedWriter(new OutputStreamWriter(archiveOutputStream, StandardCharsets.UTF_8));
+        ChatArchiveProgress chatArchiveProgress = new ChatArchiveProgress(0, 0, 0);
+        int batchCount = 0;
+        for (ChatHistory chatHistory : this.chatHistoryService.getChatHistoryList()) {
+            writer.write(OBJECT_MAPPER.writeValueAsString(
+                    this.chatHistoryPersistenceService.buildSaveObjectMap(chatHistory)));
+            writer.write('\n');
+            if (++batchCount == BATCH_SIZE) {
+                writer.flush();
+                chatArchiveProgress = reportProgress(chatArchiveProgress.add(batchCount, 0, 0));
+                batchCount = 0;
+            }
+        }
+        writer.flush();
+        if (archiveOutputStream instanceof GZIPOutputStream gzipOutputStream)
+            gzipOutputStream.finish();
+        return reportProgress(chatArchiveProgress.add(batchCount, 0, 0));
+    }
+
+    public ChatArchiveProgress importFrom(InputStream inputStream, Consumer<ChatArchiveProgress> progressConsumer)
+            throws IOException {
+        BufferedReader reader =
+                new BufferedReader(new InputStreamReader(decodeIfGzip(inputStream), StandardCharsets.UTF_8));
+        ChatArchiveProgress chatArchiveProgress = new ChatArchiveProgress(0, 0, 0);
+        List<ChatHistory> batch = new ArrayList<>(BATCH_SIZE);
+        long failed = 0;
+        long lineNumber = 0;
+        String line;
+        while (Objects.nonNull(line = reader.readLine())) {
+            lineNumber++;
+            if (line.isBlank())
+                continue;
+            try {
+                Map<String, Object> saveObjectMap = OBJECT_MAPPER.readValue(line, MAP_TYPE_REFERENCE);
+                batch.add(this.chatHistoryPersistenceService.convertTo(saveObjectMap));
+            } catch (Exception e) {
+                logger.warn("Skipping invalid chat archive line {}: {}", lineNumber, e.getMessage());
+                failed++;
+            }
+            if (batch.size() + failed >= BATCH_SIZE) {
+                chatArchiveProgress = reportProgress(writeBatch(batch, chatArchiveProgress, failed),
+                        progressConsumer);
+                batch.clear();
+                failed = 0;
+            }
+        }
+        return reportProgress(writeBatch(batch, chatArchiveProgress, failed), progressConsumer);
+    }
+
+    private ChatArchiveProgress writeBatch(List<ChatHistory> batch, ChatArchiveProgress chatArchiveProgress,
+            long failed) {
+        List<ChatHistory> addedChatHistories = this.chatHistoryService.putIfAbsentChatHistories(batch);
+        if (this.persistence) {
+            for (ChatHistory chatHistory : addedChatHistories) {
+                try {
+                    this.chatHistoryPersistenceService.save(chatHistory);
+                } catch (IOException e) {
+                    logger.error("Failed to save imported chat history: {}", chatHistory.conversationId(), e);
+                }
+            }
+        }
+        return chatArchiveProgress.add(batch.size() + failed, batch.size() - addedChatHistories.size(), failed);
+    }
+
+    private static ChatArchiveProgress reportProgress(ChatArchiveProgress chatArchiveProgress) {
+        return reportProgress(chatArchiveProgress, null);
+    }
+
+    private static ChatArchiveProgress reportProgress(ChatArchiveProgress chatArchiveProgress,
+            Consumer<ChatArchiveProgress> progressConsumer) {
+        logger.info("Chat archive progress: {}", chatArchiveProgress);
+        if (Objects.nonNull(progressConsumer))
+            progressConsumer.accept(chatArchiveProgress);
+        return chatArchiveProgress;
+    }
+
+    private static InputStream decodeIfGzip(InputStream inputStream) throws IOException {
+        BufferedInputStream bufferedInputStream = new BufferedInputStream(inputStream, 64 * 1024);
+        bufferedInputStream.mark(2);
+        int first = bufferedInputStream.read();
+        int second = bufferedInputStream.read();
+        bufferedInputStream.reset();
+        return first == 0x1f && second == 0x8b ? new GZIPInputStream(bufferedInputStream, 64 * 1024) :
+                bufferedInputStream;
+    }
+}
@@ -81,9 +81,10 @@ public class ChatHistoryPersistenceService implements PersistenceServiceInterfac
         String systemPrompt = saveObjectMap.computeIfAbsent("systemPrompt", s -> "").toString();
         DefaultChatOptions chatOptions =
                 OBJECT_MAPPER.convertValue(saveObjectMap.get("chatOptions"), DefaultChatOptions.class);
-        List<Map<String, Object>> messageMapList = (List<Map<String, Object>>) saveObjectMap.get(MESSAGE_LIST);
+        List<Message> messageList = ((List<Map<String, Object>>) saveObjectMap.get(MESSAGE_LIST)).stream()
+                .map(this::convertToMessage).toList();
         return new ChatHistory(conversationId, title, createTimestamp, updateTimestamp, systemPrompt, chatOptions,
-                () -> messageMapList.stream().map(this::convertToMessage).toList());
+                () -> messageList);
     }
 
     private Message convertToMessage(Map<String, Object> saveObjectMap) {
@@ -28,9 +28,10 @@ import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
-import java.util.Optional;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
 
 @Service
 public class ChatHistoryService {
@@ -75,8 +76,10 @@ public class ChatHistoryService {
                 .sorted(Comparator.comparingLong(ChatHistory::updateTimestamp).reversed()).toList();
     }
 
-    private List<Message> getMessages(String conversationId) {
-        return Optional.ofNullable(this.chatMemory.get(conversationId)).orElseGet(ArrayList::new);
+    private Supplier<List<Message>> newMessagesSupplier(String conversationId) {
+        if (this.chatMemory instanceof VersionedChatMemory versionedChatMemory)
+            return (ChatMessageLog.SnapshotSupplier) () -> versionedChatMemory.getSnapshot(conversationId);
+        return () -> this.chatMemory.get(conversationId);
     }
 
     public void deleteChatHistory(ChatHistory chatHistory) {
@@ -95,14 +98,32 @@ public class ChatHistoryService {
                         .temperature(chatOptions.getTemperature())
                         .topK(chatOptions.getTopK()).topP(chatOptions.getTopP()).build();
         return new ChatHistory(conversationId, null, timestamp, timestamp, systemPrompt, defaultChatOptions,
-                () -> getMessages(conversationId));
+                newMessagesSupplier(conversationId));
     }
 
-    public void putIfAbsentChatHistory(ChatHistory chatHistory) {
+    public boolean putIfAbsentChatHistory(ChatHistory chatHistory) {
+        return Objects.nonNull(addIfAbsent(chatHistory));
+    }
+
+    public List<ChatHistory> putIfAbsentChatHistories(List<ChatHistory> chatHistories) {
+        List<ChatHistory> addedChatHistories = new ArrayList<>(chatHistories.size());
+        for (ChatHistory chatHistory : chatHistories) {
+            ChatHistory addedChatHistory = addIfAbsent(chatHistory);
+            if (Objects.nonNull(addedChatHistory))
+                addedChatHistories.add(addedChatHistory);
+        }
+        return addedChatHistories;
+    }
+
+    // Returns the stored history only when this call inserted it, so a concurrent insert is never reported twice.
+    private ChatHistory addIfAbsent(ChatHistory chatHistory) {
+        AtomicReference<ChatHistory> addedChatHistory = new AtomicReference<>();
         this.conversationIdHistoryMap.computeIfAbsent(chatHistory.conversationId(), conversationId -> {
             this.chatMemory.add(conversationId, chatHistory.messagesSupplier().get());
-            return chatHistory.mutate(() -> getMessages(conversationId));
+            addedChatHistory.set(chatHistory.mutate(newMessagesSupplier(conversationId)));
+            return addedChatHistory.get();
         });
+        return addedChatHistory.get();
     }
 
     public ChatHistory getChatHistory(String conversationId) {
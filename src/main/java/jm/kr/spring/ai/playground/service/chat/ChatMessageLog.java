@@ -0,0 +1,107 @@
+/*
+ * Copyright © 2025 Jemin Huh (hjm1980@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jm.kr.spring.ai.playground.service.chat;
+
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.MessageType;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.RandomAccess;
+import java.util.function.Supplier;
+
+public class ChatMessageLog {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    public static final Snapshot EMPTY_SNAPSHOT = new Snapshot(0, List.of(), -1);
+
+    public record Snapshot(long version, List<Message> messages, int lastUserMessageIndex) {
+        public Optional<Message> lastUserMessage() {
+            return lastUserMessageIndex < 0 ? Optional.empty() : Optional.of(messages.get(lastUserMessageIndex));
+        }
+    }
+
+    public interface SnapshotSupplier extends Supplier<List<Message>> {
+        Snapshot getSnapshot();
+
+        @Override
+        default List<Message> get() {
+            return getSnapshot().messages();
+        }
+    }
+
+    public static Snapshot snapshotOf(List<Message> messages) {
+        int lastUserMessageIndex = messages.size() - 1;
+        while (lastUserMessageIndex >= 0 &&
+                !MessageType.USER.equals(messages.get(lastUserMessageIndex).getMessageType()))
+            lastUserMessageIndex--;
+        return new Snapshot(0, messages, lastUserMessageIndex);
+    }
+
+    private Message[] elements;
+    private int size;
+    private volatile Snapshot snapshot;
+
+    public ChatMessageLog() {
+        this.elements = new Message[INITIAL_CAPACITY];
+        this.snapshot = EMPTY_SNAPSHOT;
+    }
+
+    public synchronized Snapshot append(List<Message> messages) {
+        if (messages.isEmpty())
+            return this.snapshot;
+        int newSize = this.size + messages.size();
+        if (newSize > this.elements.length)
+            this.elements = Arrays.copyOf(this.elements, Math.max(newSize, this.elements.length * 2));
+        int lastUserMessageIndex = this.snapshot.lastUserMessageIndex();
+        for (Message message : messages) {
+            if (MessageType.USER.equals(message.getMessageType()))
+                lastUserMessageIndex = this.size;
+            this.elements[this.size++] = message;
+        }
+        this.snapshot = new Snapshot(this.snapshot.version() + 1, new MessageListView(this.elements, this.size),
+                lastUserMessageIndex);
+        return this.snapshot;
+    }
+
+    public Snapshot snapshot() {
+        return this.snapshot;
+    }
+
+    private static final class MessageListView extends AbstractList<Message> implements RandomAccess {
+        private final Message[] elements;
+        private final int size;
+
+        private MessageListView(Message[] elements, int size) {
+            this.elements = elements;
+            this.size = size;
+        }
+
+        @Override
+        public Message get(int index) {
+            return this.elements[Objects.checkIndex(index, this.size)];
+        }
+
+        @Override
+        public int size() {
+            return this.size;
+        }
+    }
+}
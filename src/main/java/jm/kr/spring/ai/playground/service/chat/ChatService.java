@@ -18,6 +18,7 @@ package jm.kr.spring.ai.playground.service.chat;
 
 import jm.kr.spring.ai.playground.SpringAiPlaygroundOptions;
 import jm.kr.spring.ai.playground.service.SharedDataReader;
+import jm.kr.spring.ai.playground.service.SpringAiPlaygroundRagAdvisor;
 import jm.kr.spring.ai.playground.service.mcp.McpServerInfo;
 import jm.kr.spring.ai.playground.service.vectorstore.VectorStoreDocumentInfo;
 import org.slf4j.Logger;
@@ -25,7 +26,6 @@ import org.slf4j.LoggerFactory;
 import org.springframework.ai.chat.client.ChatClient;
 import org.springframework.ai.chat.client.ChatClientResponse;
 import org.springframework.ai.chat.messages.Message;
-import org.springframework.ai.chat.messages.MessageType;
 import org.springframework.ai.chat.metadata.ChatResponseMetadata;
 import org.springframework.ai.chat.metadata.Usage;
 import org.springframework.ai.chat.model.ChatModel;
@@ -71,10 +71,11 @@ public class ChatService {
     private final ChatClient chatClient;
     private final SharedDataReader<List<VectorStoreDocumentInfo>> vectorStoreDocumentsReader;
     private final SharedDataReader<List<McpServerInfo>> mcpServerInfosReader;
+    private final SpringAiPlaygroundRagAdvisor ragAdvisor;
 
     public ChatService(ChatModel chatModel, ChatClient chatClient, SpringAiPlaygroundOptions playgroundOptions,
             SharedDataReader<List<VectorStoreDocumentInfo>> vectorStoreDocumentsReader,
-            SharedDataReader<List<McpServerInfo>> mcpServerInfosReader) {
+            SharedDataReader<List<McpServerInfo>> mcpServerInfosReader, SpringAiPlaygroundRagAdvisor ragAdvisor) {
         this.systemPrompt = playgroundOptions.chat().systemPrompt();
         this.models = playgroundOptions.chat().models();
         this.chatModel = chatModel;
@@ -83,6 +84,7 @@ public class ChatService {
         this.chatClient = chatClient;
         this.vectorStoreDocumentsReader = vectorStoreDocumentsReader;
         this.mcpServerInfosReader = mcpServerInfosReader;
+        this.ragAdvisor = ragAdvisor;
     }
 
     public Flux<String> stream(ChatHistory chatHistory, String prompt, String filterExpression,
@@ -166,8 +168,7 @@ public class ChatService {
     private ChatResponse applyChatResponseMetadataToLastUserMessage(ChatHistory chatHistory,
             ChatClientResponse chatClientResponse) {
         ChatResponse chatResponse = chatClientResponse.chatResponse();
-        chatHistory.messagesSupplier().get().reversed().stream()
-                .filter(message -> MessageType.USER.equals(message.getMessageType())).findFirst()
+        chatHistory.messagesSnapshot().lastUserMessage()
                 .map(Message::getMetadata).ifPresentOrElse(metadata -> {
                             ChatResponseMetadata chatResponseMetadata = chatResponse.getMetadata();
                             metadata.put(CHAT_META, new ChatMeta(chatResponseMetadata.getModel(), chatResponseMetadata.getUsage(),
@@ -199,6 +200,14 @@ public class ChatService {
                 .collect(Collectors.joining("', '", DOC_INFO_ID + " in ['", "']"));
     }
 
+    public void speculateDocumentRetrieval(ChatHistory chatHistory, String prompt, String filterExpression) {
+        this.ragAdvisor.speculate(chatHistory.conversationId(), prompt, filterExpression);
+    }
+
+    public void cancelDocumentRetrievalSpeculation(ChatHistory chatHistory) {
+        this.ragAdvisor.cancelSpeculation(chatHistory.conversationId());
+    }
+
     public List<VectorStoreDocumentInfo> getExistDocumentInfoList() {
         return this.vectorStoreDocumentsReader.read();
     }
@@ -0,0 +1,63 @@
+/*
+ * Copyright © 2025 Jemin Huh (hjm1980@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jm.kr.spring.ai.playground.service.chat;
+
+import org.springframework.ai.chat.memory.ChatMemory;
+import org.springframework.ai.chat.messages.Message;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+// The log keeps the whole conversation for the UI and persistence until it is cleared, while the wrapped memory
+// still bounds what is sent to the model (e.g. the last 10 messages of a MessageWindowChatMemory).
+public class VersionedChatMemory implements ChatMemory {
+
+    private final ChatMemory chatMemory;
+    private final Map<String, ChatMessageLog> conversationIdMessageLogMap;
+
+    public VersionedChatMemory(ChatMemory chatMemory) {
+        this.chatMemory = chatMemory;
+        this.conversationIdMessageLogMap = new ConcurrentHashMap<>();
+    }
+
+    @Override
+    public void add(String conversationId, List<Message> messages) {
+        this.chatMemory.add(conversationId, messages);
+        getMessageLog(conversationId).append(messages);
+    }
+
+    @Override
+    public List<Message> get(String conversationId) {
+        return this.chatMemory.get(conversationId);
+    }
+
+    @Override
+    public void clear(String conversationId) {
+        this.chatMemory.clear(conversationId);
+        this.conversationIdMessageLogMap.remove(conversationId);
+    }
+
+    private ChatMessageLog getMessageLog(String conversationId) {
+        return this.conversationIdMessageLogMap.computeIfAbsent(conversationId, id -> new ChatMessageLog());
+    }
+
+    public ChatMessageLog.Snapshot getSnapshot(String conversationId) {
+        return Optional.ofNullable(this.conversationIdMessageLogMap.get(conversationId))
+                .map(ChatMessageLog::snapshot).orElse(ChatMessageLog.EMPTY_SNAPSHOT);
+    }
+}
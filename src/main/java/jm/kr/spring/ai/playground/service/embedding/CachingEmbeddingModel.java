@@ -0,0 +1,318 @@
+/*
+ * Copyright © 2025 Jemin Huh (hjm1980@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jm.kr.spring.ai.playground.service.embedding;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Metrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.embedding.AbstractEmbeddingModel;
+import org.springframework.ai.embedding.Embedding;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.embedding.EmbeddingOptions;
+import org.springframework.ai.embedding.EmbeddingRequest;
+import org.springframework.ai.embedding.EmbeddingResponse;
+import org.springframework.ai.embedding.EmbeddingResponseMetadata;
+import org.springframework.ai.model.ModelOptionsUtils;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+public class CachingEmbeddingModel extends AbstractEmbeddingModel {
+
+    private static final Logger logger = LoggerFactory.getLogger(CachingEmbeddingModel.class);
+    private static final String METRIC_PREFIX = "spring.ai.playground.embedding.cache.";
+    private static final String FILE_EXTENSION = ".bin";
+
+    public static final int DEFAULT_MAX_ENTRIES = 10000;
+    public static final int DEFAULT_MAX_DISK_ENTRIES = 100000;
+
+    public record Stats(long memoryHits, long diskHits, long misses, int memoryEntries) {
+        public long requests() {
+            return this.memoryHits + this.diskHits + this.misses;
+        }
+
+        public double hitRate() {
+            long requests = requests();
+            return requests == 0 ? 0 : (double) (this.memoryHits + this.diskHits) / requests;
+        }
+    }
+
+    private final EmbeddingModel delegate;
+    private final Supplier<EmbeddingOptions> defaultOptionsSupplier;
+    private final Path cacheDirectory;
+    private final int maxDiskEntries;
+    private final AtomicLong diskEntries;
+    private final Map<String, float[]> memoryCache;
+    private final AtomicLong memoryHits;
+    private final AtomicLong diskHits;
+    private final AtomicLong misses;
+    private Map<String, Object> defaultOptionsMap;
+
+    public CachingEmbeddingModel(EmbeddingModel delegate, Supplier<EmbeddingOptions> defaultOptionsSupplier,
+            int maxEntries, Path cacheDirectory) {
+        this(delegate, defaultOptionsSupplier, maxEntries, cacheDirectory, DEFAULT_MAX_DISK_ENTRIES);
+    }
+
+    public CachingEmbeddingModel(EmbeddingModel delegate, Supplier<EmbeddingOptions> defaultOptionsSupplier,
+            int maxEntries, Path cacheDirectory, int maxDiskEntries) {
+        this.delegate = Objects.requireNonNull(delegate, "delegate cannot be null");
+        this.defaultOptionsSupplier = defaultOptionsSupplier;
+        this.cacheDirectory = cacheDirectory;
+        this.maxDiskEntries = maxDiskEntries;
+        this.diskEntries = new AtomicLong(listCacheFiles().size());
+        this.memoryCache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, float[]> eldest) {
+                return size() > maxEntries;
+            }
+        };
+        this.memoryHits = new AtomicLong();
+        this.diskHits = new AtomicLong();
+        this.misses = new AtomicLong();
+    }
+
+    public CachingEmbeddingModel registerMetrics() {
+        FunctionCounter.builder(METRIC_PREFIX + "requests", this.memoryHits, AtomicLong::get)
+                .tag("result", "memory-hit").register(Metrics.globalRegistry);
+        FunctionCounter.builder(METRIC_PREFIX + "requests", this.diskHits, AtomicLong::get)
+                .tag("result", "disk-hit").register(Metrics.globalRegistry);
+        FunctionCounter.builder(METRIC_PREFIX + "requests", this.misses, AtomicLong::get)
+                .tag("result", "miss").register(Metrics.globalRegistry);
+        Gauge.builder(METRIC_PREFIX + "hit.rate", this, model -> model.getStats().hitRate())
+                .register(Metrics.globalRegistry);
+        Gauge.builder(METRIC_PREFIX + "entries", this, model -> model.getStats().memoryEntries())
+                .register(Metrics.globalRegistry);
+        return this;
+    }
+
+    public EmbeddingModel getDelegate() {
+        return this.delegate;
+    }
+
+    public Stats getStats() {
+        synchronized (this.memoryCache) {
+            return new Stats(this.memoryHits.get(), this.diskHits.get(), this.misses.get(), this.memoryCache.size());
+        }
+    }
+
+    @Override
+    public EmbeddingResponse call(EmbeddingRequest request) {
+        List<String> texts = request.getInstructions();
+        String namespace = buildNamespace(request.getOptions());
+        float[][] embeddings = new float[texts.size()][];
+        Map<String, List<Integer>> missKeyIndexesMap = new LinkedHashMap<>();
+        List<String> missTexts = new ArrayList<>();
+        for (int i = 0; i < texts.size(); i++) {
+            String key = buildKey(namespace, texts.get(i));
+            float[] embedding = lookup(key);
+            if (Objects.nonNull(embedding)) {
+                embeddings[i] = embedding;
+                continue;
+            }
+            this.misses.incrementAndGet();
+            List<Integer> indexes = missKeyIndexesMap.computeIfAbsent(key, k -> new ArrayList<>());
+            if (indexes.isEmpty())
+                missTexts.add(texts.get(i));
+            indexes.add(i);
+        }
+        EmbeddingResponseMetadata metadata = new EmbeddingResponseMetadata();
+        if (!missTexts.isEmpty()) {
+            EmbeddingResponse response = this.delegate.call(new EmbeddingRequest(missTexts, request.getOptions()));
+            metadata = response.getMetadata();
+            List<String> missKeys = new ArrayList<>(missKeyIndexesMap.keySet());
+            for (Embedding result : response.getResults()) {
+                String key = missKeys.get(result.getIndex());
+                float[] embedding = result.getOutput();
+                store(key, embedding);
+                missKeyIndexesMap.get(key).forEach(index -> embeddings[index] = embedding.clone());
+            }
+        }
+        List<Embedding> results = new ArrayList<>(embeddings.length);
+        for (int i = 0; i < embeddings.length; i++)
+            results.add(new Embedding(embeddings[i], i));
+        return new EmbeddingResponse(results, metadata);
+    }
+
+    @Override
+    public float[] embed(Document document) {
+        return embed(document.getText());
+    }
+
+    @Override
+    public int dimensions() {
+        return this.delegate.dimensions();
+    }
+
+    // Every effective option is part of the namespace, not only model and dimensions: options such as Ollama's
+    // truncate and num_ctx or OpenAI's encoding_format change the returned vectors too. Request options override
+    // the defaults key by key, the way the models merge them, and sorted keys keep the serialization stable.
+    private String buildNamespace(EmbeddingOptions requestOptions) {
+        Map<String, Object> optionsMap = new TreeMap<>(Optional.ofNullable(this.defaultOptionsMap).orElseGet(
+                () -> this.defaultOptionsMap = Optional.ofNullable(this.defaultOptionsSupplier).map(Supplier::get)
+                        .map(ModelOptionsUtils::objectToMap).orElseGet(Map::of)));
+        Optional.ofNullable(requestOptions).map(ModelOptionsUtils::objectToMap).ifPresent(optionsMap::putAll);
+        return this.delegate.getClass().getName() + "|" + ModelOptionsUtils.toJsonString(optionsMap);
+    }
+
+    private float[] lookup(String key) {
+        synchronized (this.memoryCache) {
+            float[] embedding = this.memoryCache.get(key);
+            if (Objects.nonNull(embedding)) {
+                this.memoryHits.incrementAndGet();
+                return embedding.clone();
+            }
+        }
+        float[] embedding = readFromDisk(key);
+        if (Objects.isNull(embedding))
+            return null;
+        this.diskHits.incrementAndGet();
+        synchronized (this.memoryCache) {
+            this.memoryCache.put(key, embedding);
+        }
+        return embedding.clone();
+    }
+
+    private void store(String key, float[] embedding) {
+        synchronized (this.memoryCache) {
+            this.memoryCache.put(key, embedding);
+        }
+        writeToDisk(key, embedding);
+    }
+
+    private float[] readFromDisk(String key) {
+        if (Objects.isNull(this.cacheDirectory))
+            return null;
+        Path file = buildCacheFile(key);
+        if (!Files.exists(file))
+            return null;
+        try (DataInputStream dataInput = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            float[] embedding = new float[dataInput.readInt()];
+            for (int i = 0; i < embedding.length; i++)
+                embedding[i] = dataInput.readFloat();
+            // the modification time orders disk eviction, so a hit keeps the file young
+            Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+            return embedding;
+        } catch (IOException e) {
+            logger.warn("Failed to read cached embedding: {}", file, e);
+            return null;
+        }
+    }
+
+    private void writeToDisk(String key, float[] embedding) {
+        if (Objects.isNull(this.cacheDirectory))
+            return;
+        Path file = buildCacheFile(key);
+        try {
+            Files.createDirectories(file.getParent());
+            Path tempFile = Files.createTempFile(file.getParent(), key, ".tmp");
+            try (DataOutputStream dataOutput = new DataOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(tempFile)))) {
+                dataOutput.writeInt(embedding.length);
+                for (float value : embedding)
+                    dataOutput.writeFloat(value);
+            }
+            boolean newEntry = !Files.exists(file);
+            Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            if (newEntry && this.diskEntries.incrementAndGet() > this.maxDiskEntries)
+                evictFromDisk();
+        } catch (IOException e) {
+            logger.warn("Failed to write cached embedding: {}", file, e);
+        }
+    }
+
+    // Drops the least recently used tenth of the files at once so a full cache is not scanned on every write.
+    private synchronized void evictFromDisk() {
+        if (this.diskEntries.get() <= this.maxDiskEntries)
+            return;
+        List<Path> cacheFiles = listCacheFiles();
+        Map<Path, Long> lastModifiedMap = new HashMap<>();
+        for (Path cacheFile : cacheFiles) {
+            try {
+                lastModifiedMap.put(cacheFile, Files.getLastModifiedTime(cacheFile).toMillis());
+            } catch (IOException e) {
+                lastModifiedMap.put(cacheFile, 0L);
+            }
+        }
+        cacheFiles.sort(Comparator.comparing(lastModifiedMap::get));
+        int retainedEntries = this.maxDiskEntries - this.maxDiskEntries / 10;
+        int evictedEntries = 0;
+        for (Path cacheFile : cacheFiles.subList(0, Math.max(0, cacheFiles.size() - retainedEntries))) {
+            try {
+                if (Files.deleteIfExists(cacheFile))
+                    evictedEntries++;
+            } catch (IOException e) {
+                logger.warn("Failed to evict cached embedding: {}", cacheFile, e);
+            }
+        }
+        this.diskEntries.set(cacheFiles.size() - evictedEntries);
+        logger.debug("Evicted {} cached embeddings from {}", evictedEntries, this.cacheDirectory);
+    }
+
+    private List<Path> listCacheFiles() {
+        if (Objects.isNull(this.cacheDirectory) || !Files.isDirectory(this.cacheDirectory))
+            return new ArrayList<>();
+        try (Stream<Path> paths = Files.walk(this.cacheDirectory, 2)) {
+            return paths.filter(path -> path.getFileName().toString().endsWith(FILE_EXTENSION))
+                    .collect(Collectors.toCollection(ArrayList::new));
+        } catch (IOException e) {
+            logger.warn("Failed to list cached embeddings: {}", this.cacheDirectory, e);
+            return new ArrayList<>();
+        }
+    }
+
+    private Path buildCacheFile(String key) {
+        return this.cacheDirectory.resolve(key.substring(0, 2)).resolve(key + FILE_EXTENSION);
+    }
+
+    static String buildKey(String namespace, String text) {
+        try {
+            MessageDigest messageDigest = MessageDigest.getInstance("SHA-256");
+            messageDigest.update(namespace.getBytes(StandardCharsets.UTF_8));
+            messageDigest.update((byte) 0);
+            messageDigest.update(Objects.requireNonNullElse(text, "").getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(messageDigest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
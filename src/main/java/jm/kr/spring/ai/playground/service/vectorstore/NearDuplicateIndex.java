@@ -0,0 +1,191 @@
+/*
+ * Copyright © 2025 Jemin Huh (hjm1980@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jm.kr.spring.ai.playground.service.vectorstore;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.ai.document.Document;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.SplittableRandom;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+// MinHash signatures over word shingles estimate the Jaccard similarity of two chunks. Signatures are split into
+// LSH bands so that only chunks sharing at least one band are compared; with 16 bands of 8 rows a pair at 0.85
+// similarity becomes a candidate with probability above 0.99. Indexed chunks keep only their band keys and the low
+// byte of every hash (b-bit MinHash), about 300 bytes per chunk, and chunks beyond maxEntries are not indexed.
+public class NearDuplicateIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(NearDuplicateIndex.class);
+
+    public static final double DEFAULT_SIMILARITY_THRESHOLD = 0.85;
+
+    private static final int SHINGLE_WORDS = 3;
+    private static final int NUM_HASHES = 128;
+    private static final int BANDS = 16;
+    private static final int ROWS = NUM_HASHES / BANDS;
+    private static final double SKETCH_COLLISION_PROBABILITY = 1.0 / 256;
+    private static final long[] HASH_SEEDS = new SplittableRandom(0x4D696E48L).longs(NUM_HASHES).toArray();
+    private static final Pattern WORD_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    public record Match(String docInfoId, String documentId, double similarity) {}
+
+    private record Entry(String docInfoId, String documentId, long[] bandKeys, byte[] sketch) {}
+
+    private final double similarityThreshold;
+    private final int maxEntries;
+    private final Map<Long, List<Entry>> bandBuckets;
+    private final Map<String, List<Entry>> docInfoIdEntries;
+    private int entryCount;
+    private boolean fullReported;
+
+    public NearDuplicateIndex(double similarityThreshold) {
+        this(similarityThreshold, Integer.MAX_VALUE);
+    }
+
+    public NearDuplicateIndex(double similarityThreshold, int maxEntries) {
+        this.similarityThreshold = similarityThreshold;
+        this.maxEntries = maxEntries;
+        this.bandBuckets = new HashMap<>();
+        this.docInfoIdEntries = new HashMap<>();
+    }
+
+    public synchronized boolean contains(String docInfoId) {
+        return this.docInfoIdEntries.containsKey(docInfoId);
+    }
+
+    public synchronized int size() {
+        return this.entryCount;
+    }
+
+    public synchronized boolean isFull() {
+        return this.entryCount >= this.maxEntries;
+    }
+
+    public synchronized void add(String docInfoId, List<Document> documents) {
+        remove(docInfoId);
+        this.docInfoIdEntries.put(docInfoId, new ArrayList<>());
+        documents.forEach(document -> Optional.ofNullable(signature(document.getText()))
+                .ifPresent(signature -> add(docInfoId, document.getId(), signature)));
+    }
+
+    // Once the index is full the docInfoId is still registered, so it is not offered again until it is removed.
+    public synchronized void add(String docInfoId, String documentId, long[] signature) {
+        List<Entry> entries = this.docInfoIdEntries.computeIfAbsent(docInfoId, key -> new ArrayList<>());
+        if (isFull()) {
+            if (!this.fullReported)
+                logger.warn("Near-duplicate index is full at {} chunks, further chunks are not indexed",
+                        this.maxEntries);
+            this.fullReported = true;
+            return;
+        }
+        long[] bandKeys = new long[BANDS];
+        for (int band = 0; band < BANDS; band++)
+            bandKeys[band] = bandKey(signature, band);
+        Entry entry = new Entry(docInfoId, documentId, bandKeys, sketch(signature));
+        entries.add(entry);
+        this.entryCount++;
+        for (long bandKey : bandKeys)
+            this.bandBuckets.computeIfAbsent(bandKey, key -> new ArrayList<>()).add(entry);
+    }
+
+    public synchronized void remove(String docInfoId) {
+        List<Entry> entries = this.docInfoIdEntries.remove(docInfoId);
+        if (Objects.isNull(entries))
+            return;
+        this.entryCount -= entries.size();
+        for (Entry entry : entries) {
+            for (long bandKey : entry.bandKeys()) {
+                List<Entry> bucket = this.bandBuckets.get(bandKey);
+                if (Objects.nonNull(bucket) && bucket.remove(entry) && bucket.isEmpty())
+                    this.bandBuckets.remove(bandKey);
+            }
+        }
+    }
+
+    public synchronized Optional<Match> findDuplicate(long[] signature, Predicate<String> docInfoIdFilter) {
+        byte[] sketch = sketch(signature);
+        Map<Entry, Double> candidateSimilarities = new HashMap<>();
+        for (int band = 0; band < BANDS; band++)
+            for (Entry entry : this.bandBuckets.getOrDefault(bandKey(signature, band), List.of()))
+                if (docInfoIdFilter.test(entry.docInfoId()))
+                    candidateSimilarities.computeIfAbsent(entry, key -> similarity(sketch, key.sketch()));
+        return candidateSimilarities.entrySet().stream()
+                .filter(candidate -> candidate.getValue() >= this.similarityThreshold)
+                .max(Map.Entry.comparingByValue(Comparator.naturalOrder()))
+                .map(candidate -> new Match(candidate.getKey().docInfoId(), candidate.getKey().documentId(),
+                        candidate.getValue()));
+    }
+
+    // Returns null for texts without words, which are never reported as duplicates.
+    public static long[] signature(String text) {
+        if (Objects.isNull(text))
+            return null;
+        String[] words = Arrays.stream(WORD_SEPARATOR.split(text.toLowerCase(Locale.ROOT)))
+                .filter(word -> !word.isEmpty()).toArray(String[]::new);
+        if (words.length == 0)
+            return null;
+        long[] signature = new long[NUM_HASHES];
+        Arrays.fill(signature, Long.MAX_VALUE);
+        for (int start = 0; start <= Math.max(0, words.length - SHINGLE_WORDS); start++) {
+            long shingleHash = 0;
+            for (int i = start; i < Math.min(start + SHINGLE_WORDS, words.length); i++)
+                shingleHash = mix(shingleHash ^ words[i].hashCode());
+            for (int i = 0; i < NUM_HASHES; i++)
+                signature[i] = Math.min(signature[i], mix(shingleHash ^ HASH_SEEDS[i]));
+        }
+        return signature;
+    }
+
+    // Low bytes of unequal hashes still agree with probability 1/256, which is subtracted from the estimate.
+    private static double similarity(byte[] sketch, byte[] otherSketch) {
+        int equalHashes = 0;
+        for (int i = 0; i < NUM_HASHES; i++)
+            if (sketch[i] == otherSketch[i])
+                equalHashes++;
+        return Math.max(0, ((double) equalHashes / NUM_HASHES - SKETCH_COLLISION_PROBABILITY) /
+                (1 - SKETCH_COLLISION_PROBABILITY));
+    }
+
+    private static byte[] sketch(long[] signature) {
+        byte[] sketch = new byte[NUM_HASHES];
+        for (int i = 0; i < NUM_HASHES; i++)
+            sketch[i] = (byte) signature[i];
+        return sketch;
+    }
+
+    private static long bandKey(long[] signature, int band) {
+        long bandKey = band;
+        for (int i = band * ROWS; i < (band + 1) * ROWS; i++)
+            bandKey = mix(bandKey ^ signature[i]);
+        return bandKey;
+    }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
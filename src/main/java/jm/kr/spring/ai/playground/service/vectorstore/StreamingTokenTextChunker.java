@@ -0,0 +1,120 @@
+/*
+ * Copyright © 2025 Jemin Huh (hjm1980@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jm.kr.spring.ai.playground.service.vectorstore;
+
+import com.knuddels.jtokkit.Encodings;
+import com.knuddels.jtokkit.api.Encoding;
+import com.knuddels.jtokkit.api.EncodingType;
+import com.knuddels.jtokkit.api.IntArrayList;
+
+import java.util.function.Consumer;
+
+public class StreamingTokenTextChunker {
+
+    private static final Encoding ENCODING =
+            Encodings.newLazyEncodingRegistry().getEncoding(EncodingType.CL100K_BASE);
+    private static final int MIN_WINDOW_CHARS = 64 * 1024;
+
+    private final VectorStoreDocumentService.TokenTextSplitInfo tokenTextSplitInfo;
+    private final Consumer<String> chunkConsumer;
+    private final int windowChars;
+    private final StringBuilder buffer;
+    private int numChunks;
+    private int maxBufferedChars;
+
+    public StreamingTokenTextChunker(VectorStoreDocumentService.TokenTextSplitInfo tokenTextSplitInfo,
+            Consumer<String> chunkConsumer) {
+        this.tokenTextSplitInfo = tokenTextSplitInfo;
+        this.chunkConsumer = chunkConsumer;
+        this.windowChars = Math.max(MIN_WINDOW_CHARS, tokenTextSplitInfo.chunkSize() * 32);
+        this.buffer = new StringBuilder(this.windowChars + tokenTextSplitInfo.chunkSize() * 16);
+    }
+
+    public void append(char[] chars, int start, int length) {
+        if (isFull())
+            return;
+        this.buffer.append(chars, start, length);
+        this.maxBufferedChars = Math.max(this.maxBufferedChars, this.buffer.length());
+        if (this.buffer.length() >= this.windowChars)
+            drain(false);
+    }
+
+    public void append(String text) {
+        append(text.toCharArray(), 0, text.length());
+    }
+
+    public void finish() {
+        drain(true);
+    }
+
+    public boolean isFull() {
+        return this.numChunks >= this.tokenTextSplitInfo.maxNumChunks();
+    }
+
+    public int getNumChunks() {
+        return this.numChunks;
+    }
+
+    int getMaxBufferedChars() {
+        return this.maxBufferedChars;
+    }
+
+    // Mirrors TokenTextSplitter.doSplit, but keeps enough trailing tokens for the next window so chunks never end
+    // at an artificial window boundary.
+    private void drain(boolean last) {
+        String text = this.buffer.toString();
+        this.buffer.setLength(0);
+        if (text.isBlank() || isFull())
+            return;
+        int chunkSize = this.tokenTextSplitInfo.chunkSize();
+        int keepTokens = last ? 0 : chunkSize * 2;
+        IntArrayList tokens = ENCODING.encode(text);
+        int offset = 0;
+        while (tokens.size() - offset > keepTokens && !isFull()) {
+            int end = Math.min(offset + chunkSize, tokens.size());
+            String chunkText = decode(tokens, offset, end);
+            if (chunkText.trim().isEmpty()) {
+                offset = end;
+                continue;
+            }
+            if (tokens.size() - offset > chunkSize) {
+                int lastPunctuation = Math.max(chunkText.lastIndexOf('.'), Math.max(chunkText.lastIndexOf('?'),
+                        Math.max(chunkText.lastIndexOf('!'), chunkText.lastIndexOf('\n'))));
+                if (lastPunctuation != -1 && lastPunctuation > this.tokenTextSplitInfo.minChunkSizeChars())
+                    chunkText = chunkText.substring(0, lastPunctuation + 1);
+            }
+            emit(this.tokenTextSplitInfo.keepSeparator() ? chunkText.trim() :
+                    chunkText.replace(System.lineSeparator(), " ").trim());
+            offset += Math.max(1, ENCODING.countTokens(chunkText));
+        }
+        if (offset < tokens.size() && !isFull())
+            this.buffer.append(decode(tokens, offset, tokens.size()));
+    }
+
+    private void emit(String chunkText) {
+        if (chunkText.length() <= this.tokenTextSplitInfo.minChunkLengthToEmbed())
+            return;
+        this.numChunks++;
+        this.chunkConsumer.accept(chunkText);
+    }
+
+    private static String decode(IntArrayList tokens, int start, int end) {
+        IntArrayList subTokens = new IntArrayList(end - start);
+        for (int i = start; i < end; i++)
+            subTokens.add(tokens.get(i));
+        return ENCODING.decode(subTokens);
+    }
+}
@@ -16,6 +16,8 @@
 package jm.kr.spring.ai.playground.service.vectorstore;
 
 import jm.kr.spring.ai.playground.service.PersistenceServiceInterface;
+import jm.kr.spring.ai.playground.service.vectorstore.local.HnswVectorStore;
+import jm.kr.spring.ai.playground.service.vectorstore.local.ShardedVectorStore;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.ai.document.Document;
@@ -27,21 +29,25 @@ import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
-import static jm.kr.spring.ai.playground.service.vectorstore.VectorStoreService.SEARCH_ALL_REQUEST_WITH_DOC_INFO_IDS_FUNCTION;
 
 @Service
 public class VectorStoreDocumentPersistenceService implements PersistenceServiceInterface<VectorStoreDocumentInfo> {
     private static final Logger logger = LoggerFactory.getLogger(VectorStoreDocumentPersistenceService.class);
     private static final String SIMPLE_VECTOR_STORE_JSON = "simpleVectorStore.json";
+    private static final String HNSW_VECTOR_STORE_BIN = "hnswVectorStore.bin";
 
     private final Path saveDir;
     private final Path simpleVectorstoreSaveDir;
+    private final Path hnswVectorStoreSaveDir;
+    private final Path shardedVectorStoreSaveDir;
     private final VectorStore vectorStore;
     private final VectorStoreDocumentService vectorStoreDocumentService;
 
@@ -53,6 +59,13 @@ public class VectorStoreDocumentPersistenceService implements PersistenceService
         Files.createDirectories(this.saveDir);
         this.simpleVectorstoreSaveDir = springAiPlaygroundHomeDir.resolve("vectorstore").resolve("simpleVectorStore");
         Files.createDirectories(this.simpleVectorstoreSaveDir);
+        this.hnswVectorStoreSaveDir = springAiPlaygroundHomeDir.resolve("vectorstore").resolve("hnswVectorStore");
+        if (vectorStore instanceof HnswVectorStore)
+            Files.createDirectories(this.hnswVectorStoreSaveDir);
+        this.shardedVectorStoreSaveDir =
+                springAiPlaygroundHomeDir.resolve("vectorstore").resolve("shardedVectorStore");
+        if (vectorStore instanceof ShardedVectorStore)
+            Files.createDirectories(this.shardedVectorStoreSaveDir);
         this.vectorStore = vectorStore;
         this.vectorStoreDocumentService = vectorStoreDocumentService;
     }
@@ -110,19 +123,84 @@ public class VectorStoreDocumentPersistenceService implements PersistenceService
                 this.vectorStore instanceof SimpleVectorStore simpleVectorStore) {
             simpleVectorStore.load(this.simpleVectorstoreSaveDir.resolve(SIMPLE_VECTOR_STORE_JSON).toFile());
         }
+        if (this.vectorStore instanceof HnswVectorStore hnswVectorStore)
+            loadHnswVectorStore(hnswVectorStore, savedSimpleVectorStoreDataFile);
+        if (this.vectorStore instanceof ShardedVectorStore shardedVectorStore)
+            loadShardedVectorStore(shardedVectorStore, savedSimpleVectorStoreDataFile);
         loads().forEach(vectorStoreDocumentInfo -> {
             vectorStoreDocumentService.updateDocumentInfo(vectorStoreDocumentInfo,
                     vectorStoreDocumentInfo.title());
-            vectorStoreDocumentInfo.changeDocumentListSupplier(() -> this.vectorStore.similaritySearch(
-                    SEARCH_ALL_REQUEST_WITH_DOC_INFO_IDS_FUNCTION.apply(
-                            List.of(vectorStoreDocumentInfo.docInfoId()))));
+            vectorStoreDocumentInfo.changeDocumentListSupplier(() -> VectorStoreService.getDocuments(this.vectorStore,
+                    List.of(vectorStoreDocumentInfo.docInfoId())));
         });
     }
 
+    private void loadHnswVectorStore(HnswVectorStore hnswVectorStore, File savedSimpleVectorStoreDataFile)
+            throws IOException {
+        File savedHnswVectorStoreDataFile = this.hnswVectorStoreSaveDir.resolve(HNSW_VECTOR_STORE_BIN).toFile();
+        if (savedHnswVectorStoreDataFile.exists()) {
+            hnswVectorStore.load(savedHnswVectorStoreDataFile);
+            return;
+        }
+        if (!savedSimpleVectorStoreDataFile.exists())
+            return;
+        logger.info("Migrating {} to the HNSW vector store", savedSimpleVectorStoreDataFile.getAbsolutePath());
+        hnswVectorStore.loadSimpleVectorStore(savedSimpleVectorStoreDataFile);
+        copyDocumentInfos(SimpleVectorStore.class);
+    }
+
+    private void loadShardedVectorStore(ShardedVectorStore shardedVectorStore, File savedSimpleVectorStoreDataFile)
+            throws IOException {
+        shardedVectorStore.load(this.shardedVectorStoreSaveDir.toFile());
+        if (shardedVectorStore.size() > 0)
+            return;
+        File savedHnswVectorStoreDataFile = this.hnswVectorStoreSaveDir.resolve(HNSW_VECTOR_STORE_BIN).toFile();
+        if (savedHnswVectorStoreDataFile.exists()) {
+            logger.info("Migrating {} to the sharded vector store", savedHnswVectorStoreDataFile.getAbsolutePath());
+            shardedVectorStore.loadHnswVectorStore(savedHnswVectorStoreDataFile);
+            copyDocumentInfos(HnswVectorStore.class);
+            return;
+        }
+        if (!savedSimpleVectorStoreDataFile.exists())
+            return;
+        logger.info("Migrating {} to the sharded vector store", savedSimpleVectorStoreDataFile.getAbsolutePath());
+        shardedVectorStore.loadSimpleVectorStore(savedSimpleVectorStoreDataFile);
+        copyDocumentInfos(SimpleVectorStore.class);
+    }
+
+    // The document infos are saved per vector store name, so they are copied from the store being migrated from.
+    private void copyDocumentInfos(Class<? extends VectorStore> sourceVectorStoreClass) throws IOException {
+        Path sourceDocumentInfoDir = this.saveDir.resolveSibling(sourceVectorStoreClass.getSimpleName());
+        if (!Files.isDirectory(sourceDocumentInfoDir))
+            return;
+        try (Stream<Path> paths = Files.list(sourceDocumentInfoDir)) {
+            for (Path path : paths.toList()) {
+                Path target = this.saveDir.resolve(path.getFileName());
+                if (!Files.exists(target))
+                    Files.copy(path, target);
+            }
+        }
+    }
+
     @Override
     public void onShutdown() throws IOException {
         for (VectorStoreDocumentInfo vectorStoreDocumentInfo : vectorStoreDocumentService.getDocumentList())
             save(vectorStoreDocumentInfo);
+        if (this.vectorStore instanceof HnswVectorStore hnswVectorStore) {
+            if (vectorStoreDocumentService.getDocumentList().isEmpty())
+                this.hnswVectorStoreSaveDir.resolve(HNSW_VECTOR_STORE_BIN).toFile().deleteOnExit();
+            else
+                hnswVectorStore.save(this.hnswVectorStoreSaveDir.resolve(HNSW_VECTOR_STORE_BIN).toFile());
+            return;
+        }
+        if (this.vectorStore instanceof ShardedVectorStore shardedVectorStore) {
+            if (vectorStoreDocumentService.getDocumentList().isEmpty())
+                Optional.ofNullable(this.shardedVectorStoreSaveDir.toFile().listFiles()).stream()
+                        .flatMap(Arrays::stream).forEach(File::deleteOnExit);
+            else
+                shardedVectorStore.save(this.shardedVectorStoreSaveDir.toFile());
+            return;
+        }
         if (!vectorStoreDocumentService.getDocumentList().isEmpty() &&
                 this.vectorStore instanceof SimpleVectorStore simpleVectorStore)
             simpleVectorStore.save(this.simpleVectorstoreSaveDir.resolve(SIMPLE_VECTOR_STORE_JSON).toFile());
@@ -16,8 +16,15 @@
 package jm.kr.spring.ai.playground.service.vectorstore;
 
 import jm.kr.spring.ai.playground.service.SharedDataReader;
+import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.apache.tika.exception.TikaException;
+import org.apache.tika.io.TikaInputStream;
+import org.apache.tika.metadata.Metadata;
+import org.apache.tika.parser.AutoDetectParser;
+import org.apache.tika.parser.ParseContext;
+import org.apache.tika.parser.Parser;
 import org.springframework.ai.document.Document;
 import org.springframework.ai.document.DocumentReader;
 import org.springframework.ai.reader.tika.TikaDocumentReader;
@@ -29,21 +36,39 @@ import org.springframework.core.io.Resource;
 import org.springframework.core.io.ResourceLoader;
 import org.springframework.stereotype.Service;
 import org.springframework.util.unit.DataSize;
+import org.xml.sax.SAXException;
+import org.xml.sax.helpers.DefaultHandler;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.FileAlreadyExistsException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
 import java.util.Base64;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HexFormat;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 import java.util.WeakHashMap;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
@@ -61,9 +86,34 @@ public class VectorStoreDocumentService implements SharedDataReader<List<VectorS
                                      int maxNumChunks, boolean keepSeparator) {}
 
 
+    public record DocumentChangeSet(List<Document> unchangedDocuments, List<Document> addedDocuments,
+                                    List<String> deletedDocumentIds) {
+        public boolean isEmpty() {
+            return addedDocuments.isEmpty() && deletedDocumentIds.isEmpty();
+        }
+    }
+
+    // storedDocumentId is null when the chunk repeats another chunk of the same upload.
+    public record NearDuplicate(String fileName, Document document, String duplicateOf, String storedDocumentId,
+                                double similarity) {
+        // Links a kept near-duplicate to the stored chunk it duplicates.
+        public void linkStoredDocument() {
+            if (Objects.nonNull(storedDocumentId))
+                document.getMetadata().put(NEAR_DUPLICATE_OF, storedDocumentId);
+        }
+    }
+
     public final static TokenTextSplitInfo DEFAULT_TOKEN_TEXT_SPLIT_INFO =
             new TokenTextSplitInfo(800, 350, 5, 10000, true);
 
+    static final int SPLIT_SECTION_LENGTH = 64 * 1024;
+    private static final List<String> SECTION_SEPARATORS = List.of("\n\n", "\n", ". ", " ");
+    private static final String PARENT_DOCUMENT_ID = "parent_document_id";
+    private static final String TOTAL_CHUNKS = "total_chunks";
+    public static final String NEAR_DUPLICATE_OF = "near_duplicate_of";
+    static final int MAX_NEAR_DUPLICATE_INDEX_ENTRIES = 100_000;
+    static final int MAX_FILE_NEAR_DUPLICATE_INDEX_ENTRIES = 10_000;
+
     private final ResourceLoader resourceLoader;
 
     private final Path uploadDir;
@@ -74,6 +124,8 @@ public class VectorStoreDocumentService implements SharedDataReader<List<VectorS
     private final TokenTextSplitter defaultTokenTextSplitter;
     private final VectorStoreDocumentPersistenceService vectorStoreDocumentPersistenceService;
     private final Map<String, VectorStoreDocumentInfo> documentInfos;
+    private final ForkJoinPool extractionPool;
+    private final NearDuplicateIndex nearDuplicateIndex;
 
     public VectorStoreDocumentService(Path springAiPlaygroundHomeDir,
             @Value("${spring.servlet.multipart.max-file-size}") DataSize maxUploadSize, ResourceLoader resourceLoader,
@@ -86,6 +138,14 @@ public class VectorStoreDocumentService implements SharedDataReader<List<VectorS
         this.splitters = new WeakHashMap<>();
         this.defaultTokenTextSplitter = newTokenTextSplitter(DEFAULT_TOKEN_TEXT_SPLIT_INFO);
         this.documentInfos = new ConcurrentHashMap<>();
+        this.extractionPool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+        this.nearDuplicateIndex = new NearDuplicateIndex(NearDuplicateIndex.DEFAULT_SIMILARITY_THRESHOLD,
+                MAX_NEAR_DUPLICATE_INDEX_ENTRIES);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        this.extractionPool.shutdownNow();
     }
 
     public TokenTextSplitter getDefaultTokenTextSplitter() {
@@ -93,15 +153,31 @@ public class VectorStoreDocumentService implements SharedDataReader<List<VectorS
     }
 
     public VectorStoreDocumentInfo putNewDocument(String documentFileName, List<Document> uploadedDocumentItems) {
-        long createTimestamp = System.currentTimeMillis();
-        File uploadedDocumentFile = buildUploadFilePath(documentFileName).toFile();
-        String docInfoId = VectorStoreService.DOC_INFO_ID + "-" + UUID.randomUUID();
+        return putDocumentInfo(newDocumentInfo(newDocInfoId(), documentFileName, uploadedDocumentItems));
+    }
+
+    public String newDocInfoId() {
+        return VectorStoreService.DOC_INFO_ID + "-" + UUID.randomUUID();
+    }
+
+    public VectorStoreDocumentInfo newDocumentInfo(String docInfoId, String documentFileName,
+            List<Document> uploadedDocumentItems) {
         List<Document> documentList = IntStream.range(0, uploadedDocumentItems.size()).boxed()
                 .map(i -> copyNewDocument(docInfoId, i, uploadedDocumentItems.get(i))).toList();
-        VectorStoreDocumentInfo vectorStoreDocumentInfo =
-                new VectorStoreDocumentInfo(docInfoId, documentFileName, createTimestamp, createTimestamp,
-                        documentFileName, uploadedDocumentFile.getPath(), () -> documentList);
-        this.documentInfos.put(docInfoId, vectorStoreDocumentInfo);
+        return newDocumentInfo(docInfoId, documentFileName, () -> documentList);
+    }
+
+    public VectorStoreDocumentInfo newDocumentInfo(String docInfoId, String documentFileName,
+            Supplier<List<Document>> documentListSupplier) {
+        long createTimestamp = System.currentTimeMillis();
+        File uploadedDocumentFile = buildUploadFilePath(documentFileName).toFile();
+        return new VectorStoreDocumentInfo(docInfoId, documentFileName, createTimestamp, createTimestamp,
+                documentFileName, uploadedDocumentFile.getPath(), documentListSupplier);
+    }
+
+    public VectorStoreDocumentInfo putDocumentInfo(VectorStoreDocumentInfo vectorStoreDocumentInfo) {
+        this.nearDuplicateIndex.remove(vectorStoreDocumentInfo.docInfoId());
+        this.documentInfos.put(vectorStoreDocumentInfo.docInfoId(), vectorStoreDocumentInfo);
         return vectorStoreDocumentInfo;
     }
 
@@ -109,16 +185,176 @@ public class VectorStoreDocumentService implements SharedDataReader<List<VectorS
         return this.uploadDir.resolve(encodeFileName(fileName));
     }
 
-    private Document copyNewDocument(String docInfoId, Integer index, Document uploadedDocument) {
+    public Document copyNewDocument(String docInfoId, Integer index, Document uploadedDocument) {
+        return copyNewDocument(index + "-" + docInfoId, docInfoId, index, uploadedDocument);
+    }
+
+    private Document copyNewDocument(String id, String docInfoId, int index, Document uploadedDocument) {
         Map<String, Object> metadata = new HashMap<>(uploadedDocument.getMetadata());
         metadata.put(VectorStoreService.DOC_INFO_ID, docInfoId);
-        return new Document(index + "-" + docInfoId, uploadedDocument.getText(), metadata);
+        metadata.put(VectorStoreService.CHUNK_INDEX, index);
+        metadata.put(VectorStoreService.CHUNK_HASH, buildChunkHash(uploadedDocument.getText()));
+        return new Document(id, uploadedDocument.getText(), metadata);
+    }
+
+    // Unchanged chunks keep their stored ids and embeddings. A chunk is only unchanged when both its text and its
+    // position match, so the stored chunk_index stays authoritative; moved chunks are stored again, usually from
+    // the embedding cache. New chunks get ids that never collide with a stored one, so they can be inserted before
+    // the stale chunks are deleted.
+    public DocumentChangeSet diffDocumentItems(String docInfoId, List<Document> storedDocuments,
+            List<Document> uploadedDocumentItems) {
+        Map<String, Document> storedPositionDocuments = new HashMap<>();
+        storedDocuments.forEach(document -> VectorStoreService.getChunkIndex(document).ifPresent(
+                index -> storedPositionDocuments.putIfAbsent(index + "-" + getChunkHash(document), document)));
+        Set<String> storedIds = storedDocuments.stream().map(Document::getId).collect(Collectors.toSet());
+        List<Document> unchangedDocuments = new ArrayList<>();
+        List<Document> addedDocuments = new ArrayList<>();
+        for (int i = 0; i < uploadedDocumentItems.size(); i++) {
+            Document uploadedDocument = uploadedDocumentItems.get(i);
+            String chunkHash = buildChunkHash(uploadedDocument.getText());
+            Document storedDocument = storedPositionDocuments.remove(i + "-" + chunkHash);
+            if (storedDocument != null) {
+                unchangedDocuments.add(storedDocument);
+                continue;
+            }
+            String id = i + "-" + docInfoId;
+            addedDocuments.add(copyNewDocument(storedIds.contains(id) ?
+                    i + "-" + chunkHash.substring(0, 8) + "-" + docInfoId : id, docInfoId, i, uploadedDocument));
+        }
+        Set<String> unchangedIds = unchangedDocuments.stream().map(Document::getId).collect(Collectors.toSet());
+        return new DocumentChangeSet(unchangedDocuments, addedDocuments, storedDocuments.stream().map(Document::getId)
+                .filter(id -> !unchangedIds.contains(id)).toList());
+    }
+
+    private static String getChunkHash(Document document) {
+        return Optional.ofNullable(document.getMetadata().get(VectorStoreService.CHUNK_HASH)).map(Object::toString)
+                .orElseGet(() -> buildChunkHash(document.getText()));
+    }
+
+    static String buildChunkHash(String text) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256")
+                    .digest(Objects.requireNonNullElse(text, "").getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // Chunks of stored documents are indexed lazily on the first check after they change. A re-uploaded file is
+    // never compared with its own stored chunks, and chunks repeated within the upload are reported after their
+    // first occurrence. The chunks are left untouched; NearDuplicate.linkStoredDocument links the ones that are kept.
+    public List<NearDuplicate> findNearDuplicates(Map<String, List<Document>> uploadedFileDocumentItems) {
+        indexStoredDocuments();
+        NearDuplicateIndex uploadIndex = new NearDuplicateIndex(NearDuplicateIndex.DEFAULT_SIMILARITY_THRESHOLD);
+        List<NearDuplicate> nearDuplicates = new ArrayList<>();
+        uploadedFileDocumentItems.entrySet().stream().sorted(Map.Entry.comparingByKey()).forEach(entry -> {
+            Predicate<String> docInfoIdFilter = newStoredDocInfoIdFilter(entry.getKey());
+            List<Document> documents = entry.getValue();
+            for (int i = 0; i < documents.size(); i++) {
+                Document document = documents.get(i);
+                long[] signature = NearDuplicateIndex.signature(document.getText());
+                if (Objects.isNull(signature))
+                    continue;
+                Optional<NearDuplicate> nearDuplicate = this.nearDuplicateIndex.findDuplicate(signature,
+                        docInfoIdFilter).map(match -> new NearDuplicate(entry.getKey(), document,
+                        getDocumentInfo(match.docInfoId()).map(VectorStoreDocumentInfo::title)
+                                .orElse(match.docInfoId()) + " - " + match.documentId(), match.documentId(),
+                        match.similarity())).or(() -> uploadIndex.findDuplicate(signature, docInfoId -> true).map(
+                        match -> new NearDuplicate(entry.getKey(), document, match.docInfoId() + " #" +
+                                match.documentId(), null, match.similarity())));
+                if (nearDuplicate.isPresent())
+                    nearDuplicates.add(nearDuplicate.get());
+                else
+                    uploadIndex.add(entry.getKey(), String.valueOf(i), signature);
+            }
+        });
+        return nearDuplicates;
+    }
+
+    public List<Document> skipNearDuplicates(String fileName, List<Document> documents) {
+        Predicate<Document> nearDuplicateFilter = newNearDuplicateFilter(fileName);
+        List<Document> documentList = documents.stream().filter(nearDuplicateFilter).toList();
+        if (documentList.size() < documents.size())
+            logger.info("Skipping {} near-duplicate chunks of {}", documents.size() - documentList.size(), fileName);
+        return documentList;
+    }
+
+    // Stateful: chunks accepted by the returned filter are remembered, so later repeats within the same file are
+    // rejected as well. Only the first MAX_FILE_NEAR_DUPLICATE_INDEX_ENTRIES chunks are remembered, which keeps
+    // streaming ingestion of large files in bounded memory.
+    public Predicate<Document> newNearDuplicateFilter(String fileName) {
+        indexStoredDocuments();
+        Predicate<String> docInfoIdFilter = newStoredDocInfoIdFilter(fileName);
+        NearDuplicateIndex fileIndex = new NearDuplicateIndex(NearDuplicateIndex.DEFAULT_SIMILARITY_THRESHOLD,
+                MAX_FILE_NEAR_DUPLICATE_INDEX_ENTRIES);
+        AtomicInteger chunkIndex = new AtomicInteger();
+        return document -> {
+            long[] signature = NearDuplicateIndex.signature(document.getText());
+            if (Objects.isNull(signature))
+                return true;
+            if (this.nearDuplicateIndex.findDuplicate(signature, docInfoIdFilter).isPresent() ||
+                    fileIndex.findDuplicate(signature, docInfoId -> true).isPresent())
+                return false;
+            fileIndex.add(fileName, String.valueOf(chunkIndex.getAndIncrement()), signature);
+            return true;
+        };
+    }
+
+    private Predicate<String> newStoredDocInfoIdFilter(String fileName) {
+        String reuploadedDocInfoId = findDocumentInfo(fileName).map(VectorStoreDocumentInfo::docInfoId).orElse(null);
+        return docInfoId -> !docInfoId.equals(reuploadedDocInfoId);
+    }
+
+    // Once the index is full, the chunks of further documents are not loaded; those documents are registered
+    // without chunks and are indexed again only after they change.
+    private void indexStoredDocuments() {
+        this.documentInfos.values().stream()
+                .filter(documentInfo -> !this.nearDuplicateIndex.contains(documentInfo.docInfoId()))
+                .forEach(documentInfo -> this.nearDuplicateIndex.add(documentInfo.docInfoId(),
+                        this.nearDuplicateIndex.isFull() ? List.of() :
+                                Optional.ofNullable(documentInfo.documentListSupplier()).map(Supplier::get)
+                                        .orElseGet(List::of)));
     }
 
     public Map<String, List<Document>> extractDocumentItems(List<String> uploadedFileNames, TextSplitter textSplitter) {
-        return uploadedFileNames.stream().map(fileName -> Map.entry(fileName,
-                        split(resolveResource(buildUploadFilePath(fileName).toFile().getPath()), textSplitter)))
-                .collect(Collectors.toUnmodifiableMap(Map.Entry::getKey, Map.Entry::getValue));
+        return inExtractionPool(() -> uploadedFileNames.parallelStream()
+                .map(fileName -> Map.entry(fileName, split(textSplitter, parse(fileName))))
+                .collect(Collectors.toUnmodifiableMap(Map.Entry::getKey, Map.Entry::getValue)));
+    }
+
+    public int streamDocumentItems(String uploadedFileName, TokenTextSplitInfo tokenTextSplitInfo,
+            Consumer<Document> documentConsumer) {
+        AtomicInteger chunkIndex = new AtomicInteger();
+        StreamingTokenTextChunker chunker = new StreamingTokenTextChunker(tokenTextSplitInfo,
+                chunkText -> documentConsumer.accept(new Document(chunkText, new HashMap<>(Map.of("source",
+                        uploadedFileName, VectorStoreService.CHUNK_INDEX, chunkIndex.getAndIncrement())))));
+        AutoDetectParser parser = new AutoDetectParser();
+        ParseContext parseContext = new ParseContext();
+        parseContext.set(Parser.class, parser);
+        try (TikaInputStream inputStream = TikaInputStream.get(buildUploadFilePath(uploadedFileName))) {
+            parser.parse(inputStream, new DefaultHandler() {
+                @Override
+                public void characters(char[] ch, int start, int length) {
+                    chunker.append(ch, start, length);
+                }
+
+                @Override
+                public void ignorableWhitespace(char[] ch, int start, int length) {
+                    chunker.append(ch, start, length);
+                }
+            }, new Metadata(), parseContext);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (SAXException | TikaException e) {
+            throw new IllegalStateException("Failed to parse " + uploadedFileName, e);
+        }
+        chunker.finish();
+        return chunker.getNumChunks();
+    }
+
+    private <T> T inExtractionPool(Supplier<T> task) {
+        return ForkJoinTask.getPool() == this.extractionPool ? task.get() :
+                this.extractionPool.submit(task::get).join();
     }
 
     private Resource resolveResource(String path) {
@@ -128,26 +364,93 @@ public class VectorStoreDocumentService implements SharedDataReader<List<VectorS
         return resourceLoader.getResource("file:" + path);
     }
 
-    private List<Document> split(Resource resource, TextSplitter textSplitter) {
-        return split(textSplitter, new TikaDocumentReader(resource));
+    public List<Document> parse(String uploadedFileName) {
+        return new TikaDocumentReader(resolveResource(buildUploadFilePath(uploadedFileName).toFile().getPath()))
+                .read();
     }
 
     private List<Document> split(TextSplitter textSplitter, DocumentReader documentReader) {
-        List<Document> documentList = textSplitter.split(documentReader.read());
+        return split(textSplitter, documentReader.read());
+    }
+
+    public List<Document> split(TextSplitter textSplitter, List<Document> parsedDocuments) {
+        List<Document> documentList = inExtractionPool(() -> parsedDocuments.parallelStream()
+                .map(parsedDocument -> splitSections(textSplitter, parsedDocument)).flatMap(List::stream).toList());
         documentList.forEach(document -> document.getMetadata().computeIfPresent("source",
                 (key, value) -> decodeFileName(value.toString())));
         return documentList;
     }
 
+    // Large documents are fed to the chunker one section at a time. The unsplit tail of each section is carried
+    // into the next one, so section boundaries never produce fragment chunks and maxNumChunks caps the whole
+    // document. The carry makes the sections of one document sequential; files and parsed documents still split
+    // in parallel.
+    private List<Document> splitSections(TextSplitter textSplitter, Document parsedDocument) {
+        List<String> sectionTexts = buildSectionTexts(parsedDocument.getText(), SPLIT_SECTION_LENGTH);
+        if (sectionTexts.size() == 1 || !(textSplitter instanceof SectionTokenTextSplitter sectionTokenTextSplitter))
+            return textSplitter.split(parsedDocument);
+        List<Document> documentList = new ArrayList<>();
+        StreamingTokenTextChunker chunker = new StreamingTokenTextChunker(
+                sectionTokenTextSplitter.tokenTextSplitInfo,
+                chunkText -> documentList.add(new Document(chunkText, new HashMap<>(parsedDocument.getMetadata()))));
+        for (String sectionText : sectionTexts) {
+            if (chunker.isFull())
+                break;
+            chunker.append(sectionText);
+        }
+        chunker.finish();
+        for (int i = 0; i < documentList.size(); i++) {
+            Map<String, Object> metadata = documentList.get(i).getMetadata();
+            metadata.put(PARENT_DOCUMENT_ID, parsedDocument.getId());
+            metadata.put(VectorStoreService.CHUNK_INDEX, i);
+            metadata.put(TOTAL_CHUNKS, documentList.size());
+        }
+        return documentList;
+    }
+
+    static List<String> buildSectionTexts(String text, int sectionLength) {
+        if (Objects.isNull(text) || text.length() < sectionLength * 2)
+            return Collections.singletonList(text);
+        List<String> sectionTexts = new ArrayList<>();
+        int start = 0;
+        while (text.length() - start >= sectionLength * 2) {
+            int end = findSectionEnd(text, start + sectionLength / 2, start + sectionLength);
+            sectionTexts.add(text.substring(start, end));
+            start = end;
+        }
+        sectionTexts.add(text.substring(start));
+        return sectionTexts;
+    }
+
+    private static int findSectionEnd(String text, int from, int to) {
+        for (String separator : SECTION_SEPARATORS) {
+            int index = text.lastIndexOf(separator, to - separator.length());
+            if (index >= from)
+                return index + separator.length();
+        }
+        return to;
+    }
+
     public List<Document> split(Resource resource, TokenTextSplitInfo tokenTextSplitInfo) {
         return split(this.splitters.computeIfAbsent(tokenTextSplitInfo.toString(),
                 key -> newTokenTextSplitter(tokenTextSplitInfo)), new TikaDocumentReader(resource));
     }
 
     public TokenTextSplitter newTokenTextSplitter(TokenTextSplitInfo tokenTextSplitInfo) {
-        return new TokenTextSplitter(tokenTextSplitInfo.chunkSize(), tokenTextSplitInfo.minChunkSizeChars(),
-                tokenTextSplitInfo.minChunkLengthToEmbed(), tokenTextSplitInfo.maxNumChunks(),
-                tokenTextSplitInfo.keepSeparator());
+        return new SectionTokenTextSplitter(tokenTextSplitInfo);
+    }
+
+    // Keeps its split settings so large documents can be chunked section by section with the same settings.
+    private static class SectionTokenTextSplitter extends TokenTextSplitter {
+
+        private final TokenTextSplitInfo tokenTextSplitInfo;
+
+        private SectionTokenTextSplitter(TokenTextSplitInfo tokenTextSplitInfo) {
+            super(tokenTextSplitInfo.chunkSize(), tokenTextSplitInfo.minChunkSizeChars(),
+                    tokenTextSplitInfo.minChunkLengthToEmbed(), tokenTextSplitInfo.maxNumChunks(),
+                    tokenTextSplitInfo.keepSeparator());
+            this.tokenTextSplitInfo = tokenTextSplitInfo;
+        }
     }
 
     public void addUploadedDocumentFile(String fileName, File uploadedFile) throws Exception {
@@ -157,6 +460,21 @@ public class VectorStoreDocumentService implements SharedDataReader<List<VectorS
         Files.copy(uploadedFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
     }
 
+    public void moveUploadedDocumentFile(String fileName, File uploadedFile) throws IOException {
+        if (findDocumentInfo(fileName).isPresent())
+            Files.move(uploadedFile.toPath(), buildUploadFilePath(fileName), StandardCopyOption.REPLACE_EXISTING);
+        else
+            Files.move(uploadedFile.toPath(), buildUploadFilePath(fileName));
+    }
+
+    public boolean isStreamingDocumentFile(String fileName, DataSize streamingThreshold) {
+        try {
+            return Files.size(buildUploadFilePath(fileName)) >= streamingThreshold.toBytes();
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
     private String[] splitNameAndExt(String fileName) {
         int dotIdx = fileName.lastIndexOf(".");
         return dotIdx != -1 ? new String[]{fileName.substring(0, dotIdx), fileName.substring(dotIdx)} : new String[]{
@@ -192,9 +510,19 @@ public class VectorStoreDocumentService implements SharedDataReader<List<VectorS
 
     public void deleteDocumentInfo(VectorStoreDocumentInfo vectorStoreDocumentInfo) {
         this.documentInfos.remove(vectorStoreDocumentInfo.docInfoId());
+        this.nearDuplicateIndex.remove(vectorStoreDocumentInfo.docInfoId());
         this.vectorStoreDocumentPersistenceService.delete(vectorStoreDocumentInfo);
     }
 
+    public Optional<VectorStoreDocumentInfo> getDocumentInfo(String docInfoId) {
+        return Optional.ofNullable(this.documentInfos.get(docInfoId));
+    }
+
+    public Optional<VectorStoreDocumentInfo> findDocumentInfo(String documentFileName) {
+        return this.documentInfos.values().stream()
+                .filter(documentInfo -> documentFileName.equals(documentInfo.getDocumentFileName())).findFirst();
+    }
+
     public List<VectorStoreDocumentInfo> getDocumentList() {
         return this.documentInfos.values().stream()
                 .sorted(Comparator.comparingLong(VectorStoreDocumentInfo::updateTimestamp).reversed()).toList();
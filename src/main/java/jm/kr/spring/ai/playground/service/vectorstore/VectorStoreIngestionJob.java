@@ -0,0 +1,148 @@
+/*
+ * Copyright © 2025 Jemin Huh (hjm1980@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jm.kr.spring.ai.playground.service.vectorstore;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import org.springframework.ai.document.Document;
+
+import java.util.List;
+
+@JsonAutoDetect(fieldVisibility = JsonAutoDetect.Visibility.ANY)
+public class VectorStoreIngestionJob {
+
+    public enum Stage {PARSE, SPLIT, EMBED, INDEX}
+
+    public enum Status {
+        QUEUED, RUNNING, COMPLETED, FAILED, CANCELLED;
+
+        public boolean isDone() {
+            return this == COMPLETED || this == FAILED || this == CANCELLED;
+        }
+    }
+
+    private final String jobId;
+    private final String docInfoId;
+    private final String documentFileName;
+    private final VectorStoreDocumentService.TokenTextSplitInfo tokenTextSplitInfo;
+    private final long createTimestamp;
+    private final boolean update;
+    private volatile Stage stage;
+    private volatile Status status;
+    private volatile int completedUnits;
+    private volatile int totalUnits;
+    private volatile String errorMessage;
+    @JsonIgnore
+    private volatile List<Document> documentList;
+    @JsonIgnore
+    private volatile boolean cancelRequested;
+
+    public VectorStoreIngestionJob(String jobId, String docInfoId, String documentFileName,
+            VectorStoreDocumentService.TokenTextSplitInfo tokenTextSplitInfo, long createTimestamp,
+            List<Document> documentList) {
+        this(jobId, docInfoId, documentFileName, tokenTextSplitInfo, createTimestamp, documentList, false);
+    }
+
+    public VectorStoreIngestionJob(String jobId, String docInfoId, String documentFileName,
+            VectorStoreDocumentService.TokenTextSplitInfo tokenTextSplitInfo, long createTimestamp,
+            List<Document> documentList, boolean update) {
+        this.jobId = jobId;
+        this.docInfoId = docInfoId;
+        this.documentFileName = documentFileName;
+        this.tokenTextSplitInfo = tokenTextSplitInfo;
+        this.createTimestamp = createTimestamp;
+        this.update = update;
+        this.documentList = documentList;
+        this.stage = documentList == null ? Stage.PARSE : Stage.EMBED;
+        this.status = Status.QUEUED;
+    }
+
+    public String jobId() {
+        return jobId;
+    }
+
+    public String docInfoId() {
+        return docInfoId;
+    }
+
+    public String documentFileName() {
+        return documentFileName;
+    }
+
+    public VectorStoreDocumentService.TokenTextSplitInfo tokenTextSplitInfo() {
+        return tokenTextSplitInfo;
+    }
+
+    public long createTimestamp() {
+        return createTimestamp;
+    }
+
+    public boolean isUpdate() {
+        return update;
+    }
+
+    public Stage stage() {
+        return stage;
+    }
+
+    public Status status() {
+        return status;
+    }
+
+    public int completedUnits() {
+        return completedUnits;
+    }
+
+    public int totalUnits() {
+        return totalUnits;
+    }
+
+    public double progress() {
+        return this.totalUnits == 0 ? 0 : (double) this.completedUnits / this.totalUnits;
+    }
+
+    public String errorMessage() {
+        return errorMessage;
+    }
+
+    public List<Document> documentList() {
+        return documentList;
+    }
+
+    public boolean isCancelRequested() {
+        return cancelRequested;
+    }
+
+    void cancel() {
+        this.cancelRequested = true;
+    }
+
+    void changeDocumentList(List<Document> documentList) {
+        this.documentList = documentList;
+    }
+
+    void update(Stage stage, int completedUnits, int totalUnits) {
+        this.stage = stage;
+        this.status = Status.RUNNING;
+        this.completedUnits = completedUnits;
+        this.totalUnits = totalUnits;
+    }
+
+    void finish(Status status, String errorMessage) {
+        this.status = status;
+        this.errorMessage = errorMessage;
+    }
+}
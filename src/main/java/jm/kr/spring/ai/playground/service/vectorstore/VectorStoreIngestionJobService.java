@@ -0,0 +1,408 @@
+/*
+ * Copyright © 2025 Jemin Huh (hjm1980@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jm.kr.spring.ai.playground.service.vectorstore;
+
+import jakarta.annotation.PreDestroy;
+import jm.kr.spring.ai.playground.SpringAiPlaygroundOptions;
+import jm.kr.spring.ai.playground.service.PersistenceServiceInterface;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.vectorstore.VectorStore;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+@Service
+public class VectorStoreIngestionJobService implements PersistenceServiceInterface<VectorStoreIngestionJob> {
+
+    private static final Logger logger = LoggerFactory.getLogger(VectorStoreIngestionJobService.class);
+
+    private final Path saveDir;
+    private final boolean persistence;
+    private final VectorStoreDocumentService vectorStoreDocumentService;
+    private final VectorStoreService vectorStoreService;
+    private final VectorStore vectorStore;
+    private final SpringAiPlaygroundOptions.Ingestion ingestionOptions;
+    private final Map<String, VectorStoreIngestionJob> jobs;
+    private final List<Consumer<VectorStoreIngestionJob>> jobListeners;
+    private final List<VectorStoreIngestionJob> resumableJobs;
+    private final Semaphore runningJobPermits;
+    private final ExecutorService jobExecutor;
+    private volatile boolean shuttingDown;
+
+    public VectorStoreIngestionJobService(Path springAiPlaygroundHomeDir,
+            SpringAiPlaygroundOptions playgroundOptions, VectorStoreDocumentService vectorStoreDocumentService,
+            VectorStoreService vectorStoreService, VectorStore vectorStore,
+            VectorStoreIngestionService vectorStoreIngestionService) throws IOException {
+        this.saveDir = springAiPlaygroundHomeDir.resolve("vectorstore").resolve("jobs");
+        Files.createDirectories(this.saveDir);
+        this.persistence = playgroundOptions.persistence();
+        this.vectorStoreDocumentService = vectorStoreDocumentService;
+        this.vectorStoreService = vectorStoreService;
+        this.vectorStore = vectorStore;
+        this.ingestionOptions = vectorStoreIngestionService.getIngestionOptions();
+        this.jobs = new ConcurrentHashMap<>();
+        this.jobListeners = new CopyOnWriteArrayList<>();
+        this.resumableJobs = new CopyOnWriteArrayList<>();
+        this.runningJobPermits =
+                new Semaphore(this.ingestionOptions.maxRunningJobs(), true);
+        this.jobExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    }
+
+    public VectorStoreIngestionJob submit(String documentFileName,
+            VectorStoreDocumentService.TokenTextSplitInfo tokenTextSplitInfo) {
+        return submit(documentFileName, tokenTextSplitInfo, null);
+    }
+
+    public VectorStoreIngestionJob submit(String documentFileName,
+            VectorStoreDocumentService.TokenTextSplitInfo tokenTextSplitInfo, List<Document> reviewedDocumentList) {
+        Optional<String> updateDocInfoId = this.vectorStoreDocumentService.findDocumentInfo(documentFileName)
+                .map(VectorStoreDocumentInfo::docInfoId);
+        return submit(new VectorStoreIngestionJob("job-" + UUID.randomUUID(),
+                updateDocInfoId.orElseGet(this.vectorStoreDocumentService::newDocInfoId), documentFileName,
+                tokenTextSplitInfo, System.currentTimeMillis(), reviewedDocumentList, updateDocInfoId.isPresent()),
+                false);
+    }
+
+    private VectorStoreIngestionJob submit(VectorStoreIngestionJob job, boolean resumed) {
+        this.jobs.put(job.jobId(), job);
+        persist(job);
+        publish(job);
+        this.jobExecutor.execute(() -> run(job, resumed));
+        return job;
+    }
+
+    public CompletableFuture<Map<String, List<Document>>> extractDocumentItems(List<String> uploadedFileNames,
+            VectorStoreDocumentService.TokenTextSplitInfo tokenTextSplitInfo) {
+        return CompletableFuture.supplyAsync(() -> this.vectorStoreDocumentService.extractDocumentItems(
+                uploadedFileNames, this.vectorStoreDocumentService.newTokenTextSplitter(tokenTextSplitInfo)),
+                this.jobExecutor);
+    }
+
+    public boolean cancel(String jobId) {
+        return Optional.ofNullable(this.jobs.get(jobId)).map(job -> {
+            logger.info("Cancelling ingestion job: {} - {}", jobId, job.documentFileName());
+            job.cancel();
+            return true;
+        }).orElse(false);
+    }
+
+    public List<VectorStoreIngestionJob> getJobs() {
+        return this.jobs.values().stream().sorted(Comparator.comparingLong(VectorStoreIngestionJob::createTimestamp))
+                .toList();
+    }
+
+    public void addJobListener(Consumer<VectorStoreIngestionJob> jobListener) {
+        this.jobListeners.add(jobListener);
+    }
+
+    public void removeJobListener(Consumer<VectorStoreIngestionJob> jobListener) {
+        this.jobListeners.remove(jobListener);
+    }
+
+    private void run(VectorStoreIngestionJob job, boolean resumed) {
+        try {
+            this.runningJobPermits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        try {
+            checkCancelled(job);
+            if (resumed && !job.isUpdate())
+                this.vectorStoreService.deleteChunks(job.docInfoId(),
+                        VectorStoreService.getDocuments(this.vectorStore, List.of(job.docInfoId())).stream()
+                                .map(Document::getId).toList());
+            VectorStoreDocumentInfo vectorStoreDocumentInfo = job.isUpdate() ? updateIngest(job) :
+                    job.documentList() == null && isStreaming(job.documentFileName()) ? streamIngest(job) :
+                            ingest(job);
+            this.vectorStoreDocumentService.putDocumentInfo(vectorStoreDocumentInfo);
+            finish(job, VectorStoreIngestionJob.Status.COMPLETED, null);
+        } catch (RuntimeException e) {
+            if (this.shuttingDown) {
+                logger.info("Ingestion job interrupted by shutdown, it will be resumed: {}", job.jobId());
+                return;
+            }
+            Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+            if (cause instanceof CancellationException || job.isCancelRequested()) {
+                finish(job, VectorStoreIngestionJob.Status.CANCELLED, null);
+                return;
+            }
+            logger.error("Failed to run ingestion job: {} - {}", job.jobId(), job.documentFileName(), cause);
+            finish(job, VectorStoreIngestionJob.Status.FAILED, cause.getMessage());
+        } finally {
+            this.runningJobPermits.release();
+        }
+    }
+
+    public boolean isStreaming(String documentFileName) {
+        return this.vectorStoreDocumentService.isStreamingDocumentFile(documentFileName,
+                this.ingestionOptions.streamingThreshold());
+    }
+
+    private List<Document> extractDocumentList(VectorStoreIngestionJob job) {
+        if (job.documentList() != null)
+            return job.documentList();
+        List<Document> documentList;
+        if (isStreaming(job.documentFileName())) {
+            update(job, VectorStoreIngestionJob.Stage.SPLIT, 0, 0);
+            List<Document> streamedDocumentList = new ArrayList<>();
+            this.vectorStoreDocumentService.streamDocumentItems(job.documentFileName(), job.tokenTextSplitInfo(),
+                    document -> {
+                        checkCancelled(job);
+                        streamedDocumentList.add(document);
+                    });
+            documentList = streamedDocumentList;
+        } else {
+            update(job, VectorStoreIngestionJob.Stage.PARSE, 0, 1);
+            List<Document> parsedDocumentList = this.vectorStoreDocumentService.parse(job.documentFileName());
+            checkCancelled(job);
+            update(job, VectorStoreIngestionJob.Stage.SPLIT, 0, parsedDocumentList.size());
+            documentList = this.vectorStoreDocumentService.split(
+                    this.vectorStoreDocumentService.newTokenTextSplitter(job.tokenTextSplitInfo()),
+                    parsedDocumentList);
+        }
+        if (!job.isUpdate())
+            documentList = this.vectorStoreDocumentService.skipNearDuplicates(job.documentFileName(), documentList);
+        if (documentList.isEmpty())
+            throw new IllegalStateException("No chunks found");
+        job.changeDocumentList(documentList);
+        persist(job);
+        return documentList;
+    }
+
+    private VectorStoreDocumentInfo ingest(VectorStoreIngestionJob job) {
+        List<Document> documentList = extractDocumentList(job);
+        VectorStoreDocumentInfo vectorStoreDocumentInfo = this.vectorStoreDocumentService.newDocumentInfo(
+                job.docInfoId(), job.documentFileName(), documentList);
+        checkCancelled(job);
+        update(job, VectorStoreIngestionJob.Stage.EMBED, 0, documentList.size());
+        this.vectorStoreService.add(vectorStoreDocumentInfo, progress -> updateProgress(job, 0, progress),
+                job::isCancelRequested).join();
+        return vectorStoreDocumentInfo;
+    }
+
+    private VectorStoreDocumentInfo updateIngest(VectorStoreIngestionJob job) {
+        VectorStoreDocumentInfo vectorStoreDocumentInfo =
+                this.vectorStoreDocumentService.getDocumentInfo(job.docInfoId()).orElseThrow(
+                        () -> new IllegalStateException("Document not found: " + job.documentFileName()));
+        List<Document> documentList = extractDocumentList(job);
+        VectorStoreDocumentService.DocumentChangeSet documentChangeSet =
+                this.vectorStoreDocumentService.diffDocumentItems(job.docInfoId(),
+                        VectorStoreService.getDocuments(this.vectorStore, List.of(job.docInfoId())), documentList);
+        logger.info("Updating document {}: {} unchanged, {} added, {} deleted chunks", job.documentFileName(),
+                documentChangeSet.unchangedDocuments().size(), documentChangeSet.addedDocuments().size(),
+                documentChangeSet.deletedDocumentIds().size());
+        checkCancelled(job);
+        update(job, VectorStoreIngestionJob.Stage.EMBED, 0, documentChangeSet.addedDocuments().size());
+        this.vectorStoreService.update(vectorStoreDocumentInfo, documentChangeSet,
+                progress -> updateProgress(job, 0, progress), job::isCancelRequested).join();
+        return vectorStoreDocumentInfo.newTitle(vectorStoreDocumentInfo.title());
+    }
+
+    // Large files are never held in memory as a whole: chunks are embedded and indexed batch by batch while the
+    // parser is still reading, and the parser blocks until each batch has been stored.
+    private VectorStoreDocumentInfo streamIngest(VectorStoreIngestionJob job) {
+        int streamBatchSize = this.ingestionOptions.batchSize() * this.ingestionOptions.parallelism();
+        List<Document> batch = new ArrayList<>(streamBatchSize);
+        List<String> insertedIds = new ArrayList<>();
+        Predicate<Document> nearDuplicateFilter =
+                this.vectorStoreDocumentService.newNearDuplicateFilter(job.documentFileName());
+        update(job, VectorStoreIngestionJob.Stage.SPLIT, 0, 0);
+        try {
+            this.vectorStoreDocumentService.streamDocumentItems(job.documentFileName(), job.tokenTextSplitInfo(),
+                    document -> {
+                        checkCancelled(job);
+                        if (!nearDuplicateFilter.test(document))
+                            return;
+                        batch.add(this.vectorStoreDocumentService.copyNewDocument(job.docInfoId(),
+                                insertedIds.size() + batch.size(), document));
+                        if (batch.size() >= streamBatchSize)
+                            ingestBatch(job, batch, insertedIds);
+                    });
+            checkCancelled(job);
+            ingestBatch(job, batch, insertedIds);
+        } catch (RuntimeException e) {
+            if (!insertedIds.isEmpty() && !this.shuttingDown)
+                this.vectorStoreService.deleteChunks(job.docInfoId(), insertedIds);
+            throw e;
+        }
+        if (insertedIds.isEmpty())
+            throw new IllegalStateException("No chunks found");
+        return this.vectorStoreDocumentService.newDocumentInfo(job.docInfoId(), job.documentFileName(),
+                () -> this.vectorStoreService.getDocuments(List.of(job.docInfoId())));
+    }
+
+    private void ingestBatch(VectorStoreIngestionJob job, List<Document> batch, List<String> insertedIds) {
+        if (batch.isEmpty())
+            return;
+        int ingestedChunks = insertedIds.size();
+        this.vectorStoreService.ingest(List.copyOf(batch),
+                progress -> updateProgress(job, ingestedChunks, progress), job::isCancelRequested).join();
+        batch.stream().map(Document::getId).forEach(insertedIds::add);
+        batch.clear();
+        update(job, VectorStoreIngestionJob.Stage.SPLIT, insertedIds.size(), 0);
+    }
+
+    private void updateProgress(VectorStoreIngestionJob job, int ingestedChunks,
+            VectorStoreIngestionService.Progress progress) {
+        boolean embedding = progress.embeddedChunks() < progress.totalChunks();
+        update(job, embedding ? VectorStoreIngestionJob.Stage.EMBED : VectorStoreIngestionJob.Stage.INDEX,
+                ingestedChunks + (embedding ? progress.embeddedChunks() : progress.insertedChunks()),
+                ingestedChunks + progress.totalChunks());
+    }
+
+    private static void checkCancelled(VectorStoreIngestionJob job) {
+        if (job.isCancelRequested())
+            throw new CancellationException("Ingestion job cancelled");
+    }
+
+    private void update(VectorStoreIngestionJob job, VectorStoreIngestionJob.Stage stage, int completedUnits,
+            int totalUnits) {
+        job.update(stage, completedUnits, totalUnits);
+        publish(job);
+    }
+
+    private void finish(VectorStoreIngestionJob job, VectorStoreIngestionJob.Status status, String errorMessage) {
+        logger.info("Ingestion job {}: {} - {}", status, job.jobId(), job.documentFileName());
+        job.finish(status, errorMessage);
+        this.jobs.remove(job.jobId());
+        delete(job);
+        publish(job);
+    }
+
+    private void publish(VectorStoreIngestionJob job) {
+        for (Consumer<VectorStoreIngestionJob> jobListener : this.jobListeners) {
+            try {
+                jobListener.accept(job);
+            } catch (RuntimeException e) {
+                logger.warn("Failed to publish ingestion job: {}", job.jobId(), e);
+            }
+        }
+    }
+
+    private void persist(VectorStoreIngestionJob job) {
+        if (!this.persistence)
+            return;
+        try {
+            save(job);
+        } catch (IOException e) {
+            logger.warn("Failed to save ingestion job: {}", job.jobId(), e);
+        }
+    }
+
+    @Override
+    public Path getSaveDir() {
+        return this.saveDir;
+    }
+
+    @Override
+    public Logger getLogger() {
+        return logger;
+    }
+
+    @Override
+    public void buildSaveData(VectorStoreIngestionJob job, Map<String, Object> jobMap) {
+        Optional.ofNullable(job.documentList()).ifPresent(documentList -> jobMap.put("documentList", documentList));
+    }
+
+    @Override
+    public String buildSaveFileName(VectorStoreIngestionJob job) {
+        return job.jobId();
+    }
+
+    @Override
+    public VectorStoreIngestionJob convertTo(Map<String, Object> jobMap) {
+        List<Document> documentList = Optional.ofNullable((List<Map<String, Object>>) jobMap.get("documentList"))
+                .map(documentMapList -> documentMapList.stream().map(this::convertToDocument)
+                        .collect(Collectors.toList())).orElse(null);
+        return new VectorStoreIngestionJob(jobMap.get("jobId").toString(), jobMap.get("docInfoId").toString(),
+                jobMap.get("documentFileName").toString(), OBJECT_MAPPER.convertValue(jobMap.get("tokenTextSplitInfo"),
+                VectorStoreDocumentService.TokenTextSplitInfo.class),
+                ((Number) jobMap.get("createTimestamp")).longValue(), documentList,
+                Boolean.TRUE.equals(jobMap.get("update")));
+    }
+
+    private Document convertToDocument(Map<String, Object> documentMap) {
+        return new Document(documentMap.get("id").toString(), documentMap.get("text").toString(),
+                (Map<String, Object>) documentMap.get("metadata"));
+    }
+
+    @Override
+    public void delete(VectorStoreIngestionJob job) {
+        try {
+            Files.deleteIfExists(getSaveDir().resolve(buildSaveFileName(job) + ".json"));
+        } catch (IOException e) {
+            logger.warn("Failed to delete ingestion job: {}", job.jobId(), e);
+        }
+    }
+
+    @Override
+    public void onStart() throws IOException {
+        this.resumableJobs.addAll(loads());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeJobs() {
+        List<VectorStoreIngestionJob> jobList = new ArrayList<>(this.resumableJobs);
+        this.resumableJobs.clear();
+        List<String> docInfoIds =
+                this.vectorStoreDocumentService.getDocumentList().stream().map(VectorStoreDocumentInfo::docInfoId)
+                        .toList();
+        for (VectorStoreIngestionJob job : jobList) {
+            if (!job.isUpdate() && docInfoIds.contains(job.docInfoId())) {
+                delete(job);
+                continue;
+            }
+            logger.info("Resuming ingestion job: {} - {}", job.jobId(), job.documentFileName());
+            submit(job, true);
+        }
+    }
+
+    @Override
+    public void onShutdown() throws IOException {
+        for (VectorStoreIngestionJob job : getJobs())
+            save(job);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        this.shuttingDown = true;
+        this.jobExecutor.shutdownNow();
+    }
+}
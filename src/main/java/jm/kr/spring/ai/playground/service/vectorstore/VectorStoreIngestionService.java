@@ -0,0 +1,260 @@
+/*
+ * Copyright © 2025 Jemin Huh (hjm1980@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jm.kr.spring.ai.playground.service.vectorstore;
+
+import jakarta.annotation.PreDestroy;
+import jm.kr.spring.ai.playground.SpringAiPlaygroundOptions;
+import jm.kr.spring.ai.playground.service.vectorstore.local.EmbeddedVectorStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.embedding.BatchingStrategy;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.embedding.EmbeddingOptions;
+import org.springframework.ai.embedding.TokenCountBatchingStrategy;
+import org.springframework.ai.vectorstore.VectorStore;
+import org.springframework.retry.support.RetryTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+@Service
+public class VectorStoreIngestionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(VectorStoreIngestionService.class);
+
+    public static final SpringAiPlaygroundOptions.Ingestion DEFAULT_INGESTION_OPTIONS =
+            new SpringAiPlaygroundOptions.Ingestion(32, 4, 3, Duration.ofMillis(500), Duration.ofSeconds(10), 2,
+                    DataSize.ofMegabytes(10));
+
+    public record Progress(int totalChunks, int embeddedChunks, int insertedChunks, int retries) {
+        public boolean isDone() {
+            return this.insertedChunks >= this.totalChunks;
+        }
+
+        public double ratio() {
+            return this.totalChunks == 0 ? 1 : (double) this.insertedChunks / this.totalChunks;
+        }
+    }
+
+    private final EmbeddingModel embeddingModel;
+    private final VectorStore vectorStore;
+    private final SpringAiPlaygroundOptions.Ingestion ingestionOptions;
+    private final BatchingStrategy batchingStrategy;
+    private final RetryTemplate retryTemplate;
+    private final Semaphore permits;
+    private final ExecutorService ingestionExecutor;
+
+    public VectorStoreIngestionService(EmbeddingModel embeddingModel, VectorStore vectorStore,
+            SpringAiPlaygroundOptions playgroundOptions) {
+        this.embeddingModel = embeddingModel;
+        this.vectorStore = vectorStore;
+        this.ingestionOptions = getIngestionOptions(playgroundOptions);
+        this.batchingStrategy = new TokenCountBatchingStrategy();
+        this.retryTemplate = RetryTemplate.builder().maxAttempts(this.ingestionOptions.maxAttempts())
+                .exponentialBackoff(this.ingestionOptions.initialBackoff(), 2, this.ingestionOptions.maxBackoff())
+                .notRetryOn(CancellationException.class).build();
+        this.permits = new Semaphore(this.ingestionOptions.parallelism());
+        this.ingestionExecutor = Executors.newVirtualThreadPerTaskExecutor();
+        logger.info("Vector store ingestion options: {}", this.ingestionOptions);
+    }
+
+    public SpringAiPlaygroundOptions.Ingestion getIngestionOptions() {
+        return this.ingestionOptions;
+    }
+
+    public CompletableFuture<List<Document>> ingest(List<Document> documents, Consumer<Progress> progressListener) {
+        return ingest(documents, progressListener, () -> false);
+    }
+
+    public CompletableFuture<List<Document>> ingest(List<Document> documents, Consumer<Progress> progressListener,
+            BooleanSupplier cancelled) {
+        List<List<Document>> batches = new ArrayList<>();
+        for (int i = 0; i < documents.size(); i += this.ingestionOptions.batchSize())
+            batches.add(documents.subList(i, Math.min(i + this.ingestionOptions.batchSize(), documents.size())));
+        ProgressTracker progressTracker = new ProgressTracker(documents.size(), progressListener);
+        AtomicBoolean failed = new AtomicBoolean();
+        List<Document> insertedDocuments = new ArrayList<>();
+        CompletableFuture<Void> insertFuture = CompletableFuture.completedFuture(null);
+        for (List<Document> batch : batches) {
+            if (this.vectorStore instanceof EmbeddedVectorStore embeddedVectorStore) {
+                CompletableFuture<List<float[]>> embedFuture = supplyAsync(failed, cancelled, () -> {
+                    List<float[]> embeddings = withRetry(progressTracker, cancelled,
+                            () -> this.embeddingModel.embed(batch, EmbeddingOptions.builder().build(),
+                                    this.batchingStrategy));
+                    progressTracker.embedded(batch.size());
+                    return embeddings;
+                });
+                insertFuture = insertFuture.thenCombine(embedFuture, (ignored, embeddings) -> {
+                    embeddedVectorStore.addEmbedded(batch, embeddings);
+                    inserted(insertedDocuments, batch, progressTracker);
+                    return null;
+                });
+            } else {
+                CompletableFuture<Void> batchFuture = supplyAsync(failed, cancelled, () -> {
+                    withRetry(progressTracker, cancelled, () -> {
+                        this.vectorStore.add(batch);
+                        return null;
+                    });
+                    progressTracker.embedded(batch.size());
+                    inserted(insertedDocuments, batch, progressTracker);
+                    return null;
+                });
+                insertFuture = insertFuture.thenCombine(batchFuture, (left, right) -> null);
+            }
+        }
+        return insertFuture.handle((ignored, throwable) -> {
+            if (throwable == null)
+                return documents;
+            synchronized (insertedDocuments) {
+                if (throwable.getCause() instanceof CancellationException)
+                    logger.info("Ingestion cancelled, rolling back {} inserted chunks", insertedDocuments.size());
+                else
+                    logger.error("Failed to ingest documents, rolling back {} inserted chunks",
+                            insertedDocuments.size(), throwable);
+                if (!insertedDocuments.isEmpty())
+                    this.vectorStore.delete(insertedDocuments.stream().map(Document::getId).toList());
+            }
+            throw throwable instanceof CompletionException completionException ? completionException :
+                    new CompletionException(throwable);
+        });
+    }
+
+    private <T> CompletableFuture<T> supplyAsync(AtomicBoolean failed, BooleanSupplier cancelled,
+            Supplier<T> supplier) {
+        return CompletableFuture.supplyAsync(() -> {
+            if (failed.get())
+                throw new IllegalStateException("Ingestion aborted by a failed batch");
+            if (cancelled.getAsBoolean()) {
+                failed.set(true);
+                throw new CancellationException("Ingestion cancelled");
+            }
+            try {
+                return supplier.get();
+            } catch (RuntimeException e) {
+                failed.set(true);
+                throw e;
+            }
+        }, this.ingestionExecutor);
+    }
+
+    private static void inserted(List<Document> insertedDocuments, List<Document> batch,
+            ProgressTracker progressTracker) {
+        synchronized (insertedDocuments) {
+            insertedDocuments.addAll(batch);
+        }
+        progressTracker.inserted(batch.size());
+    }
+
+    private <T> T withRetry(ProgressTracker progressTracker, BooleanSupplier cancelled, Supplier<T> supplier) {
+        return this.retryTemplate.execute(context -> {
+            if (context.getRetryCount() > 0) {
+                progressTracker.retried();
+                logger.warn("Retrying embedding batch: attempt {}, cause: {}", context.getRetryCount() + 1,
+                        context.getLastThrowable().getMessage());
+            }
+            this.permits.acquireUninterruptibly();
+            try {
+                if (cancelled.getAsBoolean())
+                    throw new CancellationException("Ingestion cancelled");
+                return supplier.get();
+            } finally {
+                this.permits.release();
+            }
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        this.ingestionExecutor.shutdownNow();
+    }
+
+    static SpringAiPlaygroundOptions.Ingestion getIngestionOptions(SpringAiPlaygroundOptions playgroundOptions) {
+        Optional<SpringAiPlaygroundOptions.Ingestion> ingestionOptions =
+                Optional.ofNullable(playgroundOptions.vectorStore())
+                        .map(SpringAiPlaygroundOptions.VectorStore::ingestion);
+        return new SpringAiPlaygroundOptions.Ingestion(
+                ingestionOptions.map(SpringAiPlaygroundOptions.Ingestion::batchSize).filter(size -> size > 0)
+                        .orElse(DEFAULT_INGESTION_OPTIONS.batchSize()),
+                ingestionOptions.map(SpringAiPlaygroundOptions.Ingestion::parallelism).filter(size -> size > 0)
+                        .orElse(DEFAULT_INGESTION_OPTIONS.parallelism()),
+                ingestionOptions.map(SpringAiPlaygroundOptions.Ingestion::maxAttempts).filter(size -> size > 0)
+                        .orElse(DEFAULT_INGESTION_OPTIONS.maxAttempts()),
+                ingestionOptions.map(SpringAiPlaygroundOptions.Ingestion::initialBackoff)
+                        .orElse(DEFAULT_INGESTION_OPTIONS.initialBackoff()),
+                ingestionOptions.map(SpringAiPlaygroundOptions.Ingestion::maxBackoff)
+                        .orElse(DEFAULT_INGESTION_OPTIONS.maxBackoff()),
+                ingestionOptions.map(SpringAiPlaygroundOptions.Ingestion::maxRunningJobs).filter(size -> size > 0)
+                        .orElse(DEFAULT_INGESTION_OPTIONS.maxRunningJobs()),
+                ingestionOptions.map(SpringAiPlaygroundOptions.Ingestion::streamingThreshold)
+                        .orElse(DEFAULT_INGESTION_OPTIONS.streamingThreshold()));
+    }
+
+    private static class ProgressTracker {
+        private final int totalChunks;
+        private final Consumer<Progress> progressListener;
+        private final AtomicInteger embeddedChunks;
+        private final AtomicInteger insertedChunks;
+        private final AtomicInteger retries;
+
+        private ProgressTracker(int totalChunks, Consumer<Progress> progressListener) {
+            this.totalChunks = totalChunks;
+            this.progressListener = progressListener;
+            this.embeddedChunks = new AtomicInteger();
+            this.insertedChunks = new AtomicInteger();
+            this.retries = new AtomicInteger();
+        }
+
+        private void embedded(int chunks) {
+            this.embeddedChunks.addAndGet(chunks);
+            publish();
+        }
+
+        private void inserted(int chunks) {
+            this.insertedChunks.addAndGet(chunks);
+            publish();
+        }
+
+        private void retried() {
+            this.retries.incrementAndGet();
+            publish();
+        }
+
+        private void publish() {
+            try {
+                this.progressListener.accept(new Progress(this.totalChunks, this.embeddedChunks.get(),
+                        this.insertedChunks.get(), this.retries.get()));
+            } catch (RuntimeException e) {
+                logger.warn("Failed to publish ingestion progress", e);
+            }
+        }
+    }
+}
@@ -15,23 +15,47 @@
  */
 package jm.kr.spring.ai.playground.service.vectorstore;
 
-
+import jakarta.annotation.PreDestroy;
+import jm.kr.spring.ai.playground.service.embedding.CachingEmbeddingModel;
+import jm.kr.spring.ai.playground.service.vectorstore.local.HnswVectorStore;
+import jm.kr.spring.ai.playground.service.vectorstore.local.LexicalSearchableVectorStore;
+import jm.kr.spring.ai.playground.service.vectorstore.local.MetadataIndexedVectorStore;
+import jm.kr.spring.ai.playground.service.vectorstore.local.PageableVectorStore;
+import jm.kr.spring.ai.playground.service.vectorstore.local.QuantizationMode;
+import jm.kr.spring.ai.playground.service.vectorstore.local.ShardedVectorStore;
 import org.springframework.ai.document.Document;
 import org.springframework.ai.embedding.AbstractEmbeddingModel;
 import org.springframework.ai.embedding.EmbeddingModel;
 import org.springframework.ai.embedding.EmbeddingOptions;
 import org.springframework.ai.vectorstore.SearchRequest;
 import org.springframework.ai.vectorstore.VectorStore;
+import org.springframework.ai.vectorstore.filter.Filter;
 import org.springframework.ai.vectorstore.filter.FilterExpressionBuilder;
+import org.springframework.ai.vectorstore.filter.FilterExpressionTextParser;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import static org.springframework.ai.vectorstore.SearchRequest.DEFAULT_TOP_K;
 import static org.springframework.ai.vectorstore.SearchRequest.SIMILARITY_THRESHOLD_ACCEPT_ALL;
@@ -40,6 +64,10 @@ import static org.springframework.ai.vectorstore.SearchRequest.SIMILARITY_THRESH
 public class VectorStoreService {
     private static final String ALL_QUERY = "all";
     public static final String DOC_INFO_ID = "docInfoId";
+    public static final String CHUNK_HASH = "chunkHash";
+    public static final String CHUNK_INDEX = "chunk_index";
+    public static final String VECTOR_SCORE = "vectorScore";
+    public static final String BM25_SCORE = "bm25Score";
     public static final SearchRequestOption ALL_SEARCH_REQUEST_OPTION =
             new SearchRequestOption(SIMILARITY_THRESHOLD_ACCEPT_ALL, 10000);
     public static final Function<List<String>, SearchRequest> SEARCH_ALL_REQUEST_WITH_DOC_INFO_IDS_FUNCTION =
@@ -48,32 +76,83 @@ public class VectorStoreService {
                     .filterExpression(new FilterExpressionBuilder().in(DOC_INFO_ID, docInfoIds.toArray()).build())
                     .build();
 
-    public record SearchRequestOption(Double similarityThreshold, Integer topK) {
+    public static final int DOCUMENT_PAGE_SIZE = 1000;
+    public static final int RRF_K = 60;
+    private static final int MAX_PARSED_FILTER_EXPRESSIONS = 256;
+
+    public enum RetrievalMode {VECTOR, BM25, HYBRID}
+
+    public record SearchRequestOption(Double similarityThreshold, Integer topK, RetrievalMode retrievalMode) {
+        public SearchRequestOption(Double similarityThreshold, Integer topK) {
+            this(similarityThreshold, topK, RetrievalMode.VECTOR);
+        }
+
         public SearchRequestOption newSimilarityThreshold(Double newSimilarityThreshold) {
-            return new SearchRequestOption(newSimilarityThreshold, topK);
+            return new SearchRequestOption(newSimilarityThreshold, topK, retrievalMode);
         }
 
         public SearchRequestOption newTopK(Integer newTopK) {
-            return new SearchRequestOption(similarityThreshold, newTopK);
+            return new SearchRequestOption(similarityThreshold, newTopK, retrievalMode);
+        }
+
+        public SearchRequestOption newRetrievalMode(RetrievalMode newRetrievalMode) {
+            return new SearchRequestOption(similarityThreshold, topK, newRetrievalMode);
         }
     }
 
+    public record DocumentChange(Set<String> docInfoIds, Set<String> documentIds) {}
+
     private final ApplicationContext applicationContext;
     private final VectorStoreDocumentPersistenceService vectorStoreDocumentPersistenceService;
+    private final VectorStoreIngestionService vectorStoreIngestionService;
 
     private final AbstractEmbeddingModel embeddingModel;
     private final VectorStore vectorStore;
+    private final ExecutorService searchExecutor;
+    private final List<Consumer<DocumentChange>> documentChangeListeners;
+    private final Map<String, Filter.Expression> parsedFilterExpressionMap;
     private SearchRequestOption searchRequestOption;
     private EmbeddingOptions embeddingOptions;
 
     public VectorStoreService(EmbeddingModel embeddingModel, VectorStore vectorStore,
-            @Lazy ApplicationContext applicationContext,
+            VectorStoreIngestionService vectorStoreIngestionService, @Lazy ApplicationContext applicationContext,
             @Lazy VectorStoreDocumentPersistenceService vectorStoreDocumentPersistenceService) {
         this.embeddingModel = (AbstractEmbeddingModel) embeddingModel;
         this.vectorStore = vectorStore;
+        this.vectorStoreIngestionService = vectorStoreIngestionService;
         this.searchRequestOption = new SearchRequestOption(0.6, DEFAULT_TOP_K);
         this.applicationContext = applicationContext;
         this.vectorStoreDocumentPersistenceService = vectorStoreDocumentPersistenceService;
+        this.searchExecutor = Executors.newVirtualThreadPerTaskExecutor();
+        this.documentChangeListeners = new CopyOnWriteArrayList<>();
+        this.parsedFilterExpressionMap = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Filter.Expression> eldest) {
+                return size() > MAX_PARSED_FILTER_EXPRESSIONS;
+            }
+        };
+    }
+
+    public void addDocumentChangeListener(Consumer<DocumentChange> documentChangeListener) {
+        this.documentChangeListeners.add(documentChangeListener);
+    }
+
+    public void removeDocumentChangeListener(Consumer<DocumentChange> documentChangeListener) {
+        this.documentChangeListeners.remove(documentChangeListener);
+    }
+
+    private void publishDocumentChange(Collection<Document> documents, Collection<String> documentIds) {
+        DocumentChange documentChange = new DocumentChange(documents.stream()
+                .map(document -> document.getMetadata().get(DOC_INFO_ID)).filter(Objects::nonNull)
+                .map(Object::toString).collect(Collectors.toUnmodifiableSet()), Set.copyOf(documentIds));
+        if (documentChange.docInfoIds().isEmpty() && documentChange.documentIds().isEmpty())
+            return;
+        this.documentChangeListeners.forEach(documentChangeListener -> documentChangeListener.accept(documentChange));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        this.searchExecutor.shutdownNow();
     }
 
     public SearchRequestOption getSearchRequestOption() {
@@ -84,6 +163,8 @@ public class VectorStoreService {
         this.searchRequestOption = searchRequestOption;
     }
 
+    // Scores depend on the retrieval mode: cosine similarity for VECTOR, raw unbounded BM25 for BM25 and the
+    // reciprocal rank fusion score for HYBRID.
     public List<Document> search(String userPromptText, String filterExpression) {
         SearchRequest.Builder searchRequestBuilder = SearchRequest.builder();
         searchRequestBuilder.similarityThreshold(this.searchRequestOption.similarityThreshold())
@@ -92,9 +173,100 @@ public class VectorStoreService {
             searchRequestBuilder.query(userPromptText);
         }
         if (Objects.nonNull(filterExpression) && !filterExpression.isBlank()) {
-            searchRequestBuilder.filterExpression(filterExpression);
+            searchRequestBuilder.filterExpression(parseFilterExpression(filterExpression));
         }
-        return search(searchRequestBuilder.build());
+        SearchRequest searchRequest = searchRequestBuilder.build();
+        if (searchRequest.getQuery().isBlank() || !isLexicalSearchSupported())
+            return search(searchRequest);
+        LexicalSearchableVectorStore lexicalSearchableVectorStore = (LexicalSearchableVectorStore) this.vectorStore;
+        return switch (this.searchRequestOption.retrievalMode()) {
+            case VECTOR -> search(searchRequest);
+            case BM25 -> lexicalSearchableVectorStore.lexicalSearch(searchRequest);
+            case HYBRID -> hybridSearch(lexicalSearchableVectorStore, searchRequest);
+        };
+    }
+
+    private Filter.Expression parseFilterExpression(String filterExpression) {
+        synchronized (this.parsedFilterExpressionMap) {
+            return this.parsedFilterExpressionMap.computeIfAbsent(filterExpression,
+                    text -> new FilterExpressionTextParser().parse(text));
+        }
+    }
+
+    // The lexical side runs while the query is being embedded, then both rankings are merged with reciprocal
+    // rank fusion; each side contributes twice as many candidates as the final top K. The returned score is the
+    // RRF score, the original cosine similarity and raw BM25 score are kept in the VECTOR_SCORE and BM25_SCORE
+    // metadata. The similarity threshold only filters the vector side since BM25 scores are unbounded.
+    private List<Document> hybridSearch(LexicalSearchableVectorStore lexicalSearchableVectorStore,
+            SearchRequest searchRequest) {
+        int topK = searchRequest.getTopK();
+        SearchRequest candidateSearchRequest = SearchRequest.from(searchRequest)
+                .topK(Math.min(topK * 2, ALL_SEARCH_REQUEST_OPTION.topK())).build();
+        CompletableFuture<List<Document>> vectorFuture =
+                CompletableFuture.supplyAsync(() -> search(candidateSearchRequest), this.searchExecutor);
+        List<Document> lexicalDocuments = lexicalSearchableVectorStore.lexicalSearch(
+                SearchRequest.from(candidateSearchRequest).similarityThresholdAll().build());
+        List<Document> vectorDocuments = vectorFuture.join();
+        Map<String, Double> vectorScoreMap = buildScoreMap(vectorDocuments);
+        Map<String, Double> bm25ScoreMap = buildScoreMap(lexicalDocuments);
+        return fuseByReciprocalRank(List.of(vectorDocuments, lexicalDocuments), topK).stream().map(document -> {
+            Map<String, Object> metadata = new HashMap<>(document.getMetadata());
+            Optional.ofNullable(vectorScoreMap.get(document.getId())).ifPresent(
+                    score -> metadata.put(VECTOR_SCORE, score));
+            Optional.ofNullable(bm25ScoreMap.get(document.getId())).ifPresent(score -> metadata.put(BM25_SCORE, score));
+            return document.mutate().metadata(metadata).build();
+        }).toList();
+    }
+
+    private static Map<String, Double> buildScoreMap(List<Document> documents) {
+        return documents.stream().filter(document -> Objects.nonNull(document.getScore()))
+                .collect(Collectors.toMap(Document::getId, Document::getScore, (first, second) -> first));
+    }
+
+    public static List<Document> fuseByReciprocalRank(List<List<Document>> rankedDocumentLists, int topK) {
+        Map<String, Document> idDocumentMap = new LinkedHashMap<>();
+        Map<String, Double> idScoreMap = new HashMap<>();
+        for (List<Document> rankedDocuments : rankedDocumentLists) {
+            for (int rank = 0; rank < rankedDocuments.size(); rank++) {
+                Document document = rankedDocuments.get(rank);
+                idDocumentMap.putIfAbsent(document.getId(), document);
+                idScoreMap.merge(document.getId(), 1.0 / (RRF_K + rank + 1), Double::sum);
+            }
+        }
+        return idDocumentMap.values().stream()
+                .sorted(Comparator.comparingDouble((Document document) -> idScoreMap.get(document.getId()))
+                        .reversed()).limit(topK)
+                .map(document -> document.mutate().score(idScoreMap.get(document.getId())).build()).toList();
+    }
+
+    // Stored chunks carry their position in the uploaded document as chunk_index metadata. Chunks stored before it
+    // was kept current only have the position as their id prefix, followed by their docInfoId.
+    public static OptionalInt getChunkIndex(Document document) {
+        Object chunkIndex = document.getMetadata().get(CHUNK_INDEX);
+        if (chunkIndex instanceof Number number)
+            return OptionalInt.of(number.intValue());
+        if (Objects.nonNull(chunkIndex))
+            return parseChunkIndex(chunkIndex.toString());
+        Object docInfoId = document.getMetadata().get(DOC_INFO_ID);
+        if (Objects.isNull(docInfoId) || !document.getId().endsWith(docInfoId.toString()))
+            return OptionalInt.empty();
+        return parseChunkIndex(document.getId().substring(0, Math.max(0, document.getId().indexOf('-'))));
+    }
+
+    private static OptionalInt parseChunkIndex(String text) {
+        try {
+            return OptionalInt.of(Integer.parseInt(text));
+        } catch (NumberFormatException e) {
+            return OptionalInt.empty();
+        }
+    }
+
+    public boolean isPageable() {
+        return this.vectorStore instanceof PageableVectorStore;
+    }
+
+    public boolean isLexicalSearchSupported() {
+        return this.vectorStore instanceof LexicalSearchableVectorStore;
     }
 
     public List<Document> search(SearchRequest searchRequest) {
@@ -103,13 +275,114 @@ public class VectorStoreService {
     }
 
     public void add(VectorStoreDocumentInfo vectorStoreDocumentInfo) {
-        this.vectorStore.add(vectorStoreDocumentInfo.documentListSupplier().get());
-        vectorStoreDocumentInfo.changeDocumentListSupplier(() -> this.vectorStore.similaritySearch(
-                SEARCH_ALL_REQUEST_WITH_DOC_INFO_IDS_FUNCTION.apply(List.of(vectorStoreDocumentInfo.docInfoId()))));
+        add(vectorStoreDocumentInfo, progress -> {}).join();
+    }
+
+    public CompletableFuture<VectorStoreDocumentInfo> add(VectorStoreDocumentInfo vectorStoreDocumentInfo,
+            Consumer<VectorStoreIngestionService.Progress> progressListener) {
+        return add(vectorStoreDocumentInfo, progressListener, () -> false);
+    }
+
+    public CompletableFuture<VectorStoreDocumentInfo> add(VectorStoreDocumentInfo vectorStoreDocumentInfo,
+            Consumer<VectorStoreIngestionService.Progress> progressListener, BooleanSupplier cancelled) {
+        return ingest(vectorStoreDocumentInfo.documentListSupplier().get(), progressListener, cancelled)
+                .thenApply(documents -> {
+            vectorStoreDocumentInfo.changeDocumentListSupplier(
+                    () -> getDocuments(List.of(vectorStoreDocumentInfo.docInfoId())));
+            return vectorStoreDocumentInfo;
+        });
+    }
+
+    public CompletableFuture<VectorStoreDocumentInfo> update(VectorStoreDocumentInfo vectorStoreDocumentInfo,
+            VectorStoreDocumentService.DocumentChangeSet documentChangeSet,
+            Consumer<VectorStoreIngestionService.Progress> progressListener, BooleanSupplier cancelled) {
+        return ingest(documentChangeSet.addedDocuments(), progressListener, cancelled)
+                .thenApply(documents -> {
+                    deleteChunks(vectorStoreDocumentInfo.docInfoId(), documentChangeSet.deletedDocumentIds());
+                    vectorStoreDocumentInfo.changeDocumentListSupplier(
+                            () -> getDocuments(List.of(vectorStoreDocumentInfo.docInfoId())));
+                    return vectorStoreDocumentInfo;
+                });
+    }
+
+    // A failed or cancelled ingestion may have stored part of the chunks, so listeners are notified either way.
+    public CompletableFuture<List<Document>> ingest(List<Document> documents,
+            Consumer<VectorStoreIngestionService.Progress> progressListener, BooleanSupplier cancelled) {
+        return this.vectorStoreIngestionService.ingest(documents, progressListener, cancelled)
+                .whenComplete((ingestedDocuments, throwable) -> publishDocumentChange(documents,
+                        documents.stream().map(Document::getId).toList()));
+    }
+
+    public void deleteChunks(String docInfoId, List<String> documentIds) {
+        if (documentIds.isEmpty())
+            return;
+        this.vectorStore.delete(documentIds);
+        this.documentChangeListeners.forEach(documentChangeListener -> documentChangeListener.accept(
+                new DocumentChange(Set.of(docInfoId), Set.copyOf(documentIds))));
+    }
+
+    public List<Document> getDocuments(List<String> docInfoIds) {
+        return getDocuments(this.vectorStore, docInfoIds);
+    }
+
+    public List<Document> getDocuments(List<String> docInfoIds, int offset, int limit) {
+        return getDocuments(this.vectorStore, docInfoIds, offset, limit);
+    }
+
+    public int countDocuments(List<String> docInfoIds) {
+        if (Objects.isNull(docInfoIds))
+            return this.vectorStore instanceof PageableVectorStore pageableVectorStore ?
+                    pageableVectorStore.count(null, null) : searchAll(null).size();
+        return this.vectorStore instanceof MetadataIndexedVectorStore metadataIndexedVectorStore ?
+                metadataIndexedVectorStore.countByMetadata(DOC_INFO_ID, docInfoIds) :
+                this.vectorStore.similaritySearch(SEARCH_ALL_REQUEST_WITH_DOC_INFO_IDS_FUNCTION.apply(docInfoIds))
+                        .size();
+    }
+
+    // Null docInfoIds pages over the whole collection. Stores that cannot page are read in full up to the search
+    // all limit and sorted in memory.
+    public List<Document> getDocumentPage(List<String> docInfoIds, int offset, int limit,
+            List<PageableVectorStore.SortOrder> sortOrders) {
+        if (this.vectorStore instanceof PageableVectorStore pageableVectorStore)
+            return pageableVectorStore.findPage(Objects.isNull(docInfoIds) ? null : DOC_INFO_ID, docInfoIds, offset,
+                    limit, sortOrders);
+        return searchAll(docInfoIds).stream().sorted(PageableVectorStore.documentComparator(sortOrders)).skip(offset)
+                .limit(limit).toList();
+    }
+
+    private List<Document> searchAll(List<String> docInfoIds) {
+        return Objects.isNull(docInfoIds) ? this.vectorStore.similaritySearch(
+                SearchRequest.builder().query(ALL_QUERY).similarityThreshold(
+                                ALL_SEARCH_REQUEST_OPTION.similarityThreshold())
+                        .topK(ALL_SEARCH_REQUEST_OPTION.topK()).build()) :
+                this.vectorStore.similaritySearch(SEARCH_ALL_REQUEST_WITH_DOC_INFO_IDS_FUNCTION.apply(docInfoIds));
+    }
+
+    public static List<Document> getDocuments(VectorStore vectorStore, List<String> docInfoIds) {
+        if (!(vectorStore instanceof MetadataIndexedVectorStore))
+            return getDocuments(vectorStore, docInfoIds, 0, Integer.MAX_VALUE);
+        List<Document> documents = new ArrayList<>();
+        List<Document> page;
+        do {
+            page = getDocuments(vectorStore, docInfoIds, documents.size(), DOCUMENT_PAGE_SIZE);
+            documents.addAll(page);
+        } while (page.size() == DOCUMENT_PAGE_SIZE);
+        return documents;
+    }
+
+    public static List<Document> getDocuments(VectorStore vectorStore, List<String> docInfoIds, int offset,
+            int limit) {
+        if (vectorStore instanceof MetadataIndexedVectorStore metadataIndexedVectorStore)
+            return metadataIndexedVectorStore.findByMetadata(DOC_INFO_ID, docInfoIds, offset, limit);
+        List<Document> documents =
+                vectorStore.similaritySearch(SEARCH_ALL_REQUEST_WITH_DOC_INFO_IDS_FUNCTION.apply(docInfoIds));
+        return documents.subList(Math.min(offset, documents.size()),
+                (int) Math.min((long) offset + limit, documents.size()));
     }
 
     public List<Document> add(List<Document> documents) {
         this.vectorStore.add(documents);
+        publishDocumentChange(documents, documents.stream().map(Document::getId).toList());
         return documents;
     }
 
@@ -121,17 +394,27 @@ public class VectorStoreService {
 
     public void delete(List<String> documentIds) {
         this.vectorStore.delete(documentIds);
+        publishDocumentChange(List.of(), documentIds);
         this.vectorStoreDocumentPersistenceService.delete(documentIds);
     }
 
     public String getEmbeddingModelServiceName() {
-        return this.embeddingModel.getClass().getSimpleName().replace("EmbeddingModel", "");
+        EmbeddingModel embeddingModel = this.embeddingModel instanceof CachingEmbeddingModel cachingEmbeddingModel ?
+                cachingEmbeddingModel.getDelegate() : this.embeddingModel;
+        return embeddingModel.getClass().getSimpleName().replace("EmbeddingModel", "");
     }
 
     public String getVectorStoreName() {
         return this.vectorStore.getName();
     }
 
+    public Optional<QuantizationMode> getQuantizationMode() {
+        if (this.vectorStore instanceof ShardedVectorStore shardedVectorStore)
+            return Optional.of(shardedVectorStore.getQuantizationMode());
+        return this.vectorStore instanceof HnswVectorStore hnswVectorStore ?
+                Optional.of(hnswVectorStore.getQuantizationMode()) : Optional.empty();
+    }
+
     public EmbeddingOptions getEmbeddingOptions() {
         return Optional.ofNullable(this.embeddingOptions)
                 .orElseGet(() -> this.embeddingOptions = Arrays.stream(this.applicationContext.getBeanDefinitionNames())
@@ -0,0 +1,55 @@
+/*
+ * Copyright © 2025 Jemin Huh (hjm1980@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jm.kr.spring.ai.playground.service.vectorstore.local;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+
+public class BinaryVectorStorage extends QuantizedVectorStorage {
+
+    private final int words;
+
+    public BinaryVectorStorage(int dimensions, Path storageDirectory) {
+        super(dimensions, (dimensions + Long.SIZE - 1) / Long.SIZE * Long.BYTES, storageDirectory, "binary-");
+        this.words = this.recordBytes / Long.BYTES;
+    }
+
+    @Override
+    public QuantizationMode getQuantizationMode() {
+        return QuantizationMode.BINARY;
+    }
+
+    @Override
+    NodeScorer scorer(SimilarityKernel similarityKernel, float[] query) {
+        long[] queryBits = binarize(query, this.words);
+        return node -> 1 - 2f * similarityKernel.hamming(queryBits, page(node), offset(node)) / this.dimensions;
+    }
+
+    @Override
+    protected void encode(float[] vector, ByteBuffer page, int offset) {
+        long[] bits = binarize(vector, this.words);
+        for (int i = 0; i < bits.length; i++)
+            page.putLong(offset + i * Long.BYTES, bits[i]);
+    }
+
+    static long[] binarize(float[] vector, int words) {
+        long[] bits = new long[words];
+        for (int i = 0; i < vector.length; i++)
+            if (vector[i] > 0)
+                bits[i / Long.SIZE] |= 1L << (i % Long.SIZE);
+        return bits;
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright © 2025 Jemin Huh (hjm1980@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jm.kr.spring.ai.playground.service.vectorstore.local;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.function.IntPredicate;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+class Bm25Index {
+
+    static final float K1 = 1.2f;
+    static final float B = 0.75f;
+
+    // Compound identifiers such as ERR_CONN_42, spring-ai or v1.1.2 are indexed both whole and by their parts.
+    private static final Pattern TOKEN_PATTERN = Pattern.compile("[\\p{L}\\p{N}]+(?:[._\\-:/][\\p{L}\\p{N}]+)*");
+    private static final Pattern PART_SEPARATOR_PATTERN = Pattern.compile("[._\\-:/]");
+    private static final Comparator<HnswIndex.ScoredNode> WORST_FIRST =
+            Comparator.comparingDouble(HnswIndex.ScoredNode::score);
+
+    // Postings are append-only: removed nodes are skipped at query time and dropped when the store compacts.
+    private static final class Postings {
+        private int[] nodes = new int[4];
+        private int[] termFrequencies = new int[4];
+        private int size;
+        private int documentFrequency;
+
+        private void add(int node, int termFrequency) {
+            if (this.size == this.nodes.length) {
+                this.nodes = Arrays.copyOf(this.nodes, this.size * 2);
+                this.termFrequencies = Arrays.copyOf(this.termFrequencies, this.size * 2);
+            }
+            this.nodes[this.size] = node;
+            this.termFrequencies[this.size++] = termFrequency;
+            this.documentFrequency++;
+        }
+    }
+
+    private final Map<String, Postings> termPostingsMap;
+    private final Map<Integer, Integer> nodeLengthMap;
+    private long totalLength;
+
+    Bm25Index() {
+        this.termPostingsMap = new HashMap<>();
+        this.nodeLengthMap = new HashMap<>();
+    }
+
+    int size() {
+        return this.nodeLengthMap.size();
+    }
+
+    void add(int node, String text) {
+        List<String> tokens = tokenize(text);
+        Map<String, Integer> termFrequencyMap = new HashMap<>();
+        tokens.forEach(token -> termFrequencyMap.merge(token, 1, Integer::sum));
+        termFrequencyMap.forEach((term, termFrequency) -> this.termPostingsMap
+                .computeIfAbsent(term, t -> new Postings()).add(node, termFrequency));
+        this.nodeLengthMap.put(node, tokens.size());
+        this.totalLength += tokens.size();
+    }
+
+    void remove(int node, String text) {
+        Integer length = this.nodeLengthMap.remove(node);
+        if (Objects.isNull(length))
+            return;
+        this.totalLength -= length;
+        for (String term : new LinkedHashSet<>(tokenize(text))) {
+            Postings postings = this.termPostingsMap.get(term);
+            if (Objects.nonNull(postings) && --postings.documentFrequency == 0)
+                this.termPostingsMap.remove(term);
+        }
+    }
+
+    List<HnswIndex.ScoredNode> search(String queryText, int topK, IntPredicate accept) {
+        int size = size();
+        if (size == 0 || topK <= 0)
+            return List.of();
+        float averageLength = Math.max(1f, (float) this.totalLength / size);
+        Map<Integer, Float> nodeScoreMap = new HashMap<>();
+        for (String term : new LinkedHashSet<>(tokenize(queryText))) {
+            Postings postings = this.termPostingsMap.get(term);
+            if (Objects.isNull(postings))
+                continue;
+            float idf = (float) Math.log(1 + (size - postings.documentFrequency + 0.5) /
+                    (postings.documentFrequency + 0.5));
+            for (int i = 0; i < postings.size; i++) {
+                int node = postings.nodes[i];
+                Integer length = this.nodeLengthMap.get(node);
+                if (Objects.isNull(length) || (Objects.nonNull(accept) && !accept.test(node)))
+                    continue;
+                int termFrequency = postings.termFrequencies[i];
+                float score = idf * termFrequency * (K1 + 1) /
+                        (termFrequency + K1 * (1 - B + B * length / averageLength));
+                nodeScoreMap.merge(node, score, Float::sum);
+            }
+        }
+        PriorityQueue<HnswIndex.ScoredNode> topNodes =
+                new PriorityQueue<>(Math.min(topK, Math.max(1, nodeScoreMap.size())), WORST_FIRST);
+        nodeScoreMap.forEach((node, score) -> {
+            topNodes.add(new HnswIndex.ScoredNode(node, score));
+            if (topNodes.size() > topK)
+                topNodes.poll();
+        });
+        List<HnswIndex.ScoredNode> scoredNodes = new ArrayList<>(topNodes);
+        scoredNodes.sort(WORST_FIRST.reversed());
+        return scoredNodes;
+    }
+
+    static List<String> tokenize(String text) {
+        if (Objects.isNull(text) || text.isEmpty())
+            return List.of();
+        List<String> tokens = new ArrayList<>();
+        Matcher matcher = TOKEN_PATTERN.matcher(text.toLowerCase(Locale.ROOT));
+        while (matcher.find()) {
+            String token = matcher.group();
+            tokens.add(token);
+            if (PART_SEPARATOR_PATTERN.matcher(token).find())
+                for (String part : PART_SEPARATOR_PATTERN.split(token))
+                    tokens.add(part);
+        }
+        return tokens;
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright © 2025 Jemin Huh (hjm1980@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jm.kr.spring.ai.playground.service.vectorstore.local;
+
+import org.springframework.ai.vectorstore.filter.Filter;
+import org.springframework.expression.Expression;
+
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.IntPredicate;
+import java.util.function.Supplier;
+
+class CompiledFilterExpression {
+
+    record Candidates(BitSet nodes, boolean exact) {
+        static final Candidates ALL = new Candidates(null, false);
+
+        boolean isRestricted() {
+            return Objects.nonNull(this.nodes);
+        }
+
+        IntPredicate accept(IntPredicate residual) {
+            if (!isRestricted())
+                return residual;
+            return this.exact ? this.nodes::get : node -> this.nodes.get(node) && residual.test(node);
+        }
+    }
+
+    private final Filter.Expression filterExpression;
+    private final Expression expression;
+
+    CompiledFilterExpression(Filter.Expression filterExpression, Expression expression) {
+        this.filterExpression = filterExpression;
+        this.expression = expression;
+    }
+
+    Expression getExpression() {
+        return this.expression;
+    }
+
+    Candidates select(MetadataIndex metadataIndex, Supplier<BitSet> liveNodes) {
+        return select(this.filterExpression, metadataIndex, liveNodes);
+    }
+
+    private static Candidates select(Filter.Operand operand, MetadataIndex metadataIndex,
+            Supplier<BitSet> liveNodes) {
+        if (operand instanceof Filter.Group group)
+            return select(group.content(), metadataIndex, liveNodes);
+        if (!(operand instanceof Filter.Expression expression))
+            return Candidates.ALL;
+        return switch (expression.type()) {
+            case EQ, IN -> lookup(expression, metadataIndex);
+            case NE, NIN -> complement(lookup(expression, metadataIndex), liveNodes);
+            case NOT -> complement(select(expression.left(), metadataIndex, liveNodes), liveNodes);
+            case AND -> and(select(expression.left(), metadataIndex, liveNodes),
+                    select(expression.right(), metadataIndex, liveNodes));
+            case OR -> or(select(expression.left(), metadataIndex, liveNodes),
+                    select(expression.right(), metadataIndex, liveNodes));
+            default -> Candidates.ALL;
+        };
+    }
+
+    private static Candidates lookup(Filter.Expression expression, MetadataIndex metadataIndex) {
+        if (!(expression.left() instanceof Filter.Key key) || !(expression.right() instanceof Filter.Value value) ||
+                Objects.isNull(value.value()))
+            return Candidates.ALL;
+        String metadataKey = unquote(key.key());
+        if (!metadataIndex.isIndexed(metadataKey))
+            return Candidates.ALL;
+        Collection<?> values = switch (expression.type()) {
+            case IN, NIN -> value.value() instanceof Collection<?> collection ? collection : null;
+            default -> value.value() instanceof Collection<?> ? null : List.of(value.value());
+        };
+        return Objects.isNull(values) ? Candidates.ALL :
+                new Candidates(metadataIndex.nodes(metadataKey, values), true);
+    }
+
+    private static Candidates complement(Candidates candidates, Supplier<BitSet> liveNodes) {
+        if (!candidates.exact())
+            return Candidates.ALL;
+        BitSet nodes = liveNodes.get();
+        nodes.andNot(candidates.nodes());
+        return new Candidates(nodes, true);
+    }
+
+    private static Candidates and(Candidates left, Candidates right) {
+        if (!left.isRestricted())
+            return right.isRestricted() ? new Candidates(right.nodes(), false) : Candidates.ALL;
+        if (!right.isRestricted())
+            return new Candidates(left.nodes(), false);
+        BitSet nodes = (BitSet) left.nodes().clone();
+        nodes.and(right.nodes());
+        return new Candidates(nodes, left.exact() && right.exact());
+    }
+
+    private static Candidates or(Candidates left, Candidates right) {
+        if (!left.isRestricted() || !right.isRestricted())
+            return Candidates.ALL;
+        BitSet nodes = (BitSet) left.nodes().clone();
+        nodes.or(right.nodes());
+        return new Candidates(nodes, left.exact() && right.exact());
+    }
+
+    static String unquote(String key) {
+        if (key.length() > 1 && (key.startsWith("'") && key.endsWith("'") ||
+                key.startsWith("\"") && key.endsWith("\"")))
+            return key.substring(1, key.length() - 1);
+        return key;
+    }
+}
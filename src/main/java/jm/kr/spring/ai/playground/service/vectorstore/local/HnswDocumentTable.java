@@ -0,0 +1,133 @@
+/*
+ * Copyright © 2025 Jemin Huh (hjm1980@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jm.kr.spring.ai.playground.service.vectorstore.local;
+
+import java.io.Closeable;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+class HnswDocumentTable implements Closeable {
+
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int TEXT_PAGE_BYTES = 1 << 22;
+
+    private final OffHeapPages textPages;
+    private String[] ids;
+    private Map<String, Object>[] metadata;
+    private long[] textOffsets;
+    private int[] textLengths;
+    private long textBytes;
+    private int size;
+
+    HnswDocumentTable(Path storageDirectory) {
+        this.textPages = new OffHeapPages(TEXT_PAGE_BYTES, storageDirectory, "texts-");
+        this.ids = new String[INITIAL_CAPACITY];
+        this.metadata = newMetadataArray(INITIAL_CAPACITY);
+        this.textOffsets = new long[INITIAL_CAPACITY];
+        this.textLengths = new int[INITIAL_CAPACITY];
+    }
+
+    int size() {
+        return this.size;
+    }
+
+    int add(String id, String text, Map<String, Object> metadata) {
+        int node = this.size;
+        ensureCapacity(node + 1);
+        byte[] textBytes = Objects.requireNonNullElse(text, "").getBytes(StandardCharsets.UTF_8);
+        this.ids[node] = id;
+        this.metadata[node] = Collections.unmodifiableMap(new HashMap<>(metadata));
+        this.textOffsets[node] = this.textBytes;
+        this.textLengths[node] = textBytes.length;
+        writeText(this.textBytes, textBytes);
+        this.textBytes += textBytes.length;
+        this.size++;
+        return node;
+    }
+
+    void remove(int node) {
+        this.ids[node] = null;
+        this.metadata[node] = null;
+    }
+
+    boolean contains(int node) {
+        return Objects.nonNull(this.ids[node]);
+    }
+
+    String getId(int node) {
+        return this.ids[node];
+    }
+
+    Map<String, Object> getMetadata(int node) {
+        return this.metadata[node];
+    }
+
+    String getText(int node) {
+        byte[] textBytes = new byte[this.textLengths[node]];
+        readText(this.textOffsets[node], textBytes);
+        return new String(textBytes, StandardCharsets.UTF_8);
+    }
+
+    private void writeText(long position, byte[] textBytes) {
+        int written = 0;
+        while (written < textBytes.length) {
+            ByteBuffer page = this.textPages.page((int) (position / TEXT_PAGE_BYTES));
+            int pageOffset = (int) (position % TEXT_PAGE_BYTES);
+            int length = Math.min(textBytes.length - written, TEXT_PAGE_BYTES - pageOffset);
+            page.put(pageOffset, textBytes, written, length);
+            written += length;
+            position += length;
+        }
+    }
+
+    private void readText(long position, byte[] textBytes) {
+        int read = 0;
+        while (read < textBytes.length) {
+            ByteBuffer page = this.textPages.page((int) (position / TEXT_PAGE_BYTES));
+            int pageOffset = (int) (position % TEXT_PAGE_BYTES);
+            int length = Math.min(textBytes.length - read, TEXT_PAGE_BYTES - pageOffset);
+            page.get(pageOffset, textBytes, read, length);
+            read += length;
+            position += length;
+        }
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= this.ids.length)
+            return;
+        int newCapacity = Math.max(capacity, this.ids.length * 2);
+        this.ids = Arrays.copyOf(this.ids, newCapacity);
+        this.metadata = Arrays.copyOf(this.metadata, newCapacity);
+        this.textOffsets = Arrays.copyOf(this.textOffsets, newCapacity);
+        this.textLengths = Arrays.copyOf(this.textLengths, newCapacity);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object>[] newMetadataArray(int capacity) {
+        return new Map[capacity];
+    }
+
+    @Override
+    public void close() {
+        this.textPages.close();
+    }
+}
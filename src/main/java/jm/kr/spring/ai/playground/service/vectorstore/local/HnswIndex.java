@@ -0,0 +1,489 @@
+/*
+ * Copyright © 2025 Jemin Huh (hjm1980@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jm.kr.spring.ai.playground.service.vectorstore.local;
+
+import java.io.Closeable;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.SplittableRandom;
+import java.util.function.IntPredicate;
+
+public class HnswIndex implements Closeable {
+
+    private static final int FORMAT_VERSION = 1;
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final Comparator<ScoredNode> BEST_FIRST = Comparator.comparingDouble(ScoredNode::score).reversed();
+    private static final Comparator<ScoredNode> WORST_FIRST = Comparator.comparingDouble(ScoredNode::score);
+    private static final SimilarityKernel SIMILARITY_KERNEL = SimilarityKernels.get();
+
+    public record ScoredNode(int node, float score) {}
+
+    private final int m;
+    private final int maxM0;
+    private final int efConstruction;
+    private final double levelMultiplier;
+    private final SplittableRandom random;
+    private final Path storageDirectory;
+    private final QuantizationMode quantizationMode;
+
+    private int dimensions;
+    private OffHeapVectorStorage vectors;
+    private QuantizedVectorStorage quantizedVectors;
+    private int[][][] links;
+    private int size;
+    private final BitSet deleted;
+    private int deletedCount;
+    private int entryPoint;
+    private int maxLevel;
+
+    public HnswIndex(int m, int efConstruction) {
+        this(m, efConstruction, 0);
+    }
+
+    public HnswIndex(int m, int efConstruction, long seed) {
+        this(m, efConstruction, seed, null);
+    }
+
+    public HnswIndex(int m, int efConstruction, long seed, Path storageDirectory) {
+        this(m, efConstruction, seed, storageDirectory, QuantizationMode.NONE);
+    }
+
+    public HnswIndex(int m, int efConstruction, long seed, Path storageDirectory,
+            QuantizationMode quantizationMode) {
+        if (m < 2 || efConstruction < 1)
+            throw new IllegalArgumentException("Invalid HNSW parameters: m=" + m + ", efConstruction=" + efConstruction);
+        if (quantizationMode != QuantizationMode.NONE && Objects.isNull(storageDirectory))
+            throw new IllegalArgumentException("Quantization " + quantizationMode +
+                    " requires a storage directory for the full-precision vectors");
+        this.m = m;
+        this.maxM0 = m * 2;
+        this.efConstruction = efConstruction;
+        this.levelMultiplier = 1 / Math.log(m);
+        this.random = new SplittableRandom(seed);
+        this.storageDirectory = storageDirectory;
+        this.quantizationMode = Objects.requireNonNull(quantizationMode);
+        this.links = new int[INITIAL_CAPACITY][][];
+        this.deleted = new BitSet();
+        this.entryPoint = -1;
+        this.maxLevel = -1;
+    }
+
+    public int getM() {
+        return this.m;
+    }
+
+    public int getEfConstruction() {
+        return this.efConstruction;
+    }
+
+    public int getDimensions() {
+        return this.dimensions;
+    }
+
+    public int size() {
+        return this.size;
+    }
+
+    public int liveSize() {
+        return this.size - this.deletedCount;
+    }
+
+    public int deletedSize() {
+        return this.deletedCount;
+    }
+
+    public boolean isDeleted(int node) {
+        return this.deleted.get(node);
+    }
+
+    public float[] getVector(int node) {
+        return this.vectors.get(node);
+    }
+
+    public boolean isFileBacked() {
+        return Objects.nonNull(this.vectors) && this.vectors.isFileBacked();
+    }
+
+    public long getVectorStorageBytes() {
+        return Objects.isNull(this.vectors) ? 0 : this.vectors.capacityBytes();
+    }
+
+    public QuantizationMode getQuantizationMode() {
+        return this.quantizationMode;
+    }
+
+    public long getQuantizedStorageBytes() {
+        return Objects.isNull(this.quantizedVectors) ? 0 : this.quantizedVectors.capacityBytes();
+    }
+
+    public int getCandidateBytesPerVector() {
+        return Objects.isNull(this.quantizedVectors) ? this.dimensions * Float.BYTES :
+                this.quantizedVectors.getRecordBytes();
+    }
+
+    public int add(float[] vector) {
+        if (this.dimensions == 0)
+            initVectors(vector.length);
+        else if (this.dimensions != vector.length)
+            throw new IllegalArgumentException(
+                    "Vector dimensions mismatch: expected " + this.dimensions + " but " + vector.length);
+        int node = this.size;
+        ensureCapacity(node + 1);
+        int level = randomLevel();
+        addVector(vector);
+        this.links[node] = new int[level + 1][];
+        for (int l = 0; l <= level; l++)
+            this.links[node][l] = new int[1 + maxConnections(l)];
+        this.size++;
+
+        if (this.entryPoint < 0) {
+            this.entryPoint = node;
+            this.maxLevel = level;
+            return node;
+        }
+
+        NodeScorer scorer = neighbor -> similarity(vector, neighbor);
+        int currentEntryPoint = this.entryPoint;
+        for (int l = this.maxLevel; l > level; l--)
+            currentEntryPoint = greedySearch(scorer, currentEntryPoint, l);
+        for (int l = Math.min(level, this.maxLevel); l >= 0; l--) {
+            List<ScoredNode> candidates = searchLayer(scorer, currentEntryPoint, this.efConstruction, l, null);
+            List<ScoredNode> selected = selectNeighbors(vector, candidates, this.m);
+            int[] nodeLinks = this.links[node][l];
+            for (ScoredNode scoredNode : selected) {
+                nodeLinks[++nodeLinks[0]] = scoredNode.node();
+                addLink(scoredNode.node(), node, l);
+            }
+            currentEntryPoint = candidates.getFirst().node();
+        }
+        if (level > this.maxLevel) {
+            this.entryPoint = node;
+            this.maxLevel = level;
+        }
+        return node;
+    }
+
+    public void markDeleted(int node) {
+        if (!this.deleted.get(node)) {
+            this.deleted.set(node);
+            this.deletedCount++;
+        }
+    }
+
+    public List<ScoredNode> search(float[] query, int k, int ef, IntPredicate accept) {
+        if (this.entryPoint < 0 || k < 1)
+            return List.of();
+        NodeScorer scorer = candidateScorer(query);
+        int currentEntryPoint = this.entryPoint;
+        for (int l = this.maxLevel; l > 0; l--)
+            currentEntryPoint = greedySearch(scorer, currentEntryPoint, l);
+        IntPredicate liveAccept = node -> !this.deleted.get(node) && (accept == null || accept.test(node));
+        int candidateSize = candidateSize(k);
+        return rescore(query, searchLayer(scorer, currentEntryPoint, Math.max(ef, candidateSize), 0, liveAccept),
+                k);
+    }
+
+    public List<ScoredNode> bruteForceSearch(float[] query, int k, IntPredicate accept) {
+        return bruteForceSearch(query, k, null, accept);
+    }
+
+    public List<ScoredNode> bruteForceSearch(float[] query, int k, BitSet candidates, IntPredicate accept) {
+        if (k < 1)
+            return List.of();
+        NodeScorer scorer = candidateScorer(query);
+        int candidateSize = candidateSize(k);
+        PriorityQueue<ScoredNode> results = new PriorityQueue<>(WORST_FIRST);
+        for (int node = nextCandidate(candidates, 0); node >= 0 && node < this.size;
+                node = nextCandidate(candidates, node + 1)) {
+            if (this.deleted.get(node) || (accept != null && !accept.test(node)))
+                continue;
+            offer(results, new ScoredNode(node, scorer.score(node)), candidateSize);
+        }
+        return rescore(query, toBestFirstList(results), k);
+    }
+
+    public BitSet liveNodes() {
+        BitSet liveNodes = new BitSet(this.size);
+        liveNodes.set(0, this.size);
+        liveNodes.andNot(this.deleted);
+        return liveNodes;
+    }
+
+    private static int nextCandidate(BitSet candidates, int fromNode) {
+        return Objects.isNull(candidates) ? fromNode : candidates.nextSetBit(fromNode);
+    }
+
+    private NodeScorer candidateScorer(float[] query) {
+        return Objects.isNull(this.quantizedVectors) ? node -> similarity(query, node) :
+                this.quantizedVectors.scorer(SIMILARITY_KERNEL, query);
+    }
+
+    private int candidateSize(int k) {
+        return Objects.isNull(this.quantizedVectors) ? k :
+                (int) Math.min(Integer.MAX_VALUE, (long) k * this.quantizationMode.getRescoreOversampling());
+    }
+
+    private List<ScoredNode> rescore(float[] query, List<ScoredNode> bestFirstCandidates, int k) {
+        if (Objects.isNull(this.quantizedVectors))
+            return bestFirstCandidates.size() > k ? bestFirstCandidates.subList(0, k) : bestFirstCandidates;
+        List<ScoredNode> rescored = new ArrayList<>(bestFirstCandidates.size());
+        for (ScoredNode candidate : bestFirstCandidates)
+            rescored.add(new ScoredNode(candidate.node(), similarity(query, candidate.node())));
+        rescored.sort(BEST_FIRST);
+        return rescored.size() > k ? rescored.subList(0, k) : rescored;
+    }
+
+    private int greedySearch(NodeScorer scorer, int entryPoint, int level) {
+        int current = entryPoint;
+        float currentScore = scorer.score(current);
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            int[] currentLinks = this.links[current][level];
+            for (int i = 1; i <= currentLinks[0]; i++) {
+                int neighbor = currentLinks[i];
+                float score = scorer.score(neighbor);
+                if (score > currentScore) {
+                    currentScore = score;
+                    current = neighbor;
+                    changed = true;
+                }
+            }
+        }
+        return current;
+    }
+
+    private List<ScoredNode> searchLayer(NodeScorer scorer, int entryPoint, int ef, int level,
+            IntPredicate accept) {
+        BitSet visited = new BitSet(this.size);
+        PriorityQueue<ScoredNode> candidates = new PriorityQueue<>(BEST_FIRST);
+        PriorityQueue<ScoredNode> results = new PriorityQueue<>(WORST_FIRST);
+        ScoredNode entry = new ScoredNode(entryPoint, scorer.score(entryPoint));
+        visited.set(entryPoint);
+        candidates.add(entry);
+        if (accept == null || accept.test(entryPoint))
+            results.add(entry);
+        while (!candidates.isEmpty()) {
+            ScoredNode candidate = candidates.poll();
+            if (results.size() >= ef && candidate.score() < results.peek().score())
+                break;
+            int[] candidateLinks = this.links[candidate.node()][level];
+            for (int i = 1; i <= candidateLinks[0]; i++) {
+                int neighbor = candidateLinks[i];
+                if (visited.get(neighbor))
+                    continue;
+                visited.set(neighbor);
+                float score = scorer.score(neighbor);
+                if (results.size() < ef || score > results.peek().score()) {
+                    ScoredNode scoredNode = new ScoredNode(neighbor, score);
+                    candidates.add(scoredNode);
+                    if (accept == null || accept.test(neighbor))
+                        offer(results, scoredNode, ef);
+                }
+            }
+        }
+        return toBestFirstList(results);
+    }
+
+    private List<ScoredNode> selectNeighbors(float[] base, List<ScoredNode> bestFirstCandidates, int maxNeighbors) {
+        if (bestFirstCandidates.size() <= maxNeighbors)
+            return bestFirstCandidates;
+        List<ScoredNode> selected = new ArrayList<>(maxNeighbors);
+        List<ScoredNode> pruned = new ArrayList<>();
+        for (ScoredNode candidate : bestFirstCandidates) {
+            if (selected.size() >= maxNeighbors)
+                break;
+            boolean diverse = true;
+            float[] candidateVector = this.vectors.get(candidate.node());
+            for (ScoredNode selectedNode : selected) {
+                if (similarity(candidateVector, selectedNode.node()) > candidate.score()) {
+                    diverse = false;
+                    break;
+                }
+            }
+            if (diverse)
+                selected.add(candidate);
+            else
+                pruned.add(candidate);
+        }
+        for (int i = 0; i < pruned.size() && selected.size() < maxNeighbors; i++)
+            selected.add(pruned.get(i));
+        return selected;
+    }
+
+    private void addLink(int node, int newNeighbor, int level) {
+        int[] nodeLinks = this.links[node][level];
+        int maxConnections = maxConnections(level);
+        if (nodeLinks[0] < maxConnections) {
+            nodeLinks[++nodeLinks[0]] = newNeighbor;
+            return;
+        }
+        float[] nodeVector = this.vectors.get(node);
+        List<ScoredNode> candidates = new ArrayList<>(maxConnections + 1);
+        for (int i = 1; i <= nodeLinks[0]; i++)
+            candidates.add(new ScoredNode(nodeLinks[i], similarity(nodeVector, nodeLinks[i])));
+        candidates.add(new ScoredNode(newNeighbor, similarity(nodeVector, newNeighbor)));
+        candidates.sort(BEST_FIRST);
+        List<ScoredNode> selected = selectNeighbors(nodeVector, candidates, maxConnections);
+        nodeLinks[0] = selected.size();
+        for (int i = 0; i < selected.size(); i++)
+            nodeLinks[i + 1] = selected.get(i).node();
+    }
+
+    private int maxConnections(int level) {
+        return level == 0 ? this.maxM0 : this.m;
+    }
+
+    private int randomLevel() {
+        return (int) Math.floor(-Math.log(1 - this.random.nextDouble()) * this.levelMultiplier);
+    }
+
+    private void initVectors(int dimensions) {
+        this.dimensions = dimensions;
+        this.vectors = new OffHeapVectorStorage(dimensions, this.storageDirectory);
+        // only the codes stay resident; full-precision vectors are mapped from disk and touched when rescoring
+        if (this.quantizationMode != QuantizationMode.NONE)
+            this.quantizedVectors = QuantizedVectorStorage.create(this.quantizationMode, dimensions, null);
+    }
+
+    private void addVector(float[] vector) {
+        this.vectors.add(vector);
+        if (Objects.nonNull(this.quantizedVectors))
+            this.quantizedVectors.add(vector);
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= this.links.length)
+            return;
+        this.links = Arrays.copyOf(this.links, Math.max(capacity, this.links.length * 2));
+    }
+
+    private static void offer(PriorityQueue<ScoredNode> worstFirstResults, ScoredNode scoredNode, int limit) {
+        if (worstFirstResults.size() < limit) {
+            worstFirstResults.add(scoredNode);
+        } else if (scoredNode.score() > worstFirstResults.peek().score()) {
+            worstFirstResults.poll();
+            worstFirstResults.add(scoredNode);
+        }
+    }
+
+    private static List<ScoredNode> toBestFirstList(PriorityQueue<ScoredNode> worstFirstResults) {
+        ScoredNode[] scoredNodes = new ScoredNode[worstFirstResults.size()];
+        for (int i = scoredNodes.length - 1; i >= 0; i--)
+            scoredNodes[i] = worstFirstResults.poll();
+        return Arrays.asList(scoredNodes);
+    }
+
+    private float similarity(float[] query, int node) {
+        return this.vectors.dot(SIMILARITY_KERNEL, query, node);
+    }
+
+    public static float[] normalize(float[] vector) {
+        double norm = 0;
+        for (float value : vector)
+            norm += value * value;
+        norm = Math.sqrt(norm);
+        float[] normalized = new float[vector.length];
+        if (norm == 0)
+            return normalized;
+        for (int i = 0; i < vector.length; i++)
+            normalized[i] = (float) (vector[i] / norm);
+        return normalized;
+    }
+
+    public void write(DataOutput dataOutput) throws IOException {
+        dataOutput.writeInt(FORMAT_VERSION);
+        dataOutput.writeInt(this.m);
+        dataOutput.writeInt(this.efConstruction);
+        dataOutput.writeInt(this.dimensions);
+        dataOutput.writeInt(this.size);
+        dataOutput.writeInt(this.entryPoint);
+        dataOutput.writeInt(this.maxLevel);
+        for (int node = 0; node < this.size; node++) {
+            dataOutput.writeBoolean(this.deleted.get(node));
+            for (float value : this.vectors.get(node))
+                dataOutput.writeFloat(value);
+            int[][] nodeLinks = this.links[node];
+            dataOutput.writeInt(nodeLinks.length);
+            for (int[] levelLinks : nodeLinks) {
+                dataOutput.writeInt(levelLinks[0]);
+                for (int i = 1; i <= levelLinks[0]; i++)
+                    dataOutput.writeInt(levelLinks[i]);
+            }
+        }
+    }
+
+    public static HnswIndex read(DataInput dataInput) throws IOException {
+        return read(dataInput, null);
+    }
+
+    public static HnswIndex read(DataInput dataInput, Path storageDirectory) throws IOException {
+        return read(dataInput, storageDirectory, QuantizationMode.NONE);
+    }
+
+    public static HnswIndex read(DataInput dataInput, Path storageDirectory, QuantizationMode quantizationMode)
+            throws IOException {
+        int formatVersion = dataInput.readInt();
+        if (formatVersion != FORMAT_VERSION)
+            throw new IOException("Unsupported HNSW index format version: " + formatVersion);
+        HnswIndex hnswIndex =
+                new HnswIndex(dataInput.readInt(), dataInput.readInt(), 0, storageDirectory, quantizationMode);
+        int dimensions = dataInput.readInt();
+        if (dimensions > 0)
+            hnswIndex.initVectors(dimensions);
+        int size = dataInput.readInt();
+        hnswIndex.entryPoint = dataInput.readInt();
+        hnswIndex.maxLevel = dataInput.readInt();
+        hnswIndex.ensureCapacity(size);
+        float[] vector = new float[dimensions];
+        for (int node = 0; node < size; node++) {
+            if (dataInput.readBoolean())
+                hnswIndex.markDeleted(node);
+            for (int i = 0; i < vector.length; i++)
+                vector[i] = dataInput.readFloat();
+            hnswIndex.addVector(vector);
+            int[][] nodeLinks = new int[dataInput.readInt()][];
+            for (int l = 0; l < nodeLinks.length; l++) {
+                int count = dataInput.readInt();
+                int[] levelLinks = new int[1 + hnswIndex.maxConnections(l)];
+                levelLinks[0] = count;
+                for (int i = 1; i <= count; i++)
+                    levelLinks[i] = dataInput.readInt();
+                nodeLinks[l] = levelLinks;
+            }
+            hnswIndex.links[node] = nodeLinks;
+        }
+        hnswIndex.size = size;
+        return hnswIndex;
+    }
+
+    @Override
+    public void close() {
+        if (Objects.nonNull(this.vectors))
+            this.vectors.close();
+        if (Objects.nonNull(this.quantizedVectors))
+            this.quantizedVectors.close();
+    }
+}
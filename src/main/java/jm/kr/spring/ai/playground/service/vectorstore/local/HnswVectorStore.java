@@ -0,0 +1,672 @@
+/*
+ * Copyright © 2025 Jemin Huh (hjm1980@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jm.kr.spring.ai.playground.service.vectorstore.local;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.embedding.EmbeddingOptions;
+import org.springframework.ai.observation.conventions.VectorStoreSimilarityMetric;
+import org.springframework.ai.vectorstore.AbstractVectorStoreBuilder;
+import org.springframework.ai.vectorstore.SearchRequest;
+import org.springframework.ai.vectorstore.filter.Filter;
+import org.springframework.ai.vectorstore.filter.FilterExpressionConverter;
+import org.springframework.ai.vectorstore.filter.converter.SimpleVectorStoreFilterExpressionConverter;
+import org.springframework.ai.vectorstore.observation.AbstractObservationVectorStore;
+import org.springframework.ai.vectorstore.observation.VectorStoreObservationContext;
+import org.springframework.expression.Expression;
+import org.springframework.expression.ExpressionParser;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+import org.springframework.expression.spel.support.StandardEvaluationContext;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BiConsumer;
+import java.util.function.IntPredicate;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static jm.kr.spring.ai.playground.service.PersistenceServiceInterface.MAP_TYPE_REFERENCE;
+import static jm.kr.spring.ai.playground.service.PersistenceServiceInterface.OBJECT_MAPPER;
+
+public class HnswVectorStore extends AbstractObservationVectorStore
+        implements MetadataIndexedVectorStore, PageableVectorStore, LexicalSearchableVectorStore, EmbeddedVectorStore,
+        AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(HnswVectorStore.class);
+    private static final String PROVIDER = "hnsw";
+    private static final String DISTANCE = "distance";
+    private static final int FILE_MAGIC = 0x484E5357;
+    private static final int MIN_DELETED_FOR_COMPACTION = 1000;
+    private static final int MAX_COMPILED_FILTER_EXPRESSIONS = 256;
+    private static final int PREFILTER_SCAN_LIMIT = 10_000;
+    private static final int PREFILTER_SELECTIVITY = 10;
+
+    public static final int DEFAULT_M = 16;
+    public static final int DEFAULT_EF_CONSTRUCTION = 200;
+    public static final int DEFAULT_EF_SEARCH = 64;
+
+    private record NodeOrdering(long modificationCount, String key, List<?> values, List<SortOrder> sortOrders,
+                                int[] nodes) {}
+
+    private final int m;
+    private final int efConstruction;
+    private final int efSearch;
+    private final Path storageDirectory;
+    private final QuantizationMode quantizationMode;
+    private final Set<String> indexedMetadataKeys;
+    private final boolean keywordMetadataIndex;
+    private final ExpressionParser expressionParser;
+    private final FilterExpressionConverter filterExpressionConverter;
+    private final Map<Filter.Expression, CompiledFilterExpression> compiledFilterExpressionMap;
+    private final ReadWriteLock lock;
+
+    private HnswIndex hnswIndex;
+    private HnswDocumentTable documentTable;
+    private MetadataIndex metadataIndex;
+    private Bm25Index bm25Index;
+    private Map<String, Integer> idNodeMap;
+    private long modificationCount;
+    private volatile NodeOrdering nodeOrdering;
+
+    protected HnswVectorStore(HnswVectorStoreBuilder builder) {
+        super(builder);
+        this.m = builder.m;
+        this.efConstruction = builder.efConstruction;
+        this.efSearch = builder.efSearch;
+        this.storageDirectory = builder.storageDirectory;
+        this.quantizationMode = builder.quantizationMode;
+        this.indexedMetadataKeys = builder.indexedMetadataKeys;
+        this.keywordMetadataIndex = builder.keywordMetadataIndex;
+        this.expressionParser = new SpelExpressionParser();
+        this.filterExpressionConverter = new SimpleVectorStoreFilterExpressionConverter();
+        this.compiledFilterExpressionMap = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Filter.Expression, CompiledFilterExpression> eldest) {
+                return size() > MAX_COMPILED_FILTER_EXPRESSIONS;
+            }
+        };
+        this.lock = new ReentrantReadWriteLock();
+        if (Objects.nonNull(this.storageDirectory))
+            OffHeapPages.deleteStaleFiles(this.storageDirectory);
+        this.hnswIndex = newHnswIndex();
+        this.documentTable = new HnswDocumentTable(this.storageDirectory);
+        this.metadataIndex = newMetadataIndex();
+        this.bm25Index = new Bm25Index();
+        this.idNodeMap = new HashMap<>();
+    }
+
+    public static HnswVectorStoreBuilder builder(EmbeddingModel embeddingModel) {
+        return new HnswVectorStoreBuilder(embeddingModel);
+    }
+
+    public int getEfSearch() {
+        return this.efSearch;
+    }
+
+    public QuantizationMode getQuantizationMode() {
+        return this.quantizationMode;
+    }
+
+    public long getQuantizedStorageBytes() {
+        this.lock.readLock().lock();
+        try {
+            return this.hnswIndex.getQuantizedStorageBytes();
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    public boolean isFileBacked() {
+        return Objects.nonNull(this.storageDirectory);
+    }
+
+    public long getVectorStorageBytes() {
+        this.lock.readLock().lock();
+        try {
+            return this.hnswIndex.getVectorStorageBytes();
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        this.lock.readLock().lock();
+        try {
+            return this.idNodeMap.size();
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void doAdd(List<Document> documents) {
+        Objects.requireNonNull(documents, "Documents list cannot be null");
+        if (documents.isEmpty())
+            return;
+        List<float[]> embeddings =
+                this.embeddingModel.embed(documents, EmbeddingOptions.builder().build(), this.batchingStrategy);
+        addEmbedded(documents, embeddings);
+    }
+
+    @Override
+    public void addEmbedded(List<Document> documents, List<float[]> embeddings) {
+        if (documents.size() != embeddings.size())
+            throw new IllegalArgumentException("Documents and embeddings size mismatch");
+        List<float[]> normalizedEmbeddings = embeddings.stream().map(HnswIndex::normalize).toList();
+        this.lock.writeLock().lock();
+        try {
+            for (int i = 0; i < documents.size(); i++) {
+                Document document = documents.get(i);
+                removeNode(document.getId());
+                int node = this.hnswIndex.add(normalizedEmbeddings.get(i));
+                this.documentTable.add(document.getId(), document.getText(), document.getMetadata());
+                this.metadataIndex.add(node, document.getMetadata());
+                this.bm25Index.add(node, document.getText());
+                this.idNodeMap.put(document.getId(), node);
+            }
+            this.modificationCount++;
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void doDelete(List<String> idList) {
+        this.lock.writeLock().lock();
+        try {
+            idList.forEach(this::removeNode);
+            compactIfNeeded();
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    protected void doDelete(Filter.Expression filterExpression) {
+        CompiledFilterExpression compiledFilterExpression = compile(filterExpression);
+        this.lock.writeLock().lock();
+        try {
+            CompiledFilterExpression.Candidates candidates =
+                    compiledFilterExpression.select(this.metadataIndex, this.hnswIndex::liveNodes);
+            IntPredicate accept =
+                    candidates.accept(node -> matches(compiledFilterExpression.getExpression(), node));
+            (candidates.isRestricted() ? candidates.nodes().stream().boxed() : this.idNodeMap.values().stream())
+                    .filter(accept::test).toList().forEach(node -> removeNode(this.documentTable.getId(node)));
+            compactIfNeeded();
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    private CompiledFilterExpression compile(Filter.Expression filterExpression) {
+        synchronized (this.compiledFilterExpressionMap) {
+            return this.compiledFilterExpressionMap.computeIfAbsent(filterExpression,
+                    expression -> new CompiledFilterExpression(expression, this.expressionParser.parseExpression(
+                            this.filterExpressionConverter.convertExpression(expression))));
+        }
+    }
+
+    private MetadataIndex newMetadataIndex() {
+        return new MetadataIndex(this.indexedMetadataKeys, this.keywordMetadataIndex);
+    }
+
+    private HnswIndex newHnswIndex() {
+        return new HnswIndex(this.m, this.efConstruction, 0, this.storageDirectory, this.quantizationMode);
+    }
+
+    private void removeNode(String id) {
+        Integer node = this.idNodeMap.remove(id);
+        if (Objects.nonNull(node)) {
+            this.modificationCount++;
+            this.hnswIndex.markDeleted(node);
+            this.metadataIndex.remove(node, this.documentTable.getMetadata(node));
+            this.bm25Index.remove(node, this.documentTable.getText(node));
+            this.documentTable.remove(node);
+        }
+    }
+
+    private void compactIfNeeded() {
+        int deletedSize = this.hnswIndex.deletedSize();
+        if (deletedSize < MIN_DELETED_FOR_COMPACTION || deletedSize < this.hnswIndex.liveSize())
+            return;
+        logger.info("Compacting HNSW index: live={}, deleted={}", this.hnswIndex.liveSize(), deletedSize);
+        HnswIndex compactedIndex = newHnswIndex();
+        HnswDocumentTable compactedDocumentTable = new HnswDocumentTable(this.storageDirectory);
+        MetadataIndex compactedMetadataIndex = newMetadataIndex();
+        Bm25Index compactedBm25Index = new Bm25Index();
+        Map<String, Integer> compactedIdNodeMap = new HashMap<>();
+        for (int node = 0; node < this.hnswIndex.size(); node++) {
+            if (this.hnswIndex.isDeleted(node))
+                continue;
+            String id = this.documentTable.getId(node);
+            Map<String, Object> metadata = this.documentTable.getMetadata(node);
+            String text = this.documentTable.getText(node);
+            int compactedNode = compactedIndex.add(this.hnswIndex.getVector(node));
+            compactedDocumentTable.add(id, text, metadata);
+            compactedMetadataIndex.add(compactedNode, metadata);
+            compactedBm25Index.add(compactedNode, text);
+            compactedIdNodeMap.put(id, compactedNode);
+        }
+        replace(compactedIndex, compactedDocumentTable, compactedMetadataIndex, compactedBm25Index,
+                compactedIdNodeMap);
+    }
+
+    List<String> getIds() {
+        this.lock.readLock().lock();
+        try {
+            return List.copyOf(this.idNodeMap.keySet());
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    // Hands the live documents with their full-precision embeddings to the consumer in batches, so another store can
+    // take them over without embedding the texts again.
+    void forEachEmbedded(int batchSize, BiConsumer<List<Document>, List<float[]>> consumer) {
+        this.lock.readLock().lock();
+        try {
+            List<Document> documents = new ArrayList<>(batchSize);
+            List<float[]> embeddings = new ArrayList<>(batchSize);
+            for (int node : this.idNodeMap.values()) {
+                documents.add(toDocument(node));
+                embeddings.add(this.hnswIndex.getVector(node));
+                if (documents.size() < batchSize)
+                    continue;
+                consumer.accept(documents, embeddings);
+                documents = new ArrayList<>(batchSize);
+                embeddings = new ArrayList<>(batchSize);
+            }
+            if (!documents.isEmpty())
+                consumer.accept(documents, embeddings);
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Document> doSimilaritySearch(SearchRequest request) {
+        return searchEmbedded(request, this.embeddingModel.embed(request.getQuery()));
+    }
+
+    public List<Document> searchEmbedded(SearchRequest request, float[] embedding) {
+        float[] queryEmbedding = HnswIndex.normalize(embedding);
+        CompiledFilterExpression compiledFilterExpression =
+                request.hasFilterExpression() ? compile(request.getFilterExpression()) : null;
+        this.lock.readLock().lock();
+        try {
+            CompiledFilterExpression.Candidates candidates = Objects.isNull(compiledFilterExpression) ?
+                    CompiledFilterExpression.Candidates.ALL :
+                    compiledFilterExpression.select(this.metadataIndex, this.hnswIndex::liveNodes);
+            IntPredicate accept = Objects.isNull(compiledFilterExpression) ? null :
+                    candidates.accept(node -> matches(compiledFilterExpression.getExpression(), node));
+            int topK = request.getTopK();
+            List<HnswIndex.ScoredNode> scoredNodes;
+            if (candidates.isRestricted() && isPrefilterScan(candidates.nodes().cardinality())) {
+                scoredNodes = this.hnswIndex.bruteForceSearch(queryEmbedding, topK, candidates.nodes(),
+                        candidates.exact() ? null : accept);
+            } else {
+                scoredNodes = topK >= this.hnswIndex.liveSize() ?
+                        this.hnswIndex.bruteForceSearch(queryEmbedding, topK, candidates.nodes(), accept) :
+                        this.hnswIndex.search(queryEmbedding, topK, this.efSearch, accept);
+                if (Objects.nonNull(accept) && scoredNodes.size() < topK)
+                    scoredNodes = this.hnswIndex.bruteForceSearch(queryEmbedding, topK, candidates.nodes(), accept);
+            }
+            return scoredNodes.stream().filter(scoredNode -> scoredNode.score() >= request.getSimilarityThreshold())
+                    .map(this::toDocument).toList();
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Document> lexicalSearch(SearchRequest request) {
+        CompiledFilterExpression compiledFilterExpression =
+                request.hasFilterExpression() ? compile(request.getFilterExpression()) : null;
+        this.lock.readLock().lock();
+        try {
+            IntPredicate accept = Objects.isNull(compiledFilterExpression) ? null :
+                    compiledFilterExpression.select(this.metadataIndex, this.hnswIndex::liveNodes)
+                            .accept(node -> matches(compiledFilterExpression.getExpression(), node));
+            return this.bm25Index.search(request.getQuery(), request.getTopK(), accept).stream()
+                    .map(scoredNode -> Document.builder().id(this.documentTable.getId(scoredNode.node()))
+                            .text(this.documentTable.getText(scoredNode.node()))
+                            .metadata(new HashMap<>(this.documentTable.getMetadata(scoredNode.node())))
+                            .score((double) scoredNode.score()).build()).toList();
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    private boolean isPrefilterScan(int candidateSize) {
+        return candidateSize <= PREFILTER_SCAN_LIMIT ||
+                (long) candidateSize * PREFILTER_SELECTIVITY <= this.hnswIndex.liveSize();
+    }
+
+    @Override
+    public List<Document> findByMetadata(String key, Collection<?> values, int offset, int limit) {
+        this.lock.readLock().lock();
+        try {
+            return matchingNodes(key, values).stream().skip(offset).limit(limit).mapToObj(this::toDocument)
+                    .toList();
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public int countByMetadata(String key, Collection<?> values) {
+        this.lock.readLock().lock();
+        try {
+            return matchingNodes(key, values).cardinality();
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Document> findPage(String key, Collection<?> values, int offset, int limit,
+            List<SortOrder> sortOrders) {
+        this.lock.readLock().lock();
+        try {
+            List<SortOrder> keySortOrders = sortOrders.stream().filter(sortOrder -> ID.equals(sortOrder.property()) ||
+                    TEXT.equals(sortOrder.property())).toList();
+            IntStream nodes = !keySortOrders.isEmpty() ? Arrays.stream(sortNodes(key, values, keySortOrders)) :
+                    Objects.isNull(key) ? this.idNodeMap.values().stream().mapToInt(Integer::intValue).sorted() :
+                            matchingNodes(key, values).stream();
+            return nodes.skip(offset).limit(limit).mapToObj(this::toDocument).toList();
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public int count(String key, Collection<?> values) {
+        this.lock.readLock().lock();
+        try {
+            return Objects.isNull(key) ? this.idNodeMap.size() : matchingNodes(key, values).cardinality();
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    // Sort keys are decoded once per ordering instead of on every comparison, and the ordering is reused while the
+    // store is unchanged so paging through a sorted listing does not decode every text again for each page.
+    private int[] sortNodes(String key, Collection<?> values, List<SortOrder> sortOrders) {
+        List<?> valueList = Objects.isNull(values) ? null : List.copyOf(values);
+        NodeOrdering nodeOrdering = this.nodeOrdering;
+        if (Objects.nonNull(nodeOrdering) && nodeOrdering.modificationCount() == this.modificationCount &&
+                Objects.equals(nodeOrdering.key(), key) && Objects.equals(nodeOrdering.values(), valueList) &&
+                nodeOrdering.sortOrders().equals(sortOrders))
+            return nodeOrdering.nodes();
+        int[] nodes = Objects.isNull(key) ? this.idNodeMap.values().stream().mapToInt(Integer::intValue).toArray() :
+                matchingNodes(key, values).stream().toArray();
+        Comparator<Integer> positionComparator = null;
+        for (SortOrder sortOrder : sortOrders) {
+            String[] sortKeys = new String[nodes.length];
+            for (int i = 0; i < nodes.length; i++)
+                sortKeys[i] = ID.equals(sortOrder.property()) ? this.documentTable.getId(nodes[i]) :
+                        this.documentTable.getText(nodes[i]);
+            Comparator<Integer> propertyComparator = Comparator.comparing(position -> sortKeys[position],
+                    Comparator.nullsFirst(Comparator.naturalOrder()));
+            if (sortOrder.descending())
+                propertyComparator = propertyComparator.reversed();
+            positionComparator = Objects.isNull(positionComparator) ? propertyComparator :
+                    positionComparator.thenComparing(propertyComparator);
+        }
+        int[] sortedNodes = IntStream.range(0, nodes.length).boxed()
+                .sorted(positionComparator.thenComparingInt(position -> nodes[position]))
+                .mapToInt(position -> nodes[position]).toArray();
+        this.nodeOrdering = new NodeOrdering(this.modificationCount, key, valueList, sortOrders, sortedNodes);
+        return sortedNodes;
+    }
+
+    private BitSet matchingNodes(String key, Collection<?> values) {
+        if (this.metadataIndex.isIndexed(key))
+            return this.metadataIndex.nodes(key, values);
+        Set<Object> normalizedValues = values.stream().map(MetadataIndex::normalize).collect(Collectors.toSet());
+        BitSet nodes = new BitSet();
+        this.idNodeMap.values().stream().filter(node -> Optional.ofNullable(
+                        this.documentTable.getMetadata(node).get(key)).map(MetadataIndex::normalize)
+                .filter(normalizedValues::contains).isPresent()).forEach(nodes::set);
+        return nodes;
+    }
+
+    private boolean matches(Expression expression, int node) {
+        StandardEvaluationContext context = new StandardEvaluationContext();
+        context.setVariable("metadata", this.documentTable.getMetadata(node));
+        return Boolean.TRUE.equals(expression.getValue(context, Boolean.class));
+    }
+
+    private Document toDocument(int node) {
+        return Document.builder().id(this.documentTable.getId(node)).text(this.documentTable.getText(node))
+                .metadata(new HashMap<>(this.documentTable.getMetadata(node))).build();
+    }
+
+    private Document toDocument(HnswIndex.ScoredNode scoredNode) {
+        int node = scoredNode.node();
+        Map<String, Object> metadata = new HashMap<>(this.documentTable.getMetadata(node));
+        metadata.put(DISTANCE, 1 - scoredNode.score());
+        return Document.builder().id(this.documentTable.getId(node)).text(this.documentTable.getText(node))
+                .metadata(metadata).score((double) scoredNode.score()).build();
+    }
+
+    public void save(File file) {
+        this.lock.readLock().lock();
+        try {
+            File tempFile = new File(file.getParentFile(), file.getName() + ".tmp");
+            try (DataOutputStream dataOutput = new DataOutputStream(
+                    new BufferedOutputStream(new FileOutputStream(tempFile), 1 << 16))) {
+                dataOutput.writeInt(FILE_MAGIC);
+                this.hnswIndex.write(dataOutput);
+                for (int node = 0; node < this.hnswIndex.size(); node++) {
+                    boolean live = this.documentTable.contains(node);
+                    dataOutput.writeBoolean(live);
+                    if (!live)
+                        continue;
+                    writeBytes(dataOutput, this.documentTable.getId(node).getBytes(StandardCharsets.UTF_8));
+                    writeBytes(dataOutput, this.documentTable.getText(node).getBytes(StandardCharsets.UTF_8));
+                    writeBytes(dataOutput, OBJECT_MAPPER.writeValueAsBytes(this.documentTable.getMetadata(node)));
+                }
+            }
+            Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+            logger.info("Saved HNSW vector store: {} documents to {}", this.idNodeMap.size(), file);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to save HNSW vector store: " + file, e);
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    public void load(File file) {
+        try (DataInputStream dataInput = new DataInputStream(
+                new BufferedInputStream(new FileInputStream(file), 1 << 16))) {
+            if (dataInput.readInt() != FILE_MAGIC)
+                throw new IOException("Not a HNSW vector store file: " + file);
+            HnswIndex loadedIndex = HnswIndex.read(dataInput, this.storageDirectory, this.quantizationMode);
+            HnswDocumentTable loadedDocumentTable = new HnswDocumentTable(this.storageDirectory);
+            MetadataIndex loadedMetadataIndex = newMetadataIndex();
+            Bm25Index loadedBm25Index = new Bm25Index();
+            Map<String, Integer> loadedIdNodeMap = new HashMap<>();
+            for (int node = 0; node < loadedIndex.size(); node++) {
+                if (!dataInput.readBoolean()) {
+                    loadedDocumentTable.remove(loadedDocumentTable.add(null, null, Map.of()));
+                    continue;
+                }
+                String id = new String(readBytes(dataInput), StandardCharsets.UTF_8);
+                String text = new String(readBytes(dataInput), StandardCharsets.UTF_8);
+                Map<String, Object> metadata = OBJECT_MAPPER.readValue(readBytes(dataInput), MAP_TYPE_REFERENCE);
+                loadedDocumentTable.add(id, text, metadata);
+                loadedMetadataIndex.add(node, metadata);
+                loadedBm25Index.add(node, text);
+                loadedIdNodeMap.put(id, node);
+            }
+            this.lock.writeLock().lock();
+            try {
+                replace(loadedIndex, loadedDocumentTable, loadedMetadataIndex, loadedBm25Index, loadedIdNodeMap);
+            } finally {
+                this.lock.writeLock().unlock();
+            }
+            logger.info("Loaded HNSW vector store: {} documents from {}", loadedIdNodeMap.size(), file);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to load HNSW vector store: " + file, e);
+        }
+    }
+
+    public void loadSimpleVectorStore(File simpleVectorStoreFile) {
+        try {
+            Map<String, Map<String, Object>> contentMap = OBJECT_MAPPER.readValue(simpleVectorStoreFile,
+                    new TypeReference<>() {});
+            List<Document> documents = new ArrayList<>(contentMap.size());
+            List<float[]> embeddings = new ArrayList<>(contentMap.size());
+            for (Map<String, Object> content : contentMap.values()) {
+                documents.add(new Document(content.get("id").toString(),
+                        Objects.requireNonNullElse(content.get("text"), "").toString(),
+                        (Map<String, Object>) Objects.requireNonNullElseGet(content.get("metadata"), HashMap::new)));
+                List<Number> embedding = (List<Number>) content.get("embedding");
+                float[] vector = new float[embedding.size()];
+                for (int i = 0; i < vector.length; i++)
+                    vector[i] = embedding.get(i).floatValue();
+                embeddings.add(vector);
+            }
+            addEmbedded(documents, embeddings);
+            logger.info("Migrated {} documents from {}", documents.size(), simpleVectorStoreFile);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to migrate simple vector store: " + simpleVectorStoreFile, e);
+        }
+    }
+
+    private void replace(HnswIndex hnswIndex, HnswDocumentTable documentTable, MetadataIndex metadataIndex,
+            Bm25Index bm25Index, Map<String, Integer> idNodeMap) {
+        this.hnswIndex.close();
+        this.documentTable.close();
+        this.hnswIndex = hnswIndex;
+        this.documentTable = documentTable;
+        this.metadataIndex = metadataIndex;
+        this.bm25Index = bm25Index;
+        this.idNodeMap = idNodeMap;
+        this.modificationCount++;
+    }
+
+    @Override
+    public void close() {
+        this.lock.writeLock().lock();
+        try {
+            this.hnswIndex.close();
+            this.documentTable.close();
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    private static void writeBytes(DataOutputStream dataOutput, byte[] bytes) throws IOException {
+        dataOutput.writeInt(bytes.length);
+        dataOutput.write(bytes);
+    }
+
+    private static byte[] readBytes(DataInputStream dataInput) throws IOException {
+        byte[] bytes = new byte[dataInput.readInt()];
+        dataInput.readFully(bytes);
+        return bytes;
+    }
+
+    @Override
+    public VectorStoreObservationContext.Builder createObservationContextBuilder(String operationName) {
+        return VectorStoreObservationContext.builder(PROVIDER, operationName).collectionName("hnsw-graph")
+                .similarityMetric(VectorStoreSimilarityMetric.COSINE.value());
+    }
+
+    public static final class HnswVectorStoreBuilder extends AbstractVectorStoreBuilder<HnswVectorStoreBuilder> {
+        private int m = DEFAULT_M;
+        private int efConstruction = DEFAULT_EF_CONSTRUCTION;
+        private int efSearch = DEFAULT_EF_SEARCH;
+        private Path storageDirectory;
+        private QuantizationMode quantizationMode = QuantizationMode.NONE;
+        private Set<String> indexedMetadataKeys = Set.of();
+        private boolean keywordMetadataIndex = true;
+
+        private HnswVectorStoreBuilder(EmbeddingModel embeddingModel) {
+            super(embeddingModel);
+        }
+
+        public HnswVectorStoreBuilder m(int m) {
+            this.m = m;
+            return this;
+        }
+
+        public HnswVectorStoreBuilder efConstruction(int efConstruction) {
+            this.efConstruction = efConstruction;
+            return this;
+        }
+
+        public HnswVectorStoreBuilder efSearch(int efSearch) {
+            this.efSearch = efSearch;
+            return this;
+        }
+
+        public HnswVectorStoreBuilder storageDirectory(Path storageDirectory) {
+            this.storageDirectory = storageDirectory;
+            return this;
+        }
+
+        public HnswVectorStoreBuilder quantization(QuantizationMode quantizationMode) {
+            this.quantizationMode = Objects.requireNonNull(quantizationMode, "quantizationMode cannot be null");
+            return this;
+        }
+
+        public HnswVectorStoreBuilder indexedMetadataKeys(Set<String> indexedMetadataKeys) {
+            this.indexedMetadataKeys = Set.copyOf(indexedMetadataKeys);
+            return this;
+        }
+
+        public HnswVectorStoreBuilder keywordMetadataIndex(boolean keywordMetadataIndex) {
+            this.keywordMetadataIndex = keywordMetadataIndex;
+            return this;
+        }
+
+        @Override
+        public HnswVectorStore build() {
+            return new HnswVectorStore(this);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright © 2025 Jemin Huh (hjm1980@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jm.kr.spring.ai.playground.service.vectorstore.local;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+
+public class Int8VectorStorage extends QuantizedVectorStorage {
+
+    private static final float MAX_CODE = 127f;
+
+    public Int8VectorStorage(int dimensions, Path storageDirectory) {
+        super(dimensions, Float.BYTES + dimensions, storageDirectory, "int8-");
+    }
+
+    @Override
+    public QuantizationMode getQuantizationMode() {
+        return QuantizationMode.INT8;
+    }
+
+    @Override
+    NodeScorer scorer(SimilarityKernel similarityKernel, float[] query) {
+        byte[] queryCodes = new byte[this.dimensions];
+        float queryScale = quantize(query, queryCodes);
+        return node -> {
+            ByteBuffer page = page(node);
+            int offset = offset(node);
+            return similarityKernel.int8Dot(queryCodes, page, offset + Float.BYTES) * queryScale *
+                    page.getFloat(offset);
+        };
+    }
+
+    @Override
+    protected void encode(float[] vector, ByteBuffer page, int offset) {
+        byte[] codes = new byte[this.dimensions];
+        page.putFloat(offset, quantize(vector, codes));
+        page.put(offset + Float.BYTES, codes);
+    }
+
+    static float quantize(float[] vector, byte[] codes) {
+        float maxAbs = 0;
+        for (float value : vector)
+            maxAbs = Math.max(maxAbs, Math.abs(value));
+        if (maxAbs == 0)
+            return 0;
+        float scale = maxAbs / MAX_CODE;
+        for (int i = 0; i < vector.length; i++)
+            codes[i] = (byte) Math.round(vector[i] / scale);
+        return scale;
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright © 2025 Jemin Huh (hjm1980@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jm.kr.spring.ai.playground.service.vectorstore.local;
+
+import java.math.BigDecimal;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+class MetadataIndex {
+
+    static final int MAX_KEYWORD_LENGTH = 256;
+
+    private final Set<String> keys;
+    private final boolean indexKeywords;
+    private final Set<String> unindexedKeys;
+    private final Map<String, Map<Object, BitSet>> keyValueNodesMap;
+
+    MetadataIndex(Set<String> keys) {
+        this(keys, false);
+    }
+
+    MetadataIndex(Set<String> keys, boolean indexKeywords) {
+        this.keys = Set.copyOf(keys);
+        this.indexKeywords = indexKeywords;
+        this.unindexedKeys = new HashSet<>();
+        this.keyValueNodesMap = new HashMap<>();
+    }
+
+    boolean isIndexed(String key) {
+        return this.keys.contains(key) || (this.indexKeywords && !this.unindexedKeys.contains(key));
+    }
+
+    void add(int node, Map<String, Object> metadata) {
+        for (Map.Entry<String, Object> entry : metadata.entrySet()) {
+            String key = entry.getKey();
+            Object value = entry.getValue();
+            if (Objects.isNull(value) || !isIndexed(key))
+                continue;
+            if (this.keys.contains(key) || isKeyword(value)) {
+                this.keyValueNodesMap.computeIfAbsent(key, k -> new HashMap<>())
+                        .computeIfAbsent(normalize(value), v -> new BitSet()).set(node);
+            } else {
+                this.unindexedKeys.add(key);
+                this.keyValueNodesMap.remove(key);
+            }
+        }
+    }
+
+    void remove(int node, Map<String, Object> metadata) {
+        for (Map.Entry<String, Object> entry : metadata.entrySet()) {
+            Map<Object, BitSet> valueNodesMap = this.keyValueNodesMap.get(entry.getKey());
+            if (Objects.isNull(valueNodesMap) || Objects.isNull(entry.getValue()))
+                continue;
+            Object normalizedValue = normalize(entry.getValue());
+            BitSet nodes = valueNodesMap.get(normalizedValue);
+            if (Objects.isNull(nodes))
+                continue;
+            nodes.clear(node);
+            if (nodes.isEmpty())
+                valueNodesMap.remove(normalizedValue);
+        }
+    }
+
+    BitSet nodes(String key, Collection<?> values) {
+        BitSet nodes = new BitSet();
+        Map<Object, BitSet> valueNodesMap = this.keyValueNodesMap.getOrDefault(key, Map.of());
+        for (Object value : values) {
+            BitSet valueNodes = Objects.isNull(value) ? null : valueNodesMap.get(normalize(value));
+            if (Objects.nonNull(valueNodes))
+                nodes.or(valueNodes);
+        }
+        return nodes;
+    }
+
+    static boolean isKeyword(Object value) {
+        return value instanceof Number || value instanceof Boolean ||
+                (value instanceof String string && string.length() <= MAX_KEYWORD_LENGTH);
+    }
+
+    static Object normalize(Object value) {
+        if (!(value instanceof Number number))
+            return value;
+        try {
+            return new BigDecimal(number.toString()).stripTrailingZeros();
+        } catch (NumberFormatException e) {
+            return value;
+        }
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright © 2025 Jemin Huh (hjm1980@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jm.kr.spring.ai.playground.service.vectorstore.local;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+class OffHeapPages implements Closeable {
+
+    private static final String FILE_SUFFIX = ".pages";
+
+    private final int pageBytes;
+    private final Path file;
+    private final FileChannel fileChannel;
+    private ByteBuffer[] pages;
+    private int pageCount;
+
+    OffHeapPages(int pageBytes, Path storageDirectory, String filePrefix) {
+        this.pageBytes = pageBytes;
+        this.pages = new ByteBuffer[16];
+        if (Objects.isNull(storageDirectory)) {
+            this.file = null;
+            this.fileChannel = null;
+            return;
+        }
+        try {
+            Files.createDirectories(storageDirectory);
+            this.file = Files.createTempFile(storageDirectory, filePrefix, FILE_SUFFIX);
+            this.fileChannel = FileChannel.open(this.file, StandardOpenOption.READ, StandardOpenOption.WRITE,
+                    StandardOpenOption.DELETE_ON_CLOSE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to create off-heap storage file in " + storageDirectory, e);
+        }
+    }
+
+    // Page files are deleted on close, so any left in the directory belong to a process that was killed.
+    static void deleteStaleFiles(Path storageDirectory) {
+        if (!Files.isDirectory(storageDirectory))
+            return;
+        try (Stream<Path> paths = Files.list(storageDirectory)) {
+            for (Path path : paths.filter(path -> path.getFileName().toString().endsWith(FILE_SUFFIX)).toList())
+                Files.deleteIfExists(path);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to delete stale off-heap storage files in " + storageDirectory, e);
+        }
+    }
+
+    int getPageBytes() {
+        return this.pageBytes;
+    }
+
+    boolean isFileBacked() {
+        return Objects.nonNull(this.fileChannel);
+    }
+
+    long capacityBytes() {
+        return (long) this.pageCount * this.pageBytes;
+    }
+
+    ByteBuffer page(int pageIndex) {
+        while (pageIndex >= this.pageCount)
+            allocatePage();
+        return this.pages[pageIndex];
+    }
+
+    private void allocatePage() {
+        if (this.pageCount == this.pages.length)
+            this.pages = Arrays.copyOf(this.pages, this.pages.length * 2);
+        ByteBuffer page;
+        if (isFileBacked()) {
+            try {
+                page = this.fileChannel.map(FileChannel.MapMode.READ_WRITE, capacityBytes(), this.pageBytes);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to map off-heap storage page: " + this.file, e);
+            }
+        } else {
+            page = ByteBuffer.allocateDirect(this.pageBytes);
+        }
+        this.pages[this.pageCount++] = page.order(ByteOrder.nativeOrder());
+    }
+
+    @Override
+    public void close() {
+        this.pages = new ByteBuffer[0];
+        this.pageCount = 0;
+        if (isFileBacked()) {
+            try {
+                this.fileChannel.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to close off-heap storage file: " + this.file, e);
+            }
+        }
+    }
+}
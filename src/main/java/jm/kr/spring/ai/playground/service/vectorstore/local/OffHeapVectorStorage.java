@@ -0,0 +1,112 @@
+/*
+ * Copyright © 2025 Jemin Huh (hjm1980@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jm.kr.spring.ai.playground.service.vectorstore.local;
+
+import java.io.Closeable;
+import java.nio.FloatBuffer;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Objects;
+
+public class OffHeapVectorStorage implements Closeable {
+
+    private static final int MAX_PAGE_BYTES = 1 << 24;
+
+    private final int dimensions;
+    private final int vectorsPerPage;
+    private final OffHeapPages offHeapPages;
+    private FloatBuffer[] pageViews;
+    private int size;
+
+    public OffHeapVectorStorage(int dimensions) {
+        this(dimensions, null);
+    }
+
+    public OffHeapVectorStorage(int dimensions, Path storageDirectory) {
+        if (dimensions < 1)
+            throw new IllegalArgumentException("Invalid vector dimensions: " + dimensions);
+        this.dimensions = dimensions;
+        this.vectorsPerPage = Math.max(1, MAX_PAGE_BYTES / (dimensions * Float.BYTES));
+        this.offHeapPages = new OffHeapPages(this.vectorsPerPage * dimensions * Float.BYTES, storageDirectory,
+                "vectors-");
+        this.pageViews = new FloatBuffer[0];
+    }
+
+    public int getDimensions() {
+        return this.dimensions;
+    }
+
+    public int size() {
+        return this.size;
+    }
+
+    public boolean isFileBacked() {
+        return this.offHeapPages.isFileBacked();
+    }
+
+    public long capacityBytes() {
+        return this.offHeapPages.capacityBytes();
+    }
+
+    public int add(float[] vector) {
+        if (vector.length != this.dimensions)
+            throw new IllegalArgumentException(
+                    "Vector dimensions mismatch: expected " + this.dimensions + " but " + vector.length);
+        int index = this.size;
+        pageView(index / this.vectorsPerPage).put(offset(index), vector);
+        this.size++;
+        return index;
+    }
+
+    public float[] get(int index) {
+        float[] vector = new float[this.dimensions];
+        get(index, vector);
+        return vector;
+    }
+
+    public void get(int index, float[] destination) {
+        pageView(checkedPage(index)).get(offset(index), destination, 0, this.dimensions);
+    }
+
+    public float dot(SimilarityKernel similarityKernel, float[] query, int index) {
+        return similarityKernel.dot(query, pageView(checkedPage(index)), offset(index));
+    }
+
+    private int checkedPage(int index) {
+        return Objects.checkIndex(index, this.size) / this.vectorsPerPage;
+    }
+
+    private int offset(int index) {
+        return index % this.vectorsPerPage * this.dimensions;
+    }
+
+    private FloatBuffer pageView(int pageIndex) {
+        if (pageIndex >= this.pageViews.length) {
+            FloatBuffer[] pageViews = Arrays.copyOf(this.pageViews, pageIndex + 1);
+            for (int i = this.pageViews.length; i < pageViews.length; i++)
+                pageViews[i] = this.offHeapPages.page(i).asFloatBuffer();
+            this.pageViews = pageViews;
+        }
+        return this.pageViews[pageIndex];
+    }
+
+    @Override
+    public void close() {
+        this.pageViews = new FloatBuffer[0];
+        this.size = 0;
+        this.offHeapPages.close();
+    }
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright © 2025 Jemin Huh (hjm1980@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jm.kr.spring.ai.playground.service.vectorstore.local;
+
+import org.springframework.ai.document.Document;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+
+public interface PageableVectorStore {
+
+    String ID = "id";
+    String TEXT = "text";
+
+    record SortOrder(String property, boolean descending) {}
+
+    // A null key pages over all documents; sort orders on properties other than ID and TEXT are ignored.
+    List<Document> findPage(String key, Collection<?> values, int offset, int limit, List<SortOrder> sortOrders);
+
+    int count(String key, Collection<?> values);
+
+    static Comparator<Document> documentComparator(List<SortOrder> sortOrders) {
+        Comparator<Document> documentComparator = (document, otherDocument) -> 0;
+        for (SortOrder sortOrder : sortOrders) {
+            Comparator<Document> propertyComparator = switch (sortOrder.property()) {
+                case ID -> Comparator.comparing(Document::getId);
+                case TEXT -> Comparator.comparing(Document::getText, Comparator.nullsFirst(Comparator.naturalOrder()));
+                default -> null;
+            };
+            if (Objects.nonNull(propertyComparator))
+                documentComparator = documentComparator.thenComparing(
+                        sortOrder.descending() ? propertyComparator.reversed() : propertyComparator);
+        }
+        return documentComparator;
+    }
+}
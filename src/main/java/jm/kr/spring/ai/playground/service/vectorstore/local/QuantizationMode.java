@@ -0,0 +1,30 @@
+/*
+ * Copyright © 2025 Jemin Huh (hjm1980@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jm.kr.spring.ai.playground.service.vectorstore.local;
+
+public enum QuantizationMode {
+    NONE(1), INT8(3), BINARY(10);
+
+    private final int rescoreOversampling;
+
+    QuantizationMode(int rescoreOversampling) {
+        this.rescoreOversampling = rescoreOversampling;
+    }
+
+    public int getRescoreOversampling() {
+        return this.rescoreOversampling;
+    }
+}
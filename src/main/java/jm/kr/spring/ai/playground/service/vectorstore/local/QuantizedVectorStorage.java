@@ -0,0 +1,90 @@
+/*
+ * Copyright © 2025 Jemin Huh (hjm1980@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jm.kr.spring.ai.playground.service.vectorstore.local;
+
+import java.io.Closeable;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.Objects;
+
+public abstract class QuantizedVectorStorage implements Closeable {
+
+    private static final int MAX_PAGE_BYTES = 1 << 22;
+
+    protected final int dimensions;
+    protected final int recordBytes;
+    protected final int recordsPerPage;
+    private final OffHeapPages offHeapPages;
+    private int size;
+
+    protected QuantizedVectorStorage(int dimensions, int recordBytes, Path storageDirectory, String filePrefix) {
+        this.dimensions = dimensions;
+        this.recordBytes = recordBytes;
+        this.recordsPerPage = Math.max(1, MAX_PAGE_BYTES / recordBytes);
+        this.offHeapPages = new OffHeapPages(this.recordsPerPage * recordBytes, storageDirectory, filePrefix);
+    }
+
+    public static QuantizedVectorStorage create(QuantizationMode quantizationMode, int dimensions,
+            Path storageDirectory) {
+        return switch (quantizationMode) {
+            case INT8 -> new Int8VectorStorage(dimensions, storageDirectory);
+            case BINARY -> new BinaryVectorStorage(dimensions, storageDirectory);
+            case NONE -> throw new IllegalArgumentException("No quantized storage for " + quantizationMode);
+        };
+    }
+
+    public abstract QuantizationMode getQuantizationMode();
+
+    public int getRecordBytes() {
+        return this.recordBytes;
+    }
+
+    public int size() {
+        return this.size;
+    }
+
+    public long capacityBytes() {
+        return this.offHeapPages.capacityBytes();
+    }
+
+    public int add(float[] vector) {
+        if (vector.length != this.dimensions)
+            throw new IllegalArgumentException(
+                    "Vector dimensions mismatch: expected " + this.dimensions + " but " + vector.length);
+        int index = this.size;
+        encode(vector, this.offHeapPages.page(index / this.recordsPerPage), offset(index));
+        this.size++;
+        return index;
+    }
+
+    abstract NodeScorer scorer(SimilarityKernel similarityKernel, float[] query);
+
+    protected abstract void encode(float[] vector, ByteBuffer page, int offset);
+
+    protected ByteBuffer page(int index) {
+        return this.offHeapPages.page(Objects.checkIndex(index, this.size) / this.recordsPerPage);
+    }
+
+    protected int offset(int index) {
+        return index % this.recordsPerPage * this.recordBytes;
+    }
+
+    @Override
+    public void close() {
+        this.size = 0;
+        this.offHeapPages.close();
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright © 2025 Jemin Huh (hjm1980@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jm.kr.spring.ai.playground.service.vectorstore.local;
+
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+
+public class ScalarSimilarityKernel implements SimilarityKernel {
+
+    @Override
+    public String getName() {
+        return "scalar";
+    }
+
+    @Override
+    public float dot(float[] a, float[] b) {
+        checkLength(a, b);
+        float dot = 0;
+        for (int i = 0; i < a.length; i++)
+            dot += a[i] * b[i];
+        return dot;
+    }
+
+    @Override
+    public float dot(float[] a, FloatBuffer b, int offset) {
+        float dot = 0;
+        for (int i = 0; i < a.length; i++)
+            dot += a[i] * b.get(offset + i);
+        return dot;
+    }
+
+    @Override
+    public int int8Dot(byte[] a, byte[] b) {
+        checkLength(a.length, b.length);
+        int dot = 0;
+        for (int i = 0; i < a.length; i++)
+            dot += a[i] * b[i];
+        return dot;
+    }
+
+    @Override
+    public int int8Dot(byte[] a, ByteBuffer b, int offset) {
+        int dot = 0;
+        for (int i = 0; i < a.length; i++)
+            dot += a[i] * b.get(offset + i);
+        return dot;
+    }
+
+    @Override
+    public float cosine(float[] a, float[] b) {
+        checkLength(a, b);
+        float dot = 0;
+        float normA = 0;
+        float normB = 0;
+        for (int i = 0; i < a.length; i++) {
+            dot += a[i] * b[i];
+            normA += a[i] * a[i];
+            normB += b[i] * b[i];
+        }
+        return SimilarityKernel.cosine(dot, normA, normB);
+    }
+
+    @Override
+    public float l2Squared(float[] a, float[] b) {
+        checkLength(a, b);
+        float sum = 0;
+        for (int i = 0; i < a.length; i++) {
+            float diff = a[i] - b[i];
+            sum += diff * diff;
+        }
+        return sum;
+    }
+
+    static void checkLength(float[] a, float[] b) {
+        checkLength(a.length, b.length);
+    }
+
+    static void checkLength(int aLength, int bLength) {
+        if (aLength != bLength)
+            throw new IllegalArgumentException("Vector dimensions differ: " + aLength + " != " + bLength);
+    }
+}
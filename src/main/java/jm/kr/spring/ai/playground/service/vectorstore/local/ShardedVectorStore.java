@@ -0,0 +1,411 @@
+/*
+ * Copyright © 2025 Jemin Huh (hjm1980@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jm.kr.spring.ai.playground.service.vectorstore.local;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.embedding.EmbeddingOptions;
+import org.springframework.ai.observation.conventions.VectorStoreSimilarityMetric;
+import org.springframework.ai.vectorstore.AbstractVectorStoreBuilder;
+import org.springframework.ai.vectorstore.SearchRequest;
+import org.springframework.ai.vectorstore.filter.Filter;
+import org.springframework.ai.vectorstore.observation.AbstractObservationVectorStore;
+import org.springframework.ai.vectorstore.observation.VectorStoreObservationContext;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+public class ShardedVectorStore extends AbstractObservationVectorStore
+        implements MetadataIndexedVectorStore, PageableVectorStore, LexicalSearchableVectorStore, EmbeddedVectorStore,
+        AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(ShardedVectorStore.class);
+    private static final String PROVIDER = "sharded-hnsw";
+    private static final String SHARD_FILE_PREFIX = "shard-";
+    private static final String SHARD_FILE_SUFFIX = ".bin";
+    private static final int RESHARD_BATCH_SIZE = 1000;
+    private static final Comparator<Document> SCORE_COMPARATOR =
+            Comparator.comparing(Document::getScore, Comparator.nullsFirst(Comparator.naturalOrder()));
+
+    public static final int DEFAULT_SHARD_COUNT = Runtime.getRuntime().availableProcessors();
+    public static final String DEFAULT_SHARD_KEY = "docInfoId";
+
+    private final String shardKey;
+    private final List<HnswVectorStore> shards;
+    private final Map<String, Integer> idShardMap;
+    private final ForkJoinPool forkJoinPool;
+
+    protected ShardedVectorStore(ShardedVectorStoreBuilder builder) {
+        super(builder);
+        this.shardKey = builder.shardKey;
+        this.shards = IntStream.range(0, builder.shardCount).mapToObj(builder.shardFactory).toList();
+        this.idShardMap = new ConcurrentHashMap<>();
+        this.forkJoinPool =
+                new ForkJoinPool(Math.min(builder.shardCount, Runtime.getRuntime().availableProcessors()));
+    }
+
+    public static ShardedVectorStoreBuilder builder(EmbeddingModel embeddingModel) {
+        return new ShardedVectorStoreBuilder(embeddingModel);
+    }
+
+    public int getShardCount() {
+        return this.shards.size();
+    }
+
+    public QuantizationMode getQuantizationMode() {
+        return this.shards.getFirst().getQuantizationMode();
+    }
+
+    public int size() {
+        return this.shards.stream().mapToInt(HnswVectorStore::size).sum();
+    }
+
+    @Override
+    public void doAdd(List<Document> documents) {
+        Objects.requireNonNull(documents, "Documents list cannot be null");
+        if (documents.isEmpty())
+            return;
+        addEmbedded(documents,
+                this.embeddingModel.embed(documents, EmbeddingOptions.builder().build(), this.batchingStrategy));
+    }
+
+    // Each shard is written under its own lock, so batches for different shards are inserted in parallel. A
+    // document whose shard key changed is first removed from the shard that held it.
+    @Override
+    public void addEmbedded(List<Document> documents, List<float[]> embeddings) {
+        if (documents.size() != embeddings.size())
+            throw new IllegalArgumentException("Documents and embeddings size mismatch");
+        Map<Integer, List<Integer>> shardIndexesMap = IntStream.range(0, documents.size()).boxed()
+                .collect(Collectors.groupingBy(i -> shardOf(documents.get(i)), TreeMap::new, Collectors.toList()));
+        Map<Integer, List<String>> movedShardIdsMap = new TreeMap<>();
+        shardIndexesMap.forEach((shard, indexes) -> indexes.stream().map(i -> documents.get(i).getId())
+                .forEach(id -> Optional.ofNullable(this.idShardMap.get(id)).filter(Predicate.not(shard::equals))
+                        .ifPresent(previous -> movedShardIdsMap.computeIfAbsent(previous, key -> new ArrayList<>())
+                                .add(id))));
+        movedShardIdsMap.forEach((shard, ids) -> this.shards.get(shard).delete(ids));
+        scatter(shardIndexesMap.keySet(), shard -> {
+            List<Integer> indexes = shardIndexesMap.get(shard);
+            this.shards.get(shard).addEmbedded(indexes.stream().map(documents::get).toList(),
+                    indexes.stream().map(embeddings::get).toList());
+            indexes.forEach(i -> this.idShardMap.put(documents.get(i).getId(), shard));
+            return null;
+        });
+    }
+
+    @Override
+    public void doDelete(List<String> idList) {
+        idList.stream().filter(this.idShardMap::containsKey)
+                .collect(Collectors.groupingBy(this.idShardMap::get, TreeMap::new, Collectors.toList()))
+                .forEach((shard, ids) -> {
+                    this.shards.get(shard).delete(ids);
+                    ids.forEach(this.idShardMap::remove);
+                });
+    }
+
+    @Override
+    protected void doDelete(Filter.Expression filterExpression) {
+        scatter(findShards(filterExpression), shard -> {
+            HnswVectorStore hnswVectorStore = this.shards.get(shard);
+            hnswVectorStore.delete(filterExpression);
+            Set<String> remainingIds = new HashSet<>(hnswVectorStore.getIds());
+            this.idShardMap.entrySet().removeIf(
+                    entry -> shard.equals(entry.getValue()) && !remainingIds.contains(entry.getKey()));
+            return null;
+        });
+    }
+
+    // The query is embedded once and every target shard returns its own top K; the global top K is kept in a
+    // bounded min-heap while the shard results are merged.
+    @Override
+    public List<Document> doSimilaritySearch(SearchRequest request) {
+        float[] queryEmbedding = this.embeddingModel.embed(request.getQuery());
+        return mergeTopK(scatter(findShards(request),
+                shard -> this.shards.get(shard).searchEmbedded(request, queryEmbedding)), request.getTopK());
+    }
+
+    // BM25 statistics are kept per shard, so the merged order approximates the ranking of a single index.
+    @Override
+    public List<Document> lexicalSearch(SearchRequest request) {
+        return mergeTopK(scatter(findShards(request), shard -> this.shards.get(shard).lexicalSearch(request)),
+                request.getTopK());
+    }
+
+    @Override
+    public List<Document> findByMetadata(String key, Collection<?> values, int offset, int limit) {
+        return findPage(key, values, offset, limit, List.of());
+    }
+
+    @Override
+    public int countByMetadata(String key, Collection<?> values) {
+        return count(key, values);
+    }
+
+    @Override
+    public List<Document> findPage(String key, Collection<?> values, int offset, int limit,
+            List<SortOrder> sortOrders) {
+        List<HnswVectorStore> targetShards = findShards(key, values).stream().mapToObj(this.shards::get).toList();
+        if (sortOrders.stream().noneMatch(sortOrder -> ID.equals(sortOrder.property()) ||
+                TEXT.equals(sortOrder.property())))
+            return findPageInShardOrder(targetShards, key, values, offset, limit);
+        int shardLimit = (int) Math.min((long) offset + limit, Integer.MAX_VALUE);
+        return targetShards.stream()
+                .flatMap(shard -> shard.findPage(key, values, 0, shardLimit, sortOrders).stream())
+                .sorted(PageableVectorStore.documentComparator(sortOrders)).skip(offset).limit(limit).toList();
+    }
+
+    private List<Document> findPageInShardOrder(List<HnswVectorStore> targetShards, String key,
+            Collection<?> values, int offset, int limit) {
+        List<Document> documents = new ArrayList<>();
+        int skip = offset;
+        for (HnswVectorStore shard : targetShards) {
+            if (documents.size() >= limit)
+                break;
+            int shardSize = shard.count(key, values);
+            if (skip >= shardSize) {
+                skip -= shardSize;
+                continue;
+            }
+            documents.addAll(shard.findPage(key, values, skip, limit - documents.size(), List.of()));
+            skip = 0;
+        }
+        return documents;
+    }
+
+    @Override
+    public int count(String key, Collection<?> values) {
+        return findShards(key, values).stream().map(shard -> this.shards.get(shard).count(key, values)).sum();
+    }
+
+    private int shardOf(Document document) {
+        return shardOf(Optional.ofNullable(document.getMetadata().get(this.shardKey)).orElse(document.getId()));
+    }
+
+    private int shardOf(Object shardKeyValue) {
+        return Math.floorMod(String.valueOf(shardKeyValue).hashCode(), this.shards.size());
+    }
+
+    private BitSet allShards() {
+        BitSet shards = new BitSet();
+        shards.set(0, this.shards.size());
+        return shards;
+    }
+
+    private BitSet findShards(String key, Collection<?> values) {
+        if (Objects.isNull(key) || !this.shardKey.equals(key))
+            return allShards();
+        BitSet shards = new BitSet();
+        values.forEach(value -> shards.set(shardOf(value)));
+        return shards;
+    }
+
+    private BitSet findShards(SearchRequest request) {
+        return request.hasFilterExpression() ? findShards(request.getFilterExpression()) : allShards();
+    }
+
+    private BitSet findShards(Filter.Expression filterExpression) {
+        return narrowShards(filterExpression).orElseGet(this::allShards);
+    }
+
+    // Only equality and membership on the shard key narrow the shards; AND intersects and OR unions the shards of
+    // both sides, and anything else may match documents in every shard.
+    private Optional<BitSet> narrowShards(Filter.Operand operand) {
+        if (operand instanceof Filter.Group group)
+            return narrowShards(group.content());
+        if (!(operand instanceof Filter.Expression expression))
+            return Optional.empty();
+        return switch (expression.type()) {
+            case EQ, IN -> expression.left() instanceof Filter.Key key &&
+                    this.shardKey.equals(CompiledFilterExpression.unquote(key.key())) &&
+                    expression.right() instanceof Filter.Value value && Objects.nonNull(value.value()) ?
+                    Optional.of(findShards(this.shardKey, value.value() instanceof Collection<?> collection ?
+                            collection : List.of(value.value()))) : Optional.empty();
+            case AND -> {
+                Optional<BitSet> right = narrowShards(expression.right());
+                yield narrowShards(expression.left()).map(left -> right.map(rightShards -> {
+                    BitSet shards = (BitSet) left.clone();
+                    shards.and(rightShards);
+                    return shards;
+                }).orElse(left)).or(() -> right);
+            }
+            case OR -> narrowShards(expression.left()).flatMap(left -> narrowShards(expression.right()).map(right -> {
+                BitSet shards = (BitSet) left.clone();
+                shards.or(right);
+                return shards;
+            }));
+            default -> Optional.empty();
+        };
+    }
+
+    private <T> List<T> scatter(Collection<Integer> shards, Function<Integer, T> shardFunction) {
+        if (shards.size() <= 1)
+            return shards.stream().map(shardFunction).toList();
+        List<ForkJoinTask<T>> tasks =
+                shards.stream().map(shard -> this.forkJoinPool.submit(() -> shardFunction.apply(shard))).toList();
+        return tasks.stream().map(ForkJoinTask::join).toList();
+    }
+
+    private <T> List<T> scatter(BitSet shards, Function<Integer, T> shardFunction) {
+        return scatter(shards.stream().boxed().toList(), shardFunction);
+    }
+
+    private static List<Document> mergeTopK(List<List<Document>> shardDocuments, int topK) {
+        PriorityQueue<Document> topDocuments = new PriorityQueue<>(topK + 1, SCORE_COMPARATOR);
+        for (List<Document> documents : shardDocuments) {
+            for (Document document : documents) {
+                topDocuments.offer(document);
+                if (topDocuments.size() > topK)
+                    topDocuments.poll();
+            }
+        }
+        return topDocuments.stream().sorted(SCORE_COMPARATOR.reversed()).toList();
+    }
+
+    public void save(File directory) {
+        scatter(allShards(), shard -> {
+            this.shards.get(shard).save(shardFile(directory, shard));
+            return null;
+        });
+        // Files of shards beyond the configured count were re-sharded on load and would otherwise be read again.
+        Arrays.stream(listShardFiles(directory)).filter(file -> !isShardFile(directory, file))
+                .forEach(File::delete);
+        logger.info("Saved sharded vector store: {} documents in {} shards to {}", this.idShardMap.size(),
+                this.shards.size(), directory);
+    }
+
+    // A directory written with a different shard count, e.g. by a default taken from another host's processor count,
+    // is re-sharded into the configured shards instead of being rejected.
+    public void load(File directory) {
+        File[] shardFiles = listShardFiles(directory);
+        if (shardFiles.length == 0)
+            return;
+        if (shardFiles.length != this.shards.size() ||
+                !Arrays.stream(shardFiles).allMatch(file -> isShardFile(directory, file))) {
+            logger.warn("{} holds {} shards but {} are configured, re-sharding", directory, shardFiles.length,
+                    this.shards.size());
+            Arrays.stream(shardFiles).forEach(this::loadHnswVectorStore);
+            return;
+        }
+        scatter(allShards(), shard -> {
+            HnswVectorStore hnswVectorStore = this.shards.get(shard);
+            hnswVectorStore.load(shardFile(directory, shard));
+            hnswVectorStore.getIds().forEach(id -> this.idShardMap.put(id, shard));
+            return null;
+        });
+        logger.info("Loaded sharded vector store: {} documents in {} shards from {}", this.idShardMap.size(),
+                this.shards.size(), directory);
+    }
+
+    public void loadHnswVectorStore(File hnswVectorStoreFile) {
+        migrate(hnswVectorStore -> hnswVectorStore.load(hnswVectorStoreFile), hnswVectorStoreFile);
+    }
+
+    public void loadSimpleVectorStore(File simpleVectorStoreFile) {
+        migrate(hnswVectorStore -> hnswVectorStore.loadSimpleVectorStore(simpleVectorStoreFile),
+                simpleVectorStoreFile);
+    }
+
+    // The source is read into a transient heap store and its stored embeddings are routed to the shards in batches.
+    private void migrate(Consumer<HnswVectorStore> sourceLoader, File sourceFile) {
+        try (HnswVectorStore source = HnswVectorStore.builder(this.embeddingModel).build()) {
+            sourceLoader.accept(source);
+            source.forEachEmbedded(RESHARD_BATCH_SIZE, this::addEmbedded);
+            logger.info("Re-sharded {} documents from {} into {} shards", source.size(), sourceFile,
+                    this.shards.size());
+        }
+    }
+
+    private static File shardFile(File directory, int shard) {
+        return new File(directory, SHARD_FILE_PREFIX + shard + SHARD_FILE_SUFFIX);
+    }
+
+    private boolean isShardFile(File directory, File file) {
+        return IntStream.range(0, this.shards.size()).anyMatch(shard -> shardFile(directory, shard).equals(file));
+    }
+
+    private static File[] listShardFiles(File directory) {
+        return Objects.requireNonNullElse(directory.listFiles((dir, name) -> name.startsWith(SHARD_FILE_PREFIX) &&
+                name.endsWith(SHARD_FILE_SUFFIX)), new File[0]);
+    }
+
+    @Override
+    public void close() {
+        this.forkJoinPool.shutdownNow();
+        this.shards.forEach(HnswVectorStore::close);
+    }
+
+    @Override
+    public VectorStoreObservationContext.Builder createObservationContextBuilder(String operationName) {
+        return VectorStoreObservationContext.builder(PROVIDER, operationName).collectionName("hnsw-shards")
+                .similarityMetric(VectorStoreSimilarityMetric.COSINE.value());
+    }
+
+    public static final class ShardedVectorStoreBuilder extends AbstractVectorStoreBuilder<ShardedVectorStoreBuilder> {
+        private int shardCount = DEFAULT_SHARD_COUNT;
+        private String shardKey = DEFAULT_SHARD_KEY;
+        private IntFunction<HnswVectorStore> shardFactory;
+
+        private ShardedVectorStoreBuilder(EmbeddingModel embeddingModel) {
+            super(embeddingModel);
+        }
+
+        public ShardedVectorStoreBuilder shardCount(int shardCount) {
+            if (shardCount < 1)
+                throw new IllegalArgumentException("shardCount must be positive");
+            this.shardCount = shardCount;
+            return this;
+        }
+
+        public ShardedVectorStoreBuilder shardKey(String shardKey) {
+            this.shardKey = Objects.requireNonNull(shardKey, "shardKey cannot be null");
+            return this;
+        }
+
+        public ShardedVectorStoreBuilder shardFactory(IntFunction<HnswVectorStore> shardFactory) {
+            this.shardFactory = shardFactory;
+            return this;
+        }
+
+        @Override
+        public ShardedVectorStore build() {
+            if (Objects.isNull(this.shardFactory))
+                this.shardFactory = shard -> HnswVectorStore.builder(this.embeddingModel).build();
+            return new ShardedVectorStore(this);
+        }
+    }
+}
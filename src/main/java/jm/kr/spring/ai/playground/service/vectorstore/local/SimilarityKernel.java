@@ -0,0 +1,52 @@
+/*
+ * Copyright © 2025 Jemin Huh (hjm1980@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jm.kr.spring.ai.playground.service.vectorstore.local;
+
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+
+public interface SimilarityKernel {
+
+    String getName();
+
+    float dot(float[] a, float[] b);
+
+    float dot(float[] a, FloatBuffer b, int offset);
+
+    int int8Dot(byte[] a, byte[] b);
+
+    int int8Dot(byte[] a, ByteBuffer b, int offset);
+
+    default int hamming(long[] a, ByteBuffer b, int offset) {
+        int distance = 0;
+        for (int i = 0; i < a.length; i++)
+            distance += Long.bitCount(a[i] ^ b.getLong(offset + i * Long.BYTES));
+        return distance;
+    }
+
+    float cosine(float[] a, float[] b);
+
+    float l2Squared(float[] a, float[] b);
+
+    default float l2(float[] a, float[] b) {
+        return (float) Math.sqrt(l2Squared(a, b));
+    }
+
+    static float cosine(float dot, float normA, float normB) {
+        float norm = (float) Math.sqrt((double) normA * normB);
+        return norm == 0 ? 0 : dot / norm;
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright © 2025 Jemin Huh (hjm1980@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jm.kr.spring.ai.playground.service.vectorstore.local;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+public final class SimilarityKernels {
+
+    private static final Logger logger = LoggerFactory.getLogger(SimilarityKernels.class);
+
+    public static final String VECTOR_MODULE_NAME = "jdk.incubator.vector";
+    public static final String DISABLE_VECTOR_API_PROPERTY = "spring.ai.playground.vector-api.disabled";
+
+    private static final SimilarityKernel SCALAR = new ScalarSimilarityKernel();
+    private static final SimilarityKernel DEFAULT = buildDefault();
+
+    private SimilarityKernels() {}
+
+    public static SimilarityKernel get() {
+        return DEFAULT;
+    }
+
+    public static SimilarityKernel scalar() {
+        return SCALAR;
+    }
+
+    public static boolean isVectorApiAvailable() {
+        return ModuleLayer.boot().findModule(VECTOR_MODULE_NAME).isPresent();
+    }
+
+    private static SimilarityKernel buildDefault() {
+        if (Boolean.getBoolean(DISABLE_VECTOR_API_PROPERTY))
+            return logSelected(SCALAR);
+        if (!isVectorApiAvailable()) {
+            logger.info("{} is not enabled, add '--add-modules {}' to the JVM options for SIMD similarity",
+                    VECTOR_MODULE_NAME, VECTOR_MODULE_NAME);
+            return logSelected(SCALAR);
+        }
+        try {
+            return logSelected(new VectorApiSimilarityKernel());
+        } catch (LinkageError | UnsupportedOperationException e) {
+            logger.warn("Falling back to the scalar similarity kernel: {}", e.toString());
+            return logSelected(SCALAR);
+        }
+    }
+
+    private static SimilarityKernel logSelected(SimilarityKernel similarityKernel) {
+        logger.info("Using {} similarity kernel", similarityKernel.getName());
+        return similarityKernel;
+    }
+}
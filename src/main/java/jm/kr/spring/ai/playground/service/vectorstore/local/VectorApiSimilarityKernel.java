@@ -0,0 +1,153 @@
+/*
+ * Copyright © 2025 Jemin Huh (hjm1980@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jm.kr.spring.ai.playground.service.vectorstore.local;
+
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorShape;
+import jdk.incubator.vector.VectorSpecies;
+
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+
+import static jm.kr.spring.ai.playground.service.vectorstore.local.ScalarSimilarityKernel.checkLength;
+
+public class VectorApiSimilarityKernel implements SimilarityKernel {
+
+    private static final VectorSpecies<Float> SPECIES = FloatVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Integer> INT_SPECIES = IntVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Byte> BYTE_SPECIES =
+            VectorSpecies.of(byte.class, VectorShape.forBitSize(INT_SPECIES.length() * Byte.SIZE));
+
+    private final ThreadLocal<float[]> floatScratch = ThreadLocal.withInitial(() -> new float[0]);
+    private final ThreadLocal<byte[]> byteScratch = ThreadLocal.withInitial(() -> new byte[0]);
+
+    public VectorApiSimilarityKernel() {
+        if (SPECIES.length() < 4 || INT_SPECIES.length() < 8)
+            throw new UnsupportedOperationException("No usable SIMD width: " + SPECIES);
+    }
+
+    @Override
+    public String getName() {
+        return "vector-api(" + SPECIES.vectorBitSize() + "bit)";
+    }
+
+    @Override
+    public float dot(float[] a, float[] b) {
+        checkLength(a, b);
+        int i = 0;
+        FloatVector acc1 = FloatVector.zero(SPECIES);
+        FloatVector acc2 = FloatVector.zero(SPECIES);
+        int unrolledBound = a.length - a.length % (SPECIES.length() * 2);
+        for (; i < unrolledBound; i += SPECIES.length() * 2) {
+            acc1 = FloatVector.fromArray(SPECIES, a, i).mul(FloatVector.fromArray(SPECIES, b, i)).add(acc1);
+            int j = i + SPECIES.length();
+            acc2 = FloatVector.fromArray(SPECIES, a, j).mul(FloatVector.fromArray(SPECIES, b, j)).add(acc2);
+        }
+        for (int bound = SPECIES.loopBound(a.length); i < bound; i += SPECIES.length())
+            acc1 = FloatVector.fromArray(SPECIES, a, i).mul(FloatVector.fromArray(SPECIES, b, i)).add(acc1);
+        float dot = acc1.add(acc2).reduceLanes(VectorOperators.ADD);
+        for (; i < a.length; i++)
+            dot += a[i] * b[i];
+        return dot;
+    }
+
+    // The Vector API only loads from off-heap memory through java.lang.foreign, a preview API on Java 21, so the
+    // stored vector is copied into a per-thread scratch array first.
+    @Override
+    public float dot(float[] a, FloatBuffer b, int offset) {
+        float[] scratch = this.floatScratch.get();
+        if (scratch.length != a.length) {
+            scratch = new float[a.length];
+            this.floatScratch.set(scratch);
+        }
+        b.get(offset, scratch);
+        return dot(a, scratch);
+    }
+
+    @Override
+    public int int8Dot(byte[] a, byte[] b) {
+        checkLength(a.length, b.length);
+        int i = 0;
+        IntVector acc = IntVector.zero(INT_SPECIES);
+        for (int bound = BYTE_SPECIES.loopBound(a.length); i < bound; i += BYTE_SPECIES.length()) {
+            IntVector va = (IntVector) ByteVector.fromArray(BYTE_SPECIES, a, i)
+                    .convertShape(VectorOperators.B2I, INT_SPECIES, 0);
+            IntVector vb = (IntVector) ByteVector.fromArray(BYTE_SPECIES, b, i)
+                    .convertShape(VectorOperators.B2I, INT_SPECIES, 0);
+            acc = va.mul(vb).add(acc);
+        }
+        int dot = acc.reduceLanes(VectorOperators.ADD);
+        for (; i < a.length; i++)
+            dot += a[i] * b[i];
+        return dot;
+    }
+
+    @Override
+    public int int8Dot(byte[] a, ByteBuffer b, int offset) {
+        byte[] scratch = this.byteScratch.get();
+        if (scratch.length != a.length) {
+            scratch = new byte[a.length];
+            this.byteScratch.set(scratch);
+        }
+        b.get(offset, scratch);
+        return int8Dot(a, scratch);
+    }
+
+    @Override
+    public float cosine(float[] a, float[] b) {
+        checkLength(a, b);
+        int i = 0;
+        FloatVector dotAcc = FloatVector.zero(SPECIES);
+        FloatVector normAAcc = FloatVector.zero(SPECIES);
+        FloatVector normBAcc = FloatVector.zero(SPECIES);
+        for (int bound = SPECIES.loopBound(a.length); i < bound; i += SPECIES.length()) {
+            FloatVector va = FloatVector.fromArray(SPECIES, a, i);
+            FloatVector vb = FloatVector.fromArray(SPECIES, b, i);
+            dotAcc = va.mul(vb).add(dotAcc);
+            normAAcc = va.mul(va).add(normAAcc);
+            normBAcc = vb.mul(vb).add(normBAcc);
+        }
+        float dot = dotAcc.reduceLanes(VectorOperators.ADD);
+        float normA = normAAcc.reduceLanes(VectorOperators.ADD);
+        float normB = normBAcc.reduceLanes(VectorOperators.ADD);
+        for (; i < a.length; i++) {
+            dot += a[i] * b[i];
+            normA += a[i] * a[i];
+            normB += b[i] * b[i];
+        }
+        return SimilarityKernel.cosine(dot, normA, normB);
+    }
+
+    @Override
+    public float l2Squared(float[] a, float[] b) {
+        checkLength(a, b);
+        int i = 0;
+        FloatVector acc = FloatVector.zero(SPECIES);
+        for (int bound = SPECIES.loopBound(a.length); i < bound; i += SPECIES.length()) {
+            FloatVector diff = FloatVector.fromArray(SPECIES, a, i).sub(FloatVector.fromArray(SPECIES, b, i));
+            acc = diff.mul(diff).add(acc);
+        }
+        float sum = acc.reduceLanes(VectorOperators.ADD);
+        for (; i < a.length; i++) {
+            float diff = a[i] - b[i];
+            sum += diff * diff;
+        }
+        return sum;
+    }
+}
@@ -23,6 +23,7 @@ import com.vaadin.flow.component.ScrollOptions;
 import com.vaadin.flow.component.UI;
 import com.vaadin.flow.component.button.Button;
 import com.vaadin.flow.component.button.ButtonVariant;
+import com.vaadin.flow.component.checkbox.Checkbox;
 import com.vaadin.flow.component.combobox.MultiSelectComboBox;
 import com.vaadin.flow.component.dependency.JsModule;
 import com.vaadin.flow.component.details.Details;
@@ -79,6 +80,8 @@ import static org.springframework.ai.chat.messages.MessageType.USER;
 public class ChatContentView extends VerticalLayout {
     private static final String LAST_SELECTED_RAG_DOC_INFO_IDS = "lastSelectedRagDocInfoIds";
     private static final String LAST_SELECTED_MCP_CONNECTION_INFOS = "lastSelectedMcpConnectionInfos";
+    private static final String LAST_SPECULATIVE_RAG = "lastSpeculativeRag";
+    private static final int SPECULATIVE_RAG_DEBOUNCE_MILLIS = 400;
 
     private static final ScrollOptions DefaultScrollOptions = new ScrollOptions();
     static {
@@ -91,6 +94,7 @@ public class ChatContentView extends VerticalLayout {
     private final TextArea userPromptTextArea;
     private final MultiSelectComboBox<VectorStoreDocumentInfo> documentsComboBox;
     private final MultiSelectComboBox<McpServerInfo> mcpToolProviderComboBox;
+    private final Checkbox speculativeRagCheckbox;
     private final ChatService chatService;
     private final Consumer<ChatHistory> completeChatHistoryConsumer;
     private final PersistentUiDataStorage persistentUiDataStorage;
@@ -132,6 +136,9 @@ public class ChatContentView extends VerticalLayout {
         this.documentsComboBox.setItemLabelGenerator(VectorStoreDocumentInfo::title);
         this.documentsComboBox.setItems(this.chatService.getExistDocumentInfoList());
 
+        this.speculativeRagCheckbox = new Checkbox("Prefetch");
+        this.speculativeRagCheckbox.setTooltipText("Retrieve documents for RAG in the background while typing.");
+
         this.userPromptTextArea = new TextArea();
         this.userPromptTextArea.setPlaceholder("Ask Spring AI Playground");
         this.userPromptTextArea.setWidthFull();
@@ -183,6 +190,24 @@ public class ChatContentView extends VerticalLayout {
             });
         });
 
+        this.speculativeRagCheckbox.addValueChangeListener(event -> {
+            if (event.getValue()) {
+                this.userPromptTextArea.setValueChangeMode(ValueChangeMode.LAZY);
+                this.userPromptTextArea.setValueChangeTimeout(SPECULATIVE_RAG_DEBOUNCE_MILLIS);
+            } else {
+                this.userPromptTextArea.setValueChangeMode(ValueChangeMode.EAGER);
+                this.chatService.cancelDocumentRetrievalSpeculation(this.chatHistory);
+            }
+            if (event.isFromClient())
+                this.persistentUiDataStorage.saveData(LAST_SPECULATIVE_RAG, event.getValue());
+        });
+        this.userPromptTextArea.addValueChangeListener(event -> {
+            if (event.isFromClient() && this.speculativeRagCheckbox.getValue())
+                this.chatService.speculateDocumentRetrieval(this.chatHistory, event.getValue(),
+                        this.chatService.buildFilterExpression(this.documentsComboBox.getSelectedItems().stream()
+                                .map(VectorStoreDocumentInfo::docInfoId).toList()));
+        });
+
         this.userPromptTextArea.addKeyDownListener(Key.ENTER, event -> {
             if (!event.isComposing() && !event.getModifiers().contains(KeyModifier.SHIFT))
                 submitButton.click();
@@ -207,7 +232,8 @@ public class ChatContentView extends VerticalLayout {
         toolLayout.setSpacing(false);
         toolLayout.getStyle().set("gap", "5px");
 
-        HorizontalLayout ragLayout = new HorizontalLayout(ragIcon, this.documentsComboBox);
+        HorizontalLayout ragLayout = new HorizontalLayout(ragIcon, this.documentsComboBox,
+                this.speculativeRagCheckbox);
         ragLayout.setAlignItems(FlexComponent.Alignment.CENTER);
         ragLayout.setSpacing(false);
         ragLayout.getStyle().set("gap", "5px");
@@ -226,6 +252,9 @@ public class ChatContentView extends VerticalLayout {
         getStyle().set("overflow", "hidden").set("display", "flex")
                 .set("flex-direction", "column").set("align-items", "stretch");
 
+        this.persistentUiDataStorage.loadData(LAST_SPECULATIVE_RAG, new TypeReference<Boolean>() {},
+                speculativeRag -> this.speculativeRagCheckbox.setValue(Boolean.TRUE.equals(speculativeRag)));
+
         List<Message> messages = this.chatHistory.messagesSupplier().get();
         if (messages.isEmpty())
             return;
@@ -28,13 +28,17 @@ import com.vaadin.flow.component.formlayout.FormLayout;
 import com.vaadin.flow.component.grid.ColumnRendering;
 import com.vaadin.flow.component.grid.Grid;
 import com.vaadin.flow.component.grid.contextmenu.GridContextMenu;
-import com.vaadin.flow.component.grid.dataview.GridDataView;
 import com.vaadin.flow.component.icon.Icon;
 import com.vaadin.flow.component.icon.VaadinIcon;
 import com.vaadin.flow.component.orderedlayout.HorizontalLayout;
 import com.vaadin.flow.component.orderedlayout.VerticalLayout;
 import com.vaadin.flow.component.textfield.TextArea;
 import com.vaadin.flow.component.textfield.TextField;
+import com.vaadin.flow.data.provider.CallbackDataProvider;
+import com.vaadin.flow.data.provider.DataProvider;
+import com.vaadin.flow.data.provider.Query;
+import com.vaadin.flow.data.provider.QuerySortOrder;
+import com.vaadin.flow.data.provider.SortDirection;
 import com.vaadin.flow.data.value.ValueChangeMode;
 import com.vaadin.flow.internal.JsonDecodingException;
 import com.vaadin.flow.internal.JsonUtils;
@@ -43,30 +47,31 @@ import com.vaadin.flow.router.BeforeEnterObserver;
 import com.vaadin.flow.router.BeforeLeaveEvent;
 import com.vaadin.flow.router.BeforeLeaveObserver;
 import jm.kr.spring.ai.playground.service.vectorstore.VectorStoreService;
+import jm.kr.spring.ai.playground.service.vectorstore.local.PageableVectorStore;
 import jm.kr.spring.ai.playground.webui.PersistentUiDataStorage;
 import jm.kr.spring.ai.playground.webui.VaadinUtils;
 import org.springframework.ai.content.Media;
 import org.springframework.ai.document.Document;
 import org.springframework.ai.util.JacksonUtils;
-import org.springframework.ai.vectorstore.SearchRequest;
 import org.vaadin.crudui.crud.CrudOperation;
 import org.vaadin.crudui.crud.impl.GridCrud;
 import org.vaadin.crudui.form.CrudFormFactory;
 import org.vaadin.crudui.form.impl.form.factory.DefaultCrudFormFactory;
 import org.vaadin.crudui.layout.CrudLayout;
 
+import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Function;
 import java.util.function.Predicate;
+import java.util.stream.Stream;
 
 import static com.vaadin.flow.component.grid.GridVariant.LUMO_NO_BORDER;
 import static com.vaadin.flow.component.grid.GridVariant.LUMO_ROW_STRIPES;
 import static com.vaadin.flow.component.grid.GridVariant.LUMO_WRAP_CELL_CONTENT;
-import static jm.kr.spring.ai.playground.service.vectorstore.VectorStoreService.ALL_SEARCH_REQUEST_OPTION;
 import static jm.kr.spring.ai.playground.service.vectorstore.VectorStoreService.DOC_INFO_ID;
-import static jm.kr.spring.ai.playground.service.vectorstore.VectorStoreService.SEARCH_ALL_REQUEST_WITH_DOC_INFO_IDS_FUNCTION;
 
 public class VectorStoreContentView extends VerticalLayout implements BeforeEnterObserver, BeforeLeaveObserver {
 
@@ -79,14 +84,25 @@ public class VectorStoreContentView extends VerticalLayout implements BeforeEnte
                     .enable(SerializationFeature.INDENT_OUTPUT).build();
     private static final TypeReference<Map<String, Object>> MAP_TYPE_REFERENCE = new TypeReference<>() {};
     private static final TypeReference<Media> MEDIA_TYPE_REFERENCE = new TypeReference<>() {};
+    private static final Map<String, Comparator<VectorStoreContentItem>> SORT_PROPERTY_COMPARATORS = Map.of(
+            "score", nullsFirstComparator(VectorStoreContentItem::getScore),
+            "id", nullsFirstComparator(VectorStoreContentItem::getId),
+            "text", nullsFirstComparator(VectorStoreContentItem::getText),
+            "metadata", nullsFirstComparator(VectorStoreContentItem::getMetadata),
+            "media", nullsFirstComparator(VectorStoreContentItem::getMedia)
+    );
+    // Listings have no score, and the vector store only pages by id and text.
+    private static final List<String> SEARCH_ONLY_SORT_PROPERTIES = List.of("score", "metadata", "media");
 
     private final PersistentUiDataStorage persistentUiDataStorage;
     private final VectorStoreService vectorStoreService;
     private final GridCrud<VectorStoreContentItem> gridCrud;
-    private final GridDataView<VectorStoreContentItem> dataView;
+    private final CallbackDataProvider<VectorStoreContentItem, Void> dataProvider;
     private final TextField userPromptTextField;
     private final TextField filterExpressionTextField;
-    private SearchRequest searchRequest;
+    private List<VectorStoreContentItem> searchResultItems;
+    private List<VectorStoreContentItem> listingItems;
+    private List<String> showDocInfoIds;
 
     @Override
     public void beforeEnter(BeforeEnterEvent beforeEnterEvent) {
@@ -151,12 +167,7 @@ public class VectorStoreContentView extends VerticalLayout implements BeforeEnte
 
             private void afterRefreshGrid(VectorStoreContentItem vectorStoreContentItem) {
                 showAllDocuments();
-                VectorStoreContentItem realVectorStoreContentItem =
-                        dataView.getItems().filter(item -> item.getId().equals(vectorStoreContentItem.getId()))
-                                .findFirst().orElseGet(() -> dataView.getItem(0));
-                grid.asSingleSelect().setValue(realVectorStoreContentItem);
-                grid.deselect(realVectorStoreContentItem);
-                grid.scrollToItem(realVectorStoreContentItem);
+                grid.select(vectorStoreContentItem);
             }
 
             @Override
@@ -192,7 +203,8 @@ public class VectorStoreContentView extends VerticalLayout implements BeforeEnte
         userPromptTextField.setClearButtonVisible(true);
         userPromptTextField.setValueChangeMode(ValueChangeMode.EAGER);
         Button searchButton =
-                VaadinUtils.styledButton("Search", VaadinIcon.SEARCH.create(), buttonClickEvent -> refreshGrid());
+                VaadinUtils.styledButton("Search", VaadinIcon.SEARCH.create(),
+                        buttonClickEvent -> showSearchResults());
         userPromptTextField.setSuffixComponent(searchButton);
         userPromptTextField.addKeyDownListener(Key.ENTER, event -> clickSearchButton(event, searchButton));
 
@@ -220,17 +232,14 @@ public class VectorStoreContentView extends VerticalLayout implements BeforeEnte
         crudLayout.addToolbarComponent(searchInputLayout);
 
         Grid<VectorStoreContentItem> grid = this.gridCrud.getGrid();
-        this.dataView = grid.getGenericDataView();
-        this.gridCrud.setOperations(
-                () -> (Objects.isNull(this.searchRequest) ?
-                        vectorStoreService.search(this.userPromptTextField.getValue(),
-                                filterExpressionTextField.getValue()) : vectorStoreService.search(
-                        this.searchRequest)).stream()
-                        .map(this::convertToViewDocument).toList(),
-                item -> convertToViewDocument(this.vectorStoreService.add(List.of(buildCustomChunk(item))).getFirst()),
-                item -> convertToViewDocument(this.vectorStoreService.update(convertToDocument(item))),
-                item -> vectorStoreService.delete(
-                        grid.getSelectedItems().stream().map(VectorStoreContentItem::getId).toList()));
+        this.dataProvider = DataProvider.fromCallbacks(this::fetchItems, this::countItems);
+        this.gridCrud.setFindAllOperation(this.dataProvider);
+        this.gridCrud.setAddOperation(
+                item -> convertToViewDocument(this.vectorStoreService.add(List.of(buildCustomChunk(item))).getFirst()));
+        this.gridCrud.setUpdateOperation(
+                item -> convertToViewDocument(this.vectorStoreService.update(convertToDocument(item))));
+        this.gridCrud.setDeleteOperation(item -> vectorStoreService.delete(
+                grid.getSelectedItems().stream().map(VectorStoreContentItem::getId).toList()));
 
         grid.addThemeVariants(LUMO_NO_BORDER, LUMO_WRAP_CELL_CONTENT, LUMO_ROW_STRIPES);
         grid.setColumns("score", "id", "text", "metadata", "media");
@@ -308,34 +317,94 @@ public class VectorStoreContentView extends VerticalLayout implements BeforeEnte
     }
 
     public void showDocuments(List<String> selectDocInfoIds) {
-        this.searchRequest = selectDocInfoIds.isEmpty() ? null :
-                SEARCH_ALL_REQUEST_WITH_DOC_INFO_IDS_FUNCTION.apply(selectDocInfoIds);
-        refreshGrid();
-
+        if (selectDocInfoIds.isEmpty()) {
+            showSearchResults();
+            return;
+        }
+        showDocumentPages(List.copyOf(selectDocInfoIds));
     }
 
     public void showAllDocuments() {
-        this.searchRequest =
-                new SearchRequest.Builder().similarityThreshold(ALL_SEARCH_REQUEST_OPTION.similarityThreshold())
-                        .topK(ALL_SEARCH_REQUEST_OPTION.topK()).build();
-        refreshGrid();
+        showDocumentPages(null);
     }
 
-    private void refreshGrid() {
+    // Stores that cannot page are read once per refresh and then sorted and paged in memory, instead of running a
+    // full search with an embedding call for every count and page the grid asks for.
+    private void showDocumentPages(List<String> docInfoIds) {
+        this.searchResultItems = null;
+        this.showDocInfoIds = docInfoIds;
+        setSearchOnlyColumnsSortable(false);
         try {
+            this.listingItems = this.vectorStoreService.isPageable() ? null :
+                    this.vectorStoreService.getDocumentPage(docInfoIds, 0, Integer.MAX_VALUE, List.of()).stream()
+                            .map(this::convertToViewDocument).toList();
+            this.gridCrud.refreshGrid();
+            VaadinUtils.showInfoNotification(String.format(Objects.isNull(docInfoIds) ? "All chunks: %d items" :
+                    "Document chunks: %d items", countItems(null)));
+        } catch (Exception e) {
+            VaadinUtils.showErrorNotification(e.getMessage());
+        }
+    }
+
+    // Search results are bounded by the top K option, so they are kept in memory; listings are fetched page by
+    // page from the vector store as the grid scrolls.
+    private void showSearchResults() {
+        try {
+            this.searchResultItems = this.vectorStoreService.search(this.userPromptTextField.getValue(),
+                    this.filterExpressionTextField.getValue()).stream().map(this::convertToViewDocument).toList();
+            this.listingItems = null;
+            setSearchOnlyColumnsSortable(true);
             this.gridCrud.refreshGrid();
             VaadinUtils.showInfoNotification(String.format("Search results: %d items (Threshold: %.2f, TopK: %d)",
-                    dataView.getItems().count(), Objects.nonNull(this.searchRequest) ?
-                            ALL_SEARCH_REQUEST_OPTION.similarityThreshold() : vectorStoreService.getSearchRequestOption()
-                            .similarityThreshold(),
-                    Objects.nonNull(this.searchRequest) ? ALL_SEARCH_REQUEST_OPTION.topK()
-                            : vectorStoreService.getSearchRequestOption().topK()));
-            this.searchRequest = null;
+                    this.searchResultItems.size(), vectorStoreService.getSearchRequestOption().similarityThreshold(),
+                    vectorStoreService.getSearchRequestOption().topK()));
         } catch (Exception e) {
             VaadinUtils.showErrorNotification(e.getMessage());
         }
     }
 
+    private void setSearchOnlyColumnsSortable(boolean sortable) {
+        Grid<VectorStoreContentItem> grid = this.gridCrud.getGrid();
+        SEARCH_ONLY_SORT_PROPERTIES.forEach(property -> grid.getColumnByKey(property).setSortable(sortable));
+        if (!sortable && grid.getSortOrder().stream()
+                .anyMatch(sortOrder -> SEARCH_ONLY_SORT_PROPERTIES.contains(sortOrder.getSorted().getKey())))
+            grid.sort(List.of());
+    }
+
+    private Stream<VectorStoreContentItem> fetchItems(Query<VectorStoreContentItem, Void> query) {
+        List<VectorStoreContentItem> items = Objects.requireNonNullElse(this.searchResultItems, this.listingItems);
+        if (Objects.nonNull(items))
+            return items.stream().sorted(buildItemComparator(query.getSortOrders())).skip(query.getOffset())
+                    .limit(query.getLimit());
+        return this.vectorStoreService.getDocumentPage(this.showDocInfoIds, query.getOffset(), query.getLimit(),
+                query.getSortOrders().stream().map(querySortOrder -> new PageableVectorStore.SortOrder(
+                        querySortOrder.getSorted(), SortDirection.DESCENDING.equals(querySortOrder.getDirection())))
+                        .toList()).stream().map(this::convertToViewDocument);
+    }
+
+    private int countItems(Query<VectorStoreContentItem, Void> query) {
+        List<VectorStoreContentItem> items = Objects.requireNonNullElse(this.searchResultItems, this.listingItems);
+        return Objects.nonNull(items) ? items.size() : this.vectorStoreService.countDocuments(this.showDocInfoIds);
+    }
+
+    private static <T extends Comparable<? super T>> Comparator<VectorStoreContentItem> nullsFirstComparator(
+            Function<VectorStoreContentItem, T> sortPropertyFunction) {
+        return Comparator.comparing(sortPropertyFunction, Comparator.nullsFirst(Comparator.naturalOrder()));
+    }
+
+    private static Comparator<VectorStoreContentItem> buildItemComparator(List<QuerySortOrder> querySortOrders) {
+        Comparator<VectorStoreContentItem> itemComparator = (item, otherItem) -> 0;
+        for (QuerySortOrder querySortOrder : querySortOrders) {
+            Comparator<VectorStoreContentItem> propertyComparator =
+                    SORT_PROPERTY_COMPARATORS.get(querySortOrder.getSorted());
+            if (Objects.isNull(propertyComparator))
+                continue;
+            itemComparator = itemComparator.thenComparing(SortDirection.DESCENDING.equals(
+                    querySortOrder.getDirection()) ? propertyComparator.reversed() : propertyComparator);
+        }
+        return itemComparator;
+    }
+
     private static class VectorStoreContentContextMenu extends GridContextMenu<VectorStoreContentItem> {
         public VectorStoreContentContextMenu(GridCrud<VectorStoreContentItem> gridCrud) {
             super(gridCrud.getGrid());
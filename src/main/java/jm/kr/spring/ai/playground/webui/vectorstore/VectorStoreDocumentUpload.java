@@ -27,7 +27,6 @@ import jm.kr.spring.ai.playground.service.vectorstore.VectorStoreDocumentService
 import jm.kr.spring.ai.playground.webui.VaadinUtils;
 import org.jetbrains.annotations.NotNull;
 
-import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.util.ArrayList;
@@ -45,8 +44,9 @@ public class VectorStoreDocumentUpload extends VerticalLayout {
         this.uploadedFileNames = new ArrayList<>();
 
         Paragraph hint = new Paragraph(
-                "Please upload a single PDF, DOC/DOCX, or PPT/PPTX file with a maximum size of " +
-                        this.vectorStoreDocumentService.getMaxUploadSize().toMegabytes() + "MB");
+                "Please upload a single document, text, HTML or log archive file with a maximum size of " +
+                        this.vectorStoreDocumentService.getMaxUploadSize().toMegabytes() +
+                        "MB. Uploading an existing document again re-embeds only its changed chunks.");
         hint.getStyle().set("color", "var(--lumo-secondary-text-color)");
         add(hint);
 
@@ -76,29 +76,29 @@ public class VectorStoreDocumentUpload extends VerticalLayout {
             }
         };
 
-        UploadHandler inMemoryHandler = UploadHandler.inMemory((metadata, data) -> {
+        UploadHandler fileHandler = UploadHandler.toFile((metadata, tempFile) -> {
             String fileName = metadata.fileName();
             try {
-                File tempFile = File.createTempFile("upload-", ".tmp");
-                Files.write(tempFile.toPath(), data);
-                this.vectorStoreDocumentService.addUploadedDocumentFile(fileName, tempFile);
+                this.vectorStoreDocumentService.moveUploadedDocumentFile(fileName, tempFile);
                 this.uploadedFileNames.add(fileName);
-                tempFile.delete();
             } catch (Exception e) {
-                this.vectorStoreDocumentService.removeUploadedDocumentFile(fileName);
+                Files.deleteIfExists(tempFile.toPath());
                 clearFileList();
                 VaadinUtils.showErrorNotification("Upload failed: " + fileName + " - " + e.getMessage());
                 throw new RuntimeException(e);
             }
-        }, progressListener);
+        }, metadata -> Files.createTempFile(this.vectorStoreDocumentService.getUploadDir(), "upload-", ".tmp")
+                .toFile(), progressListener);
 
-        Upload upload = new Upload(inMemoryHandler);
+        Upload upload = new Upload(fileHandler);
         upload.setWidthFull();
         upload.setAcceptedFileTypes("application/pdf", ".pdf",
                 "application/msword", ".doc",
                 "application/vnd.openxmlformats-officedocument.wordprocessingml.document", ".docx",
                 "application/vnd.ms-powerpoint", ".ppt",
-                "application/vnd.openxmlformats-officedocument.presentationml.presentation", ".pptx");
+                "application/vnd.openxmlformats-officedocument.presentationml.presentation", ".pptx",
+                "text/plain", ".txt", ".log", "text/markdown", ".md", "text/html", ".html",
+                "application/zip", ".zip", "application/gzip", ".gz");
         upload.setMaxFiles(1);
         upload.setMaxFileSize((int) this.vectorStoreDocumentService.getMaxUploadSize().toBytes());
         upload.setDropAllowed(true);
@@ -112,7 +112,8 @@ public class VectorStoreDocumentUpload extends VerticalLayout {
                     Optional.ofNullable(string)
                             .ifPresent(fileName -> {
                                 try {
-                                    this.vectorStoreDocumentService.removeUploadedDocumentFile(fileName);
+                                    if (this.vectorStoreDocumentService.findDocumentInfo(fileName).isEmpty())
+                                        this.vectorStoreDocumentService.removeUploadedDocumentFile(fileName);
                                     this.uploadedFileNames.remove(fileName);
                                 } catch (IOException e) {
                                     VaadinUtils.showErrorNotification("Failed to delete file: " + e.getMessage());
@@ -143,7 +144,7 @@ public class VectorStoreDocumentUpload extends VerticalLayout {
         error.setFileIsTooBig("File is too big. Maximum size is " +
                 this.vectorStoreDocumentService.getMaxUploadSize().toMegabytes() + "MB.");
         error.setIncorrectFileType("The provided file does not have the correct format. " +
-                "Please upload PDF, DOC/DOCX, or PPT/PPTX files only.");
+                "Please upload PDF, DOC/DOCX, PPT/PPTX, text, HTML or log archive files only.");
         i18n.setError(error);
 
         Uploading uploading = buildUploading();
@@ -15,6 +15,7 @@
  */
 package jm.kr.spring.ai.playground.webui.vectorstore;
 
+import com.vaadin.flow.component.UI;
 import com.vaadin.flow.component.button.Button;
 import com.vaadin.flow.component.button.ButtonVariant;
 import com.vaadin.flow.component.dialog.Dialog;
@@ -29,6 +30,7 @@ import com.vaadin.flow.component.menubar.MenuBarVariant;
 import com.vaadin.flow.component.orderedlayout.FlexComponent;
 import com.vaadin.flow.component.orderedlayout.HorizontalLayout;
 import com.vaadin.flow.component.orderedlayout.VerticalLayout;
+import com.vaadin.flow.component.progressbar.ProgressBar;
 import com.vaadin.flow.component.textfield.TextField;
 import com.vaadin.flow.data.renderer.ComponentRenderer;
 import com.vaadin.flow.router.BeforeEnterEvent;
@@ -36,6 +38,8 @@ import com.vaadin.flow.router.BeforeEnterObserver;
 import com.vaadin.flow.theme.lumo.LumoUtility;
 import jm.kr.spring.ai.playground.service.vectorstore.VectorStoreDocumentInfo;
 import jm.kr.spring.ai.playground.service.vectorstore.VectorStoreDocumentService;
+import jm.kr.spring.ai.playground.service.vectorstore.VectorStoreIngestionJob;
+import jm.kr.spring.ai.playground.service.vectorstore.VectorStoreIngestionJobService;
 import jm.kr.spring.ai.playground.webui.VaadinUtils;
 import org.springframework.ai.document.Document;
 
@@ -45,11 +49,12 @@ import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.Consumer;
 import java.util.function.Supplier;
 
 import static jm.kr.spring.ai.playground.webui.vectorstore.VectorStoreView.DOCUMENTS_DELETE_EVENT;
@@ -59,10 +64,14 @@ import static jm.kr.spring.ai.playground.webui.vectorstore.VectorStoreView.DOCUM
 public class VectorStoreDocumentView extends VerticalLayout implements BeforeEnterObserver {
 
     private final VectorStoreDocumentService vectorStoreDocumentService;
+    private final VectorStoreIngestionJobService vectorStoreIngestionJobService;
     private final MultiSelectListBox<VectorStoreDocumentInfo> documentListBox;
+    private final VerticalLayout ingestionProgressLayout;
+    private final Map<String, IngestionProgressItem> ingestionProgressItems;
     private final PropertyChangeSupport documentInfoChangeSupport;
 
     public VectorStoreDocumentView(VectorStoreDocumentService vectorStoreDocumentService,
+            VectorStoreIngestionJobService vectorStoreIngestionJobService,
             PropertyChangeSupport documentInfoChangeSupport) {
         this.documentInfoChangeSupport = documentInfoChangeSupport;
 
@@ -71,6 +80,7 @@ public class VectorStoreDocumentView extends VerticalLayout implements BeforeEnt
         setMargin(false);
 
         this.vectorStoreDocumentService = vectorStoreDocumentService;
+        this.vectorStoreIngestionJobService = vectorStoreIngestionJobService;
         this.documentListBox = new MultiSelectListBox<>();
         this.documentListBox.setSizeFull();
         this.documentListBox.getStyle().set("overflow-x", "hidden").set("white-space", "nowrap");
@@ -89,7 +99,23 @@ public class VectorStoreDocumentView extends VerticalLayout implements BeforeEnt
         this.documentListBox.addValueChangeListener(event -> Optional.ofNullable(event.getValue())
                 .ifPresent(documentInfos -> this.documentInfoChangeSupport.firePropertyChange(DOCUMENT_SELECTING_EVENT,
                         event.getOldValue(), documentInfos)));
-        add(initDocumentViewHeader(), this.documentListBox);
+        this.ingestionProgressLayout = new VerticalLayout();
+        this.ingestionProgressLayout.setPadding(false);
+        this.ingestionProgressLayout.setSpacing(false);
+        this.ingestionProgressLayout.setVisible(false);
+        this.ingestionProgressItems = new HashMap<>();
+        add(initDocumentViewHeader(), this.ingestionProgressLayout, this.documentListBox);
+
+        addAttachListener(attachEvent -> {
+            UI ui = attachEvent.getUI();
+            Consumer<VectorStoreIngestionJob> jobListener = job -> ui.access(() -> showIngestionJob(job));
+            this.vectorStoreIngestionJobService.getJobs().forEach(this::showIngestionJob);
+            this.vectorStoreIngestionJobService.addJobListener(jobListener);
+            addDetachListener(detachEvent -> {
+                this.vectorStoreIngestionJobService.removeJobListener(jobListener);
+                detachEvent.unregisterListener();
+            });
+        });
     }
 
     private Header initDocumentViewHeader() {
@@ -179,15 +205,46 @@ public class VectorStoreDocumentView extends VerticalLayout implements BeforeEnt
         dialog.open();
     }
 
-    public void addDocumentContent(List<String> fileNames, Map<String, List<Document>> uploadedDocumentItems) {
-        List<VectorStoreDocumentInfo> newDocumentInfos = fileNames.stream()
-                .map(fileName -> {
-                    List<Document> documents = uploadedDocumentItems.get(fileName);
-                    return documents.isEmpty() ? null : this.vectorStoreDocumentService.putNewDocument(fileName,
-                            documents);
-                }).filter(Objects::nonNull).toList();
-        updateDocumentContent();
-        this.documentInfoChangeSupport.firePropertyChange(DOCUMENT_ADDING_EVENT, null, newDocumentInfos);
+    public void addDocumentContent(List<String> fileNames, Map<String, List<Document>> uploadedDocumentItems,
+            VectorStoreDocumentService.TokenTextSplitInfo tokenTextSplitInfo) {
+        fileNames.stream().filter(fileName -> !uploadedDocumentItems.get(fileName).isEmpty())
+                .forEach(fileName -> this.vectorStoreIngestionJobService.submit(fileName, tokenTextSplitInfo,
+                        uploadedDocumentItems.get(fileName)));
+    }
+
+    public void queueDocumentContent(List<String> fileNames,
+            VectorStoreDocumentService.TokenTextSplitInfo tokenTextSplitInfo) {
+        fileNames.forEach(fileName -> this.vectorStoreIngestionJobService.submit(fileName, tokenTextSplitInfo));
+    }
+
+    private void showIngestionJob(VectorStoreIngestionJob job) {
+        if (!job.status().isDone()) {
+            this.ingestionProgressItems.computeIfAbsent(job.jobId(), jobId -> {
+                IngestionProgressItem newIngestionProgressItem = new IngestionProgressItem(job,
+                        () -> this.vectorStoreIngestionJobService.cancel(jobId));
+                this.ingestionProgressLayout.add(newIngestionProgressItem);
+                this.ingestionProgressLayout.setVisible(true);
+                return newIngestionProgressItem;
+            }).update(job);
+            return;
+        }
+        Optional.ofNullable(this.ingestionProgressItems.remove(job.jobId()))
+                .ifPresent(this.ingestionProgressLayout::remove);
+        this.ingestionProgressLayout.setVisible(!this.ingestionProgressItems.isEmpty());
+        switch (job.status()) {
+            case COMPLETED -> {
+                VaadinUtils.showInfoNotification(
+                        (job.isUpdate() ? "Updated changed chunks: " : "Embedded and inserted: ") +
+                                job.documentFileName());
+                updateDocumentContent();
+                this.documentInfoChangeSupport.firePropertyChange(DOCUMENT_ADDING_EVENT, null,
+                        this.vectorStoreDocumentService.getDocumentList().stream()
+                                .filter(documentInfo -> documentInfo.docInfoId().equals(job.docInfoId())).toList());
+            }
+            case CANCELLED -> VaadinUtils.showInfoNotification("Cancelled: " + job.documentFileName());
+            case FAILED -> VaadinUtils.showErrorNotification(
+                    "Failed to ingest " + job.documentFileName() + ": " + job.errorMessage());
+        }
     }
 
     private void updateDocumentContent() {
@@ -201,4 +258,44 @@ public class VectorStoreDocumentView extends VerticalLayout implements BeforeEnt
     public void beforeEnter(BeforeEnterEvent beforeEnterEvent) {
         updateDocumentContent();
     }
+
+    private static class IngestionProgressItem extends VerticalLayout {
+        private final String title;
+        private final Span progressText;
+        private final ProgressBar progressBar;
+
+        private IngestionProgressItem(VectorStoreIngestionJob job, Runnable cancelAction) {
+            setPadding(false);
+            setSpacing(false);
+            this.title = job.documentFileName();
+            this.progressText = new Span(this.title);
+            this.progressText.addClassNames(LumoUtility.FontSize.XSMALL, LumoUtility.TextColor.SECONDARY);
+            this.progressText.getStyle().set("white-space", "nowrap").set("overflow", "hidden")
+                    .set("text-overflow", "ellipsis");
+            Icon cancelIcon = VaadinUtils.styledIcon(VaadinIcon.CLOSE_SMALL.create());
+            cancelIcon.setTooltipText("Cancel");
+            Button cancelButton = new Button(cancelIcon, event -> {
+                event.getSource().setEnabled(false);
+                cancelAction.run();
+            });
+            cancelButton.addThemeVariants(ButtonVariant.LUMO_TERTIARY_INLINE, ButtonVariant.LUMO_SMALL);
+            HorizontalLayout progressHeader = new HorizontalLayout(this.progressText, cancelButton);
+            progressHeader.setWidthFull();
+            progressHeader.setAlignItems(Alignment.CENTER);
+            progressHeader.expand(this.progressText);
+            this.progressBar = new ProgressBar(0, 1);
+            add(progressHeader, this.progressBar);
+        }
+
+        private void update(VectorStoreIngestionJob job) {
+            this.progressText.setText(VectorStoreIngestionJob.Status.QUEUED.equals(job.status()) ?
+                    this.title + ": queued" : job.totalUnits() == 0 ?
+                    String.format("%s: %s %d", this.title, job.stage().name().toLowerCase(), job.completedUnits()) :
+                    String.format("%s: %s %d/%d", this.title, job.stage().name().toLowerCase(),
+                            job.completedUnits(), job.totalUnits()));
+            this.progressBar.setIndeterminate(job.totalUnits() == 0 ||
+                    VectorStoreIngestionJob.Stage.PARSE.equals(job.stage()));
+            this.progressBar.setValue(job.progress());
+        }
+    }
 }
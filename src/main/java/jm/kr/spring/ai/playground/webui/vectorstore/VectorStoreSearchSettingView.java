@@ -17,10 +17,14 @@ package jm.kr.spring.ai.playground.webui.vectorstore;
 
 import com.vaadin.flow.component.html.RangeInput;
 import com.vaadin.flow.component.orderedlayout.VerticalLayout;
+import com.vaadin.flow.component.radiobutton.RadioButtonGroup;
 import com.vaadin.flow.component.textfield.IntegerField;
 import com.vaadin.flow.component.textfield.NumberField;
+import com.vaadin.flow.component.textfield.TextField;
 import jm.kr.spring.ai.playground.service.vectorstore.VectorStoreService;
+import jm.kr.spring.ai.playground.service.vectorstore.VectorStoreService.RetrievalMode;
 import jm.kr.spring.ai.playground.service.vectorstore.VectorStoreService.SearchRequestOption;
+import jm.kr.spring.ai.playground.service.vectorstore.local.QuantizationMode;
 
 import static jm.kr.spring.ai.playground.service.vectorstore.VectorStoreService.ALL_SEARCH_REQUEST_OPTION;
 
@@ -34,11 +38,29 @@ public class VectorStoreSearchSettingView extends VerticalLayout {
         setSpacing(false);
         setAlignItems(Alignment.START);
 
+        if (this.vectorStoreService.isLexicalSearchSupported()) {
+            RadioButtonGroup<RetrievalMode> retrievalModeRadioButtonGroup = new RadioButtonGroup<>("Retrieval");
+            retrievalModeRadioButtonGroup.setItems(RetrievalMode.values());
+            retrievalModeRadioButtonGroup.setItemLabelGenerator(retrievalMode -> switch (retrievalMode) {
+                case VECTOR -> "Vector";
+                case BM25 -> "BM25";
+                case HYBRID -> "Hybrid (RRF)";
+            });
+            retrievalModeRadioButtonGroup.setValue(vectorStoreOption.retrievalMode());
+            retrievalModeRadioButtonGroup.setWidthFull();
+            retrievalModeRadioButtonGroup.addValueChangeListener(e -> this.vectorStoreService.setVectorStoreOption(
+                    this.vectorStoreService.getSearchRequestOption().newRetrievalMode(e.getValue())));
+            add(retrievalModeRadioButtonGroup);
+        }
+
         NumberField similarityThresholdInput = new NumberField("Similarity Threshold (0 = All)");
         similarityThresholdInput.setMin(0);
         similarityThresholdInput.setMax(1);
         similarityThresholdInput.setValue(vectorStoreOption.similarityThreshold());
         similarityThresholdInput.setWidthFull();
+        if (this.vectorStoreService.isLexicalSearchSupported())
+            similarityThresholdInput.setHelperText("Applies to vector similarity only; BM25 scores are unbounded " +
+                    "and hybrid scores are RRF");
         similarityThresholdInput.setI18n(new NumberField.NumberFieldI18n()
                 .setBadInputErrorMessage("Please enter a valid number.")
                 .setMinErrorMessage("The value must be at least 0.")
@@ -54,7 +76,8 @@ public class VectorStoreSearchSettingView extends VerticalLayout {
         similarityThresholdSlider.addValueChangeListener(e -> similarityThresholdInput.setValue(e.getValue()));
         similarityThresholdInput.addValueChangeListener(e -> {
             similarityThresholdSlider.setValue(e.getValue());
-            this.vectorStoreService.setVectorStoreOption(vectorStoreOption.newSimilarityThreshold(e.getValue()));
+            this.vectorStoreService.setVectorStoreOption(
+                    this.vectorStoreService.getSearchRequestOption().newSimilarityThreshold(e.getValue()));
         });
         similarityThresholdInput.setValue(vectorStoreOption.similarityThreshold());
         add(similarityThresholdInput, similarityThresholdSlider);
@@ -78,9 +101,19 @@ public class VectorStoreSearchSettingView extends VerticalLayout {
         topKSlider.addValueChangeListener(e -> topKInput.setValue(e.getValue().intValue()));
         topKInput.addValueChangeListener(e -> {
             topKSlider.setValue(e.getValue().doubleValue());
-            this.vectorStoreService.setVectorStoreOption(vectorStoreOption.newTopK(e.getValue()));
+            this.vectorStoreService.setVectorStoreOption(
+                    this.vectorStoreService.getSearchRequestOption().newTopK(e.getValue()));
         });
         add(topKInput, topKSlider);
+
+        this.vectorStoreService.getQuantizationMode().ifPresent(quantizationMode -> {
+            TextField quantizationField = new TextField("Quantization");
+            quantizationField.setValue(QuantizationMode.NONE.equals(quantizationMode) ? "None (full precision)" :
+                    quantizationMode + " + rescoring top " + quantizationMode.getRescoreOversampling() + "x");
+            quantizationField.setReadOnly(true);
+            quantizationField.setWidthFull();
+            add(quantizationField);
+        });
     }
 
 }
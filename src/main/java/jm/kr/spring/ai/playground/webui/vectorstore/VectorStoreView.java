@@ -16,9 +16,11 @@
 package jm.kr.spring.ai.playground.webui.vectorstore;
 
 import com.vaadin.flow.component.Component;
+import com.vaadin.flow.component.UI;
 import com.vaadin.flow.component.button.Button;
 import com.vaadin.flow.component.button.ButtonVariant;
 import com.vaadin.flow.component.dependency.CssImport;
+import com.vaadin.flow.component.details.Details;
 import com.vaadin.flow.component.dialog.Dialog;
 import com.vaadin.flow.component.html.Div;
 import com.vaadin.flow.component.html.H4;
@@ -43,6 +45,7 @@ import com.vaadin.flow.spring.annotation.SpringComponent;
 import com.vaadin.flow.spring.annotation.UIScope;
 import jm.kr.spring.ai.playground.service.vectorstore.VectorStoreDocumentInfo;
 import jm.kr.spring.ai.playground.service.vectorstore.VectorStoreDocumentService;
+import jm.kr.spring.ai.playground.service.vectorstore.VectorStoreIngestionJobService;
 import jm.kr.spring.ai.playground.service.vectorstore.VectorStoreService;
 import jm.kr.spring.ai.playground.webui.PersistentUiDataStorage;
 import jm.kr.spring.ai.playground.webui.SpringAiPlaygroundAppLayout;
@@ -56,6 +59,7 @@ import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.Set;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
@@ -74,8 +78,13 @@ public class VectorStoreView extends Div {
     public static final String DOCUMENT_SELECTING_EVENT = "DOCUMENT_SELECTING_EVENT";
     public static final String DOCUMENT_ADDING_EVENT = "DOCUMENT_ADDING_EVENT";
     public static final String DOCUMENTS_DELETE_EVENT = "DOCUMENTS_DELETE_EVENT";
+
+    private record ChunkReview(Map<String, List<Document>> uploadedDocumentItems,
+                               List<VectorStoreDocumentService.NearDuplicate> nearDuplicates) {}
+
     private final VectorStoreService vectorStoreService;
     private final VectorStoreDocumentService vectorStoreDocumentService;
+    private final VectorStoreIngestionJobService vectorStoreIngestionJobService;
     private final VectorStoreDocumentView vectorStoreDocumentView;
     private final VectorStoreContentView vectorStoreContentView;
     private final SplitLayout splitLayout;
@@ -83,7 +92,8 @@ public class VectorStoreView extends Div {
     private boolean sidebarCollapsed;
 
     public VectorStoreView(PersistentUiDataStorage persistentUiDataStorage, VectorStoreService vectorStoreService,
-            VectorStoreDocumentService vectorStoreDocumentService) {
+            VectorStoreDocumentService vectorStoreDocumentService,
+            VectorStoreIngestionJobService vectorStoreIngestionJobService) {
 
         setSizeFull();
 
@@ -95,9 +105,10 @@ public class VectorStoreView extends Div {
 
         this.vectorStoreService = vectorStoreService;
         this.vectorStoreDocumentService = vectorStoreDocumentService;
+        this.vectorStoreIngestionJobService = vectorStoreIngestionJobService;
 
-        this.vectorStoreDocumentView =
-                new VectorStoreDocumentView(vectorStoreDocumentService, buildPropertyChangeSupport());
+        this.vectorStoreDocumentView = new VectorStoreDocumentView(vectorStoreDocumentService,
+                vectorStoreIngestionJobService, buildPropertyChangeSupport());
         this.splitLayout.addToPrimary(this.vectorStoreDocumentView);
         this.vectorStoreContentView = new VectorStoreContentView(persistentUiDataStorage, vectorStoreService);
         this.vectorStoreContentView.setSpacing(false);
@@ -125,19 +136,13 @@ public class VectorStoreView extends Div {
             Collection<VectorStoreDocumentInfo> newDocumentInfos =
                     (Collection<VectorStoreDocumentInfo>) changeEvent.getNewValue();
             switch (changeEvent.getPropertyName()) {
-                case DOCUMENT_ADDING_EVENT -> handleDocumentAdding(newDocumentInfos);
-                case DOCUMENT_SELECTING_EVENT -> handleDocumentSelecting(newDocumentInfos);
+                case DOCUMENT_ADDING_EVENT, DOCUMENT_SELECTING_EVENT -> handleDocumentSelecting(newDocumentInfos);
                 case DOCUMENTS_DELETE_EVENT -> handleDocumentDeleting(newDocumentInfos);
             }
         });
         return documentInfoChangeSupport;
     }
 
-    private void handleDocumentAdding(Collection<VectorStoreDocumentInfo> newEventDocumentInfos) {
-        newEventDocumentInfos.forEach(this.vectorStoreService::add);
-        handleDocumentSelecting(newEventDocumentInfos);
-    }
-
     private void handleDocumentSelecting(Collection<VectorStoreDocumentInfo> newEventDocumentInfos) {
         this.vectorStoreContentView.showDocuments(
                 newEventDocumentInfos.stream().map(VectorStoreDocumentInfo::docInfoId).toList());
@@ -188,10 +193,14 @@ public class VectorStoreView extends Div {
         vectorStoreDocumentUpload.getStyle().set("padding", "0 var(--lumo-space-m) 0 var(--lumo-space-m)");
         newDocumentPopover.add(vectorStoreDocumentUpload);
 
+        Button queueIngestionButton = new Button("Queue Ingestion");
+        queueIngestionButton.addThemeVariants(ButtonVariant.LUMO_SMALL);
+        queueIngestionButton.setTooltipText("Parse, chunk, embed and insert in the background without review");
+
         Button chunkDocumentButton = new Button("Chunk Document");
         chunkDocumentButton.addThemeVariants(ButtonVariant.LUMO_SMALL);
 
-        HorizontalLayout buttonLayout = new HorizontalLayout(chunkDocumentButton);
+        HorizontalLayout buttonLayout = new HorizontalLayout(queueIngestionButton, chunkDocumentButton);
         buttonLayout.setWidthFull();
         buttonLayout.setJustifyContentMode(FlexComponent.JustifyContentMode.END);
 
@@ -204,7 +213,7 @@ public class VectorStoreView extends Div {
 
         vectorStoreDocumentUpload.add(outerLayout);
 
-        chunkDocumentButton.addClickListener(buttonClickEvent -> {
+        queueIngestionButton.addClickListener(buttonClickEvent -> {
             newDocumentPopover.close();
             List<String> uploadedFileNames = new ArrayList<>(vectorStoreDocumentUpload.getUploadedFileNames());
             vectorStoreDocumentUpload.clearFileList();
@@ -212,40 +221,43 @@ public class VectorStoreView extends Div {
                 VaadinUtils.showInfoNotification("No uploaded files found");
                 return;
             }
+            this.vectorStoreDocumentView.queueDocumentContent(uploadedFileNames,
+                    vectorStoreDocumentTokenChunkInfo.collectInput());
+        });
 
-            Map<String, List<Document>> uploadedDocumentItems =
-                    this.vectorStoreDocumentService.extractDocumentItems(uploadedFileNames,
-                            vectorStoreDocumentService.newTokenTextSplitter(
-                                    vectorStoreDocumentTokenChunkInfo.collectInput()));
-            List<Document> chunks =
-                    uploadedDocumentItems.values().stream().flatMap(List::stream).toList();
-            if (chunks.isEmpty()) {
-                VaadinUtils.showInfoNotification("No chunks found");
+        chunkDocumentButton.addClickListener(buttonClickEvent -> {
+            newDocumentPopover.close();
+            List<String> uploadedFileNames = new ArrayList<>(vectorStoreDocumentUpload.getUploadedFileNames());
+            vectorStoreDocumentUpload.clearFileList();
+            if (uploadedFileNames.isEmpty()) {
+                VaadinUtils.showInfoNotification("No uploaded files found");
                 return;
             }
 
-            MultiSelectListBox<Document> documentListBox = new MultiSelectListBox<>();
-            documentListBox.setRenderer(
-                    new ComponentRenderer<Component, Document>(document -> new Span(document.getText())));
-
-            documentListBox.setItems(chunks);
-            documentListBox.select(chunks);
-
-            Dialog confirmationDialog = VaadinUtils.headerDialog(
-                    String.format("Chunk Summary - %d chunks successfully extracted", chunks.size()));
-            confirmationDialog.setModal(false);
-            Button confirmButton = new Button("Embed and Insert Confirm");
-            confirmationDialog.add(confirmButton, documentListBox);
-            confirmationDialog.open();
-            confirmButton.addClickListener(event -> {
-                confirmationDialog.setEnabled(false);
-                confirmationDialog.close();
-                Set<Document> selectedItems = documentListBox.getSelectedItems();
-                Map<String, List<Document>> filenameDocuments =
-                        uploadedDocumentItems.entrySet().stream().collect(Collectors.toMap(Map.Entry::getKey,
-                                entry -> entry.getValue().stream().filter(selectedItems::contains).toList()));
-                this.vectorStoreDocumentView.addDocumentContent(uploadedFileNames, filenameDocuments);
-            });
+            UI ui = VaadinUtils.getUi(this);
+            VectorStoreDocumentService.TokenTextSplitInfo tokenTextSplitInfo =
+                    vectorStoreDocumentTokenChunkInfo.collectInput();
+            Map<Boolean, List<String>> streamingFileNames = uploadedFileNames.stream()
+                    .collect(Collectors.partitioningBy(this.vectorStoreIngestionJobService::isStreaming));
+            if (!streamingFileNames.get(true).isEmpty()) {
+                VaadinUtils.showInfoNotification("Large files are queued for streaming ingestion without review: " +
+                        String.join(", ", streamingFileNames.get(true)));
+                this.vectorStoreDocumentView.queueDocumentContent(streamingFileNames.get(true), tokenTextSplitInfo);
+            }
+            List<String> reviewFileNames = streamingFileNames.get(false);
+            if (reviewFileNames.isEmpty())
+                return;
+            this.vectorStoreIngestionJobService.extractDocumentItems(reviewFileNames, tokenTextSplitInfo)
+                    .thenApply(uploadedDocumentItems -> new ChunkReview(uploadedDocumentItems,
+                            this.vectorStoreDocumentService.findNearDuplicates(uploadedDocumentItems)))
+                    .whenComplete((chunkReview, throwable) -> ui.access(() -> {
+                        if (Objects.nonNull(throwable)) {
+                            VaadinUtils.showErrorNotification("Failed to chunk documents: " +
+                                    Optional.ofNullable(throwable.getCause()).orElse(throwable).getMessage());
+                            return;
+                        }
+                        showChunkSummary(reviewFileNames, chunkReview, tokenTextSplitInfo);
+                    }));
         });
 
         HorizontalLayout vectorStoreLabelLayout = new HorizontalLayout(buildEmbeddingModelServiceTextDiv());
@@ -277,6 +289,70 @@ public class VectorStoreView extends Div {
         return horizontalLayout;
     }
 
+    // Near-duplicates start deselected. Re-selected ones are inserted and keep the link to the chunk they duplicate.
+    private void showChunkSummary(List<String> uploadedFileNames, ChunkReview chunkReview,
+            VectorStoreDocumentService.TokenTextSplitInfo tokenTextSplitInfo) {
+        Map<String, List<Document>> uploadedDocumentItems = chunkReview.uploadedDocumentItems();
+        List<Document> chunks = uploadedDocumentItems.values().stream().flatMap(List::stream).toList();
+        if (chunks.isEmpty()) {
+            VaadinUtils.showInfoNotification("No chunks found");
+            return;
+        }
+
+        MultiSelectListBox<Document> documentListBox = new MultiSelectListBox<>();
+        Set<Document> nearDuplicateDocuments = chunkReview.nearDuplicates().stream()
+                .map(VectorStoreDocumentService.NearDuplicate::document).collect(Collectors.toSet());
+        documentListBox.setRenderer(new ComponentRenderer<Component, Document>(document -> {
+            Span span = new Span(document.getText());
+            if (nearDuplicateDocuments.contains(document))
+                span.getStyle().set("color", "var(--lumo-secondary-text-color)");
+            return span;
+        }));
+
+        documentListBox.setItems(chunks);
+        documentListBox.select(chunks.stream().filter(document -> !nearDuplicateDocuments.contains(document))
+                .toList());
+
+        Dialog confirmationDialog = VaadinUtils.headerDialog(nearDuplicateDocuments.isEmpty() ?
+                String.format("Chunk Summary - %d chunks successfully extracted", chunks.size()) :
+                String.format("Chunk Summary - %d chunks successfully extracted, %d near-duplicates", chunks.size(),
+                        nearDuplicateDocuments.size()));
+        confirmationDialog.setModal(false);
+        Button confirmButton = new Button("Embed and Insert Confirm");
+        confirmationDialog.add(confirmButton);
+        if (!nearDuplicateDocuments.isEmpty())
+            confirmationDialog.add(buildNearDuplicateReport(chunkReview.nearDuplicates()));
+        confirmationDialog.add(documentListBox);
+        confirmationDialog.open();
+        confirmButton.addClickListener(event -> {
+            confirmationDialog.setEnabled(false);
+            confirmationDialog.close();
+            Set<Document> selectedItems = documentListBox.getSelectedItems();
+            Map<String, List<Document>> filenameDocuments =
+                    uploadedDocumentItems.entrySet().stream().collect(Collectors.toMap(Map.Entry::getKey,
+                            entry -> entry.getValue().stream().filter(selectedItems::contains).toList()));
+            chunkReview.nearDuplicates().stream()
+                    .filter(nearDuplicate -> selectedItems.contains(nearDuplicate.document())).toList()
+                    .forEach(VectorStoreDocumentService.NearDuplicate::linkStoredDocument);
+            this.vectorStoreDocumentView.addDocumentContent(uploadedFileNames, filenameDocuments,
+                    tokenTextSplitInfo);
+        });
+    }
+
+    private static Details buildNearDuplicateReport(List<VectorStoreDocumentService.NearDuplicate> nearDuplicates) {
+        VerticalLayout reportLayout = new VerticalLayout();
+        reportLayout.setPadding(false);
+        reportLayout.setSpacing(false);
+        nearDuplicates.forEach(nearDuplicate -> {
+            String text = Objects.requireNonNullElse(nearDuplicate.document().getText(), "");
+            reportLayout.add(new Span(String.format("%s: \"%s\" ~ %s (%.0f%%)", nearDuplicate.fileName(),
+                    text.length() > 80 ? text.substring(0, 80) + "..." : text, nearDuplicate.duplicateOf(),
+                    nearDuplicate.similarity() * 100)));
+        });
+        return new Details(String.format("Near-duplicate report - %d chunks skipped unless selected",
+                nearDuplicates.size()), reportLayout);
+    }
+
     private Div buildEmbeddingModelServiceTextDiv() {
         H4 embeddingModelServiceText = buildEmbeddingModelServiceText();
         embeddingModelServiceText.getStyle().set("white-space", "nowrap");
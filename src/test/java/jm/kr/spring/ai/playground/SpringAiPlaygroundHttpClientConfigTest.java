@@ -0,0 +1,139 @@
+/*
+ * Copyright © 2025 Jemin Huh (hjm1980@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jm.kr.spring.ai.playground;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SpringAiPlaygroundHttpClientConfigTest {
+
+    private HttpServer httpServer;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        this.httpServer = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        this.httpServer.createContext("/ok", exchange -> {
+            byte[] body = "ok".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        this.httpServer.createContext("/slow", exchange -> {
+            try {
+                Thread.sleep(2000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.sendResponseHeaders(200, -1);
+            exchange.close();
+        });
+        this.httpServer.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        this.httpServer.stop(0);
+    }
+
+    @Test
+    void testGetHttpClientOptions() {
+        SpringAiPlaygroundOptions.HttpClient httpClientOptions = SpringAiPlaygroundHttpClientConfig
+                .getHttpClientOptions(newPlaygroundOptions(new SpringAiPlaygroundOptions.HttpClient(10, null, null,
+                        null, null, null, Duration.ofSeconds(30), null)));
+        assertEquals(10, httpClientOptions.maxConnections());
+        assertEquals(Duration.ofSeconds(30), httpClientOptions.readTimeout());
+        assertEquals(SpringAiPlaygroundHttpClientConfig.DEFAULT_HTTP_CLIENT_OPTIONS.connectTimeout(),
+                httpClientOptions.connectTimeout());
+        assertTrue(httpClientOptions.http2());
+        assertEquals(SpringAiPlaygroundHttpClientConfig.DEFAULT_HTTP_CLIENT_OPTIONS,
+                SpringAiPlaygroundHttpClientConfig.getHttpClientOptions(newPlaygroundOptions(null)));
+    }
+
+    @Test
+    void testSharedConnectionPool() {
+        SpringAiPlaygroundOptions playgroundOptions = newPlaygroundOptions(new SpringAiPlaygroundOptions.HttpClient(
+                7, null, null, null, null, null, null, false));
+        SpringAiPlaygroundHttpClientConfig config = new SpringAiPlaygroundHttpClientConfig();
+        SpringAiPlaygroundHttpClientConfig.ConnectionPoolMetricsRegistrar registrar =
+                config.connectionPoolMetricsRegistrar();
+        ConnectionProvider connectionProvider = config.springAiPlaygroundConnectionProvider(playgroundOptions,
+                registrar);
+        try {
+            assertEquals(7, connectionProvider.maxConnections());
+            RestClient.Builder restClientBuilder = RestClient.builder();
+            config.springAiPlaygroundRestClientCustomizer(playgroundOptions, connectionProvider)
+                    .customize(restClientBuilder);
+            RestClient restClient = restClientBuilder.baseUrl(baseUrl()).build();
+            for (int i = 0; i < 3; i++)
+                assertEquals("ok", restClient.get().uri("/ok").retrieve().body(String.class));
+
+            SpringAiPlaygroundHttpClientConfig.ConnectionPoolStats connectionPoolStats =
+                    registrar.getConnectionPoolStats().entrySet().stream()
+                            .filter(entry -> entry.getKey().startsWith(
+                                    SpringAiPlaygroundHttpClientConfig.CONNECTION_POOL_NAME + "|"))
+                            .findFirst().orElseThrow().getValue();
+            assertEquals(7, connectionPoolStats.maxAllocated());
+            assertEquals(0, connectionPoolStats.acquired());
+            assertTrue(connectionPoolStats.allocated() <= 7);
+        } finally {
+            connectionProvider.dispose();
+        }
+    }
+
+    @Test
+    void testReadTimeout() {
+        SpringAiPlaygroundOptions playgroundOptions = newPlaygroundOptions(new SpringAiPlaygroundOptions.HttpClient(
+                null, null, null, null, null, null, Duration.ofMillis(200), false));
+        SpringAiPlaygroundHttpClientConfig config = new SpringAiPlaygroundHttpClientConfig();
+        ConnectionProvider connectionProvider = config.springAiPlaygroundConnectionProvider(playgroundOptions,
+                config.connectionPoolMetricsRegistrar());
+        try {
+            RestClient.Builder restClientBuilder = RestClient.builder();
+            config.springAiPlaygroundRestClientCustomizer(playgroundOptions, connectionProvider)
+                    .customize(restClientBuilder);
+            RestClient restClient = restClientBuilder.baseUrl(baseUrl()).build();
+            long startNanos = System.nanoTime();
+            assertThrows(ResourceAccessException.class,
+                    () -> restClient.get().uri("/slow").retrieve().toBodilessEntity());
+            assertTrue(Duration.ofNanos(System.nanoTime() - startNanos).compareTo(Duration.ofMillis(1500)) < 0);
+        } finally {
+            connectionProvider.dispose();
+        }
+    }
+
+    private String baseUrl() {
+        return "http://localhost:" + this.httpServer.getAddress().getPort();
+    }
+
+    private static SpringAiPlaygroundOptions newPlaygroundOptions(
+            SpringAiPlaygroundOptions.HttpClient httpClientOptions) {
+        return new SpringAiPlaygroundOptions(null, true, null, null, httpClientOptions, null, null, null);
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright © 2025 Jemin Huh (hjm1980@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jm.kr.spring.ai.playground.api;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "spring.mvc.async.request-timeout=200ms")
+@AutoConfigureMockMvc
+class ChatApiControllerTest {
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @MockitoBean
+    ChatModel chatModel;
+
+    @Test
+    void testStream() throws Exception {
+        when(chatModel.stream(any(Prompt.class))).thenReturn(Flux.just(
+                new ChatResponse(List.of(new Generation(new AssistantMessage("Hello")))),
+                new ChatResponse(List.of(new Generation(new AssistantMessage(" World"))))));
+
+        String body = performStream("{\"prompt\": \"Hi\"}");
+        assertTrue(body.contains("event:" + ChatApiController.CONVERSATION_EVENT + "\ndata:Chat-"));
+        assertTrue(body.contains("event:" + ChatApiController.CONTENT_EVENT + "\ndata:Hello\n"));
+        assertTrue(body.contains("event:" + ChatApiController.CONTENT_EVENT + "\ndata: World\n"));
+        assertTrue(body.indexOf("data: World") < body.indexOf("event:" + ChatApiController.DONE_EVENT));
+        assertFalse(body.contains("event:" + ChatApiController.ERROR_EVENT));
+    }
+
+    @Test
+    void testStreamError() throws Exception {
+        when(chatModel.stream(any(Prompt.class))).thenReturn(Flux.error(new IllegalStateException("Model down")));
+
+        String body = performStream("{\"prompt\": \"Hi\"}");
+        assertTrue(body.contains("event:" + ChatApiController.ERROR_EVENT + "\ndata:"));
+        assertTrue(body.contains("Model down"));
+        assertFalse(body.contains("event:" + ChatApiController.DONE_EVENT));
+    }
+
+    @Test
+    void testStreamOutlivesAsyncRequestTimeout() throws Exception {
+        when(chatModel.stream(any(Prompt.class))).thenReturn(Flux.just(
+                        new ChatResponse(List.of(new Generation(new AssistantMessage("Slow")))),
+                        new ChatResponse(List.of(new Generation(new AssistantMessage(" answer")))))
+                .delayElements(Duration.ofMillis(300)));
+
+        MvcResult mvcResult = mockMvc.perform(post("/api/chat/stream").contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.TEXT_EVENT_STREAM).content("{\"prompt\": \"Hi\"}"))
+                .andExpect(request().asyncStarted()).andReturn();
+        assertEquals(ChatApiController.DEFAULT_STREAM_TIMEOUT.toMillis(),
+                mvcResult.getRequest().getAsyncContext().getTimeout());
+        mvcResult.getAsyncResult(10000);
+        String body = mvcResult.getResponse().getContentAsString();
+        assertTrue(body.contains("event:" + ChatApiController.CONTENT_EVENT + "\ndata: answer\n"));
+        assertTrue(body.contains("event:" + ChatApiController.DONE_EVENT));
+        assertFalse(body.contains("event:" + ChatApiController.ERROR_EVENT));
+    }
+
+    @Test
+    void testStreamBadRequest() throws Exception {
+        mockMvc.perform(post("/api/chat/stream").contentType(MediaType.APPLICATION_JSON).content("{\"prompt\": \" \"}"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(post("/api/chat/stream").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"conversationId\": \"unknown\", \"prompt\": \"Hi\"}"))
+                .andExpect(status().isNotFound());
+    }
+
+    private String performStream(String content) throws Exception {
+        MvcResult mvcResult = mockMvc.perform(post("/api/chat/stream").contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.TEXT_EVENT_STREAM).content(content)).andExpect(request().asyncStarted()).andReturn();
+        mvcResult.getAsyncResult(10000);
+        return mvcResult.getResponse().getContentAsString();
+    }
+}
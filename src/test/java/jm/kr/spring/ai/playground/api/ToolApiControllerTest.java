@@ -0,0 +1,80 @@
+/*
+ * Copyright © 2025 Jemin Huh (hjm1980@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jm.kr.spring.ai.playground.api;
+
+import jm.kr.spring.ai.playground.service.mcp.McpServerInfoService;
+import jm.kr.spring.ai.playground.service.tool.ToolSpec;
+import jm.kr.spring.ai.playground.service.tool.ToolSpec.CodeType;
+import jm.kr.spring.ai.playground.service.tool.ToolSpec.JsonSchemaType;
+import jm.kr.spring.ai.playground.service.tool.ToolSpec.ToolParamSpec;
+import jm.kr.spring.ai.playground.service.tool.ToolSpecService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class ToolApiControllerTest {
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    ToolSpecService toolSpecService;
+
+    @MockitoBean
+    McpServerInfoService mcpServerInfoService;
+
+    @AfterEach
+    void clean() {
+        toolSpecService.getToolSpecList().stream().map(ToolSpec::toolId).filter("api-001"::equals)
+                .forEach(toolSpecService::deleteToolSpec);
+    }
+
+    @Test
+    void testExecute() throws Exception {
+        toolSpecService.update("api-001", "apiEcho", "Echoes the message",
+                List.of(Map.entry("prefix", "[API] ")),
+                List.of(new ToolParamSpec("msg", "Message", true, JsonSchemaType.STRING, "Test")),
+                "return prefix + msg;", CodeType.Javascript);
+
+        mockMvc.perform(get("/api/tools")).andExpect(status().isOk())
+                .andExpect(jsonPath("$[?(@.name == 'apiEcho')].description").value("Echoes the message"));
+        mockMvc.perform(post("/api/tools/apiEcho/execute").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"msg\": \"hello\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.result").value("[API] hello"));
+    }
+
+    @Test
+    void testExecuteUnknownTool() throws Exception {
+        mockMvc.perform(post("/api/tools/unknownTool/execute").contentType(MediaType.APPLICATION_JSON)
+                .content("{}")).andExpect(status().isNotFound());
+    }
+}
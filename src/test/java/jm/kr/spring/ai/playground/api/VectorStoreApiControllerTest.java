@@ -0,0 +1,85 @@
+/*
+ * Copyright © 2025 Jemin Huh (hjm1980@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jm.kr.spring.ai.playground.api;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.vectorstore.SearchRequest;
+import org.springframework.ai.vectorstore.VectorStore;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class VectorStoreApiControllerTest {
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @MockitoBean
+    VectorStore vectorStore;
+
+    @Test
+    void testSearch() throws Exception {
+        when(vectorStore.similaritySearch(any(SearchRequest.class))).thenReturn(List.of(
+                Document.builder().id("0-docInfoId-a").text("Hurricane Milton").score(0.9)
+                        .metadata(Map.of("docInfoId", "docInfoId-a")).build()));
+
+        mockMvc.perform(get("/api/vectorstore/search").param("query", "hurricane")
+                        .param("docInfoIds", "docInfoId-a", "docInfoId-b"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value("0-docInfoId-a"))
+                .andExpect(jsonPath("$[0].text").value("Hurricane Milton"))
+                .andExpect(jsonPath("$[0].score").value(0.9))
+                .andExpect(jsonPath("$[0].metadata.docInfoId").value("docInfoId-a"));
+
+        ArgumentCaptor<SearchRequest> searchRequestCaptor = ArgumentCaptor.forClass(SearchRequest.class);
+        verify(vectorStore).similaritySearch(searchRequestCaptor.capture());
+        SearchRequest searchRequest = searchRequestCaptor.getValue();
+        assertEquals("hurricane", searchRequest.getQuery());
+        assertTrue(searchRequest.getFilterExpression().toString().contains("docInfoId-b"));
+    }
+
+    @Test
+    void testSearchWithFilterExpression() throws Exception {
+        when(vectorStore.similaritySearch(any(SearchRequest.class))).thenReturn(List.of());
+
+        mockMvc.perform(get("/api/vectorstore/search").param("query", "hurricane")
+                        .param("filterExpression", "docInfoId == 'docInfoId-c'"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(0));
+
+        ArgumentCaptor<SearchRequest> searchRequestCaptor = ArgumentCaptor.forClass(SearchRequest.class);
+        verify(vectorStore).similaritySearch(searchRequestCaptor.capture());
+        assertTrue(searchRequestCaptor.getValue().getFilterExpression().toString().contains("docInfoId-c"));
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright © 2025 Jemin Huh (hjm1980@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jm.kr.spring.ai.playground.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.rag.Query;
+
+import java.util.List;
+import java.util.Map;
+
+import static jm.kr.spring.ai.playground.service.vectorstore.VectorStoreService.CHUNK_INDEX;
+import static jm.kr.spring.ai.playground.service.vectorstore.VectorStoreService.DOC_INFO_ID;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ContextPackingDocumentPostProcessorTest {
+
+    private static final Query QUERY = new Query("What is Spring AI Playground?");
+
+    @Test
+    void testDeduplicate() {
+        List<Document> documents = ContextPackingDocumentPostProcessor.deduplicate(List.of(
+                buildDocument("0-doc-a", "doc-a", "Spring AI Playground is a tool.", 0.9),
+                buildDocument("0-doc-b", "doc-b", "Spring AI  Playground is a tool.\n", 0.8),
+                buildDocument("1-doc-a", "doc-a", "Vector stores keep embeddings.", 0.7),
+                buildDocument("2-doc-a", "doc-a", "Vector stores keep embeddings. They are searched by similarity.",
+                        0.6)));
+
+        assertEquals(List.of("0-doc-a", "2-doc-a"), documents.stream().map(Document::getId).toList());
+        assertEquals(0.7, documents.get(1).getScore());
+    }
+
+    @Test
+    void testPackWithinTokenBudget() {
+        ContextPackingDocumentPostProcessor documentPostProcessor = new ContextPackingDocumentPostProcessor(15);
+        List<Document> documents = documentPostProcessor.process(QUERY, List.of(
+                buildDocument("0-doc-a", "doc-a", "one two three four five six seven eight", 0.9),
+                buildDocument("5-doc-a", "doc-a", "alpha beta gamma delta epsilon zeta eta theta iota kappa", 0.8),
+                buildDocument("9-doc-b", "doc-b", "short sentence", 0.7)));
+
+        assertEquals(List.of("0-doc-a", "9-doc-b"), documents.stream().map(Document::getId).toList());
+
+        documents = new ContextPackingDocumentPostProcessor(3).process(QUERY,
+                List.of(buildDocument("0-doc-a", "doc-a", "one two three four five six seven eight", 0.9)));
+        assertEquals("one two three", documents.getFirst().getText());
+    }
+
+    @Test
+    void testMergeAdjacentChunks() {
+        ContextPackingDocumentPostProcessor documentPostProcessor = new ContextPackingDocumentPostProcessor(1000);
+        List<Document> documents = documentPostProcessor.process(QUERY, List.of(
+                buildDocument("4-doc-b", "doc-b", "Unrelated chunk of another document.", 0.9),
+                buildDocument("3-doc-a", "doc-a", "The second chunk overlaps with the first one.", 0.8),
+                buildDocument("2-doc-a", "doc-a", "Chunking splits text. The second chunk overlaps", 0.7),
+                buildDocument("7-doc-a", "doc-a", "A distant chunk of the same document.", 0.6)));
+
+        assertEquals(List.of("4-doc-b", "2-doc-a", "7-doc-a"), documents.stream().map(Document::getId).toList());
+        assertEquals("Chunking splits text. The second chunk overlaps with the first one.",
+                documents.get(1).getText());
+        assertEquals(0.8, documents.get(1).getScore());
+        assertTrue(documents.get(2).getText().startsWith("A distant chunk"));
+    }
+
+    @Test
+    void testMergeByStoredChunkIndex() {
+        ContextPackingDocumentPostProcessor documentPostProcessor = new ContextPackingDocumentPostProcessor(1000);
+        List<Document> documents = documentPostProcessor.process(QUERY, List.of(
+                buildDocument("5-1a2b3c4d-doc-a", "doc-a", 1, "Second chunk after an update.", 0.9),
+                buildDocument("0-doc-a", "doc-a", 0, "First chunk.", 0.8)));
+        assertEquals(List.of("0-doc-a"), documents.stream().map(Document::getId).toList());
+        assertEquals("First chunk.\nSecond chunk after an update.", documents.getFirst().getText());
+
+        documents = documentPostProcessor.process(QUERY, List.of(
+                buildDocument("3-doc-a", "doc-a", "Stale chunk left by an older update.", 0.9),
+                buildDocument("3-1a2b3c4d-doc-a", "doc-a", "Chunk added by the update.", 0.8),
+                buildDocument("4-doc-a", "doc-a", "Chunk following one of them.", 0.7)));
+        assertEquals(List.of("3-doc-a", "3-1a2b3c4d-doc-a", "4-doc-a"),
+                documents.stream().map(Document::getId).toList());
+        assertEquals("Chunk following one of them.", documents.getLast().getText());
+    }
+
+    private static Document buildDocument(String id, String docInfoId, int chunkIndex, String text, double score) {
+        return Document.builder().id(id).text(text).metadata(Map.of(DOC_INFO_ID, docInfoId, CHUNK_INDEX, chunkIndex))
+                .score(score).build();
+    }
+
+    private static Document buildDocument(String id, String docInfoId, String text, double score) {
+        return Document.builder().id(id).text(text).metadata(Map.of(DOC_INFO_ID, docInfoId)).score(score).build();
+    }
+}
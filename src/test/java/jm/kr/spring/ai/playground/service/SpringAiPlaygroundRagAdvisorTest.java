@@ -0,0 +1,222 @@
+/*
+ * Copyright © 2025 Jemin Huh (hjm1980@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jm.kr.spring.ai.playground.service;
+
+import jm.kr.spring.ai.playground.SpringAiPlaygroundOptions;
+import jm.kr.spring.ai.playground.service.vectorstore.VectorStoreService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.ai.chat.client.ChatClientRequest;
+import org.springframework.ai.chat.client.advisor.api.AdvisorChain;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.vectorstore.SearchRequest;
+import org.springframework.ai.vectorstore.VectorStore;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.stream.Collectors;
+
+import static jm.kr.spring.ai.playground.service.chat.ChatService.RAG_FILTER_EXPRESSION;
+import static jm.kr.spring.ai.playground.service.vectorstore.VectorStoreService.DOC_INFO_ID;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.ai.chat.memory.ChatMemory.CONVERSATION_ID;
+import static org.springframework.ai.rag.advisor.RetrievalAugmentationAdvisor.DOCUMENT_CONTEXT;
+
+class SpringAiPlaygroundRagAdvisorTest {
+
+    private static final String FILTER_EXPRESSION = "docInfoId in ['doc-a', 'doc-b']";
+    private static final SpringAiPlaygroundOptions PLAYGROUND_OPTIONS = new SpringAiPlaygroundOptions(null, false,
+            null, null, null, null, null, new SpringAiPlaygroundOptions.Rag(1000, null));
+
+    private VectorStore vectorStore;
+    private VectorStoreService vectorStoreService;
+    private SpringAiPlaygroundRagAdvisor ragAdvisor;
+
+    @BeforeEach
+    void setUp() {
+        this.vectorStore = mock(VectorStore.class);
+        when(this.vectorStore.similaritySearch(any(SearchRequest.class))).thenReturn(
+                List.of(new Document("chunk-a", "Spring AI Playground", Map.of(DOC_INFO_ID, "doc-a"))));
+        this.vectorStoreService = new VectorStoreService(null, this.vectorStore, null, null, null);
+        this.ragAdvisor = new SpringAiPlaygroundRagAdvisor(this.vectorStoreService, PLAYGROUND_OPTIONS,
+                mock(ObjectProvider.class));
+    }
+
+    @Test
+    void testRetrievalCache() {
+        retrieve("What is Spring AI Playground?");
+        retrieve("  What is   Spring AI Playground?  ");
+        verify(this.vectorStore, times(1)).similaritySearch(any(SearchRequest.class));
+
+        this.vectorStoreService.add(List.of(new Document("chunk-c", "Unrelated", Map.of(DOC_INFO_ID, "doc-c"))));
+        retrieve("What is Spring AI Playground?");
+        verify(this.vectorStore, times(1)).similaritySearch(any(SearchRequest.class));
+
+        this.vectorStoreService.add(List.of(new Document("chunk-b", "Related", Map.of(DOC_INFO_ID, "doc-b"))));
+        retrieve("What is Spring AI Playground?");
+        verify(this.vectorStore, times(2)).similaritySearch(any(SearchRequest.class));
+
+        this.vectorStoreService.deleteChunks("doc-a", List.of("chunk-a"));
+        retrieve("What is Spring AI Playground?");
+        verify(this.vectorStore, times(3)).similaritySearch(any(SearchRequest.class));
+
+        this.vectorStoreService.setVectorStoreOption(new VectorStoreService.SearchRequestOption(0.8, 3));
+        retrieve("What is Spring AI Playground?");
+        verify(this.vectorStore, times(4)).similaritySearch(any(SearchRequest.class));
+    }
+
+    @Test
+    void testSpeculationReused() {
+        this.ragAdvisor.speculate("conversation", "What is Spring AI Playground?", FILTER_EXPRESSION);
+        List<Document> documents = retrieve(this.ragAdvisor, "conversation", "  What is Spring AI Playground? ");
+        assertEquals(List.of("chunk-a"), documents.stream().map(Document::getId).toList());
+        verify(this.vectorStore, times(1)).similaritySearch(any(SearchRequest.class));
+    }
+
+    @Test
+    void testSpeculationFallback() {
+        this.ragAdvisor.speculate("conversation", "What is Spring", FILTER_EXPRESSION);
+        retrieve(this.ragAdvisor, "conversation", "What is Spring AI Playground?");
+        ArgumentCaptor<SearchRequest> searchRequestCaptor = ArgumentCaptor.forClass(SearchRequest.class);
+        verify(this.vectorStore, timeout(1000).times(2)).similaritySearch(searchRequestCaptor.capture());
+        assertEquals(Set.of("What is Spring", "What is Spring AI Playground?"),
+                searchRequestCaptor.getAllValues().stream().map(SearchRequest::getQuery).collect(Collectors.toSet()));
+    }
+
+    @Test
+    void testSpeculationDiscardedAfterCacheGenerationBump() {
+        this.ragAdvisor.speculate("conversation", "What is Spring AI Playground?", FILTER_EXPRESSION);
+        verify(this.vectorStore, timeout(1000).times(1)).similaritySearch(any(SearchRequest.class));
+        this.vectorStoreService.add(List.of(new Document("chunk-c", "Unrelated", Map.of(DOC_INFO_ID, "doc-c"))));
+        retrieve(this.ragAdvisor, "conversation", "What is Spring AI Playground?");
+        verify(this.vectorStore, times(2)).similaritySearch(any(SearchRequest.class));
+    }
+
+    @Test
+    void testSingleSpeculationInFlight() throws InterruptedException {
+        CountDownLatch searchLatch = new CountDownLatch(1);
+        when(this.vectorStore.similaritySearch(any(SearchRequest.class))).thenAnswer(invocation -> {
+            searchLatch.await();
+            return List.of();
+        });
+        this.ragAdvisor.speculate("conversation", "What", FILTER_EXPRESSION);
+        verify(this.vectorStore, timeout(1000).times(1)).similaritySearch(any(SearchRequest.class));
+        this.ragAdvisor.speculate("conversation", "What is", FILTER_EXPRESSION);
+        this.ragAdvisor.speculate("conversation", "What is Spring", FILTER_EXPRESSION);
+        verify(this.vectorStore, after(200).times(1)).similaritySearch(any(SearchRequest.class));
+
+        searchLatch.countDown();
+        verify(this.vectorStore, after(500).times(2)).similaritySearch(any(SearchRequest.class));
+        ArgumentCaptor<SearchRequest> searchRequestCaptor = ArgumentCaptor.forClass(SearchRequest.class);
+        verify(this.vectorStore, times(2)).similaritySearch(searchRequestCaptor.capture());
+        assertEquals(List.of("What", "What is Spring"),
+                searchRequestCaptor.getAllValues().stream().map(SearchRequest::getQuery).toList());
+    }
+
+    @Test
+    void testQueryExpansion() {
+        when(this.vectorStore.similaritySearch(any(SearchRequest.class))).thenAnswer(invocation -> {
+            String query = invocation.getArgument(0, SearchRequest.class).getQuery();
+            return List.of(new Document(query.equals("rewrite one") ? "chunk-b" : "chunk-a", query,
+                    Map.of(DOC_INFO_ID, "doc-a")));
+        });
+        ChatModel chatModel = mock(ChatModel.class);
+        when(chatModel.call(any(Prompt.class))).thenReturn(
+                new ChatResponse(List.of(new Generation(new AssistantMessage("rewrite one\nrewrite two")))));
+        SpringAiPlaygroundRagAdvisor expandingRagAdvisor =
+                buildQueryExpandingRagAdvisor(chatModel, Duration.ofSeconds(5));
+
+        List<Document> documents = retrieve(expandingRagAdvisor, "What is Spring AI Playground?");
+        assertEquals(List.of("chunk-a", "chunk-b"), documents.stream().map(Document::getId).toList());
+        verify(this.vectorStore, times(3)).similaritySearch(any(SearchRequest.class));
+    }
+
+    @Test
+    void testQueryExpansionTimeout() {
+        ChatModel chatModel = mock(ChatModel.class);
+        when(chatModel.call(any(Prompt.class))).thenAnswer(invocation -> {
+            Thread.sleep(2000);
+            return new ChatResponse(List.of(new Generation(new AssistantMessage("rewrite one\nrewrite two"))));
+        });
+        SpringAiPlaygroundRagAdvisor expandingRagAdvisor =
+                buildQueryExpandingRagAdvisor(chatModel, Duration.ofMillis(100));
+
+        long startTime = System.currentTimeMillis();
+        List<Document> documents = retrieve(expandingRagAdvisor, "What is Spring AI Playground?");
+        assertTrue(System.currentTimeMillis() - startTime < 2000);
+        assertEquals(List.of("chunk-a"), documents.stream().map(Document::getId).toList());
+        verify(this.vectorStore, times(1)).similaritySearch(any(SearchRequest.class));
+    }
+
+    @Test
+    void testParseDocInfoIds() {
+        assertEquals(Set.of("doc-a", "doc-b"), SpringAiPlaygroundRagAdvisor.parseDocInfoIds(FILTER_EXPRESSION));
+        assertEquals(Set.of("doc-a"), SpringAiPlaygroundRagAdvisor.parseDocInfoIds(
+                "docInfoId == 'doc-a' && page > 1"));
+        assertEquals(Set.of("doc-b"), SpringAiPlaygroundRagAdvisor.parseDocInfoIds(
+                FILTER_EXPRESSION + " && (docInfoId == 'doc-b' || docInfoId == 'doc-c')"));
+        assertNull(SpringAiPlaygroundRagAdvisor.parseDocInfoIds("docInfoId == 'doc-a' || page > 1"));
+        assertNull(SpringAiPlaygroundRagAdvisor.parseDocInfoIds("page > 1"));
+    }
+
+    private SpringAiPlaygroundRagAdvisor buildQueryExpandingRagAdvisor(ChatModel chatModel,
+            Duration expansionTimeout) {
+        ChatClient.Builder chatClientBuilder = ChatClient.builder(chatModel);
+        ObjectProvider<ChatClient.Builder> chatClientBuilderProvider = mock(ObjectProvider.class);
+        when(chatClientBuilderProvider.getIfAvailable()).thenReturn(chatClientBuilder);
+        return new SpringAiPlaygroundRagAdvisor(this.vectorStoreService, new SpringAiPlaygroundOptions(null, false,
+                null, null, null, null, null, new SpringAiPlaygroundOptions.Rag(1000,
+                new SpringAiPlaygroundOptions.QueryExpansion(true, null, 2, expansionTimeout,
+                        Duration.ofSeconds(5)))), chatClientBuilderProvider);
+    }
+
+    private void retrieve(String userPromptText) {
+        retrieve(this.ragAdvisor, userPromptText);
+    }
+
+    private static List<Document> retrieve(SpringAiPlaygroundRagAdvisor ragAdvisor, String userPromptText) {
+        return (List<Document>) ragAdvisor.before(ChatClientRequest.builder().prompt(new Prompt(userPromptText))
+                        .context(Map.of(RAG_FILTER_EXPRESSION, FILTER_EXPRESSION)).build(), mock(AdvisorChain.class))
+                .context().get(DOCUMENT_CONTEXT);
+    }
+
+    private static List<Document> retrieve(SpringAiPlaygroundRagAdvisor ragAdvisor, String conversationId,
+            String userPromptText) {
+        return (List<Document>) ragAdvisor.before(ChatClientRequest.builder().prompt(new Prompt(userPromptText))
+                        .context(Map.of(RAG_FILTER_EXPRESSION, FILTER_EXPRESSION, CONVERSATION_ID, conversationId))
+                        .build(), mock(AdvisorChain.class)).context().get(DOCUMENT_CONTEXT);
+    }
+}
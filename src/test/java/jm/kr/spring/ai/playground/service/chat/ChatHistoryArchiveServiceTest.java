@@ -0,0 +1,79 @@
+/*
+ * Copyright © 2025 Jemin Huh (hjm1980@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jm.kr.spring.ai.playground.service.chat;
+
+import jm.kr.spring.ai.playground.service.chat.ChatHistoryArchiveService.ChatArchiveProgress;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.memory.ChatMemory;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.UserMessage;
+import org.springframework.ai.chat.prompt.DefaultChatOptionsBuilder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+@SpringBootTest
+class ChatHistoryArchiveServiceTest {
+
+    @Autowired
+    private ChatHistoryArchiveService chatHistoryArchiveService;
+
+    @Autowired
+    private ChatHistoryService chatHistoryService;
+
+    @Autowired
+    private ChatMemory chatMemory;
+
+    @Test
+    void testExportAndImport() throws Exception {
+        ChatHistory chatHistory =
+                chatHistoryService.createChatHistory("systemPrompt", new DefaultChatOptionsBuilder().build());
+        String conversationId = chatHistory.conversationId();
+        chatMemory.add(conversationId, List.of(new UserMessage("User Message"), new AssistantMessage("Answer")));
+        chatHistoryService.updateChatHistory(chatHistory);
+        int historyCount = chatHistoryService.getChatHistoryList().size();
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        ChatArchiveProgress exportProgress = chatHistoryArchiveService.exportTo(outputStream, true);
+        assertEquals(historyCount, exportProgress.processed());
+
+        ChatArchiveProgress skippedProgress = chatHistoryArchiveService.importFrom(
+                new ByteArrayInputStream(outputStream.toByteArray()), null);
+        assertEquals(historyCount, skippedProgress.skipped());
+
+        chatHistoryService.deleteChatHistory(chatHistoryService.getChatHistory(conversationId));
+        List<ChatArchiveProgress> progresses = new ArrayList<>();
+        ChatArchiveProgress importProgress = chatHistoryArchiveService.importFrom(
+                new ByteArrayInputStream(outputStream.toByteArray()), progresses::add);
+        assertEquals(importProgress, progresses.getLast());
+        assertEquals(historyCount, importProgress.processed());
+        assertEquals(historyCount - 1, importProgress.skipped());
+        assertEquals(0, importProgress.failed());
+
+        ChatHistory importedChatHistory = chatHistoryService.getChatHistory(conversationId);
+        assertNotNull(importedChatHistory);
+        assertEquals("User Message", importedChatHistory.title());
+        assertEquals(2, importedChatHistory.messagesSupplier().get().size());
+        assertEquals(2, chatMemory.get(conversationId).size());
+    }
+}
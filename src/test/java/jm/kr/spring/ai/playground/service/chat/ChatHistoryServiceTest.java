@@ -21,6 +21,9 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
 import org.springframework.ai.chat.memory.ChatMemory;
+import org.springframework.ai.chat.memory.MessageWindowChatMemory;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.Message;
 import org.springframework.ai.chat.messages.UserMessage;
 import org.springframework.ai.chat.prompt.ChatOptions;
 import org.springframework.ai.chat.prompt.DefaultChatOptionsBuilder;
@@ -37,6 +40,8 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
@@ -117,6 +122,53 @@ public class ChatHistoryServiceTest {
                         .findFirst().orElseThrow().title());
     }
 
+    @Test
+    public void testMessagesSnapshot() {
+        ChatHistory chatHistory = chatHistoryService.createChatHistory("systemPrompt", chatOptions);
+        List<Message> emptyMessages = chatHistory.messagesSupplier().get();
+        this.chatMemory.add(chatHistory.conversationId(), new UserMessage("User Message"));
+        List<Message> messages = chatHistory.messagesSupplier().get();
+        this.chatMemory.add(chatHistory.conversationId(), new AssistantMessage("Assistant Message"));
+
+        assertTrue(emptyMessages.isEmpty());
+        assertEquals(1, messages.size());
+        assertEquals(2, chatHistory.messagesSupplier().get().size());
+        assertSame(chatHistory.messagesSupplier().get(), chatHistory.messagesSupplier().get());
+        assertThrows(UnsupportedOperationException.class, () -> messages.add(new UserMessage("Other")));
+    }
+
+    @Test
+    public void testLastUserMessage() {
+        ChatHistory chatHistory = chatHistoryService.createChatHistory("systemPrompt", chatOptions);
+        assertTrue(chatHistory.messagesSnapshot().lastUserMessage().isEmpty());
+        this.chatMemory.add(chatHistory.conversationId(), List.of(new UserMessage("First"),
+                new AssistantMessage("Answer"), new UserMessage("Second"), new AssistantMessage("Answer")));
+
+        assertEquals("Second", chatHistory.messagesSnapshot().lastUserMessage().orElseThrow().getText());
+        assertEquals("Second", ChatMessageLog.snapshotOf(chatHistory.messagesSupplier().get()).lastUserMessage()
+                .orElseThrow().getText());
+        chatHistory.updateLastMessageTimestamp(1L);
+        assertTrue(chatHistory.messagesSupplier().get().stream()
+                .allMatch(message -> Long.valueOf(1L).equals(message.getMetadata().get(ChatHistory.TIMESTAMP))));
+    }
+
+    @Test
+    public void testNonVersionedChatMemory() {
+        ChatHistoryService service = new ChatHistoryService(
+                MessageWindowChatMemory.builder().maxMessages(10).build(), null);
+        ChatHistory chatHistory = service.createChatHistory("systemPrompt", chatOptions);
+        ChatHistory restoringChatHistory = new ChatHistory(chatHistory.conversationId(), "Restored",
+                chatHistory.createTimestamp(), chatHistory.updateTimestamp(), chatHistory.systemPrompt(),
+                chatHistory.chatOptions(), () -> List.of(new UserMessage("User Message")));
+        assertTrue(service.putIfAbsentChatHistory(restoringChatHistory));
+        assertFalse(service.putIfAbsentChatHistory(restoringChatHistory));
+
+        ChatHistory restoredChatHistory = service.getChatHistory(chatHistory.conversationId());
+        assertEquals(1, restoredChatHistory.messagesSupplier().get().size());
+        assertEquals("User Message", restoredChatHistory.messagesSnapshot().lastUserMessage().orElseThrow()
+                .getText());
+    }
+
     @Test
     public void testDeleteChatHistory() {
         ChatHistory chatHistory = chatHistoryService.createChatHistory("To Delete", chatOptions);
@@ -0,0 +1,156 @@
+/*
+ * Copyright © 2025 Jemin Huh (hjm1980@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jm.kr.spring.ai.playground.service.embedding;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.embedding.Embedding;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.embedding.EmbeddingOptions;
+import org.springframework.ai.embedding.EmbeddingRequest;
+import org.springframework.ai.embedding.EmbeddingResponse;
+import org.springframework.ai.ollama.api.OllamaEmbeddingOptions;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CachingEmbeddingModelTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testMemoryCache() {
+        CountingEmbeddingModel delegate = new CountingEmbeddingModel();
+        CachingEmbeddingModel cachingEmbeddingModel = new CachingEmbeddingModel(delegate,
+                () -> EmbeddingOptions.builder().model("test-model").build(), 2, null);
+
+        List<float[]> embeddings = cachingEmbeddingModel.embed(List.of("apple", "pear", "apple"));
+        assertEquals(List.of(List.of("apple", "pear")), delegate.requests);
+        assertArrayEquals(embeddings.get(0), embeddings.get(2));
+        assertArrayEquals(delegate.embed("pear"), embeddings.get(1));
+
+        assertArrayEquals(embeddings.get(0), cachingEmbeddingModel.embed("apple"));
+        assertEquals(1, delegate.requests.size());
+        cachingEmbeddingModel.embed(List.of("plum", "fig"));
+        cachingEmbeddingModel.embed("apple");
+        assertEquals(List.of("apple"), delegate.requests.getLast());
+
+        CachingEmbeddingModel.Stats stats = cachingEmbeddingModel.getStats();
+        assertEquals(1, stats.memoryHits());
+        assertEquals(6, stats.misses());
+        assertEquals(2, stats.memoryEntries());
+        assertEquals(1 / 7.0, stats.hitRate(), 1e-9);
+    }
+
+    @Test
+    void testDiskCache() {
+        CountingEmbeddingModel delegate = new CountingEmbeddingModel();
+        new CachingEmbeddingModel(delegate, null, 10, this.tempDir).embed(List.of("apple", "pear"));
+
+        CachingEmbeddingModel reloaded = new CachingEmbeddingModel(delegate, null, 10, this.tempDir);
+        assertArrayEquals(delegate.embed("apple"),
+                reloaded.call(new EmbeddingRequest(List.of("apple"), null)).getResult().getOutput());
+        assertEquals(1, reloaded.getStats().diskHits());
+        assertEquals(1, delegate.requests.size());
+
+        reloaded.call(new EmbeddingRequest(List.of("apple"), EmbeddingOptions.builder().model("other").build()));
+        assertEquals(List.of("apple"), delegate.requests.getLast());
+        assertEquals(1, reloaded.getStats().misses());
+    }
+
+    @Test
+    void testOptionsNamespace() {
+        CountingEmbeddingModel delegate = new CountingEmbeddingModel();
+        CachingEmbeddingModel cachingEmbeddingModel = new CachingEmbeddingModel(delegate,
+                () -> OllamaEmbeddingOptions.builder().model("test-model").truncate(true).build(), 10, null);
+
+        cachingEmbeddingModel.call(new EmbeddingRequest(List.of("apple"), null));
+        cachingEmbeddingModel.call(new EmbeddingRequest(List.of("apple"),
+                EmbeddingOptions.builder().model("test-model").build()));
+        cachingEmbeddingModel.call(new EmbeddingRequest(List.of("apple"),
+                OllamaEmbeddingOptions.builder().model("test-model").truncate(true).build()));
+        assertEquals(1, delegate.requests.size());
+
+        cachingEmbeddingModel.call(new EmbeddingRequest(List.of("apple"),
+                OllamaEmbeddingOptions.builder().truncate(false).build()));
+        assertEquals(2, delegate.requests.size());
+        cachingEmbeddingModel.call(new EmbeddingRequest(List.of("apple"),
+                OllamaEmbeddingOptions.builder().numBatch(512).build()));
+        assertEquals(3, delegate.requests.size());
+        assertEquals(2, cachingEmbeddingModel.getStats().memoryHits());
+    }
+
+    @Test
+    void testDiskCacheEviction() throws IOException {
+        CountingEmbeddingModel delegate = new CountingEmbeddingModel();
+        CachingEmbeddingModel cachingEmbeddingModel = new CachingEmbeddingModel(delegate, null, 1, this.tempDir, 10);
+        for (int i = 0; i < 25; i++)
+            cachingEmbeddingModel.embed("text-" + i);
+
+        try (Stream<Path> paths = Files.walk(this.tempDir)) {
+            long cacheFiles = paths.filter(Files::isRegularFile).count();
+            assertTrue(cacheFiles <= 10, "cacheFiles=" + cacheFiles);
+        }
+        assertEquals(25, cachingEmbeddingModel.getStats().misses());
+    }
+
+    @Test
+    void testReturnsCopies() {
+        CountingEmbeddingModel delegate = new CountingEmbeddingModel();
+        CachingEmbeddingModel cachingEmbeddingModel = new CachingEmbeddingModel(delegate, null, 10, null);
+
+        float[] first = cachingEmbeddingModel.embed("apple");
+        Arrays.fill(first, 0);
+        float[] second = cachingEmbeddingModel.embed("apple");
+        assertArrayEquals(delegate.embed("apple"), second);
+        second[0] = 42;
+        assertArrayEquals(delegate.embed("apple"), cachingEmbeddingModel.embed("apple"));
+    }
+
+    private static class CountingEmbeddingModel implements EmbeddingModel {
+        private final List<List<String>> requests = new ArrayList<>();
+
+        @Override
+        public EmbeddingResponse call(EmbeddingRequest request) {
+            this.requests.add(request.getInstructions());
+            List<Embedding> embeddings = new ArrayList<>();
+            for (int i = 0; i < request.getInstructions().size(); i++)
+                embeddings.add(new Embedding(embed(request.getInstructions().get(i)), i));
+            return new EmbeddingResponse(embeddings);
+        }
+
+        @Override
+        public float[] embed(String text) {
+            return new float[]{text.length(), text.hashCode(), text.charAt(0)};
+        }
+
+        @Override
+        public float[] embed(Document document) {
+            return embed(document.getText());
+        }
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright © 2025 Jemin Huh (hjm1980@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jm.kr.spring.ai.playground.service.vectorstore;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.transformer.splitter.TokenTextSplitter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StreamingTokenTextChunkerTest {
+
+    private static final VectorStoreDocumentService.TokenTextSplitInfo TOKEN_TEXT_SPLIT_INFO =
+            new VectorStoreDocumentService.TokenTextSplitInfo(100, 50, 5, 10000, true);
+
+    @Test
+    void testSmallTextMatchesTokenTextSplitter() {
+        String text = String.join(" ", IntStream.range(0, 300).mapToObj(i -> "Sentence number " + i + ".").toList());
+        List<String> chunks = new ArrayList<>();
+        StreamingTokenTextChunker chunker = new StreamingTokenTextChunker(TOKEN_TEXT_SPLIT_INFO, chunks::add);
+        chunker.append(text);
+        chunker.finish();
+
+        List<String> expected = new TokenTextSplitter(100, 50, 5, 10000, true).apply(List.of(new Document(text)))
+                .stream().map(Document::getText).toList();
+        assertEquals(expected, chunks);
+        assertEquals(expected.size(), chunker.getNumChunks());
+    }
+
+    @Test
+    void testLargeTextKeepsOrderWithBoundedBuffer() {
+        List<String> chunks = new ArrayList<>();
+        StreamingTokenTextChunker chunker = new StreamingTokenTextChunker(TOKEN_TEXT_SPLIT_INFO, chunks::add);
+        StringBuilder appended = new StringBuilder();
+        for (int i = 0; i < 40000; i++) {
+            String line = "line " + i + " processed.\n";
+            appended.append(line);
+            chunker.append(line);
+        }
+        chunker.finish();
+
+        assertTrue(chunker.getMaxBufferedChars() < 128 * 1024);
+        assertTrue(chunks.size() > 100);
+        assertTrue(chunks.getFirst().startsWith("line 0 processed."));
+        assertTrue(chunks.getLast().endsWith("line 39999 processed."));
+        int position = 0;
+        for (String chunk : chunks) {
+            int index = appended.indexOf(chunk, position);
+            assertTrue(index >= position, chunk);
+            position = index + chunk.length();
+        }
+    }
+
+    @Test
+    void testMaxNumChunks() {
+        List<String> chunks = new ArrayList<>();
+        StreamingTokenTextChunker chunker = new StreamingTokenTextChunker(
+                new VectorStoreDocumentService.TokenTextSplitInfo(100, 50, 5, 3, true), chunks::add);
+        IntStream.range(0, 40000).forEach(i -> chunker.append("word" + i + " "));
+        chunker.finish();
+
+        assertEquals(3, chunks.size());
+        assertTrue(chunker.isFull());
+    }
+}
@@ -0,0 +1,338 @@
+/*
+ * Copyright © 2025 Jemin Huh (hjm1980@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jm.kr.spring.ai.playground.service.vectorstore;
+
+import jm.kr.spring.ai.playground.service.vectorstore.local.HnswVectorStore;
+import jm.kr.spring.ai.playground.service.vectorstore.local.QuantizationMode;
+import jm.kr.spring.ai.playground.service.vectorstore.local.ShardedVectorStore;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.embedding.AbstractEmbeddingModel;
+import org.springframework.ai.embedding.Embedding;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.embedding.EmbeddingRequest;
+import org.springframework.ai.embedding.EmbeddingResponse;
+import org.springframework.ai.vectorstore.SearchRequest;
+import org.springframework.ai.vectorstore.SimpleVectorStore;
+import org.springframework.ai.vectorstore.VectorStore;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.management.BufferPoolMXBean;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Random;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+import java.util.function.IntPredicate;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static jm.kr.spring.ai.playground.service.PersistenceServiceInterface.OBJECT_MAPPER;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Runs offline against a deterministic hash embedding model and only with the benchmark profile (mvn test
+// -Pbenchmark). Larger corpora can be selected with -Dbenchmark.corpus-sizes=10000,100000,1000000 and the JSON
+// report location with -Dbenchmark.report=<file>.
+@Tag("benchmark")
+class VectorStoreBenchmarkTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(VectorStoreBenchmarkTest.class);
+
+    private static final int DIMENSIONS = 64;
+    private static final int LATENT_DIMENSIONS = 16;
+    private static final int VOCABULARY_SIZE = 2_000;
+    private static final int WORDS_PER_CHUNK = 12;
+    private static final int DOC_INFO_COUNT = 10;
+    private static final int QUERY_COUNT = 100;
+    private static final int WARMUP_QUERY_COUNT = 10;
+    private static final int TOP_K = 10;
+    private static final int INGEST_BATCH_SIZE = 1_000;
+    private static final int SHARD_COUNT = 4;
+    private static final String CORPUS_SIZES_PROPERTY = "benchmark.corpus-sizes";
+    private static final String REPORT_PROPERTY = "benchmark.report";
+    private static final String DEFAULT_REPORT = "target/benchmark/vector-store-benchmark.json";
+
+    @TempDir
+    static Path tempDir;
+
+    record FilterConfig(String name, String filterExpression, IntPredicate chunkPredicate) {}
+
+    record BenchmarkResult(String vectorStore, int corpusSize, String filter, double ingestDocumentsPerSecond,
+                           long heapBytes, long directBytes, long mappedBytes, double recall, double p50Micros,
+                           double p99Micros) {}
+
+    record MemoryUsage(long heapBytes, long directBytes, long mappedBytes) {
+        MemoryUsage minus(MemoryUsage other) {
+            return new MemoryUsage(Math.max(0, this.heapBytes - other.heapBytes),
+                    Math.max(0, this.directBytes - other.directBytes),
+                    Math.max(0, this.mappedBytes - other.mappedBytes));
+        }
+    }
+
+    record BenchmarkReport(String embeddingModel, int dimensions, int topK, int queryCount,
+                           List<BenchmarkResult> results) {}
+
+    private static final List<FilterConfig> FILTER_CONFIGS = List.of(
+            new FilterConfig("none", null, chunk -> true),
+            new FilterConfig("docInfoId==", "docInfoId == 'doc-3'", chunk -> chunk % DOC_INFO_COUNT == 3),
+            new FilterConfig("docInfoId in", "docInfoId in ['doc-0', 'doc-1', 'doc-2', 'doc-3', 'doc-4']",
+                    chunk -> chunk % DOC_INFO_COUNT < 5));
+
+    private static final Map<String, Function<EmbeddingModel, VectorStore>> VECTOR_STORE_FACTORIES = Map.of(
+            "simple", embeddingModel -> SimpleVectorStore.builder(embeddingModel).build(),
+            "hnsw", embeddingModel -> hnswVectorStore(embeddingModel, QuantizationMode.NONE),
+            "hnsw-int8", embeddingModel -> hnswVectorStore(embeddingModel, QuantizationMode.INT8),
+            "hnsw-binary", embeddingModel -> hnswVectorStore(embeddingModel, QuantizationMode.BINARY),
+            "sharded", embeddingModel -> ShardedVectorStore.builder(embeddingModel).shardCount(SHARD_COUNT)
+                    .shardFactory(shard -> hnswVectorStore(embeddingModel, QuantizationMode.NONE)).build());
+
+    @Test
+    void testRecallAndLatency() throws IOException {
+        HashEmbeddingModel embeddingModel = new HashEmbeddingModel();
+        List<BenchmarkResult> benchmarkResults = new ArrayList<>();
+        for (int corpusSize : getCorpusSizes()) {
+            List<Document> documents = buildCorpus(corpusSize);
+            float[][] vectors = documents.stream().map(Document::getText).map(embeddingModel::embed)
+                    .toArray(float[][]::new);
+            List<String> queries = buildQueries();
+            Map<String, List<Set<String>>> filterExactResults = FILTER_CONFIGS.stream().collect(
+                    Collectors.toMap(FilterConfig::name, filterConfig -> queries.stream()
+                            .map(query -> exactSearch(embeddingModel.embed(query), vectors, filterConfig))
+                            .toList()));
+            for (String vectorStoreName : VECTOR_STORE_FACTORIES.keySet().stream().sorted().toList())
+                benchmarkResults.addAll(runBenchmark(vectorStoreName, embeddingModel, documents, queries,
+                        filterExactResults));
+        }
+
+        logger.info("vectorStore,corpusSize,filter,ingestDocumentsPerSecond,heapBytes,directBytes,mappedBytes," +
+                "recall@{},p50Micros,p99Micros", TOP_K);
+        benchmarkResults.forEach(result -> logger.info(String.format("%s,%d,%s,%.0f,%d,%d,%d,%.4f,%.1f,%.1f",
+                result.vectorStore(), result.corpusSize(), result.filter(), result.ingestDocumentsPerSecond(),
+                result.heapBytes(), result.directBytes(), result.mappedBytes(), result.recall(), result.p50Micros(),
+                result.p99Micros())));
+        File reportFile = new File(System.getProperty(REPORT_PROPERTY, DEFAULT_REPORT));
+        Objects.requireNonNull(reportFile.getAbsoluteFile().getParentFile()).mkdirs();
+        OBJECT_MAPPER.writerWithDefaultPrettyPrinter().writeValue(reportFile,
+                new BenchmarkReport(HashEmbeddingModel.class.getSimpleName(), DIMENSIONS, TOP_K, QUERY_COUNT,
+                        benchmarkResults));
+
+        for (BenchmarkResult result : benchmarkResults) {
+            double minRecall = switch (result.vectorStore()) {
+                case "simple" -> 0.99;
+                case "hnsw-binary" -> 0.8;
+                default -> 0.9;
+            };
+            assertTrue(result.recall() >= minRecall, result.toString());
+        }
+    }
+
+    private static List<BenchmarkResult> runBenchmark(String vectorStoreName, EmbeddingModel embeddingModel,
+            List<Document> documents, List<String> queries, Map<String, List<Set<String>>> filterExactResults) {
+        MemoryUsage memoryUsageBefore = usedMemory();
+        VectorStore vectorStore = VECTOR_STORE_FACTORIES.get(vectorStoreName).apply(embeddingModel);
+        VectorStoreService vectorStoreService =
+                new VectorStoreService(embeddingModel, vectorStore, null, null, null);
+        long start = System.nanoTime();
+        for (int i = 0; i < documents.size(); i += INGEST_BATCH_SIZE)
+            vectorStoreService.add(documents.subList(i, Math.min(i + INGEST_BATCH_SIZE, documents.size())));
+        double ingestDocumentsPerSecond = documents.size() / ((System.nanoTime() - start) / 1e9);
+        MemoryUsage memoryUsage = usedMemory().minus(memoryUsageBefore);
+
+        List<BenchmarkResult> benchmarkResults = FILTER_CONFIGS.stream().map(filterConfig -> {
+            List<SearchRequest> searchRequests = queries.stream().map(query -> buildSearchRequest(query,
+                    filterConfig)).toList();
+            searchRequests.subList(0, WARMUP_QUERY_COUNT).forEach(vectorStoreService::search);
+            List<Set<String>> exactResults = filterExactResults.get(filterConfig.name());
+            long[] latencyNanos = new long[searchRequests.size()];
+            int hits = 0;
+            for (int i = 0; i < searchRequests.size(); i++) {
+                long queryStart = System.nanoTime();
+                List<Document> results = vectorStoreService.search(searchRequests.get(i));
+                latencyNanos[i] = System.nanoTime() - queryStart;
+                Set<String> exactResult = exactResults.get(i);
+                hits += (int) results.stream().map(Document::getId).filter(exactResult::contains).count();
+            }
+            Arrays.sort(latencyNanos);
+            int expectedHits = exactResults.stream().mapToInt(Set::size).sum();
+            return new BenchmarkResult(vectorStoreName, documents.size(), filterConfig.name(),
+                    ingestDocumentsPerSecond, memoryUsage.heapBytes(), memoryUsage.directBytes(),
+                    memoryUsage.mappedBytes(), expectedHits == 0 ? 1 : (double) hits / expectedHits,
+                    percentile(latencyNanos, 0.5) / 1000.0, percentile(latencyNanos, 0.99) / 1000.0);
+        }).toList();
+        if (vectorStore instanceof AutoCloseable autoCloseable) {
+            try {
+                autoCloseable.close();
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        }
+        return benchmarkResults;
+    }
+
+    private static SearchRequest buildSearchRequest(String query, FilterConfig filterConfig) {
+        SearchRequest.Builder searchRequestBuilder = SearchRequest.builder().query(query).topK(TOP_K)
+                .similarityThresholdAll();
+        if (Objects.nonNull(filterConfig.filterExpression()))
+            searchRequestBuilder.filterExpression(filterConfig.filterExpression());
+        return searchRequestBuilder.build();
+    }
+
+    private static Set<String> exactSearch(float[] query, float[][] vectors, FilterConfig filterConfig) {
+        return IntStream.range(0, vectors.length).filter(filterConfig.chunkPredicate()).boxed()
+                .sorted(Comparator.comparingDouble((Integer chunk) -> dot(query, vectors[chunk])).reversed())
+                .limit(TOP_K).map(VectorStoreBenchmarkTest::chunkId).collect(Collectors.toSet());
+    }
+
+    private static List<Integer> getCorpusSizes() {
+        return Arrays.stream(System.getProperty(CORPUS_SIZES_PROPERTY, "10000").split(",")).map(String::strip)
+                .map(Integer::valueOf).toList();
+    }
+
+    private static List<Document> buildCorpus(int corpusSize) {
+        Random random = new Random(42);
+        return IntStream.range(0, corpusSize).mapToObj(chunk -> new Document(chunkId(chunk), randomText(random),
+                Map.of(VectorStoreService.DOC_INFO_ID, "doc-" + chunk % DOC_INFO_COUNT))).toList();
+    }
+
+    private static List<String> buildQueries() {
+        Random random = new Random(7);
+        return IntStream.range(0, QUERY_COUNT).mapToObj(i -> randomText(random)).toList();
+    }
+
+    // Word frequencies are skewed towards the start of the vocabulary so chunks share topics like real text.
+    private static String randomText(Random random) {
+        return IntStream.range(0, WORDS_PER_CHUNK)
+                .mapToObj(i -> "w" + (int) (VOCABULARY_SIZE * Math.pow(random.nextDouble(), 2)))
+                .collect(Collectors.joining(" "));
+    }
+
+    private static String chunkId(int chunk) {
+        return "chunk-" + chunk;
+    }
+
+    private static long percentile(long[] sortedValues, double percentile) {
+        return sortedValues[(int) Math.round(percentile * (sortedValues.length - 1))];
+    }
+
+    // Off-heap stores keep vectors and documents in direct or memory-mapped buffers, which the heap does not show.
+    // Buffers of previously closed stores are only released by their cleaners after a collection.
+    private static MemoryUsage usedMemory() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            LockSupport.parkNanos(100_000_000);
+        }
+        Map<String, Long> bufferPoolBytes = ManagementFactory.getPlatformMXBeans(BufferPoolMXBean.class).stream()
+                .collect(Collectors.toMap(BufferPoolMXBean::getName, BufferPoolMXBean::getMemoryUsed, Long::sum));
+        return new MemoryUsage(runtime.totalMemory() - runtime.freeMemory(), bufferPoolBytes.getOrDefault("direct", 0L),
+                bufferPoolBytes.getOrDefault("mapped", 0L));
+    }
+
+    private static HnswVectorStore hnswVectorStore(EmbeddingModel embeddingModel,
+            QuantizationMode quantizationMode) {
+        Path storageDirectory;
+        try {
+            storageDirectory = QuantizationMode.NONE.equals(quantizationMode) ? null :
+                    Files.createTempDirectory(tempDir, quantizationMode.name());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return HnswVectorStore.builder(embeddingModel).quantization(quantizationMode).storageDirectory(storageDirectory)
+                .indexedMetadataKeys(Set.of(VectorStoreService.DOC_INFO_ID)).build();
+    }
+
+    private static float dot(float[] a, float[] b) {
+        float sum = 0;
+        for (int i = 0; i < a.length; i++)
+            sum += a[i] * b[i];
+        return sum;
+    }
+
+    // Each word hashes to a fixed mix of a few latent directions plus noise, so like real embeddings the vectors
+    // have a low intrinsic dimension; a text embeds to the normalized sum of its words.
+    private static class HashEmbeddingModel extends AbstractEmbeddingModel {
+        private static final float[][] LATENT_BASES = IntStream.range(0, LATENT_DIMENSIONS)
+                .mapToObj(i -> gaussianVector(new SplittableRandom(i), 1f)).toArray(float[][]::new);
+
+        private final Map<String, float[]> wordVectors = new ConcurrentHashMap<>();
+
+        @Override
+        public EmbeddingResponse call(EmbeddingRequest request) {
+            List<Embedding> embeddings = new ArrayList<>();
+            for (int i = 0; i < request.getInstructions().size(); i++)
+                embeddings.add(new Embedding(embed(request.getInstructions().get(i)), i));
+            return new EmbeddingResponse(embeddings);
+        }
+
+        @Override
+        public float[] embed(String text) {
+            float[] vector = new float[DIMENSIONS];
+            for (String word : text.split(" ")) {
+                float[] wordVector = this.wordVectors.computeIfAbsent(word, HashEmbeddingModel::wordVector);
+                for (int i = 0; i < DIMENSIONS; i++)
+                    vector[i] += wordVector[i];
+            }
+            double norm = Math.sqrt(dot(vector, vector));
+            for (int i = 0; i < DIMENSIONS && norm > 0; i++)
+                vector[i] /= (float) norm;
+            return vector;
+        }
+
+        @Override
+        public float[] embed(Document document) {
+            return embed(document.getText());
+        }
+
+        @Override
+        public int dimensions() {
+            return DIMENSIONS;
+        }
+
+        private static float[] wordVector(String word) {
+            SplittableRandom random = new SplittableRandom(word.hashCode());
+            float[] vector = gaussianVector(random, 0.05f);
+            for (float[] latentBasis : LATENT_BASES) {
+                float weight = (float) random.nextGaussian();
+                for (int i = 0; i < DIMENSIONS; i++)
+                    vector[i] += weight * latentBasis[i];
+            }
+            return vector;
+        }
+
+        private static float[] gaussianVector(SplittableRandom random, float spread) {
+            float[] vector = new float[DIMENSIONS];
+            for (int i = 0; i < DIMENSIONS; i++)
+                vector[i] = (float) random.nextGaussian() * spread;
+            return vector;
+        }
+    }
+}
@@ -19,6 +19,7 @@ import jm.kr.spring.ai.playground.webui.vectorstore.VectorStoreView;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
 import org.springframework.ai.document.Document;
+import org.springframework.ai.transformer.splitter.TokenTextSplitter;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.core.io.FileSystemResource;
@@ -32,8 +33,13 @@ import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
@@ -127,6 +133,104 @@ class VectorStoreDocumentServiceTest {
         }
     }
 
+    @Test
+    void testParallelExtraction() throws IOException {
+        List<String> fileNames = List.of("parallel-1.txt", "parallel-2.txt", "parallel-3.txt");
+        for (String fileName : fileNames)
+            Files.writeString(service.buildUploadFilePath(fileName), IntStream.range(0, 3000)
+                    .mapToObj(i -> "Paragraph " + i + " of " + fileName + " explains one more step of the manual.")
+                    .collect(Collectors.joining("\n\n")));
+
+        try {
+            Map<String, List<Document>> documentItems = service.extractDocumentItems(fileNames,
+                    service.newTokenTextSplitter(new VectorStoreDocumentService.TokenTextSplitInfo(200, 100, 5,
+                            10000, true)));
+            for (String fileName : fileNames) {
+                List<Document> chunks = documentItems.get(fileName);
+                assertTrue(chunks.size() > 100);
+                List<Integer> paragraphs = new ArrayList<>();
+                for (int i = 0; i < chunks.size(); i++) {
+                    Map<String, Object> metadata = chunks.get(i).getMetadata();
+                    assertEquals(i, metadata.get("chunk_index"));
+                    assertEquals(chunks.size(), metadata.get("total_chunks"));
+                    assertEquals(fileName, metadata.get("source"));
+                    Matcher matcher = Pattern.compile("Paragraph (\\d+) of").matcher(chunks.get(i).getText());
+                    while (matcher.find())
+                        paragraphs.add(Integer.parseInt(matcher.group(1)));
+                }
+                assertEquals(IntStream.range(0, 3000).boxed().toList(), paragraphs.stream().distinct().toList());
+            }
+        } finally {
+            for (String fileName : fileNames)
+                service.removeUploadedDocumentFile(fileName);
+        }
+    }
+
+    @Test
+    void testDiffDocumentItems() {
+        String docInfoId = service.newDocInfoId();
+        List<Document> storedDocuments = service.newDocumentInfo(docInfoId, "diff.txt",
+                List.of(new Document("alpha"), new Document("beta"), new Document("gamma"), new Document("beta")))
+                .documentListSupplier().get();
+        assertEquals(VectorStoreDocumentService.buildChunkHash("alpha"),
+                storedDocuments.getFirst().getMetadata().get(VectorStoreService.CHUNK_HASH));
+
+        VectorStoreDocumentService.DocumentChangeSet documentChangeSet = service.diffDocumentItems(docInfoId,
+                storedDocuments, List.of(new Document("alpha"), new Document("beta"), new Document("delta")));
+
+        assertEquals(List.of("0-" + docInfoId, "1-" + docInfoId),
+                documentChangeSet.unchangedDocuments().stream().map(Document::getId).toList());
+        assertEquals(List.of("delta"), documentChangeSet.addedDocuments().stream().map(Document::getText).toList());
+        Document addedDocument = documentChangeSet.addedDocuments().getFirst();
+        assertTrue(addedDocument.getId().startsWith("2-") && addedDocument.getId().endsWith("-" + docInfoId));
+        assertFalse(storedDocuments.stream().map(Document::getId).toList().contains(addedDocument.getId()));
+        assertEquals(docInfoId, addedDocument.getMetadata().get(VectorStoreService.DOC_INFO_ID));
+        assertEquals(List.of("2-" + docInfoId, "3-" + docInfoId), documentChangeSet.deletedDocumentIds());
+        assertTrue(service.diffDocumentItems(docInfoId, storedDocuments, storedDocuments).isEmpty());
+
+        documentChangeSet = service.diffDocumentItems(docInfoId, storedDocuments,
+                List.of(new Document("omega"), new Document("alpha"), new Document("beta")));
+        assertEquals(List.of(), documentChangeSet.unchangedDocuments());
+        assertEquals(List.of(0, 1, 2), documentChangeSet.addedDocuments().stream()
+                .map(document -> document.getMetadata().get(VectorStoreService.CHUNK_INDEX)).toList());
+        assertEquals(4, documentChangeSet.deletedDocumentIds().size());
+    }
+
+    @Test
+    void testSplitLargeDocument() {
+        String text = IntStream.range(0, 3000)
+                .mapToObj(i -> "Paragraph " + i + " explains one more step of the manual.")
+                .collect(Collectors.joining("\n\n"));
+        assertTrue(VectorStoreDocumentService.buildSectionTexts(text,
+                VectorStoreDocumentService.SPLIT_SECTION_LENGTH).size() > 1);
+
+        List<Document> chunks = service.split(service.newTokenTextSplitter(
+                new VectorStoreDocumentService.TokenTextSplitInfo(200, 100, 5, 10000, true)),
+                List.of(new Document(text)));
+        assertEquals(new TokenTextSplitter(200, 100, 5, 10000, true).split(new Document(text)).stream()
+                .map(Document::getText).toList(), chunks.stream().map(Document::getText).toList());
+
+        List<Document> cappedChunks = service.split(service.newTokenTextSplitter(
+                new VectorStoreDocumentService.TokenTextSplitInfo(200, 100, 5, 50, true)),
+                List.of(new Document(text)));
+        assertEquals(50, cappedChunks.size());
+        assertEquals(chunks.subList(0, 50).stream().map(Document::getText).toList(),
+                cappedChunks.stream().map(Document::getText).toList());
+        assertEquals(50, cappedChunks.getLast().getMetadata().get("total_chunks"));
+    }
+
+    @Test
+    void testBuildSectionTexts() {
+        String text = IntStream.range(0, 1000).mapToObj(i -> "line " + i).collect(Collectors.joining("\n"));
+        List<String> sectionTexts = VectorStoreDocumentService.buildSectionTexts(text, 1000);
+        assertTrue(sectionTexts.size() > 5);
+        assertEquals(text, String.join("", sectionTexts));
+        assertTrue(sectionTexts.stream().allMatch(sectionText -> sectionText.length() < 2000));
+        assertTrue(sectionTexts.subList(0, sectionTexts.size() - 1).stream()
+                .allMatch(sectionText -> sectionText.endsWith("\n")));
+        assertEquals(List.of("short text"), VectorStoreDocumentService.buildSectionTexts("short text", 1000));
+    }
+
     @Test
     void testDocumentEvents() {
         PropertyChangeListener listener = mock(PropertyChangeListener.class);
@@ -155,6 +259,59 @@ class VectorStoreDocumentServiceTest {
                 .anyMatch(e -> e.getPropertyName().equals(VectorStoreView.DOCUMENTS_DELETE_EVENT)));
     }
 
+    @Test
+    void testFindNearDuplicates() {
+        String storedText = IntStream.range(0, 100).mapToObj(i -> "stored" + i).collect(Collectors.joining(" "));
+        String uploadedText = IntStream.range(0, 100).mapToObj(i -> "uploaded" + i).collect(Collectors.joining(" "));
+        VectorStoreDocumentInfo docInfo = service.putNewDocument("near-duplicate-stored.txt",
+                List.of(new Document(storedText)));
+        List<Document> uploadedDocuments = List.of(new Document(storedText.replace("stored50", "edited")),
+                new Document(uploadedText), new Document(uploadedText.replace("uploaded50", "edited")));
+
+        List<VectorStoreDocumentService.NearDuplicate> nearDuplicates =
+                service.findNearDuplicates(Map.of("near-duplicate-upload.txt", uploadedDocuments));
+        assertEquals(2, nearDuplicates.size());
+        assertEquals(uploadedDocuments.get(0), nearDuplicates.get(0).document());
+        assertEquals("0-" + docInfo.docInfoId(), nearDuplicates.get(0).storedDocumentId());
+        assertFalse(uploadedDocuments.get(0).getMetadata().containsKey(VectorStoreDocumentService.NEAR_DUPLICATE_OF));
+        assertTrue(nearDuplicates.get(0).similarity() >= NearDuplicateIndex.DEFAULT_SIMILARITY_THRESHOLD);
+        assertEquals(uploadedDocuments.get(2), nearDuplicates.get(1).document());
+        assertEquals("near-duplicate-upload.txt #1", nearDuplicates.get(1).duplicateOf());
+        nearDuplicates.forEach(VectorStoreDocumentService.NearDuplicate::linkStoredDocument);
+        assertEquals("0-" + docInfo.docInfoId(),
+                uploadedDocuments.get(0).getMetadata().get(VectorStoreDocumentService.NEAR_DUPLICATE_OF));
+        assertFalse(uploadedDocuments.get(2).getMetadata().containsKey(VectorStoreDocumentService.NEAR_DUPLICATE_OF));
+        assertEquals(List.of(uploadedDocuments.get(1)),
+                service.skipNearDuplicates("near-duplicate-upload.txt", uploadedDocuments));
+        assertTrue(service.findNearDuplicates(Map.of("near-duplicate-stored.txt", uploadedDocuments.subList(0, 1)))
+                .isEmpty());
+
+        service.deleteDocumentInfo(docInfo);
+        assertTrue(service.findNearDuplicates(Map.of("near-duplicate-upload.txt", uploadedDocuments.subList(0, 2)))
+                .isEmpty());
+    }
+
+    @Test
+    void testNearDuplicateIndexIsBounded() {
+        NearDuplicateIndex nearDuplicateIndex =
+                new NearDuplicateIndex(NearDuplicateIndex.DEFAULT_SIMILARITY_THRESHOLD, 2);
+        List<long[]> signatures = IntStream.range(0, 3).mapToObj(i -> NearDuplicateIndex.signature(
+                IntStream.range(0, 50).mapToObj(j -> "chunk" + i + "word" + j).collect(Collectors.joining(" "))))
+                .toList();
+        IntStream.range(0, 3).forEach(i -> nearDuplicateIndex.add("doc-" + i, String.valueOf(i), signatures.get(i)));
+        assertTrue(nearDuplicateIndex.isFull());
+        assertEquals(2, nearDuplicateIndex.size());
+        assertTrue(nearDuplicateIndex.contains("doc-2"));
+        assertTrue(nearDuplicateIndex.findDuplicate(signatures.get(2), docInfoId -> true).isEmpty());
+        assertEquals(1.0, nearDuplicateIndex.findDuplicate(signatures.get(1), docInfoId -> true).orElseThrow()
+                .similarity());
+
+        nearDuplicateIndex.remove("doc-0");
+        assertFalse(nearDuplicateIndex.isFull());
+        nearDuplicateIndex.add("doc-2", "2", signatures.get(2));
+        assertEquals("2", nearDuplicateIndex.findDuplicate(signatures.get(2), docInfoId -> true).orElseThrow()
+                .documentId());
+    }
 
     @Test
     void testFileSizeLimit() {
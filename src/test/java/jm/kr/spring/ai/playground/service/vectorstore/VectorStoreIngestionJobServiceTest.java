@@ -0,0 +1,263 @@
+/*
+ * Copyright © 2025 Jemin Huh (hjm1980@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jm.kr.spring.ai.playground.service.vectorstore;
+
+import jm.kr.spring.ai.playground.SpringAiPlaygroundOptions;
+import jm.kr.spring.ai.playground.service.vectorstore.local.HnswVectorStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.embedding.AbstractEmbeddingModel;
+import org.springframework.ai.embedding.Embedding;
+import org.springframework.ai.embedding.EmbeddingRequest;
+import org.springframework.ai.embedding.EmbeddingResponse;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class VectorStoreIngestionJobServiceTest {
+
+    private static final SpringAiPlaygroundOptions PLAYGROUND_OPTIONS = new SpringAiPlaygroundOptions(null, true,
+            null, null, null, new SpringAiPlaygroundOptions.VectorStore(null, null,
+            new SpringAiPlaygroundOptions.Ingestion(4, 2, 1, Duration.ofMillis(1), Duration.ofMillis(5), 1,
+                    DataSize.ofMegabytes(1))), null, null);
+    private static final VectorStoreDocumentService.TokenTextSplitInfo TOKEN_TEXT_SPLIT_INFO =
+            new VectorStoreDocumentService.TokenTextSplitInfo(20, 10, 5, 10000, true);
+
+    @TempDir
+    Path tempDir;
+
+    private GatedEmbeddingModel embeddingModel;
+    private HnswVectorStore hnswVectorStore;
+    private VectorStoreDocumentService vectorStoreDocumentService;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        this.embeddingModel = new GatedEmbeddingModel();
+        this.hnswVectorStore = HnswVectorStore.builder(this.embeddingModel).build();
+        this.vectorStoreDocumentService = new VectorStoreDocumentService(this.tempDir,
+                DataSize.ofMegabytes(20), new DefaultResourceLoader(), null);
+    }
+
+    @Test
+    void testRunJobThroughStages() throws Exception {
+        Files.writeString(this.vectorStoreDocumentService.buildUploadFilePath("test.txt"),
+                String.join(" ", IntStream.range(0, 400).mapToObj(i -> "word" + i).toList()));
+        VectorStoreIngestionJobService jobService = newJobService();
+        JobRecorder jobRecorder = new JobRecorder();
+        jobService.addJobListener(jobRecorder::record);
+
+        VectorStoreIngestionJob job = jobService.submit("test.txt", TOKEN_TEXT_SPLIT_INFO);
+        jobRecorder.await();
+
+        assertEquals(VectorStoreIngestionJob.Status.COMPLETED, job.status());
+        assertEquals(List.of(VectorStoreIngestionJob.Stage.PARSE, VectorStoreIngestionJob.Stage.SPLIT,
+                VectorStoreIngestionJob.Stage.EMBED, VectorStoreIngestionJob.Stage.INDEX),
+                jobRecorder.stages.stream().distinct().toList());
+        assertEquals(job.documentList().size(), this.hnswVectorStore.size());
+        assertTrue(job.documentList().size() > 1);
+        assertTrue(this.vectorStoreDocumentService.getDocumentList().stream()
+                .anyMatch(documentInfo -> documentInfo.docInfoId().equals(job.docInfoId())));
+        assertTrue(jobService.getJobs().isEmpty());
+        assertFalse(Files.exists(this.tempDir.resolve("vectorstore").resolve("jobs").resolve(job.jobId() + ".json")));
+    }
+
+    @Test
+    void testCancel() throws Exception {
+        this.embeddingModel.gate = new CountDownLatch(1);
+        VectorStoreIngestionJobService jobService = newJobService();
+        JobRecorder jobRecorder = new JobRecorder();
+        jobService.addJobListener(jobRecorder::record);
+
+        VectorStoreIngestionJob job = jobService.submit("test.txt", TOKEN_TEXT_SPLIT_INFO, buildDocuments(20));
+        assertTrue(jobService.cancel(job.jobId()));
+        this.embeddingModel.gate.countDown();
+        jobRecorder.await();
+
+        assertEquals(VectorStoreIngestionJob.Status.CANCELLED, job.status());
+        assertEquals(0, this.hnswVectorStore.size());
+        assertTrue(this.vectorStoreDocumentService.getDocumentList().isEmpty());
+    }
+
+    @Test
+    void testResumeAfterRestart() throws Exception {
+        VectorStoreIngestionJobService previousJobService = newJobService();
+        VectorStoreIngestionJob previousJob = new VectorStoreIngestionJob("job-resume", "docInfoId-resume",
+                "test.txt", TOKEN_TEXT_SPLIT_INFO, System.currentTimeMillis(), buildDocuments(10));
+        previousJobService.save(previousJob);
+        VectorStoreDocumentInfo partialDocumentInfo = this.vectorStoreDocumentService.newDocumentInfo(
+                previousJob.docInfoId(), previousJob.documentFileName(), previousJob.documentList().subList(0, 4));
+        this.hnswVectorStore.add(partialDocumentInfo.documentListSupplier().get());
+
+        VectorStoreIngestionJobService jobService = newJobService();
+        JobRecorder jobRecorder = new JobRecorder();
+        jobService.addJobListener(jobRecorder::record);
+        jobService.onStart();
+        jobService.resumeJobs();
+        jobRecorder.await();
+
+        assertEquals(VectorStoreIngestionJob.Status.COMPLETED, jobRecorder.jobs.getLast().status());
+        assertEquals(10, this.hnswVectorStore.size());
+        assertEquals(List.of("docInfoId-resume"), this.vectorStoreDocumentService.getDocumentList().stream()
+                .map(VectorStoreDocumentInfo::docInfoId).toList());
+        assertTrue(jobService.loads().isEmpty());
+    }
+
+    @Test
+    void testUpdateChangedChunksOnly() throws Exception {
+        List<String> paragraphs = IntStream.range(0, 30)
+                .mapToObj(i -> "Paragraph " + i + " describes step " + i + " of the weekly report.").toList();
+        Path file = this.vectorStoreDocumentService.buildUploadFilePath("weekly.txt");
+        Files.writeString(file, String.join("\n", paragraphs));
+        VectorStoreIngestionJobService jobService = newJobService();
+        JobRecorder jobRecorder = new JobRecorder();
+        jobService.addJobListener(jobRecorder::record);
+        VectorStoreIngestionJob job = jobService.submit("weekly.txt", TOKEN_TEXT_SPLIT_INFO);
+        jobRecorder.await();
+        assertFalse(job.isUpdate());
+        List<Document> storedDocuments =
+                VectorStoreService.getDocuments(this.hnswVectorStore, List.of(job.docInfoId()));
+
+        List<String> changedParagraphs = new ArrayList<>(paragraphs);
+        changedParagraphs.set(paragraphs.size() - 1, "The last paragraph was rewritten for this week.");
+        Files.writeString(file, String.join("\n", changedParagraphs));
+        this.embeddingModel.embeddedTexts.clear();
+        JobRecorder updateJobRecorder = new JobRecorder();
+        jobService.addJobListener(updateJobRecorder::record);
+        VectorStoreIngestionJob updateJob = jobService.submit("weekly.txt", TOKEN_TEXT_SPLIT_INFO);
+        updateJobRecorder.await();
+
+        assertEquals(VectorStoreIngestionJob.Status.COMPLETED, updateJob.status());
+        assertTrue(updateJob.isUpdate());
+        assertEquals(job.docInfoId(), updateJob.docInfoId());
+        assertEquals(1, this.vectorStoreDocumentService.getDocumentList().size());
+        List<Document> updatedDocuments =
+                VectorStoreService.getDocuments(this.hnswVectorStore, List.of(job.docInfoId()));
+        assertEquals(updateJob.documentList().size(), updatedDocuments.size());
+        assertTrue(this.embeddingModel.embeddedTexts.size() < storedDocuments.size());
+        assertTrue(this.embeddingModel.embeddedTexts.stream().allMatch(text -> text.contains("rewritten")));
+        List<String> storedIds = storedDocuments.stream().map(Document::getId).toList();
+        assertTrue(updatedDocuments.stream().map(Document::getId).filter(storedIds::contains).count() >=
+                storedDocuments.size() - this.embeddingModel.embeddedTexts.size());
+    }
+
+    @Test
+    void testStreamLargeFile() throws Exception {
+        Path largeFile = this.vectorStoreDocumentService.buildUploadFilePath("large.log");
+        Files.writeString(largeFile, String.join("\n", IntStream.range(0, 80000)
+                .mapToObj(i -> "line " + i + " INFO request handled").toList()));
+        VectorStoreIngestionJobService jobService = newJobService();
+        assertTrue(jobService.isStreaming("large.log"));
+        JobRecorder jobRecorder = new JobRecorder();
+        jobService.addJobListener(jobRecorder::record);
+
+        VectorStoreIngestionJob job = jobService.submit("large.log",
+                new VectorStoreDocumentService.TokenTextSplitInfo(400, 100, 5, 10000, true));
+        jobRecorder.await();
+
+        assertEquals(VectorStoreIngestionJob.Status.COMPLETED, job.status());
+        assertFalse(jobRecorder.stages.contains(VectorStoreIngestionJob.Stage.PARSE));
+        assertTrue(jobRecorder.stages.containsAll(List.of(VectorStoreIngestionJob.Stage.SPLIT,
+                VectorStoreIngestionJob.Stage.EMBED, VectorStoreIngestionJob.Stage.INDEX)));
+        assertNull(job.documentList());
+        List<Document> documents = this.vectorStoreDocumentService.getDocumentList().getFirst()
+                .documentListSupplier().get();
+        assertTrue(documents.size() > 1);
+        assertEquals(documents.size(), this.hnswVectorStore.size());
+        assertTrue(documents.stream().anyMatch(document -> document.getText().startsWith("line 0 INFO")));
+    }
+
+    private VectorStoreIngestionJobService newJobService() throws IOException {
+        VectorStoreIngestionService ingestionService =
+                new VectorStoreIngestionService(this.embeddingModel, this.hnswVectorStore, PLAYGROUND_OPTIONS);
+        VectorStoreService vectorStoreService =
+                new VectorStoreService(this.embeddingModel, this.hnswVectorStore, ingestionService, null, null);
+        return new VectorStoreIngestionJobService(this.tempDir, PLAYGROUND_OPTIONS, this.vectorStoreDocumentService,
+                vectorStoreService, this.hnswVectorStore, ingestionService);
+    }
+
+    private static List<Document> buildDocuments(int size) {
+        return IntStream.range(0, size).mapToObj(i -> new Document("chunk number " + i, Map.of("source", "test.txt")))
+                .toList();
+    }
+
+    private static class JobRecorder {
+        private final List<VectorStoreIngestionJob.Stage> stages = new CopyOnWriteArrayList<>();
+        private final List<VectorStoreIngestionJob> jobs = new CopyOnWriteArrayList<>();
+        private final CountDownLatch done = new CountDownLatch(1);
+
+        private void record(VectorStoreIngestionJob job) {
+            this.jobs.add(job);
+            if (VectorStoreIngestionJob.Status.RUNNING.equals(job.status()))
+                this.stages.add(job.stage());
+            if (job.status().isDone())
+                this.done.countDown();
+        }
+
+        private void await() throws InterruptedException {
+            assertTrue(this.done.await(10, TimeUnit.SECONDS));
+        }
+    }
+
+    private static class GatedEmbeddingModel extends AbstractEmbeddingModel {
+        private volatile CountDownLatch gate = new CountDownLatch(0);
+        private final List<String> embeddedTexts = new CopyOnWriteArrayList<>();
+
+        @Override
+        public EmbeddingResponse call(EmbeddingRequest request) {
+            try {
+                this.gate.await();
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+            this.embeddedTexts.addAll(request.getInstructions());
+            List<Embedding> embeddings = new ArrayList<>();
+            for (int i = 0; i < request.getInstructions().size(); i++)
+                embeddings.add(new Embedding(embed(request.getInstructions().get(i)), i));
+            return new EmbeddingResponse(embeddings);
+        }
+
+        @Override
+        public float[] embed(String text) {
+            float[] vector = new float[16];
+            for (int i = 0; i < text.length(); i++)
+                vector[Math.floorMod(text.charAt(i) * 31 + i, vector.length)] += 1;
+            return vector;
+        }
+
+        @Override
+        public float[] embed(Document document) {
+            return embed(document.getText());
+        }
+    }
+}
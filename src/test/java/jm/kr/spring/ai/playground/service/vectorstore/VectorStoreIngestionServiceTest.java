@@ -0,0 +1,132 @@
+/*
+ * Copyright © 2025 Jemin Huh (hjm1980@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jm.kr.spring.ai.playground.service.vectorstore;
+
+import jm.kr.spring.ai.playground.SpringAiPlaygroundOptions;
+import jm.kr.spring.ai.playground.service.vectorstore.local.HnswVectorStore;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.embedding.Embedding;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.embedding.EmbeddingRequest;
+import org.springframework.ai.embedding.EmbeddingResponse;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class VectorStoreIngestionServiceTest {
+
+    private static final SpringAiPlaygroundOptions PLAYGROUND_OPTIONS = new SpringAiPlaygroundOptions(null, false,
+            null, null, null, new SpringAiPlaygroundOptions.VectorStore(null, null,
+            new SpringAiPlaygroundOptions.Ingestion(10, 3, 3, Duration.ofMillis(1), Duration.ofMillis(5), 1,
+                    DataSize.ofMegabytes(1))), null, null);
+
+    @Test
+    void testIngestInBatchesWithRetry() {
+        FlakyEmbeddingModel embeddingModel = new FlakyEmbeddingModel(2);
+        HnswVectorStore hnswVectorStore = HnswVectorStore.builder(embeddingModel).build();
+        VectorStoreIngestionService ingestionService =
+                new VectorStoreIngestionService(embeddingModel, hnswVectorStore, PLAYGROUND_OPTIONS);
+        List<VectorStoreIngestionService.Progress> progresses = new CopyOnWriteArrayList<>();
+
+        List<Document> documents = buildDocuments(95);
+        assertEquals(documents, ingestionService.ingest(documents, progresses::add).join());
+
+        assertEquals(documents.stream().map(Document::getId).toList(),
+                hnswVectorStore.findByMetadata(VectorStoreService.DOC_INFO_ID, List.of("doc"), 0, 100).stream()
+                        .map(Document::getId).toList());
+        assertEquals(10 + 2, embeddingModel.calls.get());
+        assertTrue(embeddingModel.maxConcurrentCalls.get() <= 3);
+        VectorStoreIngestionService.Progress lastProgress =
+                progresses.stream().filter(VectorStoreIngestionService.Progress::isDone).findFirst().orElseThrow();
+        assertEquals(95, lastProgress.insertedChunks());
+        assertEquals(2, progresses.stream().mapToInt(VectorStoreIngestionService.Progress::retries).max()
+                .orElseThrow());
+    }
+
+    @Test
+    void testRollbackOnFailure() {
+        FlakyEmbeddingModel embeddingModel = new FlakyEmbeddingModel(Integer.MAX_VALUE);
+        HnswVectorStore hnswVectorStore = HnswVectorStore.builder(embeddingModel).build();
+        VectorStoreIngestionService ingestionService =
+                new VectorStoreIngestionService(embeddingModel, hnswVectorStore, PLAYGROUND_OPTIONS);
+
+        assertThrows(CompletionException.class,
+                () -> ingestionService.ingest(buildDocuments(95), progress -> {}).join());
+        assertEquals(0, hnswVectorStore.size());
+    }
+
+    private static List<Document> buildDocuments(int size) {
+        return IntStream.range(0, size).mapToObj(i -> new Document("chunk-" + i, "chunk number " + i,
+                Map.of(VectorStoreService.DOC_INFO_ID, "doc"))).toList();
+    }
+
+    private static class FlakyEmbeddingModel implements EmbeddingModel {
+        private final int failures;
+        private final AtomicInteger failed = new AtomicInteger();
+        private final AtomicInteger calls = new AtomicInteger();
+        private final AtomicInteger concurrentCalls = new AtomicInteger();
+        private final AtomicInteger maxConcurrentCalls = new AtomicInteger();
+
+        private FlakyEmbeddingModel(int failures) {
+            this.failures = failures;
+        }
+
+        @Override
+        public EmbeddingResponse call(EmbeddingRequest request) {
+            this.calls.incrementAndGet();
+            this.maxConcurrentCalls.accumulateAndGet(this.concurrentCalls.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(5);
+                if (request.getInstructions().contains("chunk number 42") &&
+                        this.failed.getAndIncrement() < this.failures)
+                    throw new IllegalStateException("Embedding server unavailable");
+                List<Embedding> embeddings = new ArrayList<>();
+                for (int i = 0; i < request.getInstructions().size(); i++)
+                    embeddings.add(new Embedding(embed(request.getInstructions().get(i)), i));
+                return new EmbeddingResponse(embeddings);
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            } finally {
+                this.concurrentCalls.decrementAndGet();
+            }
+        }
+
+        @Override
+        public float[] embed(String text) {
+            float[] vector = new float[16];
+            for (int i = 0; i < text.length(); i++)
+                vector[Math.floorMod(text.charAt(i) * 31 + i, vector.length)] += 1;
+            return vector;
+        }
+
+        @Override
+        public float[] embed(Document document) {
+            return embed(document.getText());
+        }
+    }
+}
@@ -15,10 +15,14 @@
  */
 package jm.kr.spring.ai.playground.service.vectorstore;
 
+import jm.kr.spring.ai.playground.service.vectorstore.local.LexicalSearchableVectorStore;
+import jm.kr.spring.ai.playground.service.vectorstore.local.MetadataIndexedVectorStore;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.springframework.ai.document.Document;
 import org.springframework.ai.vectorstore.SearchRequest;
 import org.springframework.ai.vectorstore.VectorStore;
+import org.springframework.ai.vectorstore.filter.Filter;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
@@ -26,12 +30,17 @@ import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.IntStream;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
 
 @SpringBootTest
 class VectorStoreServiceTest {
@@ -56,6 +65,20 @@ class VectorStoreServiceTest {
         assertSame(expectedResult, result);
     }
 
+    @Test
+    public void testSearchReusesParsedFilterExpression() {
+        when(vectorStore.similaritySearch(any(SearchRequest.class))).thenReturn(List.of());
+
+        vectorStoreService.search("first prompt", "docInfoId == 'doc-1'");
+        vectorStoreService.search("second prompt", "docInfoId == 'doc-1'");
+
+        ArgumentCaptor<SearchRequest> captor = ArgumentCaptor.forClass(SearchRequest.class);
+        verify(vectorStore, times(2)).similaritySearch(captor.capture());
+        assertEquals("docInfoId", ((Filter.Key) captor.getAllValues().getFirst().getFilterExpression().left()).key());
+        assertSame(captor.getAllValues().getFirst().getFilterExpression(),
+                captor.getAllValues().getLast().getFilterExpression());
+    }
+
     @Test
     public void testSearchWithSearchRequest() {
         List<Document> expectedResult = List.of(new Document("id", "text", Map.of()));
@@ -67,6 +90,67 @@ class VectorStoreServiceTest {
         assertSame(expectedResult, result);
     }
 
+    @Test
+    public void testGetDocumentsBySearchFallback() {
+        List<Document> documents = List.of(new Document("id1", "text1", Map.of()),
+                new Document("id2", "text2", Map.of()), new Document("id3", "text3", Map.of()));
+        when(vectorStore.similaritySearch(any(SearchRequest.class))).thenReturn(documents);
+
+        assertEquals(documents.subList(1, 3), vectorStoreService.getDocuments(List.of("doc"), 1, 5));
+        assertEquals(documents, vectorStoreService.getDocuments(List.of("doc")));
+    }
+
+    @Test
+    public void testGetDocumentsByMetadataIndex() {
+        VectorStore indexedVectorStore =
+                mock(VectorStore.class, withSettings().extraInterfaces(MetadataIndexedVectorStore.class));
+        MetadataIndexedVectorStore metadataIndexedVectorStore = (MetadataIndexedVectorStore) indexedVectorStore;
+        List<Document> fullPage = IntStream.range(0, VectorStoreService.DOCUMENT_PAGE_SIZE)
+                .mapToObj(i -> new Document("id" + i, "text" + i, Map.of())).toList();
+        List<String> docInfoIds = List.of("doc");
+        when(metadataIndexedVectorStore.findByMetadata(VectorStoreService.DOC_INFO_ID, docInfoIds, 0,
+                VectorStoreService.DOCUMENT_PAGE_SIZE)).thenReturn(fullPage);
+        when(metadataIndexedVectorStore.findByMetadata(VectorStoreService.DOC_INFO_ID, docInfoIds,
+                VectorStoreService.DOCUMENT_PAGE_SIZE, VectorStoreService.DOCUMENT_PAGE_SIZE))
+                .thenReturn(List.of(new Document("last", "last", Map.of())));
+
+        List<Document> result = VectorStoreService.getDocuments(indexedVectorStore, docInfoIds);
+
+        assertEquals(VectorStoreService.DOCUMENT_PAGE_SIZE + 1, result.size());
+        assertEquals("last", result.getLast().getId());
+        verify(indexedVectorStore, never()).similaritySearch(any(SearchRequest.class));
+    }
+
+    @Test
+    public void testHybridSearch() {
+        VectorStore lexicalVectorStore =
+                mock(VectorStore.class, withSettings().extraInterfaces(LexicalSearchableVectorStore.class));
+        Document vectorOnly = Document.builder().id("vector").text("vector text").score(0.9).build();
+        Document both = Document.builder().id("both").text("both text").score(0.8).build();
+        Document lexicalOnly = Document.builder().id("lexical").text("lexical text").score(7.5).build();
+        Document lexicalBoth = both.mutate().score(3.2).build();
+        when(lexicalVectorStore.similaritySearch(any(SearchRequest.class))).thenReturn(List.of(vectorOnly, both));
+        when(((LexicalSearchableVectorStore) lexicalVectorStore).lexicalSearch(any(SearchRequest.class)))
+                .thenReturn(List.of(lexicalOnly, lexicalBoth));
+        VectorStoreService hybridVectorStoreService =
+                new VectorStoreService(null, lexicalVectorStore, null, null, null);
+        hybridVectorStoreService.setVectorStoreOption(new VectorStoreService.SearchRequestOption(0.5, 3,
+                VectorStoreService.RetrievalMode.HYBRID));
+
+        List<Document> result = hybridVectorStoreService.search("ERR_CONN_42", null);
+
+        assertEquals(List.of("both", "vector", "lexical"), result.stream().map(Document::getId).toList());
+        assertEquals(2.0 / (VectorStoreService.RRF_K + 2), result.getFirst().getScore(), 1e-9);
+        assertEquals(0.8, result.getFirst().getMetadata().get(VectorStoreService.VECTOR_SCORE));
+        assertEquals(3.2, result.getFirst().getMetadata().get(VectorStoreService.BM25_SCORE));
+        assertEquals(Map.of(VectorStoreService.VECTOR_SCORE, 0.9), result.get(1).getMetadata());
+        assertEquals(Map.of(VectorStoreService.BM25_SCORE, 7.5), result.getLast().getMetadata());
+        hybridVectorStoreService.setVectorStoreOption(hybridVectorStoreService.getSearchRequestOption()
+                .newRetrievalMode(VectorStoreService.RetrievalMode.BM25));
+        assertEquals(List.of(lexicalOnly, lexicalBoth), hybridVectorStoreService.search("ERR_CONN_42", null));
+        hybridVectorStoreService.shutdown();
+    }
+
     @Test
     public void testAddDocument() {
         Document document = new Document("id", "text", Map.of());
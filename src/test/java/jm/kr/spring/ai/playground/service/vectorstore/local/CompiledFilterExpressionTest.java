@@ -0,0 +1,90 @@
+/*
+ * Copyright © 2025 Jemin Huh (hjm1980@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jm.kr.spring.ai.playground.service.vectorstore.local;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.vectorstore.filter.FilterExpressionTextParser;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CompiledFilterExpressionTest {
+
+    private static final int SIZE = 1000;
+
+    @Test
+    void testSelect() {
+        MetadataIndex metadataIndex = buildMetadataIndex(true);
+
+        CompiledFilterExpression.Candidates candidates = select("docInfoId in ['doc-3', 'doc-7']", metadataIndex);
+        assertTrue(candidates.exact());
+        assertEquals(4, candidates.nodes().cardinality());
+        assertTrue(candidates.nodes().get(3) && candidates.nodes().get(507));
+
+        candidates = select("docInfoId == 'doc-3' && page == 1", metadataIndex);
+        assertTrue(candidates.exact());
+        assertEquals(List.of(503), candidates.nodes().stream().boxed().toList());
+
+        candidates = select("docInfoId in ['doc-3', 'doc-7'] && score > 0.5", metadataIndex);
+        assertFalse(candidates.exact());
+        assertEquals(4, candidates.nodes().cardinality());
+
+        candidates = select("docInfoId nin ['doc-3'] || page == 0", metadataIndex);
+        assertTrue(candidates.exact());
+        assertEquals(SIZE - 1, candidates.nodes().cardinality());
+
+        candidates = select("NOT(docInfoId == 'doc-3')", metadataIndex);
+        assertTrue(candidates.exact());
+        assertEquals(SIZE - 2, candidates.nodes().cardinality());
+
+        assertNull(select("docInfoId == 'doc-3' || score > 0.5", metadataIndex).nodes());
+        assertNull(select("source == 'long'", metadataIndex).nodes());
+    }
+
+    @Test
+    void testSelectWithoutKeywordIndex() {
+        MetadataIndex metadataIndex = buildMetadataIndex(false);
+        assertEquals(2, select("docInfoId == 'doc-3'", metadataIndex).nodes().cardinality());
+        assertNull(select("page == 1", metadataIndex).nodes());
+    }
+
+    private static CompiledFilterExpression.Candidates select(String filterExpression, MetadataIndex metadataIndex) {
+        CompiledFilterExpression compiledFilterExpression = new CompiledFilterExpression(
+                new FilterExpressionTextParser().parse(filterExpression),
+                new SpelExpressionParser().parseExpression("true"));
+        return compiledFilterExpression.select(metadataIndex, () -> {
+            BitSet liveNodes = new BitSet();
+            liveNodes.set(0, SIZE);
+            return liveNodes;
+        });
+    }
+
+    private static MetadataIndex buildMetadataIndex(boolean indexKeywords) {
+        MetadataIndex metadataIndex = new MetadataIndex(Set.of("docInfoId"), indexKeywords);
+        for (int node = 0; node < SIZE; node++)
+            metadataIndex.add(node, Map.of("docInfoId", "doc-" + (node % 500), "page", node / 500,
+                    "score", node / (double) SIZE, "source", node == 0 ? "x".repeat(1000) : "short"));
+        return metadataIndex;
+    }
+}
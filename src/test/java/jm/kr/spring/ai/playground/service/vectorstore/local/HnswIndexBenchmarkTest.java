@@ -0,0 +1,199 @@
+/*
+ * Copyright © 2025 Jemin Huh (hjm1980@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jm.kr.spring.ai.playground.service.vectorstore.local;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HnswIndexBenchmarkTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(HnswIndexBenchmarkTest.class);
+
+    private static final int DIMENSIONS = 96;
+    private static final int LATENT_DIMENSIONS = 16;
+    private static final int VECTOR_COUNT = 10_000;
+    private static final int QUERY_COUNT = 200;
+    private static final int TOP_K = 10;
+    private static final int[] EF_SEARCHES = {16, 32, 64, 128, 256};
+
+    record BenchmarkResult(int efSearch, double recall, double hnswMicros, double bruteForceMicros) {}
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @Tag("benchmark")
+    void testRecallVsLatency() {
+        Random random = new Random(42);
+        float[][] projection = new float[LATENT_DIMENSIONS][];
+        for (int i = 0; i < LATENT_DIMENSIONS; i++)
+            projection[i] = randomVector(random, null, 1f);
+        HnswIndex hnswIndex = new HnswIndex(16, 200, 42);
+        for (int i = 0; i < VECTOR_COUNT; i++)
+            hnswIndex.add(embeddingLikeVector(random, projection));
+        float[][] queries = new float[QUERY_COUNT][];
+        for (int i = 0; i < QUERY_COUNT; i++)
+            queries[i] = embeddingLikeVector(random, projection);
+
+        runBenchmark(hnswIndex, queries);
+        List<BenchmarkResult> benchmarkResults = runBenchmark(hnswIndex, queries);
+        logger.info("efSearch,recall@{},hnswMicros,bruteForceMicros", TOP_K);
+        benchmarkResults.forEach(result -> logger.info(String.format("%d,%.4f,%.1f,%.1f", result.efSearch(),
+                result.recall(), result.hnswMicros(), result.bruteForceMicros())));
+
+        assertTrue(benchmarkResults.getLast().recall() >= 0.95, benchmarkResults.getLast().toString());
+        for (int i = 1; i < benchmarkResults.size(); i++)
+            assertTrue(benchmarkResults.get(i).recall() >= benchmarkResults.get(i - 1).recall() - 0.01);
+    }
+
+    @Test
+    @Tag("benchmark")
+    void testQuantizedRecall() {
+        Random random = new Random(42);
+        float[][] projection = new float[LATENT_DIMENSIONS][];
+        for (int i = 0; i < LATENT_DIMENSIONS; i++)
+            projection[i] = randomVector(random, null, 1f);
+        float[][] vectors = new float[VECTOR_COUNT][];
+        for (int i = 0; i < VECTOR_COUNT; i++)
+            vectors[i] = embeddingLikeVector(random, projection);
+        float[][] queries = new float[QUERY_COUNT][];
+        for (int i = 0; i < QUERY_COUNT; i++)
+            queries[i] = embeddingLikeVector(random, projection);
+
+        HnswIndex exactIndex = buildIndex(QuantizationMode.NONE, vectors);
+        List<Set<Integer>> exactResults = Arrays.stream(queries)
+                .map(query -> exactIndex.bruteForceSearch(query, TOP_K, null).stream()
+                        .map(HnswIndex.ScoredNode::node).collect(Collectors.toSet())).toList();
+        logger.info("quantization,bytesPerVector,bruteForceRecall@{},hnswRecall@{},bruteForceMicros", TOP_K, TOP_K);
+        for (QuantizationMode quantizationMode : QuantizationMode.values()) {
+            HnswIndex hnswIndex = buildIndex(quantizationMode, vectors);
+            int bruteForceHits = 0;
+            int hnswHits = 0;
+            for (float[] query : queries)
+                hnswIndex.bruteForceSearch(query, TOP_K, null);
+            long start = System.nanoTime();
+            for (int i = 0; i < QUERY_COUNT; i++)
+                bruteForceHits += countHits(exactResults.get(i), hnswIndex.bruteForceSearch(queries[i], TOP_K, null));
+            double bruteForceMicros = (System.nanoTime() - start) / 1000.0 / QUERY_COUNT;
+            for (int i = 0; i < QUERY_COUNT; i++)
+                hnswHits += countHits(exactResults.get(i), hnswIndex.search(queries[i], TOP_K, 64, null));
+            double bruteForceRecall = (double) bruteForceHits / (QUERY_COUNT * TOP_K);
+            double hnswRecall = (double) hnswHits / (QUERY_COUNT * TOP_K);
+            int bytesPerVector = hnswIndex.getCandidateBytesPerVector();
+            logger.info(String.format("%s,%d,%.4f,%.4f,%.1f", quantizationMode, bytesPerVector, bruteForceRecall,
+                    hnswRecall, bruteForceMicros));
+
+            double minRecall = QuantizationMode.BINARY.equals(quantizationMode) ? 0.85 : 0.95;
+            assertTrue(bruteForceRecall >= minRecall, quantizationMode + ": " + bruteForceRecall);
+            assertTrue(hnswRecall >= minRecall, quantizationMode + ": " + hnswRecall);
+            assertTrue(bytesPerVector <= exactIndex.getCandidateBytesPerVector());
+            hnswIndex.close();
+        }
+        exactIndex.close();
+    }
+
+    @Test
+    void testDeleteAndPersist() throws Exception {
+        Random random = new Random(7);
+        HnswIndex hnswIndex = new HnswIndex(8, 64, 7);
+        for (int i = 0; i < 500; i++)
+            hnswIndex.add(randomVector(random, null, 1f));
+        float[] query = hnswIndex.getVector(10);
+        assertEquals(10, hnswIndex.search(query, 1, 32, null).getFirst().node());
+
+        hnswIndex.markDeleted(10);
+        assertFalse(hnswIndex.search(query, 5, 32, null).stream().anyMatch(node -> node.node() == 10));
+        assertEquals(499, hnswIndex.liveSize());
+        assertTrue(hnswIndex.search(query, 5, 32, node -> node % 2 == 0).stream()
+                .allMatch(node -> node.node() % 2 == 0));
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        hnswIndex.write(new DataOutputStream(outputStream));
+        HnswIndex loadedIndex =
+                HnswIndex.read(new DataInputStream(new ByteArrayInputStream(outputStream.toByteArray())));
+        assertEquals(hnswIndex.size(), loadedIndex.size());
+        assertEquals(hnswIndex.liveSize(), loadedIndex.liveSize());
+        assertEquals(hnswIndex.search(query, 5, 32, null), loadedIndex.search(query, 5, 32, null));
+    }
+
+    private HnswIndex buildIndex(QuantizationMode quantizationMode, float[][] vectors) {
+        HnswIndex hnswIndex =
+                new HnswIndex(16, 200, 42, this.tempDir.resolve(quantizationMode.name()), quantizationMode);
+        for (float[] vector : vectors)
+            hnswIndex.add(vector);
+        return hnswIndex;
+    }
+
+    private static int countHits(Set<Integer> exactResult, List<HnswIndex.ScoredNode> scoredNodes) {
+        return (int) scoredNodes.stream().filter(scoredNode -> exactResult.contains(scoredNode.node())).count();
+    }
+
+    static List<BenchmarkResult> runBenchmark(HnswIndex hnswIndex, float[][] queries) {
+        long bruteForceStart = System.nanoTime();
+        List<Set<Integer>> exactResults = Arrays.stream(queries)
+                .map(query -> hnswIndex.bruteForceSearch(query, TOP_K, null).stream()
+                        .map(HnswIndex.ScoredNode::node).collect(Collectors.toSet())).toList();
+        double bruteForceMicros = (System.nanoTime() - bruteForceStart) / 1000.0 / queries.length;
+        return Arrays.stream(EF_SEARCHES).mapToObj(efSearch -> {
+            int hits = 0;
+            long start = System.nanoTime();
+            for (int i = 0; i < queries.length; i++) {
+                Set<Integer> exactResult = exactResults.get(i);
+                for (HnswIndex.ScoredNode scoredNode : hnswIndex.search(queries[i], TOP_K, efSearch, null))
+                    if (exactResult.contains(scoredNode.node()))
+                        hits++;
+            }
+            double hnswMicros = (System.nanoTime() - start) / 1000.0 / queries.length;
+            return new BenchmarkResult(efSearch, (double) hits / (queries.length * TOP_K), hnswMicros,
+                    bruteForceMicros);
+        }).toList();
+    }
+
+    private static float[] embeddingLikeVector(Random random, float[][] projection) {
+        float[] vector = randomVector(random, null, 0.05f);
+        for (float[] basis : projection) {
+            float weight = (float) random.nextGaussian();
+            for (int i = 0; i < DIMENSIONS; i++)
+                vector[i] += weight * basis[i];
+        }
+        return HnswIndex.normalize(vector);
+    }
+
+    private static float[] randomVector(Random random, float[] center, float spread) {
+        float[] vector = new float[DIMENSIONS];
+        for (int i = 0; i < DIMENSIONS; i++)
+            vector[i] = (center == null ? 0 : center[i]) + (float) random.nextGaussian() * spread;
+        return HnswIndex.normalize(vector);
+    }
+}
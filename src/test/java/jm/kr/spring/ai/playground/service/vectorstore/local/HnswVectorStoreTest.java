@@ -0,0 +1,283 @@
+/*
+ * Copyright © 2025 Jemin Huh (hjm1980@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jm.kr.spring.ai.playground.service.vectorstore.local;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.vectorstore.SearchRequest;
+import org.springframework.ai.vectorstore.SimpleVectorStore;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static jm.kr.spring.ai.playground.service.vectorstore.local.LocalVectorStoreFixture.EMBEDDING_MODEL;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HnswVectorStoreTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testAddSearchDelete() {
+        HnswVectorStore hnswVectorStore = HnswVectorStore.builder(EMBEDDING_MODEL).m(8).efConstruction(64).build();
+        hnswVectorStore.add(buildDocuments());
+
+        List<Document> results = hnswVectorStore.similaritySearch(
+                SearchRequest.builder().query("document number 42 about apples").topK(3).build());
+        assertEquals("doc-42", results.getFirst().getId());
+        assertTrue(results.getFirst().getScore() > 0.99);
+
+        List<Document> filteredResults = hnswVectorStore.similaritySearch(
+                SearchRequest.builder().query("document number 42 about apples").topK(5)
+                        .filterExpression("docInfoId == 'odd'").build());
+        assertEquals(5, filteredResults.size());
+        assertTrue(filteredResults.stream().allMatch(document -> "odd".equals(document.getMetadata().get("docInfoId"))));
+
+        hnswVectorStore.delete(List.of("doc-42"));
+        assertEquals(199, hnswVectorStore.size());
+        assertTrue(hnswVectorStore.similaritySearch(
+                        SearchRequest.builder().query("document number 42 about apples").topK(10).build()).stream()
+                .noneMatch(document -> "doc-42".equals(document.getId())));
+    }
+
+    @Test
+    void testSaveAndLoad() {
+        HnswVectorStore hnswVectorStore = HnswVectorStore.builder(EMBEDDING_MODEL).build();
+        hnswVectorStore.add(buildDocuments());
+        hnswVectorStore.delete(List.of("doc-7"));
+        File file = this.tempDir.resolve("hnswVectorStore.bin").toFile();
+        hnswVectorStore.save(file);
+
+        HnswVectorStore loadedVectorStore = HnswVectorStore.builder(EMBEDDING_MODEL).build();
+        loadedVectorStore.load(file);
+        assertEquals(hnswVectorStore.size(), loadedVectorStore.size());
+        SearchRequest searchRequest = SearchRequest.builder().query("document number 9 about pears").topK(4).build();
+        assertEquals(hnswVectorStore.similaritySearch(searchRequest).stream().map(Document::getId).toList(),
+                loadedVectorStore.similaritySearch(searchRequest).stream().map(Document::getId).toList());
+    }
+
+    @Test
+    void testLexicalSearch() {
+        HnswVectorStore hnswVectorStore = HnswVectorStore.builder(EMBEDDING_MODEL).build();
+        hnswVectorStore.add(buildDocuments());
+        hnswVectorStore.add(List.of(new Document("error-doc", "Connection failed with ERR_CONN_42 after retries",
+                Map.of("docInfoId", "odd"))));
+
+        List<Document> results = hnswVectorStore.lexicalSearch(
+                SearchRequest.builder().query("err_conn_42").topK(3).build());
+        assertEquals(List.of("error-doc", "doc-42"), results.stream().map(Document::getId).toList());
+        assertTrue(results.getFirst().getScore() > results.getLast().getScore());
+        assertEquals("doc-42", hnswVectorStore.lexicalSearch(
+                SearchRequest.builder().query("number 42").topK(3).build()).getFirst().getId());
+        assertEquals("error-doc", hnswVectorStore.lexicalSearch(
+                SearchRequest.builder().query("conn").topK(3).build()).getFirst().getId());
+        assertEquals(List.of("doc-42"), hnswVectorStore.lexicalSearch(SearchRequest.builder().query("ERR_CONN_42")
+                .topK(3).filterExpression("docInfoId == 'even'").build()).stream().map(Document::getId).toList());
+
+        File file = this.tempDir.resolve("hnswVectorStore.bin").toFile();
+        hnswVectorStore.save(file);
+        HnswVectorStore loadedVectorStore = HnswVectorStore.builder(EMBEDDING_MODEL).build();
+        loadedVectorStore.load(file);
+        assertEquals("error-doc", loadedVectorStore.lexicalSearch(
+                SearchRequest.builder().query("ERR_CONN_42").topK(3).build()).getFirst().getId());
+
+        hnswVectorStore.delete(List.of("error-doc"));
+        assertTrue(hnswVectorStore.lexicalSearch(SearchRequest.builder().query("err_conn_42 retries").topK(3)
+                .build()).stream().noneMatch(document -> "error-doc".equals(document.getId())));
+    }
+
+    @Test
+    void testFindByMetadata() {
+        HnswVectorStore indexedVectorStore =
+                HnswVectorStore.builder(EMBEDDING_MODEL).indexedMetadataKeys(Set.of("docInfoId")).build();
+        HnswVectorStore scanningVectorStore =
+                HnswVectorStore.builder(EMBEDDING_MODEL).keywordMetadataIndex(false).build();
+        indexedVectorStore.add(buildDocuments());
+        scanningVectorStore.add(buildDocuments());
+        indexedVectorStore.delete(List.of("doc-1"));
+        scanningVectorStore.delete(List.of("doc-1"));
+
+        for (HnswVectorStore hnswVectorStore : List.of(indexedVectorStore, scanningVectorStore)) {
+            assertEquals(99, hnswVectorStore.countByMetadata("docInfoId", List.of("odd")));
+            assertEquals(199, hnswVectorStore.countByMetadata("docInfoId", List.of("odd", "even")));
+            List<Document> firstPage = hnswVectorStore.findByMetadata("docInfoId", List.of("odd"), 0, 50);
+            assertEquals(50, firstPage.size());
+            assertEquals("doc-3", firstPage.getFirst().getId());
+            assertEquals("document number 3 about pears", firstPage.getFirst().getText());
+            assertEquals(49, hnswVectorStore.findByMetadata("docInfoId", List.of("odd"), 50, 50).size());
+            assertEquals("doc-199",
+                    hnswVectorStore.findByMetadata("docInfoId", List.of("odd"), 98, 50).getFirst().getId());
+            assertTrue(hnswVectorStore.findByMetadata("docInfoId", List.of("none"), 0, 50).isEmpty());
+        }
+    }
+
+    @Test
+    void testFindPage() {
+        HnswVectorStore hnswVectorStore = HnswVectorStore.builder(EMBEDDING_MODEL).build();
+        hnswVectorStore.add(buildDocuments());
+        hnswVectorStore.delete(List.of("doc-1"));
+
+        assertEquals(199, hnswVectorStore.count(null, null));
+        assertEquals(99, hnswVectorStore.count("docInfoId", List.of("odd")));
+        assertEquals(List.of("doc-0", "doc-2", "doc-3"),
+                hnswVectorStore.findPage(null, null, 0, 3, List.of()).stream().map(Document::getId).toList());
+        assertEquals(List.of("doc-98", "doc-97"), hnswVectorStore.findPage(null, null, 1, 2,
+                List.of(new PageableVectorStore.SortOrder(PageableVectorStore.ID, true))).stream()
+                .map(Document::getId).toList());
+        List<Document> oddPage = hnswVectorStore.findPage("docInfoId", List.of("odd"), 1, 2,
+                List.of(new PageableVectorStore.SortOrder(PageableVectorStore.TEXT, true)));
+        assertEquals(List.of("doc-97", "doc-95"), oddPage.stream().map(Document::getId).toList());
+        assertEquals("document number 97 about pears", oddPage.getFirst().getText());
+        assertTrue(hnswVectorStore.findPage(null, null, 199, 10, List.of()).isEmpty());
+
+        hnswVectorStore.delete(List.of("doc-97"));
+        assertEquals(List.of("doc-95", "doc-93"), hnswVectorStore.findPage("docInfoId", List.of("odd"), 1, 2,
+                List.of(new PageableVectorStore.SortOrder(PageableVectorStore.TEXT, true))).stream()
+                .map(Document::getId).toList());
+    }
+
+    @Test
+    void testPrefilteredSearch() {
+        List<Document> documents = IntStream.range(0, 2000).mapToObj(i -> new Document("chunk-" + i,
+                "chunk number " + i + " about " + (i % 3 == 0 ? "apples" : "pears"),
+                Map.of("docInfoId", "doc-" + (i % 500), "chunkIndex", i / 500))).toList();
+        HnswVectorStore indexedVectorStore = HnswVectorStore.builder(EMBEDDING_MODEL).build();
+        HnswVectorStore scanningVectorStore =
+                HnswVectorStore.builder(EMBEDDING_MODEL).keywordMetadataIndex(false).build();
+        indexedVectorStore.add(documents);
+        scanningVectorStore.add(documents);
+
+        String query = "chunk number 42 about pears";
+        Map<String, Predicate<Map<String, Object>>> filterExpressions = Map.of(
+                "docInfoId in ['doc-7', 'doc-42']",
+                metadata -> List.of("doc-7", "doc-42").contains(metadata.get("docInfoId")),
+                "docInfoId in ['doc-7', 'doc-42'] && chunkIndex >= 2",
+                metadata -> List.of("doc-7", "doc-42").contains(metadata.get("docInfoId")) &&
+                        (Integer) metadata.get("chunkIndex") >= 2,
+                "docInfoId == 'doc-7' || chunkIndex == 3",
+                metadata -> "doc-7".equals(metadata.get("docInfoId")) || metadata.get("chunkIndex").equals(3),
+                "docInfoId nin ['doc-7', 'doc-42'] && chunkIndex == 1",
+                metadata -> !List.of("doc-7", "doc-42").contains(metadata.get("docInfoId")) &&
+                        metadata.get("chunkIndex").equals(1));
+        filterExpressions.forEach((filterExpression, predicate) -> {
+            SearchRequest searchRequest =
+                    SearchRequest.builder().query(query).topK(5).filterExpression(filterExpression).build();
+            Set<String> expectedIds = documents.stream().filter(document -> predicate.test(document.getMetadata()))
+                    .sorted(Comparator.comparingDouble(document -> -cosine(query, document.getText())))
+                    .limit(5).map(Document::getId).collect(Collectors.toSet());
+            assertEquals(expectedIds, indexedVectorStore.similaritySearch(searchRequest).stream()
+                    .map(Document::getId).collect(Collectors.toSet()), filterExpression);
+            assertTrue(scanningVectorStore.similaritySearch(searchRequest).stream()
+                    .allMatch(document -> predicate.test(document.getMetadata())), filterExpression);
+        });
+
+        indexedVectorStore.delete("docInfoId == 'doc-42'");
+        assertEquals(1996, indexedVectorStore.size());
+        assertTrue(indexedVectorStore.similaritySearch(SearchRequest.builder().query(query).topK(5)
+                .filterExpression("docInfoId == 'doc-42'").build()).isEmpty());
+    }
+
+    private static double cosine(String query, String text) {
+        float[] a = EMBEDDING_MODEL.embed(query);
+        float[] b = EMBEDDING_MODEL.embed(text);
+        double dot = 0, normA = 0, normB = 0;
+        for (int i = 0; i < a.length; i++) {
+            dot += a[i] * b[i];
+            normA += a[i] * a[i];
+            normB += b[i] * b[i];
+        }
+        return dot / Math.sqrt(normA * normB);
+    }
+
+    @Test
+    void testQuantizedSearch() {
+        for (QuantizationMode quantizationMode : List.of(QuantizationMode.INT8, QuantizationMode.BINARY)) {
+            HnswVectorStore hnswVectorStore =
+                    HnswVectorStore.builder(EMBEDDING_MODEL).quantization(quantizationMode)
+                            .storageDirectory(this.tempDir.resolve(quantizationMode.name())).build();
+            hnswVectorStore.add(buildDocuments());
+            assertEquals(quantizationMode, hnswVectorStore.getQuantizationMode());
+            assertTrue(hnswVectorStore.isFileBacked());
+            assertTrue(hnswVectorStore.getQuantizedStorageBytes() > 0);
+
+            Document document = hnswVectorStore.similaritySearch(
+                    SearchRequest.builder().query("document number 42 about apples").topK(3).build()).getFirst();
+            assertEquals("doc-42", document.getId());
+            assertTrue(document.getScore() > 0.99);
+        }
+    }
+
+    @Test
+    void testQuantizationRequiresStorageDirectory() {
+        assertThrows(IllegalArgumentException.class,
+                () -> HnswVectorStore.builder(EMBEDDING_MODEL).quantization(QuantizationMode.INT8).build());
+    }
+
+    @Test
+    void testFileBackedStorage() throws IOException {
+        Path storageDirectory = Files.createDirectories(this.tempDir.resolve("mmap"));
+        Files.createFile(storageDirectory.resolve("vectors-1.pages"));
+        Files.createFile(storageDirectory.resolve("texts-2.pages"));
+        Files.createFile(storageDirectory.resolve("other.bin"));
+        HnswVectorStore hnswVectorStore =
+                HnswVectorStore.builder(EMBEDDING_MODEL).storageDirectory(storageDirectory).build();
+        hnswVectorStore.add(buildDocuments());
+        assertTrue(hnswVectorStore.isFileBacked());
+        assertTrue(hnswVectorStore.getVectorStorageBytes() >= 200L * 128 * Float.BYTES);
+
+        Document document = hnswVectorStore.similaritySearch(
+                SearchRequest.builder().query("document number 42 about apples").topK(1).build()).getFirst();
+        assertEquals("doc-42", document.getId());
+        assertEquals("document number 42 about apples", document.getText());
+        assertEquals("even", document.getMetadata().get("docInfoId"));
+
+        hnswVectorStore.close();
+        assertArrayEquals(new String[]{"other.bin"}, storageDirectory.toFile().list());
+    }
+
+    @Test
+    void testLoadSimpleVectorStore() {
+        SimpleVectorStore simpleVectorStore = SimpleVectorStore.builder(EMBEDDING_MODEL).build();
+        simpleVectorStore.add(buildDocuments().subList(0, 20));
+        File file = this.tempDir.resolve("simpleVectorStore.json").toFile();
+        simpleVectorStore.save(file);
+
+        HnswVectorStore hnswVectorStore = HnswVectorStore.builder(EMBEDDING_MODEL).build();
+        hnswVectorStore.loadSimpleVectorStore(file);
+        assertEquals(20, hnswVectorStore.size());
+        SearchRequest searchRequest = SearchRequest.builder().query("document number 3 about pears").topK(1).build();
+        assertEquals(simpleVectorStore.similaritySearch(searchRequest).getFirst().getId(),
+                hnswVectorStore.similaritySearch(searchRequest).getFirst().getId());
+    }
+
+    private static List<Document> buildDocuments() {
+        return LocalVectorStoreFixture.buildDocuments(200, i -> i % 2 == 0 ? "even" : "odd");
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright © 2025 Jemin Huh (hjm1980@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jm.kr.spring.ai.playground.service.vectorstore.local;
+
+import org.springframework.ai.document.Document;
+import org.springframework.ai.embedding.Embedding;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.embedding.EmbeddingRequest;
+import org.springframework.ai.embedding.EmbeddingResponse;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntFunction;
+import java.util.stream.IntStream;
+
+final class LocalVectorStoreFixture {
+
+    static final EmbeddingModel EMBEDDING_MODEL = new TrigramEmbeddingModel();
+
+    private LocalVectorStoreFixture() {
+    }
+
+    static List<Document> buildDocuments(int count, IntFunction<String> docInfoIdFunction) {
+        return IntStream.range(0, count).mapToObj(i -> new Document("doc-" + i,
+                "document number " + i + " about " + (i % 2 == 0 ? "apples" : "pears"),
+                Map.of("docInfoId", docInfoIdFunction.apply(i)))).toList();
+    }
+
+    private static class TrigramEmbeddingModel implements EmbeddingModel {
+        private static final int DIMENSIONS = 128;
+
+        @Override
+        public EmbeddingResponse call(EmbeddingRequest request) {
+            List<Embedding> embeddings = new ArrayList<>();
+            for (int i = 0; i < request.getInstructions().size(); i++)
+                embeddings.add(new Embedding(embed(request.getInstructions().get(i)), i));
+            return new EmbeddingResponse(embeddings);
+        }
+
+        @Override
+        public float[] embed(String text) {
+            float[] vector = new float[DIMENSIONS];
+            for (int i = 0; i + 3 <= text.length(); i++)
+                vector[Math.floorMod(text.substring(i, i + 3).hashCode(), DIMENSIONS)] += 1;
+            return vector;
+        }
+
+        @Override
+        public float[] embed(Document document) {
+            return embed(document.getText());
+        }
+    }
+}
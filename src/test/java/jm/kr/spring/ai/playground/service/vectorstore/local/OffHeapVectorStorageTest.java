@@ -0,0 +1,77 @@
+/*
+ * Copyright © 2025 Jemin Huh (hjm1980@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jm.kr.spring.ai.playground.service.vectorstore.local;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OffHeapVectorStorageTest {
+
+    private static final int DIMENSIONS = 4096;
+    private static final int VECTOR_COUNT = 2500;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testDirectStorage() {
+        try (OffHeapVectorStorage vectorStorage = new OffHeapVectorStorage(DIMENSIONS)) {
+            assertFalse(vectorStorage.isFileBacked());
+            assertStorage(vectorStorage);
+        }
+    }
+
+    @Test
+    void testFileBackedStorage() {
+        try (OffHeapVectorStorage vectorStorage = new OffHeapVectorStorage(DIMENSIONS, this.tempDir)) {
+            assertTrue(vectorStorage.isFileBacked());
+            assertStorage(vectorStorage);
+        }
+        assertEquals(0, this.tempDir.toFile().list().length);
+    }
+
+    private static void assertStorage(OffHeapVectorStorage vectorStorage) {
+        Random random = new Random(42);
+        float[][] vectors = new float[VECTOR_COUNT][];
+        for (int i = 0; i < VECTOR_COUNT; i++) {
+            vectors[i] = new float[DIMENSIONS];
+            for (int j = 0; j < DIMENSIONS; j++)
+                vectors[i][j] = (float) random.nextGaussian();
+            assertEquals(i, vectorStorage.add(vectors[i]));
+        }
+        assertEquals(VECTOR_COUNT, vectorStorage.size());
+        assertTrue(vectorStorage.capacityBytes() >= (long) VECTOR_COUNT * DIMENSIONS * Float.BYTES);
+
+        SimilarityKernel scalar = SimilarityKernels.scalar();
+        for (int i : new int[]{0, 1023, 1024, 2047, 2048, VECTOR_COUNT - 1}) {
+            assertArrayEquals(vectors[i], vectorStorage.get(i));
+            assertEquals(scalar.dot(vectors[0], vectors[i]),
+                    vectorStorage.dot(SimilarityKernels.get(), vectors[0], i), 1e-2f);
+            assertEquals(scalar.dot(vectors[0], vectors[i]), vectorStorage.dot(scalar, vectors[0], i), 1e-2f);
+        }
+        assertThrows(IndexOutOfBoundsException.class, () -> vectorStorage.get(VECTOR_COUNT));
+        assertThrows(IllegalArgumentException.class, () -> vectorStorage.add(new float[DIMENSIONS - 1]));
+    }
+}
@@ -0,0 +1,217 @@
+/*
+ * Copyright © 2025 Jemin Huh (hjm1980@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jm.kr.spring.ai.playground.service.vectorstore.local;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.vectorstore.SearchRequest;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import static jm.kr.spring.ai.playground.service.vectorstore.local.LocalVectorStoreFixture.EMBEDDING_MODEL;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class ShardedVectorStoreTest {
+
+    private static final int SHARD_COUNT = 4;
+    private static final int EF_SEARCH = 400;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testSearchMatchesSingleStore() {
+        HnswVectorStore hnswVectorStore = HnswVectorStore.builder(EMBEDDING_MODEL).efSearch(EF_SEARCH).build();
+        hnswVectorStore.add(buildDocuments());
+        try (ShardedVectorStore shardedVectorStore = buildShardedVectorStore(new ArrayList<>())) {
+            shardedVectorStore.add(buildDocuments());
+            assertEquals(300, shardedVectorStore.size());
+
+            for (String query : List.of("document number 42 about apples", "pears 17", "number 250 about plums")) {
+                SearchRequest searchRequest = SearchRequest.builder().query(query).topK(5).build();
+                List<Document> expected = hnswVectorStore.similaritySearch(searchRequest);
+                List<Document> actual = shardedVectorStore.similaritySearch(searchRequest);
+                assertEquals(expected.getFirst().getId(), actual.getFirst().getId());
+                assertEquals(expected.stream().map(Document::getScore).toList(),
+                        actual.stream().map(Document::getScore).toList());
+            }
+            assertEquals(List.of("doc-42"), shardedVectorStore.lexicalSearch(
+                    SearchRequest.builder().query("42").topK(1).build()).stream().map(Document::getId).toList());
+        }
+    }
+
+    @Test
+    void testRestrictedSearchRoutesToOwningShards() {
+        List<HnswVectorStore> shards = new ArrayList<>();
+        try (ShardedVectorStore shardedVectorStore = buildShardedVectorStore(shards)) {
+            shardedVectorStore.add(buildDocuments());
+            clearInvocations(shards.toArray());
+
+            List<Document> results = shardedVectorStore.similaritySearch(
+                    SearchRequest.builder().query("document number 42 about apples").topK(5)
+                            .filterExpression("docInfoId == 'doc-2'").build());
+            assertEquals(5, results.size());
+            assertTrue(results.stream().allMatch(document -> "doc-2".equals(document.getMetadata().get("docInfoId"))));
+            assertEquals(1, shards.stream().filter(ShardedVectorStoreTest::wasSearched).count());
+
+            clearInvocations(shards.toArray());
+            shardedVectorStore.similaritySearch(SearchRequest.builder().query("apples").topK(5)
+                    .filterExpression("docInfoId in ['doc-0', 'doc-1'] && docInfoId == 'doc-1'").build());
+            assertEquals(1, shards.stream().filter(ShardedVectorStoreTest::wasSearched).count());
+
+            clearInvocations(shards.toArray());
+            shardedVectorStore.similaritySearch(SearchRequest.builder().query("apples").topK(5)
+                    .filterExpression("docInfoId != 'doc-1'").build());
+            assertEquals(SHARD_COUNT, shards.stream().filter(ShardedVectorStoreTest::wasSearched).count());
+        }
+    }
+
+    @Test
+    void testDeleteAndMove() {
+        List<HnswVectorStore> shards = new ArrayList<>();
+        try (ShardedVectorStore shardedVectorStore = buildShardedVectorStore(shards)) {
+            shardedVectorStore.add(buildDocuments());
+            clearInvocations(shards.toArray());
+
+            shardedVectorStore.delete(List.of("doc-7", "unknown"));
+            assertEquals(1, shards.stream().filter(shard -> {
+                try {
+                    verify(shard, times(1)).doDelete(List.of("doc-7"));
+                    return true;
+                } catch (AssertionError e) {
+                    return false;
+                }
+            }).count());
+            assertEquals(299, shardedVectorStore.size());
+
+            shardedVectorStore.add(List.of(new Document("doc-8", "document number 8 moved",
+                    Map.of("docInfoId", "doc-moved"))));
+            assertEquals(299, shardedVectorStore.size());
+            assertEquals(List.of("doc-8"), shardedVectorStore.findByMetadata("docInfoId", List.of("doc-moved"), 0,
+                    10).stream().map(Document::getId).toList());
+
+            shardedVectorStore.delete("docInfoId == 'doc-0'");
+            assertEquals(0, shardedVectorStore.countByMetadata("docInfoId", List.of("doc-0")));
+            assertEquals(249, shardedVectorStore.size());
+            shardedVectorStore.delete(List.of("doc-10"));
+            assertEquals(248, shardedVectorStore.size());
+        }
+    }
+
+    @Test
+    void testFindPage() {
+        try (ShardedVectorStore shardedVectorStore = buildShardedVectorStore(new ArrayList<>())) {
+            shardedVectorStore.add(buildDocuments());
+
+            assertEquals(300, shardedVectorStore.count(null, null));
+            assertEquals(100, shardedVectorStore.count("docInfoId", List.of("doc-1", "doc-3")));
+            List<String> allIds = IntStream.range(0, 30).mapToObj(page -> shardedVectorStore.findPage(null, null,
+                    page * 10, 10, List.of())).flatMap(List::stream).map(Document::getId).distinct().toList();
+            assertEquals(300, allIds.size());
+            assertEquals(List.of("doc-93", "doc-91", "doc-9"), shardedVectorStore.findPage("docInfoId",
+                    List.of("doc-1", "doc-3"), 2, 3,
+                    List.of(new PageableVectorStore.SortOrder(PageableVectorStore.ID, true))).stream()
+                    .map(Document::getId).toList());
+        }
+    }
+
+    @Test
+    void testSaveAndLoad() {
+        try (ShardedVectorStore shardedVectorStore = buildShardedVectorStore(new ArrayList<>())) {
+            shardedVectorStore.add(buildDocuments());
+            shardedVectorStore.save(this.tempDir.toFile());
+        }
+        try (ShardedVectorStore loadedVectorStore = buildShardedVectorStore(new ArrayList<>())) {
+            loadedVectorStore.load(this.tempDir.toFile());
+            assertEquals(300, loadedVectorStore.size());
+            assertEquals("doc-42", loadedVectorStore.similaritySearch(SearchRequest.builder()
+                    .query("document number 42 about apples").topK(1).build()).getFirst().getId());
+            loadedVectorStore.delete(List.of("doc-42"));
+            assertEquals(299, loadedVectorStore.size());
+        }
+        try (ShardedVectorStore resizedVectorStore = ShardedVectorStore.builder(EMBEDDING_MODEL).shardCount(2)
+                .build()) {
+            resizedVectorStore.load(this.tempDir.toFile());
+            assertEquals(300, resizedVectorStore.size());
+            assertEquals("doc-42", resizedVectorStore.similaritySearch(SearchRequest.builder()
+                    .query("document number 42 about apples").topK(1).build()).getFirst().getId());
+            resizedVectorStore.delete(List.of("doc-43"));
+            resizedVectorStore.save(this.tempDir.toFile());
+            assertEquals(2, this.tempDir.toFile().list().length);
+        }
+        try (ShardedVectorStore resizedVectorStore = ShardedVectorStore.builder(EMBEDDING_MODEL).shardCount(2)
+                .build()) {
+            resizedVectorStore.load(this.tempDir.toFile());
+            assertEquals(299, resizedVectorStore.size());
+        }
+    }
+
+    @Test
+    void testLoadHnswVectorStore() {
+        HnswVectorStore hnswVectorStore = HnswVectorStore.builder(EMBEDDING_MODEL).build();
+        hnswVectorStore.add(buildDocuments());
+        File hnswVectorStoreFile = this.tempDir.resolve("hnswVectorStore.bin").toFile();
+        hnswVectorStore.save(hnswVectorStoreFile);
+        EmbeddingModel embeddingModel = spy(EMBEDDING_MODEL);
+        try (ShardedVectorStore shardedVectorStore = ShardedVectorStore.builder(embeddingModel)
+                .shardCount(SHARD_COUNT).build()) {
+            shardedVectorStore.loadHnswVectorStore(hnswVectorStoreFile);
+            verify(embeddingModel, never()).embed(any(Document.class));
+            verify(embeddingModel, never()).call(any());
+            assertEquals(300, shardedVectorStore.size());
+            assertEquals(50, shardedVectorStore.count("docInfoId", List.of("doc-0")));
+            assertEquals("doc-42", shardedVectorStore.similaritySearch(SearchRequest.builder()
+                    .query("document number 42 about apples").topK(1).build()).getFirst().getId());
+        }
+    }
+
+    private static boolean wasSearched(HnswVectorStore shard) {
+        try {
+            verify(shard, never()).searchEmbedded(any(), any());
+            return false;
+        } catch (AssertionError e) {
+            return true;
+        }
+    }
+
+    private static ShardedVectorStore buildShardedVectorStore(List<HnswVectorStore> shards) {
+        return ShardedVectorStore.builder(EMBEDDING_MODEL).shardCount(SHARD_COUNT).shardFactory(shard -> {
+            HnswVectorStore hnswVectorStore = spy(HnswVectorStore.builder(EMBEDDING_MODEL).m(8).efConstruction(64)
+                    .efSearch(EF_SEARCH).indexedMetadataKeys(Set.of("docInfoId")).build());
+            shards.add(hnswVectorStore);
+            return hnswVectorStore;
+        }).build();
+    }
+
+    private static List<Document> buildDocuments() {
+        return LocalVectorStoreFixture.buildDocuments(300, i -> "doc-" + i % 6);
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright © 2025 Jemin Huh (hjm1980@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jm.kr.spring.ai.playground.service.vectorstore.local;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SimilarityKernelBenchmarkTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(SimilarityKernelBenchmarkTest.class);
+
+    private static final int[] DIMENSIONS = {384, 768, 1024, 4096};
+    private static final int VECTOR_COUNT = 2_000;
+    private static final int ITERATIONS = 5;
+
+    record BenchmarkResult(String kernel, String operation, int dimensions, double nanosPerOperation) {}
+
+    @Test
+    void testKernelsAgreeWithScalar() {
+        SimilarityKernel scalar = SimilarityKernels.scalar();
+        SimilarityKernel similarityKernel = SimilarityKernels.get();
+        Random random = new Random(42);
+        for (int dimensions : new int[]{1, 3, 7, 16, 17, 33, 384, 1023, 4096}) {
+            float[] a = randomVector(random, dimensions);
+            float[] b = randomVector(random, dimensions);
+            float tolerance = 1e-4f * dimensions;
+            assertEquals(scalar.dot(a, b), similarityKernel.dot(a, b), tolerance);
+            assertEquals(scalar.cosine(a, b), similarityKernel.cosine(a, b), 1e-4f);
+            assertEquals(scalar.l2Squared(a, b), similarityKernel.l2Squared(a, b), tolerance);
+            assertEquals(1f, similarityKernel.cosine(a, a), 1e-4f);
+            assertEquals(0f, similarityKernel.l2(a, a), 1e-6f);
+            FloatBuffer page = ByteBuffer.allocateDirect((dimensions + 3) * Float.BYTES)
+                    .order(ByteOrder.nativeOrder()).asFloatBuffer();
+            page.put(3, b);
+            assertEquals(scalar.dot(a, b), similarityKernel.dot(a, page, 3), tolerance);
+        }
+        for (int dimensions : new int[]{1, 7, 16, 33, 1024, 4097}) {
+            byte[] a = new byte[dimensions];
+            byte[] b = new byte[dimensions];
+            random.nextBytes(a);
+            random.nextBytes(b);
+            assertEquals(scalar.int8Dot(a, b), similarityKernel.int8Dot(a, b));
+            ByteBuffer page = ByteBuffer.allocateDirect(dimensions + 5).order(ByteOrder.nativeOrder());
+            page.put(5, b);
+            assertEquals(scalar.int8Dot(a, b), similarityKernel.int8Dot(a, page, 5));
+        }
+        assertEquals(0f, similarityKernel.cosine(new float[8], new float[8]));
+        assertThrows(IllegalArgumentException.class, () -> similarityKernel.dot(new float[4], new float[5]));
+    }
+
+    @Test
+    @Tag("benchmark")
+    void testThroughput() {
+        List<SimilarityKernel> similarityKernels = List.of(SimilarityKernels.scalar(), SimilarityKernels.get());
+        List<BenchmarkResult> benchmarkResults = new ArrayList<>();
+        for (int dimensions : DIMENSIONS) {
+            Random random = new Random(dimensions);
+            float[] query = randomVector(random, dimensions);
+            float[][] vectors = new float[VECTOR_COUNT][];
+            for (int i = 0; i < VECTOR_COUNT; i++)
+                vectors[i] = randomVector(random, dimensions);
+            for (SimilarityKernel similarityKernel : similarityKernels) {
+                benchmarkResults.add(measure(similarityKernel, "dot", dimensions, query, vectors));
+                benchmarkResults.add(measure(similarityKernel, "cosine", dimensions, query, vectors));
+                benchmarkResults.add(measure(similarityKernel, "l2", dimensions, query, vectors));
+            }
+        }
+        logger.info("kernel,operation,dimensions,nanosPerOperation");
+        benchmarkResults.forEach(result -> logger.info(String.format("%s,%s,%d,%.1f", result.kernel(),
+                result.operation(), result.dimensions(), result.nanosPerOperation())));
+
+        assertEquals(DIMENSIONS.length * similarityKernels.size() * 3, benchmarkResults.size());
+        assertTrue(benchmarkResults.stream().allMatch(result -> result.nanosPerOperation() > 0));
+    }
+
+    private static BenchmarkResult measure(SimilarityKernel similarityKernel, String operation, int dimensions,
+            float[] query, float[][] vectors) {
+        float blackhole = 0;
+        for (int i = 0; i < ITERATIONS; i++)
+            blackhole += run(similarityKernel, operation, query, vectors);
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++)
+            blackhole += run(similarityKernel, operation, query, vectors);
+        long elapsed = System.nanoTime() - start;
+        assertTrue(Float.isFinite(blackhole));
+        return new BenchmarkResult(similarityKernel.getName(), operation, dimensions,
+                (double) elapsed / ITERATIONS / vectors.length);
+    }
+
+    private static float run(SimilarityKernel similarityKernel, String operation, float[] query,
+            float[][] vectors) {
+        float sum = 0;
+        for (float[] vector : vectors)
+            sum += switch (operation) {
+                case "dot" -> similarityKernel.dot(query, vector);
+                case "cosine" -> similarityKernel.cosine(query, vector);
+                default -> similarityKernel.l2Squared(query, vector);
+            };
+        return sum;
+    }
+
+    private static float[] randomVector(Random random, int dimensions) {
+        float[] vector = new float[dimensions];
+        for (int i = 0; i < dimensions; i++)
+            vector[i] = (float) random.nextGaussian();
+        return HnswIndex.normalize(vector);
+    }
+}